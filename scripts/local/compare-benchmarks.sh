@@ -0,0 +1,52 @@
+#!/bin/bash
+
+# Compare two JMH JSON reports (target/jmh-result.json from ./mvnw -Pbenchmarks verify)
+# Usage: ./scripts/local/compare-benchmarks.sh baseline.json candidate.json [threshold-percent]
+# Exits with status 1 when any benchmark's score regresses by more than the threshold (default 10%).
+
+set -euo pipefail
+export LC_ALL=C
+
+if [ $# -lt 2 ]; then
+    echo "Usage: $0 baseline.json candidate.json [threshold-percent]"
+    exit 2
+fi
+
+BASELINE="$1"
+CANDIDATE="$2"
+THRESHOLD="${3:-10}"
+
+# One line per benchmark and parameter combination: key, score, unit, allocated bytes per operation
+flatten() {
+    jq -r '.[] | [
+        (.benchmark | split(".") | .[-2:] | join(".")) +
+            (if .params then " " + (.params | to_entries | map("\(.key)=\(.value)") | join(",")) else "" end),
+        .primaryMetric.score,
+        .primaryMetric.scoreUnit,
+        (.secondaryMetrics["gc.alloc.rate.norm"].score // "")
+    ] | @tsv' "$1" | sort
+}
+
+join -t $'\t' -a 2 -e "-" -o '0,1.2,2.2,2.3,1.4,2.4' <(flatten "$BASELINE") <(flatten "$CANDIDATE") \
+    | awk -F '\t' -v threshold="$THRESHOLD" '
+        BEGIN {
+            printf "%-70s %14s %14s %9s %-8s %14s\n", "Benchmark", "Baseline", "Candidate", "Change", "Unit", "Alloc B/op"
+            regressions = 0
+        }
+        {
+            change = "new"
+            if ($2 != "-" && $2 > 0) {
+                delta = ($3 - $2) / $2 * 100
+                change = sprintf("%+.1f%%", delta)
+                # Scores are times per operation, so higher is worse
+                if (delta > threshold) { change = change " !"; regressions++ }
+            }
+            baseline = ($2 == "-" ? "-" : sprintf("%.3f", $2))
+            printf "%-70s %14s %14.3f %9s %-8s %14s\n", $1, baseline, $3, change, $4, $6
+        }
+        END {
+            if (regressions > 0) {
+                printf "\n%d benchmark(s) regressed by more than %s%%\n", regressions, threshold
+                exit 1
+            }
+        }'
@@ -0,0 +1,91 @@
+#!/bin/bash
+
+# Compare startup time and memory of the JVM, fast-startup (AOT + AppCDS) and native builds
+# Usage: ./scripts/local/compare-startup.sh [runs]
+# Build the variants first (the missing ones are skipped):
+#   ./mvnw package -DskipTests                          -> target/agentic-workflow-engine-0.0.1-SNAPSHOT.jar
+#   ./mvnw -Pfast-startup package -DskipTests           -> target/cds/
+#   ./mvnw -Pnative native:compile -DskipTests          -> target/agentic-workflow-engine
+# Needs PostgreSQL (docker compose up -d postgres) and a free port 8080. OPENAI_API_KEY may be
+# a dummy value; nothing calls the model.
+# Ready means /actuator/health answers 200. RSS is read from /proc once ready and again
+# after a warm-up of a few health and metrics requests.
+
+set -euo pipefail
+export LC_ALL=C
+
+RUNS="${1:-3}"
+JAR="target/agentic-workflow-engine-0.0.1-SNAPSHOT.jar"
+CDS_JAR="target/cds/agentic-workflow-engine-0.0.1-SNAPSHOT.jar"
+CDS_ARCHIVE="target/cds/application.jsa"
+NATIVE="target/agentic-workflow-engine"
+HEALTH_URL="http://localhost:8080/actuator/health"
+export OPENAI_API_KEY="${OPENAI_API_KEY:-startup-comparison}"
+
+now_ms() {
+    date +%s%3N
+}
+
+rss_mb() {
+    awk '/VmRSS/ { printf "%.0f", $2 / 1024 }' "/proc/$1/status"
+}
+
+# Starts the command, waits until healthy and prints: startup ms, RSS when ready, RSS after warm-up
+measure() {
+    local start pid ready rss_ready rss_warm
+    start=$(now_ms)
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$HEALTH_URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "failed"
+            return
+        fi
+        sleep 0.05
+    done
+    ready=$(now_ms)
+    rss_ready=$(rss_mb "$pid")
+    for _ in $(seq 20); do
+        curl -sf -o /dev/null "$HEALTH_URL"
+        curl -sf -o /dev/null "http://localhost:8080/actuator/metrics/jvm.threads.live" || true
+    done
+    rss_warm=$(rss_mb "$pid")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$((ready - start)) $rss_ready $rss_warm"
+}
+
+run_variant() {
+    local name="$1"
+    shift
+    local results=()
+    for _ in $(seq "$RUNS"); do
+        results+=("$(measure "$@")")
+    done
+    printf '%s\n' "${results[@]}" | awk -v name="$name" '
+        $1 == "failed" { failed++; next }
+        { n++; startup += $1; ready += $2; warm += $3 }
+        END {
+            if (n == 0) { printf "| %-13s | %12s | %14s | %14s |\n", name, "failed", "-", "-"; exit }
+            printf "| %-13s | %12.0f | %14.0f | %14.0f |\n", name, startup / n, ready / n, warm / n
+        }'
+}
+
+echo "Average of $RUNS runs"
+echo
+printf "| %-13s | %12s | %14s | %14s |\n" "Variant" "Ready (ms)" "RSS ready (MB)" "RSS warm (MB)"
+echo "|---------------|--------------|----------------|----------------|"
+
+if [ -f "$JAR" ]; then
+    run_variant "jvm" java --enable-preview -jar "$JAR"
+fi
+if [ -f "$CDS_JAR" ]; then
+    run_variant "aot" java --enable-preview -Dspring.aot.enabled=true -jar "$CDS_JAR"
+fi
+if [ -f "$CDS_ARCHIVE" ]; then
+    run_variant "aot + appcds" java --enable-preview -XX:SharedArchiveFile="$CDS_ARCHIVE" \
+        -Dspring.aot.enabled=true -jar "$CDS_JAR"
+fi
+if [ -x "$NATIVE" ]; then
+    run_variant "native" "$NATIVE"
+fi
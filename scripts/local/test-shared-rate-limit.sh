@@ -0,0 +1,68 @@
+#!/bin/bash
+
+# Runs two instances of the application against one PostgreSQL and the fake OpenAI server
+# with a request limit, and reports how many requests the provider rejected with 429.
+# Usage: ./scripts/local/test-shared-rate-limit.sh [workflows-per-instance] [requests-per-minute]
+# Build first (./mvnw package -DskipTests) and start PostgreSQL (docker compose up -d postgres).
+# Set SHARED_RATE_LIMIT=false to compare with instances that each only see their own 429s.
+
+set -euo pipefail
+
+WORKFLOWS="${1:-10}"
+LIMIT="${2:-60}"
+STUB_PORT=9090
+JAR="target/agentic-workflow-engine-0.0.1-SNAPSHOT.jar"
+PIDS=()
+
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        pkill -P "$pid" 2> /dev/null || true
+        kill "$pid" 2> /dev/null || true
+    done
+}
+trap cleanup EXIT
+
+./mvnw -q -Ploadtest test-compile exec:exec@fake-openai \
+    -Dloadtest.args="--port=$STUB_PORT --requests-per-minute=$LIMIT --latency=fixed:200ms" \
+    > /tmp/shared-rate-limit-stub.log 2>&1 &
+PIDS+=($!)
+until curl -sf -o /dev/null "http://localhost:$STUB_PORT/stats"; do
+    sleep 0.5
+done
+
+for port in 8080 8081; do
+    OPENAI_API_KEY=stub \
+    WORKFLOW_LLM_PROVIDERS_ENDPOINTS_0_NAME=stub \
+    WORKFLOW_LLM_PROVIDERS_ENDPOINTS_0_BASE_URL="http://localhost:$STUB_PORT" \
+    WORKFLOW_LLM_PROVIDERS_ENDPOINTS_0_API_KEY=stub \
+    WORKFLOW_LLM_RATE_LIMIT_ENABLED="${SHARED_RATE_LIMIT:-true}" \
+    WORKFLOW_LLM_HTTP_VERSION=HTTP_1_1 \
+        java --enable-preview -jar "$JAR" --server.port="$port" > "/tmp/shared-rate-limit-$port.log" 2>&1 &
+    PIDS+=($!)
+done
+
+for port in 8080 8081; do
+    until curl -sf -o /dev/null "http://localhost:$port/actuator/health"; do
+        sleep 0.5
+    done
+done
+
+echo "Starting $WORKFLOWS workflows on each instance against a limit of $LIMIT requests per minute"
+GOALS=()
+for _ in $(seq "$WORKFLOWS"); do
+    for port in 8080 8081; do
+        goal=$(curl -s -X POST "http://localhost:$port/api/workflow/execute" \
+            -H "Content-Type: application/json" -d '{"query": "Shared rate limit check"}' | jq -r '.goalId')
+        GOALS+=("$port/$goal")
+    done
+done
+
+for entry in "${GOALS[@]}"; do
+    port="${entry%%/*}"
+    goal="${entry#*/}"
+    until curl -s "http://localhost:$port/api/workflow/goal/$goal" | jq -e '.status == "COMPLETED" or .status == "FAILED"' > /dev/null; do
+        sleep 1
+    done
+done
+
+echo "Provider: $(curl -s "http://localhost:$STUB_PORT/stats")"
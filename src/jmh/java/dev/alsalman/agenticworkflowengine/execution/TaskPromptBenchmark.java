@@ -0,0 +1,65 @@
+package dev.alsalman.agenticworkflowengine.execution;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembles the task execution prompt for a task with the given number of dependencies
+ * among 20 completed tasks whose results are about 2 KB each, typical LLM output size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class TaskPromptBenchmark {
+    
+    private static final int COMPLETED_TASKS = 20;
+    
+    @Param({"0", "3", "10"})
+    public int dependencies;
+    
+    private final TaskAgent agent = new TaskAgent(null); // Prompt assembly never calls the model
+    
+    private Task task;
+    private List<Task> completedTasks;
+    
+    @Setup
+    public void setUp() {
+        String result = "Detailed findings with figures and recommendations. ".repeat(40);
+        completedTasks = new ArrayList<>(COMPLETED_TASKS);
+        for (int i = 0; i < COMPLETED_TASKS; i++) {
+            completedTasks.add(Task.create("Completed task " + i).withResult(result));
+        }
+        
+        // Alternate blocking and informational dependencies on the most recent tasks
+        List<UUID> blocking = new ArrayList<>();
+        List<UUID> informational = new ArrayList<>();
+        for (int i = 0; i < dependencies; i++) {
+            UUID id = completedTasks.get(COMPLETED_TASKS - 1 - i).id();
+            (i % 2 == 0 ? blocking : informational).add(id);
+        }
+        task = Task.create("Write the final recommendation report", blocking, informational);
+    }
+    
+    @Benchmark
+    public String buildPrompt() {
+        return agent.buildPrompt(task, "Open a specialty coffee shop in Lisbon", completedTasks);
+    }
+}
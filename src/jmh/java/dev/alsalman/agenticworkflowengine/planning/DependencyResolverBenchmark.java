@@ -0,0 +1,57 @@
+package dev.alsalman.agenticworkflowengine.planning;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling checks run on every iteration of the workflow loop, over synthetic DAGs.
+ * getExecutableTasks sees the graph with its first half completed, the midpoint of a run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class DependencyResolverBenchmark {
+    
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+    
+    @Param({"CHAIN", "WIDE", "LAYERED"})
+    public SyntheticDags.Shape shape;
+    
+    private final DependencyResolver resolver = new DependencyResolver();
+    
+    private List<Task> tasks;
+    private List<Task> halfCompleted;
+    
+    @Setup
+    public void setUp() {
+        tasks = SyntheticDags.generate(shape, size, 42L);
+        halfCompleted = SyntheticDags.completeFirst(tasks, size / 2);
+    }
+    
+    @Benchmark
+    public List<Task> getExecutableTasks() {
+        return resolver.getExecutableTasks(halfCompleted);
+    }
+    
+    @Benchmark
+    public boolean hasCircularDependencies() {
+        return resolver.hasCircularDependencies(tasks);
+    }
+}
@@ -0,0 +1,111 @@
+package dev.alsalman.agenticworkflowengine.planning;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic task graphs for benchmarks. Tasks are returned in topological order
+ * (every dependency precedes its dependents) with stable IDs, so results are
+ * comparable between runs.
+ */
+public final class SyntheticDags {
+    
+    public enum Shape {
+        /** Each task blocks on the previous one */
+        CHAIN,
+        /** One root that every other task blocks on */
+        WIDE,
+        /** Layers of about sqrt(n) tasks, each blocking on two tasks of the previous layer */
+        LAYERED,
+        /** One root, n - 2 independent middle tasks and one sink that blocks on all of them */
+        DIAMOND,
+        /** About sqrt(n) independent chains side by side; task i blocks on task i - width */
+        LANES
+    }
+    
+    private SyntheticDags() {
+    }
+    
+    public static List<Task> generate(Shape shape, int size, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(size);
+        int width = width(size);
+        
+        for (int i = 0; i < size; i++) {
+            List<UUID> blocking = new ArrayList<>(2);
+            List<UUID> informational = new ArrayList<>(1);
+            
+            switch (shape) {
+                case CHAIN -> {
+                    if (i > 0) {
+                        blocking.add(id(i - 1));
+                    }
+                }
+                case WIDE -> {
+                    if (i > 0) {
+                        blocking.add(id(0));
+                    }
+                }
+                case LAYERED -> {
+                    int layer = i / width;
+                    if (layer > 0) {
+                        int previousLayerStart = (layer - 1) * width;
+                        int first = previousLayerStart + random.nextInt(width);
+                        int second = previousLayerStart + random.nextInt(width);
+                        blocking.add(id(first));
+                        if (second != first) {
+                            blocking.add(id(second));
+                        }
+                        informational.add(id(random.nextInt(previousLayerStart + 1)));
+                    }
+                }
+                case DIAMOND -> {
+                    if (i == size - 1 && size > 2) {
+                        for (int middle = 1; middle < i; middle++) {
+                            blocking.add(id(middle));
+                        }
+                    } else if (i > 0) {
+                        blocking.add(id(0));
+                    }
+                }
+                case LANES -> {
+                    if (i >= width) {
+                        blocking.add(id(i - width));
+                    }
+                }
+            }
+            
+            tasks.add(new Task(id(i), "Synthetic task " + i, null, TaskStatus.PENDING,
+                List.copyOf(blocking), List.copyOf(informational), Instant.EPOCH, null));
+        }
+        return tasks;
+    }
+    
+    /**
+     * Marks the first {@code count} tasks (a dependency-closed prefix) as completed
+     */
+    public static List<Task> completeFirst(List<Task> tasks, int count) {
+        List<Task> result = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            result.add(i < count ? tasks.get(i).withResult("Result of task " + i) : tasks.get(i));
+        }
+        return result;
+    }
+    
+    /**
+     * Number of tasks per layer in {@link Shape#LAYERED} and number of lanes in {@link Shape#LANES}
+     */
+    public static int width(int size) {
+        return Math.max(1, (int) Math.ceil(Math.sqrt(size)));
+    }
+    
+    public static UUID id(int index) {
+        return new UUID(0L, index + 1L);
+    }
+}
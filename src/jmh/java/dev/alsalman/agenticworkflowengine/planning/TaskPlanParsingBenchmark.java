@@ -0,0 +1,56 @@
+package dev.alsalman.agenticworkflowengine.planning;
+
+import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses recorded planner responses: a typical 5-task plan and a 15-task plan with
+ * 20 dependencies, one of them without a dependency type
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class TaskPlanParsingBenchmark {
+    
+    @Param({"small", "large"})
+    public String response;
+    
+    private String responseText;
+    
+    @Setup
+    public void setUp() {
+        String resource = "/planning/plan-response-" + response + ".json";
+        try (InputStream in = TaskPlanParsingBenchmark.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark resource " + resource);
+            }
+            responseText = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Benchmark
+    public TaskPlan parseTaskPlanResponse() {
+        return TaskPlanParser.parse(responseText);
+    }
+}
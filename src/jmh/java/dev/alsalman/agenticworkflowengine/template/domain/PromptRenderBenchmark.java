@@ -0,0 +1,69 @@
+package dev.alsalman.agenticworkflowengine.template.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a Trip Planner sized prompt with the compiled segments used by template
+ * execution, against the previous String.replace per parameter as a baseline
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class PromptRenderBenchmark {
+    
+    private static final String TEMPLATE = """
+        Plan a {{duration}}-day trip to {{destination}} starting {{startDate}}.
+        Budget: {{budget}}. Travel style: {{travelStyle}}.
+        Research flights and accommodation in {{destination}} that fit the {{travelStyle}} style,
+        build a day-by-day itinerary, list local food experiences, and check visa and
+        health requirements. Keep the total cost within {{budget}} and flag anything that
+        needs booking more than two weeks before {{startDate}}.
+        """;
+    
+    private CompiledPrompt compiled;
+    private Map<String, Object> parameters;
+    
+    @Setup
+    public void setUp() {
+        parameters = new LinkedHashMap<>();
+        parameters.put("destination", "Tokyo, Japan");
+        parameters.put("startDate", "2026-12-15");
+        parameters.put("duration", 10);
+        parameters.put("budget", "3000 EUR");
+        parameters.put("travelStyle", "Luxury");
+        compiled = CompiledPrompt.compile(TEMPLATE, Set.copyOf(parameters.keySet()));
+    }
+    
+    @Benchmark
+    public String compiledRender() {
+        return compiled.render(parameters);
+    }
+    
+    @Benchmark
+    public String replacePerParameter() {
+        String rendered = TEMPLATE;
+        for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+            String placeholder = "{{" + entry.getKey() + "}}";
+            String value = entry.getValue() != null ? entry.getValue().toString() : "";
+            rendered = rendered.replace(placeholder, value);
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,85 @@
+package dev.alsalman.agenticworkflowengine.template.validation;
+
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledParameter;
+import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterType;
+import dev.alsalman.agenticworkflowengine.template.domain.ValidationRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates one parameter set of the Trip Planner shape per invocation, either compiling
+ * the validators for every call (the per-request path) or reusing compiled chains
+ * (the cached-template path). The "invalid" input exercises the failure branches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ParameterValidationBenchmark {
+
+    @Param({"valid", "invalid"})
+    public String input;
+
+    private final AdvancedParameterValidator validator = new AdvancedParameterValidator();
+
+    private List<Parameter> parameters;
+    private List<CompiledParameter> compiledParameters;
+    private String[] values;
+
+    @Setup
+    public void setUp() {
+        parameters = List.of(
+            Parameter.requiredWithValidation("destination", "Destination", ParameterType.LOCATION,
+                List.of(ValidationRule.pattern("^[A-Za-z\\s,.-]+$", null))),
+            Parameter.requiredWithValidation("startDate", "Start date", ParameterType.DATE,
+                List.of(ValidationRule.dateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2030, 12, 31), null))),
+            Parameter.requiredWithValidation("duration", "Days", ParameterType.NUMBER,
+                List.of(ValidationRule.range(BigDecimal.ONE, new BigDecimal("365"), null))),
+            Parameter.optional("budget", "Budget", ParameterType.CURRENCY, "1000 USD"),
+            Parameter.optionalWithValidation("travelStyle", "Style", ParameterType.SELECTION, "Mid-range",
+                List.of(ValidationRule.allowedValues(List.of("Budget", "Mid-range", "Luxury"), null))),
+            Parameter.optional("contact", "Contact email", ParameterType.EMAIL, null),
+            Parameter.optional("phone", "Phone", ParameterType.PHONE, null),
+            Parameter.optional("departure", "Departure time", ParameterType.TIME, null)
+        );
+        compiledParameters = parameters.stream().map(CompiledParameter::compile).toList();
+
+        values = "valid".equals(input)
+            ? new String[] {"Paris, France", "06/15/2026", "7", "2500 EUR", "Luxury",
+                            "traveller@example.com", "+1 (234) 567-8900", "08:30"}
+            : new String[] {"Paris 75001", "2026-02-30", "seven", "2500 XYZ", "First class",
+                            "traveller@", "call me", "8.30am"};
+    }
+
+    @Benchmark
+    public void compileEveryCall(Blackhole blackhole) {
+        for (int i = 0; i < parameters.size(); i++) {
+            blackhole.consume(validator.validateParameter(parameters.get(i), values[i]));
+        }
+    }
+
+    @Benchmark
+    public void precompiledChain(Blackhole blackhole) {
+        for (int i = 0; i < compiledParameters.size(); i++) {
+            blackhole.consume(validator.validateParameter(compiledParameters.get(i), values[i]));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package dev.alsalman.agenticworkflowengine.workflow;
+
+import dev.alsalman.agenticworkflowengine.planning.SyntheticDags;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskDependency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makespan of whole workflows through {@link WorkflowOrchestrator}, with simulated model
+ * latency instead of real calls (see {@link SimulatedEngine}). The score is wall time per
+ * workflow; at the end of each trial the benchmark also prints how far that is from the
+ * plan's critical path, the lower bound for any scheduler:
+ * <ul>
+ *   <li>gap - makespan above the critical path</li>
+ *   <li>idle slots - average number of tasks that were ready but not yet running</li>
+ *   <li>overhead/task - wall time with no model call in flight, per task</li>
+ * </ul>
+ * Run with {@code ./mvnw -Pbenchmarks verify -Djmh.include=OrchestratorMakespan}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class OrchestratorMakespanBenchmark {
+    
+    /** Latency multiplier of the one slow task per wave in {@link Plan#SKEWED_WAVES} */
+    private static final int SKEW = 5;
+    
+    public enum Plan {
+        /** Strictly sequential; the critical path is the sum of all latencies */
+        CHAIN(SyntheticDags.Shape.CHAIN),
+        /** One root, then everything in parallel */
+        FAN_OUT(SyntheticDags.Shape.WIDE),
+        /** Root, parallel middle, one sink joining all of them */
+        DIAMOND(SyntheticDags.Shape.DIAMOND),
+        /** Random layered DAG with latencies between 0.5 and 1.5 times the base */
+        LAYERED(SyntheticDags.Shape.LAYERED),
+        /**
+         * Independent lanes where one task per wave is five times slower, a different
+         * lane each wave; a wave-at-a-time scheduler pays the slow task in every wave
+         */
+        SKEWED_WAVES(SyntheticDags.Shape.LANES);
+        
+        private final SyntheticDags.Shape shape;
+        
+        Plan(SyntheticDags.Shape shape) {
+            this.shape = shape;
+        }
+    }
+    
+    @Param({"CHAIN", "FAN_OUT", "DIAMOND", "LAYERED", "SKEWED_WAVES"})
+    public Plan plan;
+    
+    @Param({"16", "64"})
+    public int tasks;
+    
+    @Param({"20"})
+    public int taskLatencyMs;
+    
+    @Param({"0", "20"})
+    public int reviewLatencyMs;
+    
+    private List<Task> planTasks;
+    private List<TaskDependency> dependencies;
+    private Duration criticalPath;
+    private SimulatedEngine engine;
+    
+    private SimulatedEngine.Run lastRun;
+    private final List<SimulatedEngine.Run> measured = new ArrayList<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        planTasks = SyntheticDags.generate(plan.shape, tasks, 42L);
+        dependencies = dependenciesOf(planTasks);
+        Duration[] latencies = latencies(plan, tasks, Duration.ofMillis(taskLatencyMs));
+        criticalPath = SimulatedEngine.criticalPath(planTasks, latencies);
+        engine = new SimulatedEngine(planTasks, latencies, Duration.ofMillis(reviewLatencyMs));
+    }
+    
+    @Benchmark
+    public SimulatedEngine.Run makespan() {
+        lastRun = engine.run(planTasks, dependencies);
+        return lastRun;
+    }
+    
+    @TearDown(Level.Iteration)
+    public void recordIteration(IterationParams iteration) {
+        if (iteration.getType() == IterationType.MEASUREMENT && lastRun != null) {
+            measured.add(lastRun);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void report() {
+        if (measured.isEmpty()) {
+            return;
+        }
+        double makespanMs = 0;
+        double idleSlots = 0;
+        double overheadUs = 0;
+        for (SimulatedEngine.Run run : measured) {
+            makespanMs += run.makespan().toNanos() / 1e6;
+            long firstStart = Arrays.stream(run.taskStart()).min().orElse(run.begin());
+            long lastEnd = Arrays.stream(run.taskEnd()).max().orElse(run.end());
+            idleSlots += (double) run.readyWait(planTasks).toNanos() / Math.max(1, lastEnd - firstStart);
+            overheadUs += (run.makespan().toNanos() - run.llmBusy().toNanos()) / 1e3 / tasks;
+        }
+        int runs = measured.size();
+        makespanMs /= runs;
+        double boundMs = criticalPath.toNanos() / 1e6;
+        
+        System.out.printf("%n[makespan] plan=%s tasks=%d review=%dms: critical path %.1f ms, makespan %.1f ms "
+                + "(gap %.1f ms, %.0f%% over bound), idle slots %.2f, overhead/task %.0f us%n",
+            plan, tasks, reviewLatencyMs, boundMs, makespanMs, makespanMs - boundMs,
+            100 * (makespanMs - boundMs) / boundMs, idleSlots / runs, overheadUs / runs);
+    }
+    
+    private static List<TaskDependency> dependenciesOf(List<Task> tasks) {
+        List<TaskDependency> dependencies = new ArrayList<>();
+        for (Task task : tasks) {
+            task.blockingDependencies().forEach(dependency ->
+                dependencies.add(TaskDependency.blocking(task.id(), dependency, "synthetic")));
+            task.informationalDependencies().forEach(dependency ->
+                dependencies.add(TaskDependency.informational(task.id(), dependency, "synthetic")));
+        }
+        return dependencies;
+    }
+    
+    private static Duration[] latencies(Plan plan, int size, Duration base) {
+        Duration[] latencies = new Duration[size];
+        Random random = new Random(7L);
+        int width = SyntheticDags.width(size);
+        for (int i = 0; i < size; i++) {
+            latencies[i] = switch (plan) {
+                case LAYERED -> Duration.ofNanos((long) (base.toNanos() * (0.5 + random.nextDouble())));
+                case SKEWED_WAVES -> (i / width + i % width) % width == 0 ? base.multipliedBy(SKEW) : base;
+                default -> base;
+            };
+        }
+        return latencies;
+    }
+}
@@ -0,0 +1,272 @@
+package dev.alsalman.agenticworkflowengine.workflow;
+
+import dev.alsalman.agenticworkflowengine.execution.GoalAgent;
+import dev.alsalman.agenticworkflowengine.execution.TaskAgent;
+import dev.alsalman.agenticworkflowengine.execution.TaskDependencyResolver;
+import dev.alsalman.agenticworkflowengine.execution.TaskPersistenceService;
+import dev.alsalman.agenticworkflowengine.execution.TaskPreparationService;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowTracing;
+import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;
+import dev.alsalman.agenticworkflowengine.planning.PlanReviewService;
+import dev.alsalman.agenticworkflowengine.planning.PlanningProperties;
+import dev.alsalman.agenticworkflowengine.planning.TaskPlanAgent;
+import dev.alsalman.agenticworkflowengine.planning.TaskPlanService;
+import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskDependency;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowEvent;
+import dev.alsalman.agenticworkflowengine.workflow.service.GoalService;
+import dev.alsalman.agenticworkflowengine.workflow.service.TaskExecutionService;
+import dev.alsalman.agenticworkflowengine.workflow.service.WorkflowSummaryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The real {@link WorkflowOrchestrator} and services wired to fakes: agents that sleep
+ * for a per-task latency instead of calling the model, and persistence that keeps
+ * nothing. Every simulated LLM call is timed, so a run can be compared with the
+ * critical-path lower bound of its plan.
+ *
+ * <p>Tasks are recognised by description, because persistence replaces their IDs.
+ */
+final class SimulatedEngine {
+    
+    private final Map<String, Integer> indexByDescription;
+    private final Duration[] latencies;
+    private final Duration reviewLatency;
+    private final WorkflowOrchestrator orchestrator;
+    
+    private final long[] startNanos;
+    private final long[] endNanos;
+    private final ConcurrentLinkedQueue<long[]> llmCalls = new ConcurrentLinkedQueue<>();
+    
+    SimulatedEngine(List<Task> tasks, Duration[] latencies, Duration reviewLatency) {
+        this.latencies = latencies;
+        this.reviewLatency = reviewLatency;
+        this.startNanos = new long[tasks.size()];
+        this.endNanos = new long[tasks.size()];
+        this.indexByDescription = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            indexByDescription.put(tasks.get(i).description(), i);
+        }
+        
+        WorkflowTracing tracing = new WorkflowTracing(Tracer.NOOP);
+        WorkflowPersistenceService persistence = new InMemoryPersistence();
+        WorkflowProfiler profiler = new WorkflowProfiler(persistence);
+        DependencyResolver dependencyResolver = new DependencyResolver();
+        GoalService goalService = new GoalService(persistence);
+        this.orchestrator = new WorkflowOrchestrator(
+            goalService,
+            new TaskPlanService(null), // Plans are passed in, never requested
+            new TaskPersistenceService(new TaskDependencyResolver(persistence), persistence),
+            new TaskPreparationService(dependencyResolver),
+            new TaskExecutionService(new SleepingTaskAgent(), dependencyResolver, tracing, profiler,
+                new PlanningProperties(3, 3, null, true, 0), null), // Plans are flat, no sub-goals to run
+            new PlanReviewService(new SleepingReviewAgent(), persistence),
+            new WorkflowSummaryService(new InstantGoalAgent(), goalService),
+            new WorkflowMetrics(new SimpleMeterRegistry()),
+            tracing,
+            profiler
+        );
+    }
+    
+    /**
+     * Runs one workflow for the plan and returns its timings
+     */
+    Run run(List<Task> tasks, List<TaskDependency> dependencies) {
+        Arrays.fill(startNanos, 0L);
+        Arrays.fill(endNanos, 0L);
+        llmCalls.clear();
+        
+        long begin = System.nanoTime();
+        orchestrator.executeWorkflow("Synthetic makespan benchmark", null,
+            TaskPlan.of(tasks, dependencies));
+        long end = System.nanoTime();
+        
+        return new Run(begin, end, startNanos.clone(), endNanos.clone(), List.copyOf(llmCalls));
+    }
+    
+    /**
+     * Longest path through the blocking dependencies, weighted by task latency: no
+     * scheduler can finish the plan faster
+     */
+    static Duration criticalPath(List<Task> tasks, Duration[] latencies) {
+        Map<UUID, Integer> indexById = new HashMap<>();
+        long[] finish = new long[tasks.size()];
+        long longest = 0;
+        for (int i = 0; i < tasks.size(); i++) { // Tasks are in topological order
+            Task task = tasks.get(i);
+            indexById.put(task.id(), i);
+            long ready = 0;
+            for (UUID dependency : task.blockingDependencies()) {
+                ready = Math.max(ready, finish[indexById.get(dependency)]);
+            }
+            finish[i] = ready + latencies[i].toNanos();
+            longest = Math.max(longest, finish[i]);
+        }
+        return Duration.ofNanos(longest);
+    }
+    
+    /**
+     * Timings of one workflow run, in {@link System#nanoTime()} units
+     *
+     * @param llmCalls Start and end of every simulated model call, task or review
+     */
+    record Run(long begin, long end, long[] taskStart, long[] taskEnd, List<long[]> llmCalls) {
+        
+        Duration makespan() {
+            return Duration.ofNanos(end - begin);
+        }
+        
+        /**
+         * Total time tasks spent ready (all blocking dependencies finished) but not started.
+         * Roots count as ready when the first task starts, after goal and plan persistence.
+         */
+        Duration readyWait(List<Task> tasks) {
+            Map<UUID, Integer> indexById = new HashMap<>();
+            long firstStart = Arrays.stream(taskStart).min().orElse(begin);
+            long waited = 0;
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                indexById.put(task.id(), i);
+                long ready = firstStart;
+                for (UUID dependency : task.blockingDependencies()) {
+                    ready = Math.max(ready, taskEnd[indexById.get(dependency)]);
+                }
+                waited += Math.max(0, taskStart[i] - ready);
+            }
+            return Duration.ofNanos(waited);
+        }
+        
+        /**
+         * Wall time during which at least one model call was in flight
+         */
+        Duration llmBusy() {
+            List<long[]> calls = new ArrayList<>(llmCalls);
+            calls.sort(Comparator.comparingLong(call -> call[0]));
+            long busy = 0;
+            long coveredUntil = Long.MIN_VALUE;
+            for (long[] call : calls) {
+                long from = Math.max(call[0], coveredUntil);
+                if (call[1] > from) {
+                    busy += call[1] - from;
+                }
+                coveredUntil = Math.max(coveredUntil, call[1]);
+            }
+            return Duration.ofNanos(busy);
+        }
+    }
+    
+    private static void sleep(Duration latency) {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private final class SleepingTaskAgent extends TaskAgent {
+        
+        SleepingTaskAgent() {
+            super(null);
+        }
+        
+        @Override
+        public Task executeTask(Task task, String originalGoal, List<Task> completedTasks) {
+            int index = indexByDescription.get(task.description());
+            long start = System.nanoTime();
+            sleep(latencies[index]);
+            long end = System.nanoTime();
+            startNanos[index] = start;
+            endNanos[index] = end;
+            llmCalls.add(new long[] {start, end});
+            return task.withResult("Result of " + task.description());
+        }
+    }
+    
+    private final class SleepingReviewAgent extends TaskPlanAgent {
+        
+        SleepingReviewAgent() {
+            super(null, new DependencyResolver(), new PlanningProperties(3, 3, null, true, 2));
+        }
+        
+        @Override
+        public List<Task> reviewAndUpdatePlan(List<Task> currentTasks, Task completedTask) {
+            long start = System.nanoTime();
+            sleep(reviewLatency);
+            llmCalls.add(new long[] {start, System.nanoTime()});
+            return currentTasks;
+        }
+    }
+    
+    private static final class InstantGoalAgent extends GoalAgent {
+        
+        InstantGoalAgent() {
+            super(null);
+        }
+        
+        @Override
+        public Goal summarizeGoalCompletion(Goal goal) {
+            return goal.withSummary("Synthetic summary");
+        }
+    }
+    
+    /**
+     * Assigns IDs like the database would and stores nothing
+     */
+    private static final class InMemoryPersistence extends WorkflowPersistenceService {
+        
+        InMemoryPersistence() {
+            super(null, null, null, null, null, null);
+        }
+        
+        @Override
+        public Goal saveGoal(Goal goal) {
+            return goal.id() != null ? goal : new Goal(UUID.randomUUID(), goal.query(), goal.tasks(),
+                goal.summary(), goal.status(), goal.createdAt(), goal.completedAt(), goal.parentGoalId());
+        }
+        
+        @Override
+        public Task saveTask(Task task, UUID goalId) {
+            return task.id() != null ? task : new Task(UUID.randomUUID(), task.description(), task.result(),
+                task.status(), task.blockingDependencies(), task.informationalDependencies(),
+                task.createdAt(), task.completedAt(), task.subGoal());
+        }
+        
+        @Override
+        public Goal findGoalById(UUID goalId) {
+            return null;
+        }
+        
+        @Override
+        public TaskDependency saveTaskDependency(TaskDependency dependency) {
+            return dependency;
+        }
+        
+        @Override
+        public void saveWorkflowEvents(List<WorkflowEvent> events) {
+        }
+        
+        @Override
+        public void updateTaskTimings(UUID taskId, Instant readyAt, Instant startedAt) {
+        }
+    }
+}
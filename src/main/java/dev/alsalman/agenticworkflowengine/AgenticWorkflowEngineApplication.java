@@ -1,9 +1,16 @@
 package dev.alsalman.agenticworkflowengine;
 
+import dev.alsalman.agenticworkflowengine.infrastructure.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class AgenticWorkflowEngineApplication {
 
     public static void main(String[] args) {
@@ -5,6 +5,8 @@ import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
 import dev.alsalman.agenticworkflowengine.infrastructure.ResilientChatClient;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 public class GoalAgent {
     
@@ -15,20 +17,32 @@ public class GoalAgent {
     }
     
     public Goal summarizeGoalCompletion(Goal goal) {
+        return ResilientChatClient.await("goal summarization", summarizeGoalCompletionAsync(goal));
+    }
+    
+    /**
+     * Summarizes the goal without holding the calling thread while the model responds
+     */
+    public CompletableFuture<Goal> summarizeGoalCompletionAsync(Goal goal) {
+        return resilientChatClient.callAsync("goal summarization", buildPrompt(goal))
+            .thenApply(goal::withSummary);
+    }
+    
+    private String buildPrompt(Goal goal) {
         String tasksInfo = goal.tasks().stream()
             .map(task -> "- " + task.description() + 
                         " [" + task.status() + "] " + 
                         (task.result() != null ? task.result() : "No result"))
             .reduce("", (acc, taskInfo) -> acc + taskInfo + "\n");
-            
+        
         long completedTasks = goal.tasks().stream()
             .filter(task -> task.status().name().equals("COMPLETED"))
             .count();
-            
+        
         long failedTasks = goal.tasks().stream()
             .filter(task -> task.status().name().equals("FAILED"))
             .count();
-            
+        
         String prompt = """
             Goal: %s
             
@@ -45,8 +59,6 @@ public class GoalAgent {
                 failedTasks,
                 tasksInfo
             );
-            
-        String summary = resilientChatClient.call("goal summarization", prompt);
-        return goal.withSummary(summary);
+        return prompt;
     }
 }
\ No newline at end of file
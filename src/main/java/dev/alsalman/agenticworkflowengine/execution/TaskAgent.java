@@ -6,6 +6,8 @@ import dev.alsalman.agenticworkflowengine.infrastructure.ResilientChatClient;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 public class TaskAgent {
@@ -17,6 +19,31 @@ public class TaskAgent {
     }
     
     public Task executeTask(Task task, String originalGoal, List<Task> completedTasks) {
+        return ResilientChatClient.await("task execution", executeTaskAsync(task, originalGoal, completedTasks));
+    }
+    
+    /**
+     * Executes the task without holding the calling thread while the model responds
+     *
+     * @return The completed task, or the task marked FAILED; the future itself never fails
+     */
+    public CompletableFuture<Task> executeTaskAsync(Task task, String originalGoal, List<Task> completedTasks) {
+        String prompt = buildPrompt(task, originalGoal, completedTasks);
+        return resilientChatClient.callAsync("task execution", prompt, task.description())
+            .thenApply(task::withResult)
+            .exceptionally(e -> failed(task, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+    }
+    
+    private static Task failed(Task task, Throwable e) {
+        return task.withStatus(TaskStatus.FAILED)
+            .withResult("Task execution failed: " + e.getMessage());
+    }
+    
+    /**
+     * Builds the execution prompt: the results of the task's own dependencies when it has
+     * any, otherwise a short summary of recently completed tasks
+     */
+    String buildPrompt(Task task, String originalGoal, List<Task> completedTasks) {
         // Filter completed tasks to only include actual dependencies
         List<Task> dependencyTasks = completedTasks.stream()
             .filter(completed -> {
@@ -26,7 +53,7 @@ public class TaskAgent {
                        (informationalDeps != null && informationalDeps.contains(completed.id()));
             })
             .toList();
-            
+        
         String dependencyContext;
         String prompt;
         
@@ -42,7 +69,7 @@ public class TaskAgent {
                                        dep.result());
                 })
                 .reduce("", (acc, depInfo) -> acc + depInfo + "\n\n");
-                
+            
             prompt = """
                 Execute: %s
                 
@@ -65,7 +92,7 @@ public class TaskAgent {
                 .map(completed -> "- " + completed.description() + 
                                 " (" + completed.result() + ")")
                 .reduce("", (acc, taskInfo) -> acc + taskInfo + "\n");
-                
+            
             prompt = """
                 Execute: %s
                 
@@ -79,13 +106,6 @@ public class TaskAgent {
                             originalGoal, 
                             generalContext);
         }
-            
-        try {
-            String result = resilientChatClient.call("task execution", prompt);
-            return task.withResult(result);
-        } catch (Exception e) {
-            return task.withStatus(TaskStatus.FAILED)
-                .withResult("Task execution failed: " + e.getMessage());
-        }
+        return prompt;
     }
 }
\ No newline at end of file
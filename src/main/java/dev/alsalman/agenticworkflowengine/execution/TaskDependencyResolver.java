@@ -56,7 +56,8 @@ public class TaskDependencyResolver {
                 List.of(), // Empty dependencies for now
                 List.of(), // Empty dependencies for now
                 planningTask.createdAt(),
-                planningTask.completedAt()
+                planningTask.completedAt(),
+                planningTask.subGoal()
             );
             
             Task persistedTask = persistenceService.saveTask(taskForPersistence, goalId);
@@ -150,7 +151,8 @@ public class TaskDependencyResolver {
             blockingDeps,
             informationalDeps,
             task.createdAt(),
-            task.completedAt()
+            task.completedAt(),
+            task.subGoal()
         );
     }
 }
\ No newline at end of file
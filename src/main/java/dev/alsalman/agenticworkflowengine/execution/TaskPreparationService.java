@@ -68,7 +68,8 @@ public class TaskPreparationService {
             List.of(), // Remove all blocking dependencies
             List.of(), // Remove all informational dependencies
             task.createdAt(),
-            task.completedAt()
+            task.completedAt(),
+            task.subGoal()
         );
     }
     
@@ -87,7 +88,8 @@ public class TaskPreparationService {
             List.of(), // Remove all blocking dependencies
             List.of(), // Remove all informational dependencies
             task.createdAt(),
-            task.completedAt()
+            task.completedAt(),
+            task.subGoal()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how many connections of the target pool its callers hold at once. A caller takes a
+ * permit from a fair semaphore before borrowing a connection and returns it when the
+ * connection is closed, so waiters are served in arrival order and a virtual thread waits by
+ * parking rather than inside the pool's own timeout.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+    
+    private final String name;
+    private final int permits;
+    private final Duration acquireTimeout;
+    private final Semaphore semaphore;
+    
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    
+    public BulkheadDataSource(String name, DataSource target, int permits, Duration acquireTimeout) {
+        super(target);
+        this.name = name;
+        this.permits = permits;
+        this.acquireTimeout = acquireTimeout;
+        this.semaphore = new Semaphore(permits, true);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guarded(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guarded(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    public int permits() {
+        return permits;
+    }
+    
+    /**
+     * @return Connections currently held through this bulkhead
+     */
+    public int inUse() {
+        return permits - semaphore.availablePermits();
+    }
+    
+    /**
+     * @return Estimated number of callers waiting for a permit
+     */
+    public int queued() {
+        return semaphore.getQueueLength();
+    }
+    
+    public long acquired() {
+        return acquired.sum();
+    }
+    
+    /**
+     * @return Total time successful callers waited for a permit
+     */
+    public double waitNanos() {
+        return waitNanos.sum();
+    }
+    
+    /**
+     * @return Callers that gave up after {@code acquireTimeout}
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+    
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean granted;
+        try {
+            granted = semaphore.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a " + name + " connection", e);
+        }
+        if (!granted) {
+            rejected.increment();
+            throw new SQLTransientConnectionException("No " + name + " connection available within "
+                + acquireTimeout.toMillis() + " ms (" + permits + " in use, " + queued() + " waiting)");
+        }
+        acquired.increment();
+        waitNanos.add(System.nanoTime() - start);
+    }
+    
+    /**
+     * Wraps the connection so that closing it returns the permit, once
+     */
+    private Connection guarded(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> name + " bulkhead connection [" + connection + "]";
+                case "close" -> {
+                    try {
+                        connection.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            semaphore.release();
+                        }
+                    }
+                    yield null;
+                }
+                default -> {
+                    try {
+                        yield method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+            });
+    }
+}
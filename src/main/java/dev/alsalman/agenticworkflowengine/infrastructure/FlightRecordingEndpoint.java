@@ -0,0 +1,204 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-boxed JFR recordings on demand, which include the engine's own events (see
+ * {@code infrastructure.jfr}) and virtual-thread pinning:
+ * <ul>
+ *   <li>{@code POST /actuator/jfr} with {@code {"durationSeconds": 60}} starts a recording, written to
+ *       {@code workflow.jfr.directory} when it ends; only one runs at a time</li>
+ *   <li>{@code GET /actuator/jfr} lists every recording in the JVM, including a continuous one
+ *       started with {@code -XX:StartFlightRecording}</li>
+ *   <li>{@code GET /actuator/jfr/{id}} downloads a recording, dumping what it has so far if it is running;
+ *       a finished one started here is served from its file, as JFR closes it once written</li>
+ *   <li>{@code DELETE /actuator/jfr/{id}} stops a recording started here</li>
+ * </ul>
+ * Recordings hold stack traces and task data, so the endpoint is not exposed over HTTP by default.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+    
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingEndpoint.class);
+    
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+        .withZone(ZoneOffset.UTC);
+    
+    private final FlightRecordingProperties properties;
+    // Destinations of recordings started here, kept after JFR closes the recording on stop
+    private final Map<Long, Path> destinations = new ConcurrentHashMap<>();
+    private Recording current;
+    
+    public FlightRecordingEndpoint(FlightRecordingProperties properties) {
+        this.properties = properties;
+    }
+    
+    public record RecordingView(long id, String name, String state, Instant startTime, Long durationSeconds,
+                                String destination, boolean startedHere) {
+    }
+    
+    @ReadOperation
+    public List<RecordingView> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+            .sorted(Comparator.comparingLong(Recording::getId))
+            .map(this::view)
+            .toList();
+    }
+    
+    /**
+     * Starts a recording, or returns the one already running
+     *
+     * @param durationSeconds Length of the recording, capped at {@code workflow.jfr.max-duration}
+     */
+    @WriteOperation
+    public synchronized RecordingView start(@Nullable Long durationSeconds) {
+        if (current != null && current.getState() == RecordingState.RUNNING) {
+            return view(current);
+        }
+        
+        Duration duration = durationOf(durationSeconds);
+        String name = "workflow-" + FILE_TIME.format(Instant.now());
+        Recording recording = new Recording(configuration().getSettings());
+        recording.setName(name);
+        recording.enable("jdk.VirtualThreadPinned").withThreshold(properties.pinnedThreshold()).withStackTrace();
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        try {
+            Files.createDirectories(properties.directory());
+            recording.setDestination(properties.directory().resolve(name + ".jfr"));
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException("Cannot write recordings to " + properties.directory(), e);
+        }
+        recording.start();
+        destinations.put(recording.getId(), recording.getDestination());
+        current = recording;
+        log.info("Started JFR recording {} for {}", name, duration);
+        return view(recording);
+    }
+    
+    /**
+     * A running recording is dumped to a temporary file that is deleted once the response
+     * has been streamed
+     *
+     * @return The recording's data, or null if there is no such recording
+     */
+    @ReadOperation
+    public Resource dump(@Selector long id) {
+        Recording recording = find(id);
+        Path destination = destinations.get(id);
+        boolean running = recording != null && recording.getState() == RecordingState.RUNNING;
+        if (!running && destination != null && Files.exists(destination)) {
+            return new FileSystemResource(destination);
+        }
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            return null;
+        }
+        Path dump = null;
+        try {
+            Files.createDirectories(properties.directory());
+            dump = Files.createTempFile(properties.directory(), fileName(recording) + "-dump-", ".jfr");
+            recording.dump(dump);
+            log.info("Dumped JFR recording {}", recording.getName());
+            return new InputStreamResource(Files.newInputStream(dump, StandardOpenOption.DELETE_ON_CLOSE));
+        } catch (IOException e) {
+            deleteQuietly(dump);
+            throw new UncheckedIOException("Failed to dump recording " + id, e);
+        }
+    }
+    
+    /**
+     * Stops a recording started through this endpoint, writing it to its destination
+     *
+     * @return The stopped recording, or null if it was not started here or has already ended
+     */
+    @DeleteOperation
+    public synchronized RecordingView stop(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null || !destinations.containsKey(id)) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            // JFR writes the destination and closes the recording, so it leaves the list
+            recording.stop();
+            log.info("Stopped JFR recording {}, written to {}", recording.getName(), destinations.get(id));
+        }
+        return view(recording);
+    }
+    
+    private Duration durationOf(Long durationSeconds) {
+        Duration requested = durationSeconds != null && durationSeconds > 0
+            ? Duration.ofSeconds(durationSeconds)
+            : properties.defaultDuration();
+        return requested.compareTo(properties.maxDuration()) > 0 ? properties.maxDuration() : requested;
+    }
+    
+    private Configuration configuration() {
+        try {
+            return Configuration.getConfiguration(properties.configuration());
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unknown JFR configuration " + properties.configuration(), e);
+        }
+    }
+    
+    private Recording find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+            .filter(recording -> recording.getId() == id)
+            .findFirst()
+            .orElse(null);
+    }
+    
+    private RecordingView view(Recording recording) {
+        Duration duration = recording.getDuration();
+        Path destination = destinations.getOrDefault(recording.getId(), recording.getDestination());
+        return new RecordingView(recording.getId(), recording.getName(), recording.getState().name(),
+            recording.getStartTime(), duration != null ? duration.toSeconds() : null,
+            destination != null ? destination.toString() : null, destinations.containsKey(recording.getId()));
+    }
+    
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+    
+    private static String fileName(Recording recording) {
+        return recording.getName().replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
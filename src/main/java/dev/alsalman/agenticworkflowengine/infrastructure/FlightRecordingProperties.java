@@ -0,0 +1,26 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for recordings started through the {@code jfr} actuator endpoint
+ *
+ * @param directory Where finished and dumped recordings are written
+ * @param configuration JFR settings to record with: {@code default} or {@code profile}
+ * @param defaultDuration Length of a recording started without one
+ * @param maxDuration Upper bound on a requested duration, so a forgotten recording stops by itself
+ * @param pinnedThreshold Shortest {@code jdk.VirtualThreadPinned} event recorded
+ */
+@ConfigurationProperties(prefix = "workflow.jfr")
+public record FlightRecordingProperties(
+    @DefaultValue("./recordings") Path directory,
+    @DefaultValue("profile") String configuration,
+    @DefaultValue("PT1M") Duration defaultDuration,
+    @DefaultValue("PT10M") Duration maxDuration,
+    @DefaultValue("5ms") Duration pinnedThreshold
+) {
+}
@@ -0,0 +1,40 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * The most recent latencies of one operation, to estimate a percentile from. Small enough
+ * to copy and sort on each query.
+ */
+public final class LatencyWindow {
+    
+    private final long[] nanos;
+    private int next;
+    private int size;
+    
+    public LatencyWindow(int capacity) {
+        this.nanos = new long[Math.max(1, capacity)];
+    }
+    
+    public synchronized void record(Duration latency) {
+        nanos[next] = latency.toNanos();
+        next = (next + 1) % nanos.length;
+        size = Math.min(size + 1, nanos.length);
+    }
+    
+    /**
+     * @param percentile Between 0 and 1
+     * @param minSamples Samples needed before the estimate is trusted
+     * @return The latency at the percentile, or null with fewer than minSamples recorded
+     */
+    public synchronized Duration percentile(double percentile, int minSamples) {
+        if (size == 0 || size < minSamples) {
+            return null;
+        }
+        long[] sorted = Arrays.copyOf(nanos, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return Duration.ofNanos(sorted[Math.clamp(index, 0, size - 1)]);
+    }
+}
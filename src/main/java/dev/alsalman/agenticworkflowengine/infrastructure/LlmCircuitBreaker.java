@@ -0,0 +1,155 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for the LLM provider. Closed, it tracks whether each of the
+ * last {@code windowSize} calls failed; once the failure rate reaches the threshold it
+ * opens and every call fails fast for {@code openDuration}. Then it lets
+ * {@code halfOpenCalls} trial calls through: if all succeed it closes, if any fails it
+ * opens again.
+ *
+ * <p>Only provider failures count (see {@link LlmErrorClass#providerFailure()}); rate
+ * limits and bad requests say nothing about the provider's health.
+ */
+public final class LlmCircuitBreaker {
+    
+    private static final Logger log = LoggerFactory.getLogger(LlmCircuitBreaker.class);
+    
+    /** In order of severity; the {@code llm.circuit.state} gauge reports the ordinal */
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+    
+    private final LlmResilienceProperties.CircuitBreaker settings;
+    private final LongSupplier nanoClock;
+    private final boolean[] failures;
+    
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failed;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+    
+    public LlmCircuitBreaker(LlmResilienceProperties.CircuitBreaker settings) {
+        this(settings, System::nanoTime);
+    }
+    
+    public LlmCircuitBreaker(LlmResilienceProperties.CircuitBreaker settings, LongSupplier nanoClock) {
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.failures = new boolean[Math.max(1, settings.windowSize())];
+    }
+    
+    /**
+     * @return Whether a call may be made now. A permitted call must be ended with exactly
+     *         one of {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (!settings.enabled()) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < settings.openDuration().toNanos()) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= settings.halfOpenCalls()) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+    
+    public synchronized void onSuccess() {
+        if (!settings.enabled()) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            trialsSucceeded++;
+            if (trialsSucceeded >= settings.halfOpenCalls()) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+    
+    public synchronized void onFailure() {
+        if (!settings.enabled()) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= settings.minimumCalls()
+                && (double) failed / recorded >= settings.failureRateThreshold()) {
+                transition(State.OPEN);
+            }
+        }
+    }
+    
+    /**
+     * Ends a permitted call whose outcome says nothing about the provider, such as a rate
+     * limit or a hedge that was cancelled
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) {
+            trialsStarted--;
+        }
+    }
+    
+    public synchronized State state() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= settings.openDuration().toNanos()) {
+            return State.HALF_OPEN; // The next call will be a trial
+        }
+        return state;
+    }
+    
+    private void record(boolean failure) {
+        if (recorded == failures.length && failures[next]) {
+            failed--;
+        }
+        failures[next] = failure;
+        next = (next + 1) % failures.length;
+        recorded = Math.min(recorded + 1, failures.length);
+        if (failure) {
+            failed++;
+        }
+    }
+    
+    private void transition(State to) {
+        if (to == state) {
+            return;
+        }
+        if (to == State.OPEN && state == State.HALF_OPEN) {
+            log.warn("LLM circuit breaker reopened after a failed trial call; failing fast for {}", settings.openDuration());
+            openedAt = nanoClock.getAsLong();
+        } else if (to == State.OPEN) {
+            log.warn("LLM circuit breaker opened after {} of {} recent calls failed; failing fast for {}",
+                failed, recorded, settings.openDuration());
+            openedAt = nanoClock.getAsLong();
+        } else {
+            log.info("LLM circuit breaker {}", to == State.CLOSED ? "closed" : "half-open, sending trial calls");
+        }
+        state = to;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (to == State.CLOSED) {
+            next = 0;
+            recorded = 0;
+            failed = 0;
+        }
+    }
+}
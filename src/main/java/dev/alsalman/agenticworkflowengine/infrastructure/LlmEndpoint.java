@@ -0,0 +1,237 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One OpenAI-compatible endpoint and API key of the {@link LlmProviderPool}, with what the
+ * pool knows about it: an EWMA of the time to the first streamed chunk, requests in flight,
+ * the share of its rate limit left (from the provider's {@code x-ratelimit-*} headers), a
+ * cool-down after a 429, and its own circuit breaker.
+ */
+public final class LlmEndpoint {
+    
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|s|m|h)");
+    
+    private final String name;
+    private final ChatClient chatClient;
+    private final LlmCircuitBreaker circuitBreaker;
+    private final double ewmaWeight;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private volatile double latencyNanos;
+    private volatile long coolingDownUntil;
+    private volatile Quota requests;
+    private volatile Quota tokens;
+    
+    /**
+     * @param initialLatency Assumed latency until the first response, so a new endpoint is
+     *                       neither flooded nor starved
+     * @param ewmaWeight Weight of each new latency in the moving average, between 0 and 1
+     */
+    public LlmEndpoint(String name, ChatClient chatClient, LlmResilienceProperties.CircuitBreaker circuitBreaker,
+                       Duration initialLatency, double ewmaWeight) {
+        this(name, chatClient, new LlmCircuitBreaker(circuitBreaker), initialLatency, ewmaWeight, System::nanoTime);
+    }
+    
+    public LlmEndpoint(String name, ChatClient chatClient, LlmCircuitBreaker circuitBreaker,
+                       Duration initialLatency, double ewmaWeight, LongSupplier nanoClock) {
+        this.name = name;
+        this.chatClient = chatClient;
+        this.circuitBreaker = circuitBreaker;
+        this.ewmaWeight = ewmaWeight;
+        this.nanoClock = nanoClock;
+        this.latencyNanos = initialLatency.toNanos();
+        this.coolingDownUntil = nanoClock.getAsLong(); // nanoTime may be negative, so 0 is no sentinel
+    }
+    
+    /**
+     * One rate limit as last reported, with its reset on the endpoint's clock
+     */
+    private record Quota(long limit, long remaining, long observedAt, long resetsAt) {
+        
+        double remainingShare(long now) {
+            if (limit <= 0 || now >= resetsAt) {
+                return 1.0;
+            }
+            return (double) remaining / limit;
+        }
+        
+        /**
+         * Assumes the used part of the limit frees up evenly until the reset
+         */
+        double estimatedRemaining(long now) {
+            if (now >= resetsAt) {
+                return limit;
+            }
+            double elapsed = (double) (now - observedAt) / (resetsAt - observedAt);
+            return remaining + (limit - remaining) * elapsed;
+        }
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    public ChatClient chatClient() {
+        return chatClient;
+    }
+    
+    public LlmCircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    public void started() {
+        inFlight.incrementAndGet();
+    }
+    
+    public void finished() {
+        inFlight.decrementAndGet();
+    }
+    
+    public int inFlight() {
+        return inFlight.get();
+    }
+    
+    public synchronized void recordLatency(Duration latency) {
+        latencyNanos = ewmaWeight * latency.toNanos() + (1 - ewmaWeight) * latencyNanos;
+    }
+    
+    public Duration latency() {
+        return Duration.ofNanos((long) latencyNanos);
+    }
+    
+    /**
+     * Keeps new calls away from the endpoint while another one can take them, after it
+     * rejected a call with a rate limit
+     */
+    public void coolDown(Duration duration) {
+        long until = nanoClock.getAsLong() + duration.toNanos();
+        if (until - coolingDownUntil > 0) {
+            coolingDownUntil = until;
+        }
+    }
+    
+    public boolean isCoolingDown() {
+        return coolingDownUntil - nanoClock.getAsLong() > 0;
+    }
+    
+    /**
+     * @return Whether the endpoint should take new calls: its circuit is not open and it is
+     *         not cooling down
+     */
+    public boolean isAvailable() {
+        return circuitBreaker.state() != LlmCircuitBreaker.State.OPEN && !isCoolingDown();
+    }
+    
+    /**
+     * @return The smaller remaining share of the request and token limits; 1 when the
+     *         provider reports none
+     */
+    public double remainingQuota() {
+        long now = nanoClock.getAsLong();
+        Quota requestQuota = requests;
+        Quota tokenQuota = tokens;
+        return Math.min(requestQuota != null ? requestQuota.remainingShare(now) : 1.0,
+            tokenQuota != null ? tokenQuota.remainingShare(now) : 1.0);
+    }
+    
+    /**
+     * @return The request limit the provider last reported, or 0 if it reported none
+     */
+    public long requestLimit() {
+        Quota requestQuota = requests;
+        return requestQuota != null ? requestQuota.limit() : 0;
+    }
+    
+    /**
+     * @return Requests the provider would accept now going by its last report, or -1 if it
+     *         reported none
+     */
+    public double estimatedRemainingRequests() {
+        Quota requestQuota = requests;
+        return requestQuota != null ? requestQuota.estimatedRemaining(nanoClock.getAsLong()) : -1;
+    }
+    
+    /**
+     * Expected wait for a new call: latency grows with the calls already in flight, and an
+     * endpoint close to its rate limit looks slower so the others take over before it
+     * starts rejecting calls
+     */
+    public double cost() {
+        return latencyNanos * (inFlight.get() + 1) / Math.max(remainingQuota(), 0.01);
+    }
+    
+    /**
+     * Reads OpenAI's rate-limit headers from a response of this endpoint
+     */
+    public void observe(HttpHeaders headers) {
+        Quota requestQuota = quota(headers, "requests");
+        if (requestQuota != null) {
+            requests = requestQuota;
+        }
+        Quota tokenQuota = quota(headers, "tokens");
+        if (tokenQuota != null) {
+            tokens = tokenQuota;
+        }
+    }
+    
+    /**
+     * @return State for the health endpoint
+     */
+    public Map<String, Object> details() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("circuit", circuitBreaker.state());
+        details.put("latencyMs", latency().toMillis());
+        details.put("inFlight", inFlight());
+        details.put("remainingQuota", Math.round(remainingQuota() * 100) / 100.0);
+        details.put("coolingDown", isCoolingDown());
+        return details;
+    }
+    
+    private Quota quota(HttpHeaders headers, String kind) {
+        String limit = headers.getFirst("x-ratelimit-limit-" + kind);
+        String remaining = headers.getFirst("x-ratelimit-remaining-" + kind);
+        if (limit == null || remaining == null) {
+            return null;
+        }
+        try {
+            Duration reset = parseReset(headers.getFirst("x-ratelimit-reset-" + kind));
+            long now = nanoClock.getAsLong();
+            return new Quota(Long.parseLong(limit.trim()), Long.parseLong(remaining.trim()), now, now + reset.toNanos());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * @param reset Time until the limit resets in OpenAI's format, such as {@code 6m0s} or {@code 20ms}
+     */
+    public static Duration parseReset(String reset) {
+        if (reset == null) {
+            return Duration.ofMinutes(1); // OpenAI limits are per minute
+        }
+        Duration total = Duration.ZERO;
+        Matcher matcher = DURATION_PART.matcher(reset.trim());
+        while (matcher.find()) {
+            double value = Double.parseDouble(matcher.group(1));
+            long nanos = switch (matcher.group(2)) {
+                case "ms" -> (long) (value * 1_000_000);
+                case "s" -> (long) (value * 1_000_000_000);
+                case "m" -> (long) (value * 60_000_000_000L);
+                default -> (long) (value * 3_600_000_000_000L);
+            };
+            total = total.plusNanos(nanos);
+        }
+        return total;
+    }
+}
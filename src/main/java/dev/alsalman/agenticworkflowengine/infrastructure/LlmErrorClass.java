@@ -0,0 +1,203 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Why an LLM call failed, which decides whether and how it is retried (see
+ * {@link LlmResilienceProperties#retry()}) and whether it counts against the provider in
+ * the {@link LlmCircuitBreaker}
+ */
+public enum LlmErrorClass {
+    
+    /** 429: the provider is healthy but throttling us */
+    RATE_LIMITED("rate_limited", false),
+    /** 5xx from the provider */
+    SERVER_ERROR("server_error", true),
+    /** No response in time: 408, a read or connect timeout */
+    TIMEOUT("timeout", true),
+    /** The provider could not be reached */
+    CONNECTION("connection", true),
+    /** 401 or 403: the endpoint's API key is invalid or lacks access */
+    UNAUTHORIZED("unauthorized", true),
+    /** Any other 4xx: the request itself is wrong and will fail again */
+    CLIENT_ERROR("client_error", false),
+    /** Anything else, such as an unparseable response */
+    UNKNOWN("error", false);
+    
+    private static final String RETRY_AFTER_MS = "retry-after-ms";
+    
+    private final String tag;
+    private final boolean providerFailure;
+    
+    LlmErrorClass(String tag, boolean providerFailure) {
+        this.tag = tag;
+        this.providerFailure = providerFailure;
+    }
+    
+    /**
+     * @return The outcome tag of the {@code llm.call} metric
+     */
+    public String tag() {
+        return tag;
+    }
+    
+    /**
+     * @return Whether the error suggests the provider is unhealthy, so it counts as a
+     *         failure for the circuit breaker
+     */
+    public boolean providerFailure() {
+        return providerFailure;
+    }
+    
+    /**
+     * @return Whether another endpoint of the pool may succeed where this one failed
+     */
+    public boolean endpointFailure() {
+        return this != CLIENT_ERROR && this != UNKNOWN;
+    }
+    
+    /**
+     * Classifies the error by HTTP status where one is available, then by exception type,
+     * and falls back to the provider's rate-limit messages
+     */
+    public static LlmErrorClass classify(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            Integer status = statusOf(e);
+            if (status != null) {
+                return ofStatus(status);
+            }
+            if (e instanceof TimeoutException || e instanceof HttpTimeoutException) {
+                return TIMEOUT;
+            }
+            if (e instanceof ConnectException) {
+                return CONNECTION;
+            }
+            if (e instanceof WebClientRequestException) {
+                // The request never got a response
+                return classify(e.getCause()) == TIMEOUT ? TIMEOUT : CONNECTION;
+            }
+            if (isRateLimitMessage(e.getMessage())) {
+                return RATE_LIMITED;
+            }
+            if (e instanceof TransientAiException) {
+                return SERVER_ERROR;
+            }
+            if (e instanceof NonTransientAiException) {
+                return CLIENT_ERROR;
+            }
+        }
+        return UNKNOWN;
+    }
+    
+    /**
+     * @return The delay the provider asked for in {@code Retry-After} (seconds or an HTTP
+     *         date) or OpenAI's {@code retry-after-ms}, or null if it gave none
+     */
+    public static Duration retryAfter(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            HttpHeaders headers = headersOf(e);
+            if (headers == null) {
+                continue;
+            }
+            Duration delay = parseRetryAfter(headers.getFirst(RETRY_AFTER_MS), headers.getFirst(HttpHeaders.RETRY_AFTER));
+            if (delay != null) {
+                return delay;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * @return The HTTP status of the provider's response, or null if there was none
+     */
+    public static Integer status(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            Integer status = statusOf(e);
+            if (status != null) {
+                return status;
+            }
+        }
+        return null;
+    }
+    
+    static Duration parseRetryAfter(String milliseconds, String retryAfter) {
+        try {
+            if (milliseconds != null) {
+                return Duration.ofMillis(Math.max(0, (long) Double.parseDouble(milliseconds.trim())));
+            }
+            if (retryAfter == null) {
+                return null;
+            }
+            String value = retryAfter.trim();
+            if (value.chars().allMatch(Character::isDigit) && !value.isEmpty()) {
+                return Duration.ofSeconds(Long.parseLong(value));
+            }
+            Instant at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration delay = Duration.between(Instant.now(), at);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    private static LlmErrorClass ofStatus(int status) {
+        if (status == 429) {
+            return RATE_LIMITED;
+        }
+        if (status == 408) {
+            return TIMEOUT;
+        }
+        if (status == 401 || status == 403) {
+            return UNAUTHORIZED;
+        }
+        if (status >= 500) {
+            return SERVER_ERROR;
+        }
+        return CLIENT_ERROR;
+    }
+    
+    private static Integer statusOf(Throwable e) {
+        if (e instanceof WebClientResponseException webClientError) {
+            return webClientError.getStatusCode().value();
+        }
+        if (e instanceof RestClientResponseException restClientError) {
+            return restClientError.getStatusCode().value();
+        }
+        return null;
+    }
+    
+    private static HttpHeaders headersOf(Throwable e) {
+        if (e instanceof WebClientResponseException webClientError) {
+            return webClientError.getHeaders();
+        }
+        if (e instanceof RestClientResponseException restClientError) {
+            return restClientError.getResponseHeaders();
+        }
+        return null;
+    }
+    
+    private static boolean isRateLimitMessage(String message) {
+        // OpenAI specific rate limit messages, for errors that carry no status
+        return message != null && (
+            message.contains("rate limit") ||
+            message.contains("Rate limit") ||
+            message.contains("429") ||
+            message.contains("too many requests") ||
+            message.contains("quota exceeded")
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Executors;
+
+/**
+ * Non-blocking transport for the WebClient that Spring AI streams chat completions over. The
+ * JDK HttpClient keeps connections alive and negotiates HTTP/2 with the provider, so
+ * thousands of calls in flight share a handful of connections. No thread waits on a
+ * response; the client's virtual-thread executor only parses chunks as they arrive.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LlmHttpClientConfiguration {
+    
+    @Bean
+    public WebClientCustomizer llmWebClientCustomizer(LlmHttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(properties.version())
+            .connectTimeout(properties.connectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        return builder -> {
+            JdkClientHttpConnector connector = new JdkClientHttpConnector(httpClient);
+            connector.setReadTimeout(properties.readTimeout());
+            builder.clientConnector(connector);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Transport for the streaming LLM calls (see {@link LlmHttpClientConfiguration})
+ *
+ * @param version HTTP_2 multiplexes concurrent calls over few connections; HTTP_1_1 keeps a pool of keep-alive connections
+ * @param connectTimeout Time allowed to open a connection to the provider
+ * @param readTimeout Time allowed for the provider to start responding
+ */
+@ConfigurationProperties(prefix = "workflow.llm.http")
+public record LlmHttpClientProperties(
+    @DefaultValue("HTTP_2") HttpClient.Version version,
+    @DefaultValue("PT10S") Duration connectTimeout,
+    @DefaultValue("PT60S") Duration readTimeout
+) {
+}
@@ -0,0 +1,63 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+/**
+ * Prices used to turn reported token usage into cost.
+ *
+ * @param models USD per million prompt and completion tokens by model name. Provider model
+ *               names such as {@code gpt-4o-2024-08-06} match the longest configured prefix.
+ */
+@ConfigurationProperties(prefix = "workflow.llm.pricing")
+public record LlmPricingProperties(
+    Map<String, ModelPrice> models
+) {
+    
+    private static final BigDecimal MILLION = BigDecimal.valueOf(1_000_000);
+    
+    public LlmPricingProperties {
+        models = models != null ? Map.copyOf(models) : Map.of();
+    }
+    
+    /**
+     * @param prompt USD per million prompt tokens
+     * @param completion USD per million completion tokens
+     */
+    public record ModelPrice(BigDecimal prompt, BigDecimal completion) {
+    }
+    
+    /**
+     * @return The price of the model, or null if it has none configured
+     */
+    public ModelPrice priceOf(String model) {
+        if (model == null) {
+            return null;
+        }
+        ModelPrice exact = models.get(model);
+        if (exact != null) {
+            return exact;
+        }
+        return models.entrySet().stream()
+            .filter(entry -> model.startsWith(entry.getKey()))
+            .max((a, b) -> Integer.compare(a.getKey().length(), b.getKey().length()))
+            .map(Map.Entry::getValue)
+            .orElse(null);
+    }
+    
+    /**
+     * @return Cost in USD of the tokens, zero if the model has no price
+     */
+    public BigDecimal cost(String model, int promptTokens, int completionTokens) {
+        ModelPrice price = priceOf(model);
+        if (price == null) {
+            return BigDecimal.ZERO;
+        }
+        return price.prompt().multiply(BigDecimal.valueOf(promptTokens))
+            .add(price.completion().multiply(BigDecimal.valueOf(completionTokens)))
+            .divide(MILLION, 6, RoundingMode.HALF_UP);
+    }
+}
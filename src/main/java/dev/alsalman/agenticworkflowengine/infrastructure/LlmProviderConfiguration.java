@@ -0,0 +1,108 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiChatProperties;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiConnectionProperties;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the {@link LlmProviderPool}. Configured endpoints each get their own OpenAI client on
+ * the shared non-blocking transport, with the default options of {@code spring.ai.openai.chat}
+ * and a filter that feeds the rate-limit headers of every response back to the endpoint.
+ * Without configured endpoints the pool holds one built the same way from
+ * {@code spring.ai.openai}, so its rate limit is known too.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LlmProviderConfiguration {
+    
+    /** Name of the endpoint configured under {@code spring.ai.openai} */
+    static final String DEFAULT_ENDPOINT = "openai";
+    
+    @Bean
+    public LlmProviderPool llmProviderPool(LlmProviderProperties providers, LlmResilienceProperties resilience,
+                                           ChatClient.Builder chatClientBuilder,
+                                           ObjectProvider<OpenAiChatModel> defaultModel,
+                                           ObjectProvider<OpenAiConnectionProperties> connection,
+                                           ObjectProvider<OpenAiChatProperties> chat,
+                                           ObjectProvider<WebClient.Builder> webClientBuilder,
+                                           ObjectProvider<RestClient.Builder> restClientBuilder) {
+        OpenAiChatModel configured = defaultModel.getIfAvailable();
+        OpenAiChatOptions defaultOptions = configured != null
+            ? OpenAiChatOptions.fromOptions((OpenAiChatOptions) configured.getDefaultOptions())
+            : OpenAiChatOptions.builder().streamUsage(true).build();
+        if (providers.endpoints().isEmpty()) {
+            OpenAiConnectionProperties connectionProperties = connection.getIfAvailable();
+            OpenAiChatProperties chatProperties = chat.getIfAvailable();
+            if (connectionProperties == null || chatProperties == null) {
+                return new LlmProviderPool(List.of(new LlmEndpoint(DEFAULT_ENDPOINT, chatClientBuilder.build(),
+                    resilience.circuitBreaker(), providers.initialLatency(), providers.ewmaWeight())));
+            }
+            LlmProviderProperties.Endpoint endpoint = new LlmProviderProperties.Endpoint(DEFAULT_ENDPOINT,
+                StringUtils.hasText(chatProperties.getBaseUrl()) ? chatProperties.getBaseUrl() : connectionProperties.getBaseUrl(),
+                StringUtils.hasText(chatProperties.getApiKey()) ? chatProperties.getApiKey() : connectionProperties.getApiKey(),
+                chatProperties.getCompletionsPath(), accountHeaders(connectionProperties));
+            return new LlmProviderPool(List.of(openAiEndpoint(endpoint, providers, resilience, defaultOptions,
+                webClientBuilder.getIfAvailable(WebClient::builder), restClientBuilder.getIfAvailable(RestClient::builder))));
+        }
+        List<LlmEndpoint> endpoints = providers.endpoints().stream()
+            .map(endpoint -> openAiEndpoint(endpoint, providers, resilience, defaultOptions,
+                webClientBuilder.getIfAvailable(WebClient::builder), restClientBuilder.getIfAvailable(RestClient::builder)))
+            .toList();
+        return new LlmProviderPool(endpoints);
+    }
+    
+    /**
+     * Builds an endpoint with its own OpenAI client, for an OpenAI-compatible API
+     */
+    public static LlmEndpoint openAiEndpoint(LlmProviderProperties.Endpoint settings, LlmProviderProperties providers,
+                                             LlmResilienceProperties resilience, OpenAiChatOptions defaultOptions,
+                                             WebClient.Builder webClientBuilder, RestClient.Builder restClientBuilder) {
+        LlmEndpoint[] endpoint = new LlmEndpoint[1]; // The filter needs the endpoint it is built for
+        MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+        settings.headers().forEach(headers::add);
+        OpenAiApi api = OpenAiApi.builder()
+            .baseUrl(settings.baseUrl())
+            .apiKey(settings.apiKey())
+            .headers(headers)
+            .completionsPath(settings.completionsPath())
+            .webClientBuilder(webClientBuilder.clone().filter((request, next) -> next.exchange(request)
+                .doOnNext(response -> endpoint[0].observe(response.headers().asHttpHeaders()))))
+            .restClientBuilder(restClientBuilder.clone())
+            .build();
+        OpenAiChatModel model = OpenAiChatModel.builder()
+            .openAiApi(api)
+            .defaultOptions(OpenAiChatOptions.fromOptions(defaultOptions))
+            .build();
+        endpoint[0] = new LlmEndpoint(settings.name(), ChatClient.create(model), resilience.circuitBreaker(),
+            providers.initialLatency(), providers.ewmaWeight());
+        return endpoint[0];
+    }
+    
+    /**
+     * Organization and project headers as the Spring AI auto-configuration sends them
+     */
+    private static Map<String, String> accountHeaders(OpenAiConnectionProperties connection) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (StringUtils.hasText(connection.getOrganizationId())) {
+            headers.put("OpenAI-Organization", connection.getOrganizationId());
+        }
+        if (StringUtils.hasText(connection.getProjectId())) {
+            headers.put("OpenAI-Project", connection.getProjectId());
+        }
+        return headers;
+    }
+}
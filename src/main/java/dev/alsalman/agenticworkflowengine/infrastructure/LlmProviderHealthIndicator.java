@@ -0,0 +1,32 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports each endpoint of the {@link LlmProviderPool} under {@code /actuator/health}. A pool
+ * with some endpoints unavailable is DEGRADED rather than DOWN: workflows keep running on the
+ * rest, and an instance should not be restarted for a provider outage.
+ */
+@Component("llmProviders")
+public class LlmProviderHealthIndicator implements HealthIndicator {
+    
+    static final Status DEGRADED = new Status("DEGRADED");
+    
+    private final LlmProviderPool pool;
+    
+    public LlmProviderHealthIndicator(LlmProviderPool pool) {
+        this.pool = pool;
+    }
+    
+    @Override
+    public Health health() {
+        long available = pool.endpoints().stream().filter(LlmEndpoint::isAvailable).count();
+        Health.Builder health = available == pool.endpoints().size() ? Health.up() : Health.status(DEGRADED);
+        health.withDetail("available", available);
+        pool.endpoints().forEach(endpoint -> health.withDetail(endpoint.name(), endpoint.details()));
+        return health.build();
+    }
+}
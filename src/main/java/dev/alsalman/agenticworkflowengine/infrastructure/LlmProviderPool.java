@@ -0,0 +1,54 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The LLM endpoints calls can be sent to (see {@link LlmProviderConfiguration}). Each call
+ * goes to the endpoint with the lowest expected wait: EWMA latency scaled by the calls in
+ * flight and by how close the endpoint is to its rate limit. Endpoints whose circuit is
+ * open are skipped; endpoints cooling down after a 429, or that already failed the call,
+ * are used only when nothing else can take it.
+ */
+public class LlmProviderPool {
+    
+    private final List<LlmEndpoint> endpoints;
+    
+    public LlmProviderPool(List<LlmEndpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("The LLM provider pool needs at least one endpoint");
+        }
+        this.endpoints = List.copyOf(endpoints);
+    }
+    
+    public List<LlmEndpoint> endpoints() {
+        return endpoints;
+    }
+    
+    /**
+     * Picks an endpoint for a call and takes a permit from its circuit breaker
+     *
+     * @param avoid Endpoints to use only as a last resort, such as those that already failed the call
+     * @return The endpoint, or null if every endpoint's circuit is open
+     */
+    public LlmEndpoint acquire(Collection<LlmEndpoint> avoid) {
+        Comparator<LlmEndpoint> preference = Comparator
+            .comparing((LlmEndpoint endpoint) -> avoid.contains(endpoint))
+            .thenComparing(LlmEndpoint::isCoolingDown)
+            .thenComparingDouble(LlmEndpoint::cost);
+        return endpoints.stream()
+            .filter(endpoint -> endpoint.circuitBreaker().state() != LlmCircuitBreaker.State.OPEN)
+            .sorted(preference)
+            .filter(endpoint -> endpoint.circuitBreaker().tryAcquire())
+            .findFirst()
+            .orElse(null);
+    }
+    
+    /**
+     * @return Whether an endpoint outside the given ones can take a call right away
+     */
+    public boolean hasAlternative(Collection<LlmEndpoint> tried) {
+        return endpoints.stream().anyMatch(endpoint -> !tried.contains(endpoint) && endpoint.isAvailable());
+    }
+}
@@ -0,0 +1,47 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OpenAI-compatible endpoints of the {@link LlmProviderPool}. Without any, the pool holds
+ * only the endpoint configured under {@code spring.ai.openai}.
+ *
+ * @param endpoints Endpoints and API keys to spread calls over; each key has its own rate limit
+ * @param initialLatency Latency assumed for an endpoint until it has answered
+ * @param ewmaWeight Weight of each new latency in an endpoint's moving average
+ */
+@ConfigurationProperties(prefix = "workflow.llm.providers")
+public record LlmProviderProperties(
+    List<Endpoint> endpoints,
+    @DefaultValue("PT2S") Duration initialLatency,
+    @DefaultValue("0.2") double ewmaWeight
+) {
+    
+    public LlmProviderProperties {
+        endpoints = endpoints != null ? List.copyOf(endpoints) : List.of();
+    }
+    
+    /**
+     * @param name Identifies the endpoint in logs, metrics and health
+     * @param baseUrl Such as {@code https://api.openai.com} or a compatible gateway
+     * @param completionsPath Path of the chat completions API under the base URL
+     * @param headers Extra headers sent with every request, such as {@code OpenAI-Project}
+     */
+    public record Endpoint(
+        String name,
+        String baseUrl,
+        String apiKey,
+        @DefaultValue("/v1/chat/completions") String completionsPath,
+        Map<String, String> headers
+    ) {
+        
+        public Endpoint {
+            headers = headers != null ? Map.copyOf(headers) : Map.of();
+        }
+    }
+}
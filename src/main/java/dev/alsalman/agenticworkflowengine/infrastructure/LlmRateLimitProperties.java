@@ -0,0 +1,29 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Request rate limit shared by all instances through the {@code llm_rate_limits} table
+ * (see {@link LlmRateLimiter}).
+ *
+ * @param enabled Whether calls draw on the shared limit; without it each instance only
+ *                learns about the limit from 429s
+ * @param batchSize Requests leased at once; larger batches mean fewer database round trips
+ *                  but coarser sharing between instances
+ * @param leaseTtl Unused leased requests are dropped after this long, so an idle instance
+ *                 does not hold on to them
+ * @param limitWindow Period of the provider's request limit; OpenAI limits are per minute
+ * @param maxWait Longest a call waits for the shared limit before it is sent anyway
+ */
+@ConfigurationProperties(prefix = "workflow.llm.rate-limit")
+public record LlmRateLimitProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10") int batchSize,
+    @DefaultValue("PT10S") Duration leaseTtl,
+    @DefaultValue("PT1M") Duration limitWindow,
+    @DefaultValue("PT30S") Duration maxWait
+) {
+}
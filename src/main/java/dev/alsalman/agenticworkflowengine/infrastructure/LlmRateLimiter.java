@@ -0,0 +1,165 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps all instances of the application together within each endpoint's request limit.
+ * The limit lives in one token bucket per endpoint in the {@code llm_rate_limits} table,
+ * sized and refilled from the {@code x-ratelimit-*} headers any instance has seen.
+ * Instances lease requests in batches of {@link LlmRateLimitProperties#batchSize()} and
+ * spend them locally, so a call normally goes out without touching the database.
+ *
+ * <p>The limiter fails open: if the database cannot be reached, calls go out and the
+ * provider's 429s are handled by the retries as before.
+ */
+@Component
+public class LlmRateLimiter {
+    
+    private static final Logger log = LoggerFactory.getLogger(LlmRateLimiter.class);
+    
+    private static final CompletableFuture<Void> PERMITTED = CompletableFuture.completedFuture(null);
+    private static final Duration MIN_WAIT = Duration.ofMillis(50);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final LlmRateLimitProperties properties;
+    private final WorkflowMetrics metrics;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    
+    /** Leases block on the database */
+    private final Executor executor = Executors.newVirtualThreadPerTaskExecutor();
+    
+    public LlmRateLimiter(JdbcTemplate jdbcTemplate, LlmRateLimitProperties properties, WorkflowMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Requests leased by this instance and not yet spent. Only one lease per endpoint is
+     * taken from the database at a time; calls that run out meanwhile wait for it.
+     */
+    private static final class Lease {
+        
+        private int permits;
+        private long expiresAt;
+        private CompletableFuture<Integer> renewal;
+        
+        synchronized boolean tryTake(long now) {
+            if (permits > 0 && expiresAt - now > 0) {
+                permits--;
+                return true;
+            }
+            return false;
+        }
+        
+        synchronized CompletableFuture<Integer> renew(Supplier<CompletableFuture<Integer>> lease) {
+            if (renewal == null) {
+                renewal = lease.get();
+            }
+            return renewal;
+        }
+        
+        synchronized void renewed(int granted, long expiresAt) {
+            this.permits = granted;
+            this.expiresAt = expiresAt;
+            this.renewal = null;
+        }
+    }
+    
+    /**
+     * @return A future completed once the endpoint may be sent a request, immediately while
+     *         this instance still holds leased requests
+     */
+    public CompletableFuture<Void> acquire(LlmEndpoint endpoint) {
+        if (!properties.enabled()) {
+            return PERMITTED;
+        }
+        Lease lease = leases.computeIfAbsent(endpoint.name(), name -> new Lease());
+        if (lease.tryTake(System.nanoTime())) {
+            return PERMITTED;
+        }
+        long start = System.nanoTime();
+        return acquire(endpoint, lease, start)
+            .whenComplete((ignored, error) -> metrics.llmRateLimitWait(endpoint.name(),
+                Duration.ofNanos(System.nanoTime() - start)));
+    }
+    
+    private CompletableFuture<Void> acquire(LlmEndpoint endpoint, Lease lease, long start) {
+        long now = System.nanoTime();
+        if (lease.tryTake(now)) {
+            return PERMITTED;
+        }
+        if (now - start >= properties.maxWait().toNanos()) {
+            log.warn("No shared rate limit left for {} after {} ms, sending anyway",
+                    endpoint.name(), properties.maxWait().toMillis());
+            return PERMITTED;
+        }
+        return lease.renew(() -> CompletableFuture.supplyAsync(() -> renew(endpoint, lease), executor))
+            .thenCompose(granted -> {
+                if (granted > 0) {
+                    return acquire(endpoint, lease, start);
+                }
+                Executor later = CompletableFuture.delayedExecutor(refillWait(endpoint).toMillis(), TimeUnit.MILLISECONDS);
+                return CompletableFuture.runAsync(() -> { }, later).thenCompose(ignored -> acquire(endpoint, lease, start));
+            });
+    }
+    
+    private int renew(LlmEndpoint endpoint, Lease lease) {
+        int granted = lease(endpoint);
+        lease.renewed(granted, System.nanoTime() + properties.leaseTtl().toNanos());
+        return granted;
+    }
+    
+    /**
+     * Takes a batch from the endpoint's bucket, passing on the limit this instance last saw
+     * reported so the bucket follows changes of the provider's limit
+     *
+     * @return Requests granted, the whole batch when the database cannot be reached
+     */
+    private int lease(LlmEndpoint endpoint) {
+        long limit = endpoint.requestLimit();
+        double remaining = endpoint.estimatedRemainingRequests();
+        Double capacity = limit > 0 ? (double) limit : null;
+        Double refillPerSecond = limit > 0 ? limit / (properties.limitWindow().toMillis() / 1000.0) : null;
+        try {
+            Integer granted = jdbcTemplate.queryForObject("""
+                SELECT lease_llm_rate_limit(?, CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION),
+                                            CAST(? AS DOUBLE PRECISION), ?)
+                """, Integer.class, endpoint.name(), capacity, refillPerSecond,
+                remaining >= 0 ? remaining : null, properties.batchSize());
+            int leased = granted != null ? granted : properties.batchSize();
+            metrics.llmRateLimitLease(endpoint.name(), leased > 0 ? "granted" : "empty");
+            log.debug("Leased {} requests for {}", leased, endpoint.name());
+            return leased;
+        } catch (RuntimeException e) {
+            metrics.llmRateLimitLease(endpoint.name(), "error");
+            log.warn("Could not lease from the shared rate limit for {}, not limiting: {}",
+                    endpoint.name(), e.getMessage());
+            return properties.batchSize();
+        }
+    }
+    
+    /**
+     * @return Roughly how long until the bucket holds another request
+     */
+    private Duration refillWait(LlmEndpoint endpoint) {
+        long limit = endpoint.requestLimit();
+        if (limit <= 0) {
+            return MIN_WAIT;
+        }
+        Duration perRequest = properties.limitWindow().dividedBy(limit);
+        return perRequest.compareTo(MIN_WAIT) > 0 ? perRequest : MIN_WAIT;
+    }
+}
@@ -0,0 +1,112 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * How {@link ResilientChatClient} retries, sheds and hedges LLM calls.
+ *
+ * @param retry Retry policy per error class; classes without a policy, and client errors,
+ *              are not retried. Configured entries replace the defaults.
+ * @param circuitBreaker Fails calls fast while the provider is failing
+ * @param hedging Duplicate requests for slow responses
+ * @param budget Limits retries and hedges to a share of calls, so they cannot multiply
+ *               the load on a provider that is already struggling
+ */
+@ConfigurationProperties(prefix = "workflow.llm.resilience")
+public record LlmResilienceProperties(
+    Map<LlmErrorClass, RetryPolicy> retry,
+    @DefaultValue CircuitBreaker circuitBreaker,
+    @DefaultValue Hedging hedging,
+    @DefaultValue Budget budget
+) {
+    
+    private static final Map<LlmErrorClass, RetryPolicy> DEFAULT_RETRY = Map.of(
+        LlmErrorClass.RATE_LIMITED, new RetryPolicy(4, Duration.ofSeconds(1), Duration.ofSeconds(30)),
+        LlmErrorClass.SERVER_ERROR, new RetryPolicy(3, Duration.ofMillis(500), Duration.ofSeconds(8)),
+        LlmErrorClass.TIMEOUT, new RetryPolicy(2, Duration.ofMillis(500), Duration.ofSeconds(2)),
+        LlmErrorClass.CONNECTION, new RetryPolicy(3, Duration.ofMillis(250), Duration.ofSeconds(2))
+    );
+    
+    public LlmResilienceProperties {
+        Map<LlmErrorClass, RetryPolicy> merged = new EnumMap<>(DEFAULT_RETRY);
+        if (retry != null) {
+            merged.putAll(retry);
+        }
+        merged.remove(LlmErrorClass.CLIENT_ERROR);
+        retry = Map.copyOf(merged);
+    }
+    
+    /**
+     * @param maxAttempts Attempts in total, including the first; once a call has made this
+     *                    many, an error of the class is not retried
+     * @param baseDelay Delay before the first retry, doubled for each further one
+     * @param maxDelay Upper bound on the delay, also applied to the provider's Retry-After
+     */
+    public record RetryPolicy(
+        @DefaultValue("3") int maxAttempts,
+        @DefaultValue("PT1S") Duration baseDelay,
+        @DefaultValue("PT30S") Duration maxDelay
+    ) {
+    }
+    
+    /**
+     * @param windowSize Number of most recent calls the failure rate is computed over
+     * @param minimumCalls Calls needed in the window before the breaker may open
+     * @param failureRateThreshold Share of provider failures (5xx, timeouts, connection errors) that opens the breaker
+     * @param openDuration How long calls fail fast before trial calls are let through
+     * @param halfOpenCalls Trial calls that must all succeed to close the breaker again
+     */
+    public record CircuitBreaker(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int windowSize,
+        @DefaultValue("10") int minimumCalls,
+        @DefaultValue("0.5") double failureRateThreshold,
+        @DefaultValue("PT30S") Duration openDuration,
+        @DefaultValue("3") int halfOpenCalls
+    ) {
+    }
+    
+    /**
+     * @param operations Operations that may be sent twice. Only idempotent calls belong here:
+     *                   the duplicate is paid for even when it loses.
+     * @param percentile Latency percentile of recent successful calls after which the duplicate is sent
+     * @param minDelay Lower bound on the hedge delay
+     * @param latencyWindow Successful calls per operation the percentile is computed over. Calls
+     *                      are not hedged until the operation has some latencies recorded.
+     */
+    public record Hedging(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue({"task planning", "sub-goal planning", "plan review", "goal summarization"}) Set<String> operations,
+        @DefaultValue("0.95") double percentile,
+        @DefaultValue("PT2S") Duration minDelay,
+        @DefaultValue("100") int latencyWindow
+    ) {
+        
+        public boolean applies(String operation) {
+            return enabled && operations.contains(operation);
+        }
+    }
+    
+    /**
+     * @param ratio Retries and hedges allowed per call, on average
+     * @param maxTokens Retries and hedges that may be spent in a burst, and the initial balance
+     */
+    public record Budget(
+        @DefaultValue("0.2") double ratio,
+        @DefaultValue("20") int maxTokens
+    ) {
+    }
+    
+    /**
+     * @return The policy for the error class, or null if it is not retried
+     */
+    public RetryPolicy retryPolicy(LlmErrorClass errorClass) {
+        return retry.get(errorClass);
+    }
+}
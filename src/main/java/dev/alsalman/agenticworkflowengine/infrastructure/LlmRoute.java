@@ -0,0 +1,79 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.ResponseFormat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Where and how one LLM call is sent, chosen by {@link LlmRouter}. Null options keep the
+ * provider's configured defaults.
+ *
+ * @param models The model to call followed by its fallbacks; a null entry stands for the
+ *               default model, and an empty list calls only the default model
+ */
+public record LlmRoute(
+    List<String> models,
+    Integer maxTokens,
+    Double temperature,
+    List<String> stop
+) {
+    
+    /** The configured defaults, for calls no route matches */
+    public static final LlmRoute DEFAULT = new LlmRoute(List.of(), null, null, null);
+    
+    public LlmRoute {
+        models = models != null ? Collections.unmodifiableList(new ArrayList<>(models)) : List.of();
+        stop = stop != null ? List.copyOf(stop) : null;
+    }
+    
+    /**
+     * @return Number of models to try, at least one
+     */
+    public int chainLength() {
+        return Math.max(1, models.size());
+    }
+    
+    /**
+     * @return The model at the position in the chain, or null for the default model
+     */
+    public String model(int index) {
+        return index < models.size() ? models.get(index) : null;
+    }
+    
+    /**
+     * @return Options for a call to the model at the position in the chain
+     */
+    public ChatOptions options(int index) {
+        return ChatOptions.builder()
+            .model(model(index))
+            .maxTokens(maxTokens)
+            .temperature(temperature)
+            .stopSequences(stop)
+            .build();
+    }
+    
+    /**
+     * @param responseSchema JSON schema the answer must follow (structured output), or null
+     *                       for free text
+     * @return Options for a call to the model at the position in the chain
+     */
+    public ChatOptions options(int index, String responseSchema) {
+        if (responseSchema == null) {
+            return options(index);
+        }
+        return OpenAiChatOptions.builder()
+            .model(model(index))
+            .maxTokens(maxTokens)
+            .temperature(temperature)
+            .stop(stop)
+            .responseFormat(ResponseFormat.builder()
+                .type(ResponseFormat.Type.JSON_SCHEMA)
+                .jsonSchema(responseSchema)
+                .build())
+            .build();
+    }
+}
@@ -0,0 +1,85 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Chooses model and generation options for each LLM call from {@link LlmRoutingProperties},
+ * by operation, the template of the current workflow (see {@link WorkflowContext}) and the
+ * class of the task being executed. Secondary operations such as plan review and
+ * summarization can run on a smaller, faster model with a tighter token budget.
+ */
+@Component
+public class LlmRouter {
+    
+    private final List<LlmRoutingProperties.Route> routes;
+    private final Map<String, Pattern> taskClasses = new LinkedHashMap<>();
+    
+    public LlmRouter(LlmRoutingProperties properties) {
+        // Stable sort: among equally specific routes the later one wins
+        this.routes = properties.routes().stream()
+            .sorted(Comparator.comparingInt(LlmRoutingProperties.Route::specificity))
+            .toList();
+        properties.taskClasses().forEach((name, regex) -> taskClasses.put(name, Pattern.compile(regex)));
+    }
+    
+    /**
+     * @param taskDescription The task being executed, or null for calls that are not about one task
+     */
+    public LlmRoute route(String operation, String taskDescription) {
+        String taskClass = classify(taskDescription);
+        UUID template = WorkflowContext.templateId();
+        
+        String model = null;
+        List<String> fallback = null;
+        Integer maxTokens = null;
+        Double temperature = null;
+        List<String> stop = null;
+        boolean matched = false;
+        for (LlmRoutingProperties.Route route : routes) {
+            if (!route.matches(operation, template, taskClass)) {
+                continue;
+            }
+            matched = true;
+            model = route.model() != null ? route.model() : model;
+            fallback = route.fallback() != null ? route.fallback() : fallback;
+            maxTokens = route.maxTokens() != null ? route.maxTokens() : maxTokens;
+            temperature = route.temperature() != null ? route.temperature() : temperature;
+            stop = route.stop() != null ? route.stop() : stop;
+        }
+        if (!matched) {
+            return LlmRoute.DEFAULT;
+        }
+        
+        List<String> models = new ArrayList<>();
+        models.add(model); // Null for the default model, which fallbacks may follow
+        if (fallback != null) {
+            fallback.stream().filter(candidate -> !models.contains(candidate)).forEach(models::add);
+        }
+        if (models.size() == 1 && model == null) {
+            models.clear();
+        }
+        return new LlmRoute(models, maxTokens, temperature, stop);
+    }
+    
+    /**
+     * @return The first task class whose pattern is found in the description, or null
+     */
+    public String classify(String taskDescription) {
+        if (taskDescription == null) {
+            return null;
+        }
+        return taskClasses.entrySet().stream()
+            .filter(entry -> entry.getValue().matcher(taskDescription).find())
+            .map(Map.Entry::getKey)
+            .findFirst()
+            .orElse(null);
+    }
+}
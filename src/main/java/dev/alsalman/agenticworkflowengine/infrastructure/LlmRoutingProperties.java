@@ -0,0 +1,69 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Model and generation options per call (see {@link LlmRouter}). Anything no route sets
+ * falls back to {@code spring.ai.openai.chat.options}.
+ *
+ * @param taskClasses Regular expressions by class name, matched against the description of
+ *                    the task being executed; the first match in declaration order is its class
+ * @param routes Every route that matches a call applies, the more specific ones last, so
+ *               they override the options of the broader ones
+ */
+@ConfigurationProperties(prefix = "workflow.llm.routing")
+public record LlmRoutingProperties(
+    Map<String, String> taskClasses,
+    List<Route> routes
+) {
+    
+    public LlmRoutingProperties {
+        taskClasses = taskClasses != null ? Collections.unmodifiableMap(new LinkedHashMap<>(taskClasses)) : Map.of();
+        routes = routes != null ? List.copyOf(routes) : List.of();
+    }
+    
+    /**
+     * Options for the calls that match all of the route's criteria; a criterion left empty
+     * matches any call.
+     *
+     * @param operation Operation name passed to {@link ResilientChatClient}, such as {@code plan review}
+     * @param template Template the workflow was started from
+     * @param taskClass Class of the task being executed, from {@code task-classes}
+     * @param model Model to call
+     * @param fallback Models to try in order once the model keeps failing with rate limits,
+     *                 server errors or timeouts, or is not found
+     * @param maxTokens Upper bound on completion tokens
+     * @param stop Sequences that end the completion
+     */
+    public record Route(
+        String operation,
+        UUID template,
+        String taskClass,
+        String model,
+        List<String> fallback,
+        Integer maxTokens,
+        Double temperature,
+        List<String> stop
+    ) {
+        
+        boolean matches(String operation, UUID template, String taskClass) {
+            return (this.operation == null || this.operation.equals(operation))
+                && (this.template == null || this.template.equals(template))
+                && (this.taskClass == null || this.taskClass.equals(taskClass));
+        }
+        
+        /**
+         * @return Number of criteria the route sets; a route for a template is more specific
+         *         than one for a task class, which is more specific than one for an operation
+         */
+        int specificity() {
+            return (template != null ? 4 : 0) + (taskClass != null ? 2 : 0) + (operation != null ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.LlmUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.metadata.EmptyUsage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the tokens and cost of every LLM call against the goal, task and template
+ * bound in {@link WorkflowContext}, in the {@code llm_usage} table and as metrics.
+ * Accounting never fails the call it describes: storage errors are logged and dropped.
+ */
+@Service
+public class LlmUsageService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LlmUsageService.class);
+    
+    static final String UNKNOWN_MODEL = "unknown";
+    
+    private final WorkflowPersistenceService persistenceService;
+    private final LlmPricingProperties pricing;
+    private final WorkflowMetrics metrics;
+    private final Set<String> unpricedModels = ConcurrentHashMap.newKeySet();
+    
+    public LlmUsageService(WorkflowPersistenceService persistenceService,
+                           LlmPricingProperties pricing,
+                           WorkflowMetrics metrics) {
+        this.persistenceService = persistenceService;
+        this.pricing = pricing;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Records the usage reported in the response metadata, if any. Spring AI fills in an
+     * {@link EmptyUsage} when the provider reports none, so that and a zero total count as none.
+     *
+     * @return The recorded usage, or null if the provider reported none
+     */
+    public LlmUsage record(String operationName, ChatResponse response) {
+        Usage usage = response != null && response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+        if (usage == null || usage instanceof EmptyUsage || totalTokens(usage) == 0) {
+            return null;
+        }
+        int promptTokens = usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+        int completionTokens = usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0;
+        String model = modelOf(response);
+        
+        if (pricing.priceOf(model) == null && unpricedModels.add(model)) {
+            log.warn("No price configured for model '{}'; its calls are recorded with zero cost", model);
+        }
+        BigDecimal cost = pricing.cost(model, promptTokens, completionTokens);
+        
+        metrics.llmTokens(operationName, usage.getPromptTokens(), usage.getCompletionTokens());
+        metrics.llmCost(operationName, model, cost);
+        
+        LlmUsage record = LlmUsage.of(WorkflowContext.goalId(), WorkflowContext.taskId(),
+            WorkflowContext.templateId(), operationName, model, promptTokens, completionTokens, cost);
+        try {
+            return persistenceService.saveLlmUsage(record);
+        } catch (RuntimeException e) {
+            log.warn("Failed to store LLM usage for {} (goal {}): {}", operationName, record.goalId(), e.getMessage());
+            return record;
+        }
+    }
+    
+    private static int totalTokens(Usage usage) {
+        Integer total = usage.getTotalTokens();
+        return total != null ? total : 0;
+    }
+    
+    private static String modelOf(ChatResponse response) {
+        String model = response.getMetadata().getModel();
+        return model != null && !model.isBlank() ? model : UNKNOWN_MODEL;
+    }
+}
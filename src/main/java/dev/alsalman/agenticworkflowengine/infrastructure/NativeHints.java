@@ -0,0 +1,67 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.LlmCallEvent;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.PersistenceCallEvent;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.TaskExecutionEvent;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.WorkflowExecutionEvent;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterMetadata;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterValidationRule;
+import dev.alsalman.agenticworkflowengine.template.domain.TemplateParameter;
+import dev.alsalman.agenticworkflowengine.template.domain.WorkflowTemplate;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRowResult;
+import dev.alsalman.agenticworkflowengine.workflow.domain.GoalEntity;
+import dev.alsalman.agenticworkflowengine.workflow.domain.LlmUsage;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskDependency;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskEntity;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowEvent;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection hints for the native image that Spring's AOT processing cannot infer.
+ * Controller and actuator return types, repositories and the OpenAI client types are
+ * covered by Spring Boot, Spring Data and Spring AI themselves.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+    
+    /** Records mapped by Spring Data JDBC, which are instantiated through their canonical constructor */
+    static final List<Class<?>> ENTITIES = List.of(
+        GoalEntity.class, TaskEntity.class, TaskDependency.class, LlmUsage.class, WorkflowEvent.class,
+        WorkflowTemplate.class, TemplateParameter.class, ParameterMetadata.class, ParameterValidationRule.class
+    );
+    
+    /** Types serialized with an ObjectMapper outside a controller, e.g. batch NDJSON lines */
+    static final List<Class<?>> JSON_TYPES = List.of(BatchRowResult.class);
+    
+    /**
+     * ChatClient responses, whose metadata ResilientChatClient and LlmUsageService read;
+     * the request side is plain strings
+     */
+    static final List<Class<?>> CHAT_TYPES = List.of(ChatResponse.class);
+    
+    /** Custom JFR events, whose fields are read reflectively when the event type is registered */
+    static final List<Class<?>> JFR_EVENTS = List.of(
+        WorkflowExecutionEvent.class, TaskExecutionEvent.class, LlmCallEvent.class, PersistenceCallEvent.class
+    );
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ENTITIES.forEach(type -> hints.reflection().registerType(type,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_PUBLIC_METHODS,
+            MemberCategory.DECLARED_FIELDS));
+        
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        binding.registerReflectionHints(hints.reflection(), JSON_TYPES.toArray(Class[]::new));
+        binding.registerReflectionHints(hints.reflection(), CHAT_TYPES.toArray(Class[]::new));
+        
+        JFR_EVENTS.forEach(type -> hints.reflection().registerType(type,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.DECLARED_FIELDS));
+    }
+}
@@ -0,0 +1,192 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly partitions of the workflow tables.
+ * Pre-creates upcoming partitions, and archives expired ones to compressed NDJSON
+ * before detaching and dropping them so that write latency and vacuum cost stay flat
+ * as history accumulates.
+ */
+@Service
+public class PartitionRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionRetentionService.class);
+
+    // Children are processed before parents so a goal is never dropped while its tasks remain
+    private static final List<String> PARTITIONED_TABLES = List.of(
+        "workflow_events", "llm_usage", "task_dependencies", "tasks", "goals");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RetentionProperties properties;
+
+    public PartitionRetentionService(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     RetentionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${workflow.retention.cron:0 30 3 * * *}")
+    public void runScheduledRetention() {
+        if (!properties.enabled()) {
+            log.debug("Partition retention is disabled");
+            return;
+        }
+
+        try {
+            applyRetention(YearMonth.now(ZoneOffset.UTC));
+        } catch (Exception e) {
+            log.error("Partition retention run failed", e);
+        }
+    }
+
+    /**
+     * Applies partition maintenance relative to the given month.
+     *
+     * @param currentMonth The month treated as "now" (UTC)
+     * @return Names of the partitions that were archived and dropped
+     */
+    public List<String> applyRetention(YearMonth currentMonth) {
+        createUpcomingPartitions(currentMonth);
+
+        YearMonth oldestRetained = currentMonth.minusMonths(Math.max(properties.retainMonths(), 1) - 1L);
+        List<String> archived = new ArrayList<>();
+
+        for (String table : PARTITIONED_TABLES) {
+            for (String partition : findPartitions(table)) {
+                YearMonth month = partitionMonth(table, partition);
+                if (month != null && month.isBefore(oldestRetained)) {
+                    archiveAndDrop(table, partition);
+                    archived.add(partition);
+                }
+            }
+        }
+
+        log.info("Partition retention completed: {} partitions archived (keeping {} onwards)",
+                archived.size(), oldestRetained);
+        return archived;
+    }
+
+    /**
+     * Resolves the month a partition covers from its <parent>_pYYYYMM name.
+     *
+     * @return The partition month, or null for the default partition or foreign names
+     */
+    public static YearMonth partitionMonth(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 6) {
+            return null;
+        }
+
+        try {
+            return YearMonth.parse(partition.substring(prefix.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private void createUpcomingPartitions(YearMonth currentMonth) {
+        for (String table : PARTITIONED_TABLES) {
+            Integer created = jdbcTemplate.queryForObject(
+                "SELECT ensure_monthly_partitions(?, ?, ?)",
+                Integer.class,
+                table,
+                currentMonth.atDay(1),
+                currentMonth.plusMonths(properties.premakeMonths()).atDay(1)
+            );
+            if (created != null && created > 0) {
+                log.info("Created {} upcoming partitions for {}", created, table);
+            }
+        }
+    }
+
+    private List<String> findPartitions(String table) {
+        return jdbcTemplate.queryForList("""
+            SELECT child.relname
+            FROM pg_inherits i
+            JOIN pg_class parent ON parent.oid = i.inhparent
+            JOIN pg_class child ON child.oid = i.inhrelid
+            WHERE parent.relname = ?
+            ORDER BY child.relname
+            """, String.class, table);
+    }
+
+    private void archiveAndDrop(String table, String partition) {
+        Path archive = properties.archiveDirectory().resolve(partition + ".ndjson.gz");
+        log.info("Archiving partition {} to {}", partition, archive);
+
+        long rows = exportPartition(partition, archive);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE " + quote(table) + " DETACH PARTITION " + quote(partition));
+            jdbcTemplate.execute("DROP TABLE " + quote(partition));
+        });
+
+        log.info("Archived {} rows and dropped partition {}", rows, partition);
+    }
+
+    private long exportPartition(String partition, Path archive) {
+        Path temporary = archive.resolveSibling(archive.getFileName() + ".tmp");
+        long[] rows = {0};
+
+        try {
+            Files.createDirectories(archive.getParent());
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temporary)), StandardCharsets.UTF_8))) {
+                // Cursor-based streaming requires a transaction with the PostgreSQL driver
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                        "SELECT row_to_json(p)::text FROM " + quote(partition) + " p");
+                    statement.setFetchSize(properties.fetchSize());
+                    return statement;
+                }, (RowCallbackHandler) rs -> {
+                    try {
+                        writer.write(rs.getString(1));
+                        writer.write('\n');
+                        rows[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+
+            Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive partition " + partition, e);
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,121 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Separate connection permits for read-write and read-only work in front of the pool, so
+ * status reads are not queued behind the writes of hundreds of running workflows, and a
+ * burst degrades into a fair queue instead of pool timeouts.
+ *
+ * <p>The application DataSource is replaced (see {@link PersistenceBulkheadPostProcessor}) by a
+ * {@link LazyConnectionDataSourceProxy} that borrows the physical connection on the first
+ * statement, when it is known whether the transaction is read-only: read-only transactions
+ * take a read permit, everything else a write permit. Repository finders and the
+ * {@code readOnly} methods of WorkflowPersistenceService count as reads; custom
+ * {@code @Query} methods called outside a transaction count as writes.
+ *
+ * <p>Metrics, tagged with {@code bulkhead} = write or read, next to Hikari's own
+ * {@code hikaricp.connections.*}:
+ * <ul>
+ *   <li>{@code workflow.db.bulkhead.in_use}, {@code workflow.db.bulkhead.queued},
+ *       {@code workflow.db.bulkhead.permits} - gauges</li>
+ *   <li>{@code workflow.db.bulkhead.wait} - time callers waited for a permit</li>
+ *   <li>{@code workflow.db.bulkhead.rejected} - callers that gave up after the acquire timeout</li>
+ * </ul>
+ */
+@Component
+public class PersistenceBulkhead implements MeterBinder {
+    
+    private static final Logger log = LoggerFactory.getLogger(PersistenceBulkhead.class);
+    
+    public static final String WRITE = "write";
+    public static final String READ = "read";
+    
+    private final PersistenceBulkheadProperties properties;
+    private volatile List<BulkheadDataSource> bulkheads = List.of();
+    private volatile MeterRegistry registry;
+    
+    public PersistenceBulkhead(PersistenceBulkheadProperties properties) {
+        this.properties = properties;
+    }
+    
+    public boolean enabled() {
+        return properties.enabled();
+    }
+    
+    /**
+     * @return The pool behind write and read permits, borrowing connections lazily
+     */
+    public DataSource wrap(DataSource pool) {
+        int permits = properties.writePermits() + properties.readPermits();
+        if (pool instanceof HikariConfigMXBean hikari && permits > hikari.getMaximumPoolSize()) {
+            log.warn("Persistence bulkhead allows {} connections but the pool has {}; callers may time out in the pool",
+                permits, hikari.getMaximumPoolSize());
+        }
+        BulkheadDataSource writes = new BulkheadDataSource(WRITE, pool, properties.writePermits(), properties.acquireTimeout());
+        BulkheadDataSource reads = new BulkheadDataSource(READ, pool, properties.readPermits(), properties.acquireTimeout());
+        bulkheads = List.of(writes, reads);
+        if (registry != null) {
+            bulkheads.forEach(bulkhead -> register(registry, bulkhead));
+        }
+        
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(writes);
+        proxy.setReadOnlyDataSource(reads);
+        log.info("Persistence bulkhead: {} write and {} read connections, acquire timeout {}",
+            properties.writePermits(), properties.readPermits(), properties.acquireTimeout());
+        return proxy;
+    }
+    
+    /**
+     * @return The write and read bulkheads, empty until the DataSource has been wrapped
+     */
+    public List<BulkheadDataSource> bulkheads() {
+        return bulkheads;
+    }
+    
+    /**
+     * Registers the bulkhead meters now, or once the DataSource is wrapped if that happens later
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        bulkheads.forEach(bulkhead -> register(registry, bulkhead));
+    }
+    
+    private static void register(MeterRegistry registry, BulkheadDataSource bulkhead) {
+        Gauge.builder("workflow.db.bulkhead.in_use", bulkhead, BulkheadDataSource::inUse)
+            .description("Connections held through the bulkhead")
+            .tag("bulkhead", bulkhead.name())
+            .register(registry);
+        Gauge.builder("workflow.db.bulkhead.queued", bulkhead, BulkheadDataSource::queued)
+            .description("Callers waiting for a connection permit")
+            .tag("bulkhead", bulkhead.name())
+            .register(registry);
+        Gauge.builder("workflow.db.bulkhead.permits", bulkhead, BulkheadDataSource::permits)
+            .description("Connection permits of the bulkhead")
+            .tag("bulkhead", bulkhead.name())
+            .register(registry);
+        FunctionTimer.builder("workflow.db.bulkhead.wait", bulkhead,
+                BulkheadDataSource::acquired, BulkheadDataSource::waitNanos, TimeUnit.NANOSECONDS)
+            .description("Time spent waiting for a connection permit")
+            .tag("bulkhead", bulkhead.name())
+            .register(registry);
+        FunctionCounter.builder("workflow.db.bulkhead.rejected", bulkhead, BulkheadDataSource::rejected)
+            .description("Callers that gave up waiting for a connection permit")
+            .tag("bulkhead", bulkhead.name())
+            .register(registry);
+    }
+}
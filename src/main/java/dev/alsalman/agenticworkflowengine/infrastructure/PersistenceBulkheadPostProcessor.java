@@ -0,0 +1,33 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts the {@link PersistenceBulkhead} in front of the auto-configured {@code dataSource}, so
+ * repositories, JdbcTemplate and Flyway all go through it
+ */
+@Component
+public class PersistenceBulkheadPostProcessor implements BeanPostProcessor {
+    
+    private static final String DATA_SOURCE = "dataSource";
+    
+    private final ObjectProvider<PersistenceBulkhead> bulkhead;
+    
+    public PersistenceBulkheadPostProcessor(ObjectProvider<PersistenceBulkhead> bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!DATA_SOURCE.equals(beanName) || !(bean instanceof DataSource pool) || bean instanceof DelegatingDataSource) {
+            return bean;
+        }
+        PersistenceBulkhead persistenceBulkhead = bulkhead.getObject();
+        return persistenceBulkhead.enabled() ? persistenceBulkhead.wrap(pool) : bean;
+    }
+}
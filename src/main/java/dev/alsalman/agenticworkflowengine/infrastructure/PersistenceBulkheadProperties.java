@@ -0,0 +1,24 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Connection permits in front of the Hikari pool (see {@link PersistenceBulkhead}). Write and
+ * read permits together should not exceed {@code spring.datasource.hikari.maximum-pool-size},
+ * so callers queue on the permits rather than inside the pool.
+ *
+ * @param writePermits Connections shared by read-write transactions and non-transactional calls
+ * @param readPermits Connections reserved for read-only transactions, such as status reads
+ * @param acquireTimeout How long a caller waits for a permit before the call fails
+ */
+@ConfigurationProperties(prefix = "workflow.persistence.bulkhead")
+public record PersistenceBulkheadProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("7") int writePermits,
+    @DefaultValue("3") int readPermits,
+    @DefaultValue("PT10S") Duration acquireTimeout
+) {
+}
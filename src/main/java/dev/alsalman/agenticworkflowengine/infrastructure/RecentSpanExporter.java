@@ -0,0 +1,57 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent finished spans in a ring buffer so traces can be inspected
+ * through actuator without a collector. Registered alongside any OTLP exporter.
+ */
+@Component
+public class RecentSpanExporter implements SpanExporter {
+    
+    private final int capacity;
+    private final Deque<SpanData> spans;
+    
+    public RecentSpanExporter(TracingProperties properties) {
+        this.capacity = Math.max(1, properties.bufferSize());
+        this.spans = new ArrayDeque<>(capacity);
+    }
+    
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData span : batch) {
+            if (spans.size() == capacity) {
+                spans.removeFirst();
+            }
+            spans.addLast(span);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+    
+    /**
+     * @return Buffered spans, oldest first
+     */
+    public synchronized List<SpanData> spans() {
+        return new ArrayList<>(spans);
+    }
+    
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+    
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        spans.clear();
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -1,94 +1,565 @@
 package dev.alsalman.agenticworkflowengine.infrastructure;
 
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.FlightEvents;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.LlmCallEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.http.HttpStatus;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.MessageAggregator;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Chat completions with retries per error class (see {@link LlmErrorClass}), a circuit
+ * breaker that fails calls fast while the provider is failing, and optional hedging: for
+ * idempotent operations a duplicate request is sent once the first has taken longer than
+ * most recent calls, and whichever answers first wins. Retries and hedges share a
+ * {@link RetryBudget}. Model and options come from the {@link LlmRouter}; when a model
+ * keeps failing the call falls back to the next one in its route. Requests are spread over
+ * the endpoints of the {@link LlmProviderPool}; an attempt that fails on one endpoint is
+ * retried on another right away when one is available. Every request first draws on the
+ * endpoint's rate limit shared between instances (see {@link LlmRateLimiter}).
+ */
 @Service
 public class ResilientChatClient {
     
     private static final Logger log = LoggerFactory.getLogger(ResilientChatClient.class);
     
-    private static final int MAX_RETRIES = 3;
-    private static final Duration BASE_DELAY = Duration.ofSeconds(1);
-    private static final double BACKOFF_MULTIPLIER = 2.0;
+    /** Latencies an operation needs before its calls are hedged */
+    private static final int MIN_HEDGE_SAMPLES = 20;
     
-    private final ChatClient chatClient;
+    private final LlmProviderPool pool;
+    private final WorkflowMetrics metrics;
+    private final LlmUsageService usageService;
+    private final WorkflowProfiler profiler;
+    private final LlmResilienceProperties properties;
+    private final LlmRouter router;
+    private final LlmRateLimiter rateLimiter;
+    private final RetryBudget budget;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
     
-    public ResilientChatClient(ChatClient.Builder chatClientBuilder) {
-        this.chatClient = chatClientBuilder.build();
+    /** Runs completions, retries and hedges; they may record usage, which blocks on the database */
+    private final Executor callbacks = Executors.newVirtualThreadPerTaskExecutor();
+    
+    public ResilientChatClient(LlmProviderPool pool, WorkflowMetrics metrics,
+                               LlmUsageService usageService, WorkflowProfiler profiler,
+                               LlmResilienceProperties properties, LlmRouter router,
+                               LlmRateLimiter rateLimiter) {
+        this.pool = pool;
+        this.metrics = metrics;
+        this.usageService = usageService;
+        this.profiler = profiler;
+        this.properties = properties;
+        this.router = router;
+        this.rateLimiter = rateLimiter;
+        this.budget = new RetryBudget(properties.budget());
+        pool.endpoints().forEach(metrics::llmEndpoint);
     }
     
     /**
-     * Execute a chat completion with automatic retry logic for rate limiting
+     * Execute a chat completion with retries, waiting for {@link #callAsync}. On a virtual
+     * thread the wait parks without holding a carrier.
      */
     public String call(String operationName, String prompt) {
-        Exception lastException = null;
+        return call(operationName, prompt, null);
+    }
+    
+    /**
+     * @param taskDescription The task the call is about, so it can be routed by task class
+     */
+    public String call(String operationName, String prompt, String taskDescription) {
+        return call(operationName, prompt, taskDescription, null);
+    }
+    
+    /**
+     * @param responseSchema JSON schema the answer must follow, or null for free text
+     */
+    public String call(String operationName, String prompt, String taskDescription, String responseSchema) {
+        return await(operationName, callAsync(operationName, prompt, taskDescription, responseSchema));
+    }
+    
+    /**
+     * Waits for an asynchronous call, so blocking variants can share its code path.
+     * Interrupting the wait cancels the future.
+     *
+     * @throws RuntimeException The failure the future completed with, unwrapped
+     */
+    public static <T> T await(String operationName, CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + operationName, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to execute " + operationName, e.getCause());
+        }
+    }
+    
+    /**
+     * Execute a chat completion without holding a thread while the model responds. The
+     * response is streamed over the non-blocking transport and aggregated; retries and
+     * hedges are sent from a timer. Cancelling the future aborts the requests in flight
+     * and any pending retry.
+     *
+     * @return The response content, or a future failed with a RuntimeException when the
+     *         error is not retried, its retries are exhausted, or the circuit is open
+     */
+    public CompletableFuture<String> callAsync(String operationName, String prompt) {
+        return callAsync(operationName, prompt, null);
+    }
+    
+    /**
+     * @param taskDescription The task the call is about, so it can be routed by task class
+     */
+    public CompletableFuture<String> callAsync(String operationName, String prompt, String taskDescription) {
+        return callAsync(operationName, prompt, taskDescription, null);
+    }
+    
+    /**
+     * @param responseSchema JSON schema the answer must follow (the provider's structured
+     *                       output), or null for free text
+     */
+    public CompletableFuture<String> callAsync(String operationName, String prompt, String taskDescription,
+                                               String responseSchema) {
+        metrics.llmPromptSize(operationName, prompt.length());
+        budget.deposit();
+        LlmRoute route = router.route(operationName, taskDescription);
+        AsyncCall call = new AsyncCall(operationName, prompt, route, responseSchema, WorkflowContext.capture());
+        call.attempt(1);
+        return call.result;
+    }
+    
+    /**
+     * The requests of one attempt: the first, and a hedge if one was sent. The attempt is
+     * settled by the first success, or by the last failure once no request is pending.
+     */
+    private static final class Attempt {
+        
+        final int number;
+        final int modelIndex;
+        private final List<Future<?>> requests = new ArrayList<>();
+        private final Set<LlmEndpoint> endpoints = new HashSet<>();
+        private int pending;
+        private boolean settled;
+        private boolean hedged;
         
-        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+        Attempt(int number, int modelIndex) {
+            this.number = number;
+            this.modelIndex = modelIndex;
+        }
+        
+        /**
+         * @return False if the attempt was settled already, so the request is not needed
+         */
+        synchronized boolean add(Future<?> request, LlmEndpoint endpoint, boolean hedge) {
+            if (settled) {
+                return false;
+            }
+            requests.add(request);
+            endpoints.add(endpoint);
+            pending++;
+            hedged |= hedge;
+            return true;
+        }
+        
+        synchronized boolean isSettled() {
+            return settled;
+        }
+        
+        synchronized boolean wasHedged() {
+            return hedged;
+        }
+        
+        /**
+         * @return The endpoints the requests went to
+         */
+        synchronized Set<LlmEndpoint> endpoints() {
+            return Set.copyOf(endpoints);
+        }
+        
+        /**
+         * @return Whether this success settles the attempt; the other requests are cancelled
+         */
+        synchronized boolean succeeded(Future<?> winner) {
+            if (settled) {
+                return false;
+            }
+            settled = true;
+            requests.stream().filter(request -> request != winner).forEach(request -> request.cancel(true));
+            return true;
+        }
+        
+        /**
+         * @return Whether this failure settles the attempt, because no other request is pending
+         */
+        synchronized boolean failed() {
+            pending--;
+            if (settled || pending > 0) {
+                return false;
+            }
+            settled = true;
+            return true;
+        }
+        
+        synchronized void cancel() {
+            settled = true;
+            requests.forEach(request -> request.cancel(true));
+        }
+    }
+    
+    /**
+     * One call across its attempts. Retries and hedges run on {@link #callbacks} with the
+     * caller's workflow context bound again, so metrics, usage and profiling are attributed
+     * as for a blocking call.
+     */
+    private final class AsyncCall {
+        
+        private final String operationName;
+        private final String prompt;
+        private final LlmRoute route;
+        private final String responseSchema;
+        private final WorkflowContext.Snapshot context;
+        private final boolean hedging;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private volatile Attempt current;
+        private volatile int modelIndex;
+        private volatile int attempts;
+        /** Endpoints that failed the call on the current model */
+        private final Set<LlmEndpoint> failedEndpoints = ConcurrentHashMap.newKeySet();
+        
+        AsyncCall(String operationName, String prompt, LlmRoute route, String responseSchema,
+                  WorkflowContext.Snapshot context) {
+            this.operationName = operationName;
+            this.prompt = prompt;
+            this.route = route;
+            this.responseSchema = responseSchema;
+            this.context = context;
+            this.hedging = properties.hedging().applies(operationName);
+            result.whenComplete((content, error) -> {
+                Attempt attempt = current;
+                if (result.isCancelled() && attempt != null) {
+                    attempt.cancel();
+                }
+            });
+        }
+        
+        void attempt(int number) {
+            if (result.isDone()) {
+                return;
+            }
+            LlmEndpoint endpoint = pool.acquire(failedEndpoints);
+            if (endpoint == null) {
+                metrics.llmCircuitRejected(operationName);
+                log.warn("LLM circuit breaker is open on every endpoint, failing {} fast", operationName);
+                result.completeExceptionally(new RuntimeException(
+                    "LLM provider unavailable (circuit breaker open), failing " + operationName + " fast"));
+                return;
+            }
+            Attempt attempt = new Attempt(number, modelIndex);
+            current = attempt;
+            attempts++;
+            log.debug("Executing {} on {} via {} (attempt {})",
+                    operationName, modelName(attempt.modelIndex), endpoint.name(), number);
+            rateLimiter.acquire(endpoint).thenRun(() -> context.run(() -> {
+                if (result.isDone()) {
+                    endpoint.circuitBreaker().onIgnored();
+                    return;
+                }
+                send(attempt, endpoint, false);
+                if (hedging) {
+                    scheduleHedge(attempt);
+                }
+            }));
+        }
+        
+        private void send(Attempt attempt, LlmEndpoint endpoint, boolean hedge) {
+            long start = System.nanoTime();
+            Instant startedAt = Instant.now();
+            endpoint.started();
+            CompletableFuture<ChatResponse> response;
             try {
-                log.debug("Executing {} (attempt {}/{})", operationName, attempt, MAX_RETRIES);
-                
-                return chatClient.prompt()
-                    .user(prompt)
-                    .call()
-                    .content();
-                    
-            } catch (Exception e) {
-                lastException = e;
-                
-                if (isRateLimitError(e)) {
-                    if (attempt < MAX_RETRIES) {
-                        Duration delay = calculateDelay(attempt);
-                        log.warn("Rate limit hit for {}. Retrying in {} ms (attempt {}/{})", 
-                                operationName, delay.toMillis(), attempt, MAX_RETRIES);
-                        
-                        try {
-                            Thread.sleep(delay.toMillis());
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            throw new RuntimeException("Interrupted while waiting for retry", ie);
-                        }
-                    } else {
-                        log.error("Rate limit exceeded for {} after {} attempts", operationName, MAX_RETRIES);
-                    }
-                } else {
-                    // Non-rate-limit error, don't retry
-                    log.error("Non-retryable error in {}: {}", operationName, e.getMessage());
-                    break;
+                response = FlightEvents.recordAsync(new LlmCallEvent(),
+                    () -> stream(endpoint, prompt, route.options(attempt.modelIndex, responseSchema)),
+                    (event, chatResponse) -> event.describe(operationName, attempt.number, prompt, contentOf(chatResponse)));
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            if (!attempt.add(response, endpoint, hedge)) {
+                response.cancel(true);
+            }
+            CompletableFuture<ChatResponse> request = response;
+            response.whenComplete((chatResponse, error) -> endpoint.finished());
+            response.whenCompleteAsync((chatResponse, error) -> context.run(
+                () -> completed(attempt, endpoint, request, hedge, start, startedAt, chatResponse, error)), callbacks);
+        }
+        
+        private void completed(Attempt attempt, LlmEndpoint endpoint, Future<?> request, boolean hedge, long start,
+                               Instant startedAt, ChatResponse response, Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof CancellationException) {
+                // Lost to the other request of the attempt, or the call was cancelled
+                endpoint.circuitBreaker().onIgnored();
+                return;
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            profiler.record(WorkflowProfiler.LLM_CALL, startedAt, Instant.now());
+            if (cause == null) {
+                succeeded(attempt, endpoint, request, hedge, elapsed, response);
+            } else {
+                failed(attempt, endpoint, elapsed, cause);
+            }
+        }
+        
+        private void succeeded(Attempt attempt, LlmEndpoint endpoint, Future<?> request, boolean hedge, Duration elapsed,
+                               ChatResponse response) {
+            endpoint.circuitBreaker().onSuccess();
+            latencies(operationName).record(elapsed);
+            String content = contentOf(response);
+            metrics.llmCall(operationName, "success", elapsed);
+            // A duplicate that also finished was billed, so its usage is recorded either way
+            recordUsage(operationName, response, content);
+            if (!attempt.succeeded(request)) {
+                return;
+            }
+            if (attempt.wasHedged()) {
+                metrics.llmHedge(operationName, hedge ? "won" : "lost");
+            }
+            result.complete(content);
+        }
+        
+        private void failed(Attempt attempt, LlmEndpoint endpoint, Duration elapsed, Throwable cause) {
+            LlmErrorClass errorClass = LlmErrorClass.classify(cause);
+            metrics.llmCall(operationName, errorClass.tag(), elapsed);
+            if (errorClass.providerFailure()) {
+                endpoint.circuitBreaker().onFailure();
+            } else {
+                endpoint.circuitBreaker().onIgnored();
+            }
+            if (errorClass == LlmErrorClass.TIMEOUT) {
+                endpoint.recordLatency(elapsed); // A slow endpoint should look slow even when it never answers
+            }
+            if (errorClass == LlmErrorClass.RATE_LIMITED) {
+                metrics.llmRateLimited(operationName);
+                Duration retryAfter = LlmErrorClass.retryAfter(cause);
+                LlmResilienceProperties.RetryPolicy policy = properties.retryPolicy(errorClass);
+                endpoint.coolDown(retryAfter != null ? retryAfter : policy != null ? policy.baseDelay() : Duration.ofSeconds(1));
+            }
+            if (errorClass.endpointFailure()) {
+                failedEndpoints.add(endpoint);
+            }
+            if (!attempt.failed()) {
+                log.debug("Request for {} failed ({}), waiting for its duplicate", operationName, errorClass.tag());
+                return;
+            }
+            retryOrFail(attempt.number, errorClass, cause);
+        }
+        
+        private void retryOrFail(int attempt, LlmErrorClass errorClass, Throwable cause) {
+            if (result.isDone()) {
+                return;
+            }
+            LlmResilienceProperties.RetryPolicy policy = properties.retryPolicy(errorClass);
+            // Another endpoint may well succeed, so failing over is not bound by the policy
+            boolean failover = errorClass.endpointFailure() && pool.hasAlternative(failedEndpoints);
+            if (policy == null && !failover) {
+                log.error("Non-retryable {} error in {}: {}", errorClass.tag(), operationName, cause.getMessage());
+                fallBackOrFail(errorClass, cause);
+                return;
+            }
+            if (!failover && attempt >= policy.maxAttempts()) {
+                log.error("{} for {} after {} attempts", errorClass.tag(), operationName, attempt);
+                fallBackOrFail(errorClass, cause);
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                metrics.llmRetryBudgetExhausted(operationName);
+                log.warn("Retry budget exhausted, not retrying {} after {}", operationName, errorClass.tag());
+                fail(cause);
+                return;
+            }
+            metrics.llmRetry(operationName);
+            if (failover) {
+                log.warn("{} in {}, failing over to another endpoint", errorClass.tag(), operationName);
+                attempt(attempt + 1);
+                return;
+            }
+            Duration delay = retryDelay(policy, attempt, cause);
+            log.warn("{} in {}. Retrying in {} ms (attempt {}/{})",
+                    errorClass.tag(), operationName, delay.toMillis(), attempt, policy.maxAttempts());
+            CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, callbacks)
+                .execute(() -> context.run(() -> attempt(attempt + 1)));
+        }
+        
+        private void scheduleHedge(Attempt attempt) {
+            Duration delay = hedgeDelay(operationName);
+            if (delay == null) {
+                return;
+            }
+            CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, callbacks)
+                .execute(() -> context.run(() -> hedge(attempt, delay)));
+        }
+        
+        private void hedge(Attempt attempt, Duration delay) {
+            if (result.isDone() || attempt.isSettled()) {
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                metrics.llmHedge(operationName, "skipped");
+                return;
+            }
+            // A duplicate helps most on an endpoint that is not the slow one
+            Set<LlmEndpoint> avoid = new HashSet<>(attempt.endpoints());
+            avoid.addAll(failedEndpoints);
+            LlmEndpoint endpoint = pool.acquire(avoid);
+            if (endpoint == null) {
+                return;
+            }
+            log.debug("No response for {} after {} ms, sending a hedged request via {}",
+                    operationName, delay.toMillis(), endpoint.name());
+            rateLimiter.acquire(endpoint).thenRun(() -> context.run(() -> {
+                if (result.isDone() || attempt.isSettled()) {
+                    endpoint.circuitBreaker().onIgnored();
+                    return;
                 }
+                send(attempt, endpoint, true);
+            }));
+        }
+        
+        /**
+         * Moves on to the next model of the route when another model may succeed where this
+         * one keeps failing, otherwise fails the call
+         */
+        private void fallBackOrFail(LlmErrorClass errorClass, Throwable cause) {
+            if (!modelMayHelp(errorClass, cause) || modelIndex + 1 >= route.chainLength()) {
+                fail(cause);
+                return;
             }
+            String from = modelName(modelIndex);
+            modelIndex++;
+            failedEndpoints.clear(); // The next model may well be served where this one failed
+            metrics.llmFallback(operationName, from);
+            log.warn("{} keeps failing on {} ({}), falling back to {}",
+                    operationName, from, errorClass.tag(), modelName(modelIndex));
+            attempt(1);
+        }
+        
+        private void fail(Throwable cause) {
+            result.completeExceptionally(new RuntimeException(
+                "Failed to execute " + operationName + " after " + attempts + " attempts", cause));
         }
         
-        throw new RuntimeException("Failed to execute " + operationName + " after " + MAX_RETRIES + " attempts", lastException);
+        private String modelName(int index) {
+            String model = route.model(index);
+            return model != null ? model : "default model";
+        }
     }
     
-    private boolean isRateLimitError(Exception e) {
-        // Check for HTTP 429 (Too Many Requests)
-        if (e instanceof HttpClientErrorException httpError) {
-            return httpError.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+    /**
+     * Streams the completion and aggregates the chunks into one response, with the usage
+     * and model reported in the last chunk. The endpoint's latency is the time to the first
+     * chunk, which unlike the whole call does not grow with the length of the answer.
+     */
+    private static CompletableFuture<ChatResponse> stream(LlmEndpoint endpoint, String prompt, ChatOptions options) {
+        AtomicReference<ChatResponse> aggregated = new AtomicReference<>();
+        AtomicBoolean firstChunk = new AtomicBoolean(true);
+        long start = System.nanoTime();
+        Flux<ChatResponse> chunks = endpoint.chatClient().prompt().user(prompt).options(options).stream().chatResponse()
+            .doOnNext(chunk -> {
+                if (firstChunk.compareAndSet(true, false)) {
+                    endpoint.recordLatency(Duration.ofNanos(System.nanoTime() - start));
+                }
+            });
+        return new MessageAggregator()
+            .aggregate(chunks, aggregated::set)
+            .then(Mono.fromSupplier(aggregated::get))
+            .toFuture();
+    }
+    
+    private static String contentOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
         }
-        
-        // Check for OpenAI specific rate limit messages
-        String message = e.getMessage();
-        return message != null && (
-            message.contains("rate limit") ||
-            message.contains("Rate limit") ||
-            message.contains("429") ||
-            message.contains("too many requests") ||
-            message.contains("quota exceeded")
-        );
+        return response.getResult().getOutput().getText();
     }
     
-    private Duration calculateDelay(int attempt) {
-        long delayMs = (long) (BASE_DELAY.toMillis() * Math.pow(BACKOFF_MULTIPLIER, attempt - 1));
-        // Add jitter to prevent thundering herd
-        long jitter = (long) (delayMs * 0.1 * Math.random());
-        return Duration.ofMillis(delayMs + jitter);
+    private void recordUsage(String operationName, ChatResponse response, String content) {
+        if (content != null) {
+            metrics.llmResponseSize(operationName, content.length());
+        }
+        usageService.record(operationName, response);
+    }
+    
+    /**
+     * Rate limits and capacity are per model, and a model that is not found may be
+     * unavailable to this account; a bad request fails on any model
+     */
+    private static boolean modelMayHelp(LlmErrorClass errorClass, Throwable cause) {
+        return switch (errorClass) {
+            case RATE_LIMITED, SERVER_ERROR, TIMEOUT -> true;
+            case CLIENT_ERROR -> Integer.valueOf(404).equals(LlmErrorClass.status(cause));
+            default -> false;
+        };
+    }
+    
+    private LatencyWindow latencies(String operationName) {
+        return latencies.computeIfAbsent(operationName,
+            operation -> new LatencyWindow(properties.hedging().latencyWindow()));
+    }
+    
+    /**
+     * @return How long to wait for a response before hedging, or null while too few
+     *         latencies of the operation are known
+     */
+    private Duration hedgeDelay(String operationName) {
+        LlmResilienceProperties.Hedging hedging = properties.hedging();
+        Duration percentile = latencies(operationName).percentile(hedging.percentile(),
+            Math.min(MIN_HEDGE_SAMPLES, hedging.latencyWindow()));
+        if (percentile == null) {
+            return null;
+        }
+        return percentile.compareTo(hedging.minDelay()) > 0 ? percentile : hedging.minDelay();
+    }
+    
+    /**
+     * @return The provider's Retry-After when it sent one, otherwise exponential backoff
+     *         with jitter; either way at most the policy's maximum delay
+     */
+    private static Duration retryDelay(LlmResilienceProperties.RetryPolicy policy, int attempt, Throwable cause) {
+        Duration retryAfter = LlmErrorClass.retryAfter(cause);
+        Duration delay;
+        if (retryAfter != null) {
+            delay = retryAfter;
+        } else {
+            long delayMs = (long) (policy.baseDelay().toMillis() * Math.pow(2, attempt - 1));
+            // Add jitter to prevent thundering herd
+            long jitter = (long) (delayMs * 0.1 * Math.random());
+            delay = Duration.ofMillis(delayMs + jitter);
+        }
+        return delay.compareTo(policy.maxDelay()) > 0 ? policy.maxDelay() : delay;
     }
-}
\ No newline at end of file
+}
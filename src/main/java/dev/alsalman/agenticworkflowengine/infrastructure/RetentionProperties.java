@@ -0,0 +1,26 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Retention settings for the monthly partitions of goals, tasks, task_dependencies, llm_usage
+ * and workflow_events.
+ *
+ * @param enabled Whether the scheduled retention job runs at all
+ * @param retainMonths Number of months kept online, including the current month
+ * @param premakeMonths Number of future months whose partitions are created ahead of time
+ * @param archiveDirectory Directory that receives the compressed NDJSON exports
+ * @param fetchSize JDBC fetch size used while streaming a partition to its archive
+ */
+@ConfigurationProperties(prefix = "workflow.retention")
+public record RetentionProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("6") int retainMonths,
+    @DefaultValue("3") int premakeMonths,
+    @DefaultValue("archive") Path archiveDirectory,
+    @DefaultValue("1000") int fetchSize
+) {
+}
@@ -0,0 +1,41 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+/**
+ * Token bucket shared by the retries and hedges of all LLM calls. Every call deposits a
+ * fraction of a token and every extra attempt withdraws a whole one, so over time extra
+ * attempts stay within that fraction of calls, while a short burst may use the balance.
+ */
+public final class RetryBudget {
+    
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+    
+    public RetryBudget(LlmResilienceProperties.Budget budget) {
+        this.ratio = budget.ratio();
+        this.maxTokens = budget.maxTokens();
+        this.tokens = maxTokens;
+    }
+    
+    /**
+     * Credits the budget for a new call
+     */
+    public synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+    
+    /**
+     * @return Whether an extra attempt may be made; if so it has been paid for
+     */
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+    
+    public synchronized double tokens() {
+        return tokens;
+    }
+}
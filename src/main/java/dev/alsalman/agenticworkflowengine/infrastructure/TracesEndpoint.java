@@ -0,0 +1,91 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Recent traces from {@link RecentSpanExporter}: {@code GET /actuator/traces} lists them,
+ * newest first, and {@code GET /actuator/traces/{traceId}} returns the spans of one trace.
+ * Workflow traces carry the goal ID in the {@code workflow.goal_id} attribute.
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+    
+    private static final AttributeKey<String> GOAL_ID = AttributeKey.stringKey("workflow.goal_id");
+    
+    private final RecentSpanExporter exporter;
+    
+    public TracesEndpoint(RecentSpanExporter exporter) {
+        this.exporter = exporter;
+    }
+    
+    public record TraceSummary(String traceId, String rootSpan, String goalId, Instant start,
+                               double durationMs, int spanCount) {
+    }
+    
+    public record SpanView(String spanId, String parentSpanId, String name, Instant start, double durationMs,
+                           String status, Map<String, String> attributes, List<String> linkedSpanIds) {
+    }
+    
+    @ReadOperation
+    public List<TraceSummary> traces() {
+        Map<String, List<SpanData>> byTrace = exporter.spans().stream()
+            .collect(Collectors.groupingBy(SpanData::getTraceId, LinkedHashMap::new, Collectors.toList()));
+        
+        return byTrace.entrySet().stream()
+            .map(entry -> summarize(entry.getKey(), entry.getValue()))
+            .sorted(Comparator.comparing(TraceSummary::start).reversed())
+            .toList();
+    }
+    
+    @ReadOperation
+    public List<SpanView> trace(@Selector String traceId) {
+        return exporter.spans().stream()
+            .filter(span -> span.getTraceId().equals(traceId))
+            .sorted(Comparator.comparingLong(SpanData::getStartEpochNanos))
+            .map(TracesEndpoint::view)
+            .toList();
+    }
+    
+    private static TraceSummary summarize(String traceId, List<SpanData> spans) {
+        // The root may still be running or have been evicted; fall back to the earliest span
+        SpanData root = spans.stream()
+            .filter(span -> !span.getParentSpanContext().isValid())
+            .findFirst()
+            .orElseGet(() -> spans.stream().min(Comparator.comparingLong(SpanData::getStartEpochNanos)).orElseThrow());
+        long start = spans.stream().mapToLong(SpanData::getStartEpochNanos).min().orElse(root.getStartEpochNanos());
+        long end = spans.stream().mapToLong(SpanData::getEndEpochNanos).max().orElse(root.getEndEpochNanos());
+        String goalId = spans.stream()
+            .map(span -> span.getAttributes().get(GOAL_ID))
+            .filter(Objects::nonNull)
+            .findFirst().orElse(null);
+        return new TraceSummary(traceId, root.getName(), goalId, instant(start), (end - start) / 1e6, spans.size());
+    }
+    
+    private static SpanView view(SpanData span) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        String parent = span.getParentSpanContext().isValid() ? span.getParentSpanId() : null;
+        List<String> links = span.getLinks().stream().map(link -> link.getSpanContext().getSpanId()).toList();
+        return new SpanView(span.getSpanId(), parent, span.getName(), instant(span.getStartEpochNanos()),
+            (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1e6, span.getStatus().getStatusCode().name(),
+            attributes, links);
+    }
+    
+    private static Instant instant(long epochNanos) {
+        return Instant.ofEpochSecond(0, epochNanos);
+    }
+}
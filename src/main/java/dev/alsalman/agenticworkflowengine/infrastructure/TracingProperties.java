@@ -0,0 +1,16 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the in-app trace buffer behind the {@code traces} actuator endpoint.
+ * Export to a collector is configured separately with {@code management.otlp.tracing.endpoint}.
+ *
+ * @param bufferSize Number of most recent finished spans kept in memory
+ */
+@ConfigurationProperties(prefix = "workflow.tracing")
+public record TracingProperties(
+    @DefaultValue("5000") int bufferSize
+) {
+}
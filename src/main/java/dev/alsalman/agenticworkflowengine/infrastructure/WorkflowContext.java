@@ -0,0 +1,131 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Values that describe the workflow being run, visible to every call it makes without
+ * passing them through each service. Bound with a {@link ScopedValue}, so the values are
+ * inherited by StructuredTaskScope forks but must be bound again on any other thread.
+ */
+public final class WorkflowContext {
+    
+    /** Tag value used when a workflow was not started from a template */
+    public static final String NO_TEMPLATE = "none";
+    
+    private static final ScopedValue<UUID> TEMPLATE_ID = ScopedValue.newInstance();
+    private static final ScopedValue<UUID> GOAL_ID = ScopedValue.newInstance();
+    private static final ScopedValue<UUID> TASK_ID = ScopedValue.newInstance();
+    private static final ScopedValue<Integer> SUB_GOAL_DEPTH = ScopedValue.newInstance();
+    
+    private WorkflowContext() {
+    }
+    
+    /**
+     * Runs the operation with the template ID bound for everything it calls
+     *
+     * @param templateId The template, or null to run without one
+     */
+    public static <T> T callWithTemplate(UUID templateId, Supplier<T> operation) {
+        return callWith(TEMPLATE_ID, templateId, operation);
+    }
+    
+    public static void runWithTemplate(UUID templateId, Runnable operation) {
+        callWithTemplate(templateId, () -> {
+            operation.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Runs the operation attributed to a goal, so LLM usage is recorded against it
+     */
+    public static <T> T callWithGoal(UUID goalId, Supplier<T> operation) {
+        return callWith(GOAL_ID, goalId, operation);
+    }
+    
+    /**
+     * Runs the operation attributed to a sub-goal of the current goal, one level deeper and
+     * no longer attributed to the current task
+     */
+    public static <T> T callWithSubGoal(UUID goalId, Supplier<T> operation) {
+        return ScopedValue.where(GOAL_ID, goalId)
+            .where(TASK_ID, null)
+            .where(SUB_GOAL_DEPTH, subGoalDepth() + 1)
+            .call(operation::get);
+    }
+    
+    /**
+     * Runs the operation attributed to a task of the current goal
+     */
+    public static <T> T callWithTask(UUID taskId, Supplier<T> operation) {
+        return callWith(TASK_ID, taskId, operation);
+    }
+    
+    /**
+     * @return The template of the current workflow, or null
+     */
+    public static UUID templateId() {
+        return TEMPLATE_ID.isBound() ? TEMPLATE_ID.get() : null;
+    }
+    
+    /**
+     * @return The goal being executed, or null outside a workflow (e.g. shared batch planning)
+     */
+    public static UUID goalId() {
+        return GOAL_ID.isBound() ? GOAL_ID.get() : null;
+    }
+    
+    /**
+     * @return The task being executed or reviewed, or null
+     */
+    public static UUID taskId() {
+        return TASK_ID.isBound() ? TASK_ID.get() : null;
+    }
+    
+    /**
+     * @return Levels of sub-goals between the top-level goal and the current goal, 0 outside one
+     */
+    public static int subGoalDepth() {
+        return SUB_GOAL_DEPTH.isBound() ? SUB_GOAL_DEPTH.get() : 0;
+    }
+    
+    /**
+     * @return The template of the current workflow as a metric tag, or {@link #NO_TEMPLATE}
+     */
+    public static String templateTag() {
+        return TEMPLATE_ID.isBound() ? TEMPLATE_ID.get().toString() : NO_TEMPLATE;
+    }
+    
+    /**
+     * @return The values bound on this thread, to bind again where the same work continues
+     *         on another thread, such as the completion of an asynchronous call
+     */
+    public static Snapshot capture() {
+        return new Snapshot(templateId(), goalId(), taskId());
+    }
+    
+    /**
+     * Workflow values captured by {@link #capture()}; null values are left unbound
+     */
+    public record Snapshot(UUID templateId, UUID goalId, UUID taskId) {
+        
+        public <T> T call(Supplier<T> operation) {
+            return callWithTemplate(templateId, () -> callWithGoal(goalId, () -> callWithTask(taskId, operation)));
+        }
+        
+        public void run(Runnable operation) {
+            call(() -> {
+                operation.run();
+                return null;
+            });
+        }
+    }
+    
+    private static <T> T callWith(ScopedValue<UUID> key, UUID value, Supplier<T> operation) {
+        if (value == null) {
+            return operation.get();
+        }
+        return ScopedValue.where(key, value).call(operation::get);
+    }
+}
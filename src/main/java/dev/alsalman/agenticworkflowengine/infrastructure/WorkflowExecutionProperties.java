@@ -0,0 +1,33 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for workflows that run in the background after their request has returned.
+ *
+ * @param defaultAwaitTimeout How long a long-poll waits for completion when the client gives no timeout
+ * @param maxAwaitTimeout Upper bound on a client-supplied long-poll timeout
+ * @param shutdownTimeout How long shutdown waits for running workflows before interrupting them
+ */
+@ConfigurationProperties(prefix = "workflow.execution")
+public record WorkflowExecutionProperties(
+    @DefaultValue("PT30S") Duration defaultAwaitTimeout,
+    @DefaultValue("PT5M") Duration maxAwaitTimeout,
+    @DefaultValue("PT30S") Duration shutdownTimeout
+) {
+    
+    /**
+     * @param requestedSeconds Timeout requested by the client, or null for the default
+     * @return The requested timeout clamped to [1s, maxAwaitTimeout]
+     */
+    public Duration awaitTimeout(Long requestedSeconds) {
+        if (requestedSeconds == null) {
+            return defaultAwaitTimeout;
+        }
+        Duration requested = Duration.ofSeconds(Math.max(1, requestedSeconds));
+        return requested.compareTo(maxAwaitTimeout) > 0 ? maxAwaitTimeout : requested;
+    }
+}
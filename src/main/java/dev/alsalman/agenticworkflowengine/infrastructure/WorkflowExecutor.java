@@ -0,0 +1,86 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs workflows in the background on one application-owned virtual-thread executor,
+ * so request threads return as soon as a goal exists. Running workflows are tracked by
+ * goal ID for long-polling, and shutdown waits for them before interrupting.
+ */
+@Component
+public class WorkflowExecutor {
+    
+    private static final Logger log = LoggerFactory.getLogger(WorkflowExecutor.class);
+    
+    private final WorkflowExecutionProperties properties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<UUID, CompletableFuture<WorkflowResult>> running = new ConcurrentHashMap<>();
+    
+    public WorkflowExecutor(WorkflowExecutionProperties properties) {
+        this.properties = properties;
+    }
+    
+    /**
+     * Starts a workflow for an already persisted goal
+     * 
+     * @param goalId The goal the workflow completes
+     * @param workflow The workflow to run
+     * @return Future completed with the workflow result once the goal is no longer tracked as running
+     * @throws java.util.concurrent.RejectedExecutionException If the executor is shutting down
+     */
+    public CompletableFuture<WorkflowResult> submit(UUID goalId, Supplier<WorkflowResult> workflow) {
+        CompletableFuture<WorkflowResult> future = CompletableFuture.supplyAsync(() -> {
+            log.info("Starting async workflow execution for goal: {}", goalId);
+            return workflow.get();
+        }, executor);
+        
+        // Registered before the completion handler so a workflow that finishes at once is still removed.
+        // The returned stage completes only after the goal has stopped being tracked.
+        running.put(goalId, future);
+        return future.whenComplete((result, error) -> {
+            running.remove(goalId, future);
+            if (error != null) {
+                log.error("Async workflow execution failed for goal: {}", goalId, error);
+            } else {
+                log.info("Completed async workflow execution for goal: {}", goalId);
+            }
+        });
+    }
+    
+    /**
+     * @return The completion of the goal's workflow if it is still running on this node
+     */
+    public Optional<CompletableFuture<WorkflowResult>> find(UUID goalId) {
+        return Optional.ofNullable(running.get(goalId));
+    }
+    
+    public int runningCount() {
+        return running.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!running.isEmpty()) {
+            log.info("Waiting up to {} for {} running workflows", properties.shutdownTimeout(), running.size());
+        }
+        if (!executor.awaitTermination(properties.shutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Interrupting workflows still running at shutdown: {}", running.keySet());
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Domain metrics for workflows and LLM calls, exported through actuator
+ * ({@code /actuator/prometheus}). Every meter except the gauges is tagged with the
+ * template of the current workflow (see {@link WorkflowContext}).
+ *
+ * <ul>
+ *   <li>{@code workflow.stage} - timer per stage: planning, persistence, wave, review, summary</li>
+ *   <li>{@code workflow.goals} - finished goals by outcome</li>
+ *   <li>{@code workflow.wave.width} - tasks per executed wave</li>
+ *   <li>{@code workflow.goals.active}, {@code workflow.tasks.queued}, {@code workflow.tasks.running} -
+ *       gauges for running goals, planned tasks not yet executed, and tasks in executing waves</li>
+ *   <li>{@code llm.call} - timer per operation and outcome: success or an {@link LlmErrorClass} tag</li>
+ *   <li>{@code llm.retries}, {@code llm.rate_limited}, {@code llm.retry_budget.exhausted} - counters per operation</li>
+ *   <li>{@code llm.fallbacks} - calls that moved to the next model of their route, by model fallen back from</li>
+ *   <li>{@code llm.hedges} - hedged attempts per operation by outcome: won, lost, skipped</li>
+ *   <li>{@code llm.circuit.state} - gauge per provider endpoint: 0 closed, 1 half-open, 2 open;
+ *       {@code llm.circuit.rejected} counts calls failed fast</li>
+ *   <li>{@code llm.endpoint.latency}, {@code llm.endpoint.in_flight}, {@code llm.endpoint.quota.remaining} -
+ *       gauges per endpoint of the {@link LlmProviderPool}</li>
+ *   <li>{@code llm.rate_limit.leases} - batches leased from the shared rate limit per endpoint, by outcome:
+ *       granted, empty, error; {@code llm.rate_limit.wait} times calls that waited for one</li>
+ *   <li>{@code llm.tokens} - prompt and completion tokens per operation</li>
+ *   <li>{@code llm.cost} - USD per operation and model, priced by {@link LlmPricingProperties}</li>
+ *   <li>{@code llm.prompt.size}, {@code llm.response.size} - characters per call</li>
+ * </ul>
+ */
+@Component
+public class WorkflowMetrics {
+    
+    public static final String STAGE_PLANNING = "planning";
+    public static final String STAGE_PERSISTENCE = "persistence";
+    public static final String STAGE_WAVE = "wave";
+    public static final String STAGE_REVIEW = "review";
+    public static final String STAGE_SUMMARY = "summary";
+    
+    private static final String TEMPLATE = "template";
+    private static final String OPERATION = "operation";
+    
+    private final MeterRegistry registry;
+    private final AtomicInteger activeGoals = new AtomicInteger();
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicInteger runningTasks = new AtomicInteger();
+    
+    public WorkflowMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("workflow.goals.active", activeGoals, AtomicInteger::get)
+            .description("Workflows currently executing on this instance")
+            .register(registry);
+        Gauge.builder("workflow.tasks.queued", queuedTasks, AtomicInteger::get)
+            .description("Planned tasks of running workflows that have not been executed yet")
+            .register(registry);
+        Gauge.builder("workflow.tasks.running", runningTasks, AtomicInteger::get)
+            .description("Tasks in waves that are currently executing")
+            .register(registry);
+    }
+    
+    /**
+     * Times one stage of the current workflow
+     */
+    public <T> T stage(String stage, Supplier<T> operation) {
+        return Timer.builder("workflow.stage")
+            .description("Time spent in each workflow stage")
+            .tag("stage", stage)
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(operation);
+    }
+    
+    public void goalStarted() {
+        activeGoals.incrementAndGet();
+    }
+    
+    public void goalFinished(boolean success) {
+        activeGoals.decrementAndGet();
+        Counter.builder("workflow.goals")
+            .description("Finished workflows")
+            .tag("outcome", success ? "completed" : "failed")
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .register(registry)
+            .increment();
+    }
+    
+    /**
+     * @param delta Change in the number of planned but not yet executed tasks
+     */
+    public void tasksQueued(int delta) {
+        queuedTasks.addAndGet(delta);
+    }
+    
+    public void waveStarted(int width) {
+        runningTasks.addAndGet(width);
+        DistributionSummary.builder("workflow.wave.width")
+            .description("Tasks executed together in one wave")
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .register(registry)
+            .record(width);
+    }
+    
+    public void waveFinished(int width) {
+        runningTasks.addAndGet(-width);
+    }
+    
+    /**
+     * Records one LLM call attempt
+     *
+     * @param outcome success, or the {@link LlmErrorClass#tag()} of the failure
+     */
+    public void llmCall(String operation, String outcome, Duration duration) {
+        Timer.builder("llm.call")
+            .description("LLM call latency per attempt")
+            .tag(OPERATION, operation)
+            .tag("outcome", outcome)
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(duration);
+    }
+    
+    public void llmRetry(String operation) {
+        counter("llm.retries", "LLM call attempts that were retried", operation).increment();
+    }
+    
+    public void llmRateLimited(String operation) {
+        counter("llm.rate_limited", "LLM calls rejected with 429", operation).increment();
+    }
+    
+    /**
+     * @param model The model the call fell back from
+     */
+    public void llmFallback(String operation, String model) {
+        Counter.builder("llm.fallbacks")
+            .description("LLM calls that moved on to the next model of their route")
+            .tag(OPERATION, operation)
+            .tag("model", model)
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .register(registry)
+            .increment();
+    }
+    
+    public void llmRetryBudgetExhausted(String operation) {
+        counter("llm.retry_budget.exhausted", "LLM calls not retried because the retry budget was spent", operation)
+            .increment();
+    }
+    
+    /**
+     * @param outcome won when the hedge answered first, lost when the first request did,
+     *                skipped when the retry budget allowed no hedge
+     */
+    public void llmHedge(String operation, String outcome) {
+        Counter.builder("llm.hedges")
+            .description("LLM attempts that were, or would have been, hedged")
+            .tag(OPERATION, operation)
+            .tag("outcome", outcome)
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .register(registry)
+            .increment();
+    }
+    
+    public void llmCircuitBreaker(String provider, LlmCircuitBreaker circuitBreaker) {
+        Gauge.builder("llm.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+            .description("LLM circuit breaker state: 0 closed, 1 half-open, 2 open")
+            .tag("provider", provider)
+            .register(registry);
+    }
+    
+    /**
+     * Registers the gauges of one endpoint of the provider pool, including its circuit breaker
+     */
+    public void llmEndpoint(LlmEndpoint endpoint) {
+        llmCircuitBreaker(endpoint.name(), endpoint.circuitBreaker());
+        Gauge.builder("llm.endpoint.latency", endpoint, e -> e.latency().toNanos() / 1_000_000.0)
+            .description("Moving average of the time to the first streamed chunk")
+            .baseUnit("milliseconds")
+            .tag("provider", endpoint.name())
+            .register(registry);
+        Gauge.builder("llm.endpoint.in_flight", endpoint, LlmEndpoint::inFlight)
+            .description("LLM requests in flight on the endpoint")
+            .tag("provider", endpoint.name())
+            .register(registry);
+        Gauge.builder("llm.endpoint.quota.remaining", endpoint, LlmEndpoint::remainingQuota)
+            .description("Share of the endpoint's rate limit left until it resets")
+            .tag("provider", endpoint.name())
+            .register(registry);
+    }
+    
+    /**
+     * @param outcome granted, empty when the shared limit was spent, error when the database
+     *                could not be reached
+     */
+    public void llmRateLimitLease(String provider, String outcome) {
+        Counter.builder("llm.rate_limit.leases")
+            .description("Batches of requests leased from the rate limit shared by all instances")
+            .tag("provider", provider)
+            .tag("outcome", outcome)
+            .register(registry)
+            .increment();
+    }
+    
+    public void llmRateLimitWait(String provider, Duration wait) {
+        Timer.builder("llm.rate_limit.wait")
+            .description("Time LLM calls waited for the shared rate limit")
+            .tag("provider", provider)
+            .register(registry)
+            .record(wait);
+    }
+    
+    public void llmCircuitRejected(String operation) {
+        counter("llm.circuit.rejected", "LLM calls failed fast by an open circuit breaker", operation).increment();
+    }
+    
+    /**
+     * @param promptTokens Prompt tokens reported by the provider, or null if not reported
+     * @param completionTokens Completion tokens reported by the provider, or null if not reported
+     */
+    public void llmTokens(String operation, Integer promptTokens, Integer completionTokens) {
+        if (promptTokens != null) {
+            tokens(operation, "prompt").increment(promptTokens);
+        }
+        if (completionTokens != null) {
+            tokens(operation, "completion").increment(completionTokens);
+        }
+    }
+    
+    public void llmCost(String operation, String model, BigDecimal costUsd) {
+        Counter.builder("llm.cost")
+            .description("Cost of LLM calls")
+            .baseUnit("usd")
+            .tag(OPERATION, operation)
+            .tag("model", model)
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .register(registry)
+            .increment(costUsd.doubleValue());
+    }
+    
+    public void llmPromptSize(String operation, int characters) {
+        size("llm.prompt.size", "Prompt length per LLM call", operation).record(characters);
+    }
+    
+    public void llmResponseSize(String operation, int characters) {
+        size("llm.response.size", "Response length per LLM call", operation).record(characters);
+    }
+    
+    private Counter counter(String name, String description, String operation) {
+        return Counter.builder(name)
+            .description(description)
+            .tag(OPERATION, operation)
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .register(registry);
+    }
+    
+    private Counter tokens(String operation, String type) {
+        return Counter.builder("llm.tokens")
+            .description("Tokens reported by the LLM provider")
+            .tag(OPERATION, operation)
+            .tag("type", type)
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .register(registry);
+    }
+    
+    private DistributionSummary size(String name, String description, String operation) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .baseUnit("characters")
+            .tag(OPERATION, operation)
+            .tag(TEMPLATE, WorkflowContext.templateTag())
+            .register(registry);
+    }
+}
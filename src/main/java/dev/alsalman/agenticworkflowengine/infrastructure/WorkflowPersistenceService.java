@@ -1,22 +1,31 @@
 package dev.alsalman.agenticworkflowengine.infrastructure;
 
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.FlightEvents;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.PersistenceCallEvent;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
 import dev.alsalman.agenticworkflowengine.workflow.domain.GoalEntity;
+import dev.alsalman.agenticworkflowengine.workflow.domain.LlmUsage;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
 import dev.alsalman.agenticworkflowengine.workflow.domain.TaskEntity;
 import dev.alsalman.agenticworkflowengine.workflow.domain.TaskDependency;
 import dev.alsalman.agenticworkflowengine.workflow.domain.DependencyType;
+import dev.alsalman.agenticworkflowengine.workflow.domain.UsageSummary;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowEvent;
 import dev.alsalman.agenticworkflowengine.workflow.repository.GoalRepository;
+import dev.alsalman.agenticworkflowengine.workflow.repository.LlmUsageRepository;
 import dev.alsalman.agenticworkflowengine.workflow.repository.TaskRepository;
 import dev.alsalman.agenticworkflowengine.workflow.repository.TaskDependencyRepository;
+import dev.alsalman.agenticworkflowengine.workflow.repository.WorkflowEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 @Service
 public class WorkflowPersistenceService {
@@ -26,14 +35,23 @@ public class WorkflowPersistenceService {
     private final GoalRepository goalRepository;
     private final TaskRepository taskRepository;
     private final TaskDependencyRepository taskDependencyRepository;
+    private final LlmUsageRepository llmUsageRepository;
+    private final WorkflowEventRepository workflowEventRepository;
+    private final WorkflowTracing tracing;
 
     public WorkflowPersistenceService(
             GoalRepository goalRepository, 
             TaskRepository taskRepository,
-            TaskDependencyRepository taskDependencyRepository) {
+            TaskDependencyRepository taskDependencyRepository,
+            LlmUsageRepository llmUsageRepository,
+            WorkflowEventRepository workflowEventRepository,
+            WorkflowTracing tracing) {
         this.goalRepository = goalRepository;
         this.taskRepository = taskRepository;
         this.taskDependencyRepository = taskDependencyRepository;
+        this.llmUsageRepository = llmUsageRepository;
+        this.workflowEventRepository = workflowEventRepository;
+        this.tracing = tracing;
     }
     
     @Transactional
@@ -43,16 +61,16 @@ public class WorkflowPersistenceService {
         GoalEntity goalEntity;
         GoalEntity saved;
         
-        if (goal.id() != null && goalRepository.existsById(goal.id())) {
+        if (goal.id() != null && db("goals.existsById", () -> goalRepository.existsById(goal.id()))) {
             // Update existing goal
             log.debug("Updating existing goal: {}", goal.id());
             goalEntity = GoalEntity.fromGoalWithId(goal);
-            saved = goalRepository.save(goalEntity);
+            saved = db("goals.save", () -> goalRepository.save(goalEntity));
         } else {
             // Insert new goal
             log.debug("Inserting new goal");
             goalEntity = GoalEntity.fromGoal(goal);
-            saved = goalRepository.save(goalEntity);
+            saved = db("goals.save", () -> goalRepository.save(goalEntity));
         }
         
         // Return goal with original tasks preserved but updated ID
@@ -63,7 +81,8 @@ public class WorkflowPersistenceService {
             saved.summary(),
             saved.status(),
             saved.createdAt(),
-            saved.completedAt()
+            saved.completedAt(),
+            saved.parentGoalId()
         );
     }
     
@@ -76,16 +95,16 @@ public class WorkflowPersistenceService {
         TaskEntity taskEntity;
         TaskEntity saved;
         
-        if (task.id() != null && taskRepository.existsById(task.id())) {
+        if (task.id() != null && db("tasks.existsById", () -> taskRepository.existsById(task.id()))) {
             // Update existing task
             log.debug("Updating existing task in database: {}", task.id());
             taskEntity = TaskEntity.fromTaskWithId(task, goalId);
-            saved = taskRepository.save(taskEntity);
+            saved = db("tasks.save", () -> taskRepository.save(taskEntity));
         } else {
             // Insert new task
             log.debug("Inserting completed task into database: {}", task.id());
             taskEntity = TaskEntity.fromTask(task, goalId);
-            saved = taskRepository.save(taskEntity);
+            saved = db("tasks.save", () -> taskRepository.save(taskEntity));
         }
         
         Task savedTask = saved.toTask();
@@ -98,14 +117,14 @@ public class WorkflowPersistenceService {
             // Save blocking dependencies
             for (UUID dependsOnTaskId : task.blockingDependencies()) {
                 TaskDependency dependency = TaskDependency.blocking(savedTask.id(), dependsOnTaskId, "blocking dependency");
-                taskDependencyRepository.save(dependency);
+                db("task_dependencies.save", () -> taskDependencyRepository.save(dependency));
                 log.debug("Saved blocking dependency: {} -> {}", savedTask.id(), dependsOnTaskId);
             }
             
             // Save informational dependencies  
             for (UUID dependsOnTaskId : task.informationalDependencies()) {
                 TaskDependency dependency = TaskDependency.informational(savedTask.id(), dependsOnTaskId, "informational dependency");
-                taskDependencyRepository.save(dependency);
+                db("task_dependencies.save", () -> taskDependencyRepository.save(dependency));
                 log.debug("Saved informational dependency: {} -> {}", savedTask.id(), dependsOnTaskId);
             }
         }
@@ -116,7 +135,7 @@ public class WorkflowPersistenceService {
     
     @Transactional(readOnly = true)
     public Goal findGoalById(UUID goalId) {
-        GoalEntity entity = goalRepository.findById(goalId).orElse(null);
+        GoalEntity entity = db("goals.findById", () -> goalRepository.findById(goalId)).orElse(null);
         if (entity == null) {
             return null;
         }
@@ -129,14 +148,25 @@ public class WorkflowPersistenceService {
             entity.summary(),
             entity.status(),
             entity.createdAt(),
-            entity.completedAt()
+            entity.completedAt(),
+            entity.parentGoalId()
         );
     }
     
+    /**
+     * @return Sub-goals planned and run for tasks of the goal, without their tasks
+     */
+    @Transactional(readOnly = true)
+    public List<Goal> findSubGoals(UUID goalId) {
+        return db("goals.findByParentGoalId", () -> goalRepository.findByParentGoalId(goalId)).stream()
+            .map(GoalEntity::toGoal)
+            .toList();
+    }
+    
     @Transactional(readOnly = true)
     public List<Task> findTasksByGoalId(UUID goalId) {
-        List<TaskEntity> taskEntities = taskRepository.findByGoalId(goalId);
-        List<TaskDependency> allDependencies = taskDependencyRepository.findByGoalId(goalId);
+        List<TaskEntity> taskEntities = db("tasks.findByGoalId", () -> taskRepository.findByGoalId(goalId));
+        List<TaskDependency> allDependencies = db("task_dependencies.findByGoalId", () -> taskDependencyRepository.findByGoalId(goalId));
         
         return taskEntities.stream()
             .map(taskEntity -> {
@@ -163,7 +193,8 @@ public class WorkflowPersistenceService {
                         blockingDeps,
                         informationalDeps,
                         task.createdAt(),
-                        task.completedAt()
+                        task.completedAt(),
+                        task.subGoal()
                     );
                 }
                 
@@ -175,7 +206,46 @@ public class WorkflowPersistenceService {
     @Transactional
     public TaskDependency saveTaskDependency(TaskDependency dependency) {
         log.debug("Saving task dependency: {} -> {}", dependency.taskId(), dependency.dependsOnTaskId());
-        return taskDependencyRepository.save(dependency);
+        return db("task_dependencies.save", () -> taskDependencyRepository.save(dependency));
+    }
+    
+    @Transactional
+    public LlmUsage saveLlmUsage(LlmUsage usage) {
+        return db("llm_usage.save", () -> llmUsageRepository.save(usage));
+    }
+    
+    /**
+     * @return Token usage and cost of every LLM call made for the goal
+     */
+    @Transactional(readOnly = true)
+    public UsageSummary findUsageByGoalId(UUID goalId) {
+        return UsageSummary.of(db("llm_usage.findByGoalId", () -> llmUsageRepository.findByGoalId(goalId)));
     }
     
-}
\ No newline at end of file
+    @Transactional
+    public void saveWorkflowEvents(List<WorkflowEvent> events) {
+        log.debug("Saving {} workflow events", events.size());
+        db("workflow_events.saveAll", () -> workflowEventRepository.saveAll(events));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<WorkflowEvent> findWorkflowEvents(UUID goalId) {
+        return db("workflow_events.findByGoalId", () -> workflowEventRepository.findByGoalId(goalId));
+    }
+    
+    /**
+     * Records when a task became ready and when its execution started
+     */
+    @Transactional
+    public void updateTaskTimings(UUID taskId, Instant readyAt, Instant startedAt) {
+        db("tasks.updateTimings", () -> taskRepository.updateTimings(taskId, readyAt, startedAt));
+    }
+    
+    /**
+     * Runs one repository call in its own span and JFR event
+     */
+    private <T> T db(String operation, Supplier<T> call) {
+        return FlightEvents.record(new PersistenceCallEvent(), () -> tracing.span("db." + operation, call),
+            (event, result) -> event.describe(operation));
+    }
+}
@@ -0,0 +1,130 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Collects the execution timeline of running goals: stages, the time each task spent
+ * ready but not dispatched, task executions and LLM calls. Events are attributed to the
+ * goal and task bound in {@link WorkflowContext} and kept in memory until the goal
+ * finishes, then written in one batch together with the tasks' ready and start times.
+ *
+ * <p>Event types are the stage names of {@link WorkflowMetrics} plus {@link #QUEUED},
+ * {@link #EXECUTION} and {@link #LLM_CALL}.
+ */
+@Component
+public class WorkflowProfiler {
+    
+    private static final Logger log = LoggerFactory.getLogger(WorkflowProfiler.class);
+    
+    /** A task from the moment its blocking dependencies completed until it was dispatched */
+    public static final String QUEUED = "queued";
+    /** A task executing, from the start of its subtask until its result */
+    public static final String EXECUTION = "execution";
+    /** One LLM call attempt */
+    public static final String LLM_CALL = "llm_call";
+    
+    private final WorkflowPersistenceService persistenceService;
+    private final Map<UUID, Queue<WorkflowEvent>> running = new ConcurrentHashMap<>();
+    
+    public WorkflowProfiler(WorkflowPersistenceService persistenceService) {
+        this.persistenceService = persistenceService;
+    }
+    
+    /**
+     * Runs the operation and records it as an event of the current goal and task
+     */
+    public <T> T time(String type, Supplier<T> operation) {
+        if (WorkflowContext.goalId() == null) {
+            return operation.get();
+        }
+        Instant start = Instant.now();
+        try {
+            return operation.get();
+        } finally {
+            record(type, start, Instant.now());
+        }
+    }
+    
+    /**
+     * Records an event of the current goal and task; ignored outside a goal
+     */
+    public void record(String type, Instant start, Instant end) {
+        record(WorkflowContext.taskId(), type, start, end);
+    }
+    
+    /**
+     * Records an event of the current goal for the given task; ignored outside a goal
+     */
+    public void record(UUID taskId, String type, Instant start, Instant end) {
+        UUID goalId = WorkflowContext.goalId();
+        if (goalId == null) {
+            return;
+        }
+        running.computeIfAbsent(goalId, id -> new ConcurrentLinkedQueue<>())
+            .add(WorkflowEvent.of(goalId, taskId, type, start, end));
+    }
+    
+    /**
+     * @return Events recorded so far for a goal that is still running, or null if it is not
+     */
+    public List<WorkflowEvent> runningEvents(UUID goalId) {
+        Queue<WorkflowEvent> events = running.get(goalId);
+        return events != null ? List.copyOf(events) : null;
+    }
+    
+    /**
+     * Stores the goal's events and task timings. Failures are logged: a lost profile
+     * never fails the workflow it describes.
+     */
+    public void finish(UUID goalId) {
+        Queue<WorkflowEvent> events = running.remove(goalId);
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        List<WorkflowEvent> recorded = List.copyOf(events);
+        try {
+            persistenceService.saveWorkflowEvents(recorded);
+            taskTimings(recorded).forEach((taskId, timings) ->
+                persistenceService.updateTaskTimings(taskId, timings[0], timings[1]));
+        } catch (RuntimeException e) {
+            log.warn("Failed to store execution profile of goal {}: {}", goalId, e.getMessage());
+        }
+    }
+    
+    /**
+     * @return Ready and start time per task, from its first queued and execution events
+     */
+    static Map<UUID, Instant[]> taskTimings(List<WorkflowEvent> events) {
+        Map<UUID, Instant[]> timings = new HashMap<>();
+        for (WorkflowEvent event : events) {
+            if (event.taskId() == null) {
+                continue;
+            }
+            int index = switch (event.type()) {
+                case QUEUED -> 0;
+                case EXECUTION -> 1;
+                default -> -1;
+            };
+            if (index >= 0) {
+                Instant[] task = timings.computeIfAbsent(event.taskId(), id -> new Instant[2]);
+                if (task[index] == null || event.startedAt().isBefore(task[index])) {
+                    task[index] = event.startedAt();
+                }
+            }
+        }
+        return timings;
+    }
+}
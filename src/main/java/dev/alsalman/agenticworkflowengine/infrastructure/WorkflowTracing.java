@@ -0,0 +1,134 @@
+package dev.alsalman.agenticworkflowengine.infrastructure;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Spans for workflow execution, one trace per goal. The workflow span starts a new trace
+ * linked to whatever started it (usually the HTTP request), stages and persistence calls
+ * are its children, and each task span is also linked to the spans of the tasks it
+ * depends on.
+ *
+ * <p>Spans become current on the thread that runs them. Work forked onto another thread,
+ * such as the StructuredTaskScope forks of a wave, passes the parent explicitly with
+ * {@link #currentContext()} and {@link #traceTask}.
+ */
+@Component
+public class WorkflowTracing {
+    
+    /** Task span contexts of the current workflow by task ID, for dependency links */
+    private static final ScopedValue<Map<UUID, TraceContext>> TASK_SPANS = ScopedValue.newInstance();
+    
+    private final Tracer tracer;
+    
+    @Autowired
+    public WorkflowTracing(ObjectProvider<Tracer> tracer) {
+        this(tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+    
+    public WorkflowTracing(Tracer tracer) {
+        this.tracer = tracer;
+    }
+    
+    /**
+     * Runs a whole workflow in a new trace
+     */
+    public <T> T traceWorkflow(String name, Supplier<T> workflow) {
+        Span.Builder builder = tracer.spanBuilder().name(name).setNoParent();
+        Span caller = tracer.currentSpan();
+        if (caller != null) {
+            builder.addLink(new Link(caller.context()));
+        }
+        Span span = builder.start();
+        span.tag("workflow.template", WorkflowContext.templateTag());
+        return inScope(span, () -> ScopedValue.where(TASK_SPANS, new ConcurrentHashMap<>()).call(workflow::get));
+    }
+    
+    /**
+     * Tags the current span with the goal once its ID is known
+     */
+    public void tagGoal(UUID goalId) {
+        Span current = tracer.currentSpan();
+        if (current != null && goalId != null) {
+            current.tag("workflow.goal_id", goalId.toString());
+        }
+    }
+    
+    /**
+     * Runs the operation in a child span of the current span
+     */
+    public <T> T span(String name, Supplier<T> operation) {
+        return inScope(tracer.nextSpan().name(name).start(), operation);
+    }
+    
+    /**
+     * @return The current span's context, to parent spans started on other threads; null if none
+     */
+    public TraceContext currentContext() {
+        Span current = tracer.currentSpan();
+        return current != null ? current.context() : null;
+    }
+    
+    /**
+     * Runs one task in a span under the given parent, linked to the spans of its
+     * already traced dependencies
+     *
+     * @param parent Parent span context captured on the orchestrating thread, or null
+     */
+    public Task traceTask(Task task, TraceContext parent, Supplier<Task> execution) {
+        Span.Builder builder = tracer.spanBuilder().name("workflow.task");
+        if (parent != null) {
+            builder.setParent(parent);
+        }
+        Map<UUID, TraceContext> taskSpans = TASK_SPANS.isBound() ? TASK_SPANS.get() : Map.of();
+        for (UUID dependency : dependenciesOf(task)) {
+            TraceContext dependencySpan = taskSpans.get(dependency);
+            if (dependencySpan != null) {
+                builder.addLink(new Link(dependencySpan));
+            }
+        }
+        
+        Span span = builder.start();
+        span.tag("workflow.task_id", String.valueOf(task.id()));
+        span.tag("workflow.task", task.description());
+        if (TASK_SPANS.isBound() && task.id() != null) {
+            taskSpans.put(task.id(), span.context());
+        }
+        
+        return inScope(span, () -> {
+            Task result = execution.get();
+            span.tag("workflow.task_status", String.valueOf(result.status()));
+            return result;
+        });
+    }
+    
+    private <T> T inScope(Span span, Supplier<T> operation) {
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return operation.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+    
+    private static List<UUID> dependenciesOf(Task task) {
+        List<UUID> blocking = task.blockingDependencies() != null ? task.blockingDependencies() : List.of();
+        List<UUID> informational = task.informationalDependencies() != null ? task.informationalDependencies() : List.of();
+        return Stream.concat(blocking.stream(), informational.stream()).toList();
+    }
+}
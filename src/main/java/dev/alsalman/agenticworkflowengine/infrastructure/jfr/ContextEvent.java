@@ -0,0 +1,39 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.jfr;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Base of the engine's JFR events: the goal, task and template bound in
+ * {@link WorkflowContext} when the event was committed, and how the operation ended.
+ */
+@Category("Agentic Workflow")
+@StackTrace(false)
+public abstract class ContextEvent extends jdk.jfr.Event {
+    
+    @Label("Goal ID")
+    String goalId;
+    
+    @Label("Task ID")
+    String taskId;
+    
+    @Label("Template ID")
+    String templateId;
+    
+    @Label("Outcome")
+    String outcome;
+    
+    void fromContext() {
+        goalId = string(WorkflowContext.goalId());
+        taskId = string(WorkflowContext.taskId());
+        templateId = string(WorkflowContext.templateId());
+    }
+    
+    static String string(UUID id) {
+        return id != null ? id.toString() : null;
+    }
+}
@@ -0,0 +1,79 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.jfr;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Records an operation as a JFR event. Fields are only filled in when the event will be
+ * committed, so with no recording running the cost is the event allocation.
+ */
+public final class FlightEvents {
+    
+    private FlightEvents() {
+    }
+    
+    /**
+     * Runs the operation inside the event
+     *
+     * @param describe Fills in the event's fields from the result, which is null if the operation threw
+     */
+    public static <E extends ContextEvent, T> T record(E event, Supplier<T> operation, BiConsumer<E, T> describe) {
+        event.begin();
+        T result = null;
+        String outcome = "error";
+        try {
+            result = operation.get();
+            outcome = "success";
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.fromContext();
+                commit(event, outcome, result, describe);
+            }
+        }
+    }
+    
+    /**
+     * Records an asynchronous operation, from the call until its future completes. The
+     * workflow context is taken from the calling thread, since the future may complete on
+     * any thread. The operation's own future is returned, so cancelling it still reaches
+     * the operation.
+     */
+    public static <E extends ContextEvent, T> CompletableFuture<T> recordAsync(E event, Supplier<CompletableFuture<T>> operation,
+                                                                               BiConsumer<E, T> describe) {
+        event.begin();
+        event.fromContext();
+        CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (RuntimeException e) {
+            finish(event, "error", null, describe);
+            throw e;
+        }
+        future.whenComplete((result, error) -> finish(event, outcomeOf(error), result, describe));
+        return future;
+    }
+    
+    private static String outcomeOf(Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        return error instanceof CancellationException ? "cancelled" : "error";
+    }
+    
+    private static <E extends ContextEvent, T> void finish(E event, String outcome, T result, BiConsumer<E, T> describe) {
+        event.end();
+        if (event.shouldCommit()) {
+            commit(event, outcome, result, describe);
+        }
+    }
+    
+    private static <E extends ContextEvent, T> void commit(E event, String outcome, T result, BiConsumer<E, T> describe) {
+        event.outcome = outcome;
+        describe.accept(event, result);
+        event.commit();
+    }
+}
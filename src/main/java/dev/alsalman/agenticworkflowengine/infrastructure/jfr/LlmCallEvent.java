@@ -0,0 +1,38 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One attempt of an LLM call made through ResilientChatClient
+ */
+@Name("dev.alsalman.workflow.LlmCall")
+@Label("LLM Call")
+@Description("One LLM call attempt; retries are separate events")
+public class LlmCallEvent extends ContextEvent {
+    
+    @Label("Operation")
+    String operation;
+    
+    @Label("Attempt")
+    int attempt;
+    
+    @Label("Prompt Size")
+    @DataAmount(DataAmount.BYTES)
+    long promptBytes;
+    
+    @Label("Response Size")
+    @DataAmount(DataAmount.BYTES)
+    long responseBytes;
+    
+    public void describe(String operation, int attempt, String prompt, String response) {
+        this.operation = operation;
+        this.attempt = attempt;
+        this.promptBytes = prompt != null ? prompt.getBytes(StandardCharsets.UTF_8).length : 0;
+        this.responseBytes = response != null ? response.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+}
@@ -0,0 +1,27 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One repository call made through WorkflowPersistenceService. Calls on virtual threads
+ * are flagged: if one shows up next to a {@code jdk.VirtualThreadPinned} event on the
+ * same thread, the JDBC driver pinned its carrier.
+ */
+@Name("dev.alsalman.workflow.Persistence")
+@Label("Persistence Call")
+@Description("One repository call")
+public class PersistenceCallEvent extends ContextEvent {
+    
+    @Label("Operation")
+    String operation;
+    
+    @Label("Virtual Thread")
+    boolean virtualThread;
+    
+    public void describe(String operation) {
+        this.operation = operation;
+        this.virtualThread = Thread.currentThread().isVirtual();
+    }
+}
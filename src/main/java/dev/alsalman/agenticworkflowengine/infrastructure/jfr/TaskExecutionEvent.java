@@ -0,0 +1,33 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.jfr;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One task executed by the task agent, on its own subtask when the wave has several
+ */
+@Name("dev.alsalman.workflow.Task")
+@Label("Task Execution")
+@Description("Execution of one task, including its LLM call and retries")
+public class TaskExecutionEvent extends ContextEvent {
+    
+    @Label("Virtual Thread")
+    boolean virtualThread;
+    
+    @Label("Result Size")
+    @DataAmount(DataAmount.BYTES)
+    long resultBytes;
+    
+    public void describe(Task task) {
+        virtualThread = Thread.currentThread().isVirtual();
+        if (task != null) {
+            outcome = String.valueOf(task.status());
+            resultBytes = task.result() != null ? task.result().getBytes(StandardCharsets.UTF_8).length : 0;
+        }
+    }
+}
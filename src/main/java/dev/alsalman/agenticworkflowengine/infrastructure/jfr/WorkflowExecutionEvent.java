@@ -0,0 +1,27 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.jfr;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One whole workflow, from goal initialization to summary
+ */
+@Name("dev.alsalman.workflow.Workflow")
+@Label("Workflow")
+@Description("Execution of one goal's workflow")
+public class WorkflowExecutionEvent extends ContextEvent {
+    
+    @Label("Tasks")
+    int tasks;
+    
+    public void describe(WorkflowResult result) {
+        if (result == null || result.goal() == null) {
+            return;
+        }
+        goalId = string(result.goal().id());
+        tasks = result.goal().tasks() != null ? result.goal().tasks().size() : 0;
+        outcome = result.success() ? "completed" : "failed";
+    }
+}
@@ -1,13 +1,25 @@
 package dev.alsalman.agenticworkflowengine.planning;
 
+import dev.alsalman.agenticworkflowengine.planning.domain.PlanShape;
+import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
+import dev.alsalman.agenticworkflowengine.workflow.domain.DependencyType;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskDependency;
 import dev.alsalman.agenticworkflowengine.workflow.domain.TaskStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.HashSet;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,13 +41,46 @@ public class DependencyResolver {
     
     
     /**
-     * Check if all tasks can be completed (no circular dependencies)
+     * Check if all tasks can be completed (no circular dependencies).
+     * Iterative depth-first search over blocking dependencies; each task is expanded
+     * once, so the check is linear in tasks plus dependencies.
      */
     public boolean hasCircularDependencies(List<Task> tasks) {
-        // Simple cycle detection using DFS
-        for (Task task : tasks) {
-            if (hasCycleDFS(task, tasks, Set.of(), Set.of())) {
-                return true;
+        Map<UUID, Task> tasksById = new HashMap<>();
+        tasks.forEach(task -> tasksById.putIfAbsent(task.id(), task));
+        
+        Set<UUID> visiting = new HashSet<>();
+        Set<UUID> visited = new HashSet<>();
+        Deque<Iterator<UUID>> stack = new ArrayDeque<>();
+        Deque<UUID> path = new ArrayDeque<>();
+        
+        for (Task root : tasksById.values()) {
+            if (visited.contains(root.id())) {
+                continue;
+            }
+            visiting.add(root.id());
+            path.push(root.id());
+            stack.push(root.blockingDependencies().iterator());
+            
+            while (!stack.isEmpty()) {
+                Iterator<UUID> dependencies = stack.peek();
+                if (!dependencies.hasNext()) {
+                    stack.pop();
+                    UUID done = path.pop();
+                    visiting.remove(done);
+                    visited.add(done);
+                    continue;
+                }
+                
+                Task dependency = tasksById.get(dependencies.next());
+                if (dependency == null || visited.contains(dependency.id())) {
+                    continue; // Unknown dependencies are reported by validateDependencies
+                }
+                if (!visiting.add(dependency.id())) {
+                    return true; // Cycle detected
+                }
+                path.push(dependency.id());
+                stack.push(dependency.blockingDependencies().iterator());
             }
         }
         return false;
@@ -64,43 +109,187 @@ public class DependencyResolver {
             .toList();
     }
     
-    private Set<UUID> getCompletedTaskIds(List<Task> tasks) {
-        return tasks.stream()
-            .filter(task -> task.status() == TaskStatus.COMPLETED)
-            .map(Task::id)
-            .collect(Collectors.toSet());
+    /**
+     * Levels tasks by their longest chain of blocking dependencies (unknown dependencies and
+     * tasks on a cycle are left out).
+     */
+    public PlanShape shape(List<Task> tasks) {
+        List<Task> order = topologicalOrder(tasks);
+        Map<UUID, Integer> levels = new HashMap<>();
+        Map<UUID, UUID> longestFrom = new HashMap<>();
+        UUID deepest = null;
+        for (Task task : order) {
+            int level = 1;
+            for (UUID dependency : task.blockingDependencies()) {
+                Integer dependencyLevel = levels.get(dependency);
+                if (dependencyLevel != null && dependencyLevel + 1 > level) {
+                    level = dependencyLevel + 1;
+                    longestFrom.put(task.id(), dependency);
+                }
+            }
+            levels.put(task.id(), level);
+            if (deepest == null || level > levels.get(deepest)) {
+                deepest = task.id();
+            }
+        }
+        
+        Map<Integer, Integer> tasksPerLevel = new HashMap<>();
+        levels.values().forEach(level -> tasksPerLevel.merge(level, 1, Integer::sum));
+        int width = tasksPerLevel.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        
+        List<UUID> criticalPath = new ArrayList<>();
+        for (UUID current = deepest; current != null; current = longestFrom.get(current)) {
+            criticalPath.addFirst(current);
+        }
+        return new PlanShape(width, criticalPath.size(), criticalPath);
     }
     
-    private boolean hasCycleDFS(Task task, List<Task> allTasks, Set<UUID> visiting, Set<UUID> visited) {
-        if (visiting.contains(task.id())) {
-            return true; // Cycle detected
+    /**
+     * Transitive reduction: a blocking dependency on a task that another blocking dependency
+     * already waits for, directly or further up, changes nothing about when the task can
+     * start. Such dependencies become informational, so the relationship is kept.
+     */
+    public TaskPlan reduceTransitiveDependencies(TaskPlan plan) {
+        List<Task> order = topologicalOrder(plan.tasks());
+        Map<UUID, Integer> index = new HashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            index.put(order.get(i).id(), i);
         }
-        if (visited.contains(task.id())) {
-            return false; // Already processed
+        // Everything each task waits for, directly or through its dependencies
+        Map<UUID, BitSet> ancestors = new HashMap<>();
+        Set<DependencyEdge> redundant = new HashSet<>();
+        for (Task task : order) {
+            BitSet waitsFor = new BitSet(order.size());
+            List<UUID> dependencies = task.blockingDependencies().stream().filter(index::containsKey).toList();
+            for (UUID dependency : dependencies) {
+                waitsFor.set(index.get(dependency));
+                waitsFor.or(ancestors.get(dependency));
+            }
+            ancestors.put(task.id(), waitsFor);
+            for (UUID dependency : dependencies) {
+                int position = index.get(dependency);
+                boolean implied = dependencies.stream()
+                    .anyMatch(other -> !other.equals(dependency) && ancestors.get(other).get(position));
+                if (implied) {
+                    redundant.add(new DependencyEdge(task.id(), dependency));
+                }
+            }
         }
+        return redundant.isEmpty() ? plan : makeInformational(plan, redundant);
+    }
+    
+    /**
+     * While the plan is deeper than allowed, makes blocking dependencies on its longest chain
+     * informational when their reason says they only provide context. Dependencies whose
+     * reason says the output is needed stay blocking, even if the plan stays too deep.
+     *
+     * @param informationalReasons Reasons that allow a blocking dependency to become informational
+     */
+    public TaskPlan relaxDependencies(TaskPlan plan, int maxDepth, Pattern informationalReasons) {
+        Map<DependencyEdge, String> reasons = new HashMap<>();
+        plan.dependencies().stream()
+            .filter(dependency -> dependency.type() == DependencyType.BLOCKING && dependency.reason() != null)
+            .forEach(dependency -> reasons.put(new DependencyEdge(dependency.taskId(), dependency.dependsOnTaskId()),
+                dependency.reason()));
         
-        // Create mutable copies of the sets
-        Set<UUID> newVisiting = new HashSet<>(visiting);
-        Set<UUID> newVisited = new HashSet<>(visited);
-        
-        newVisiting.add(task.id());
-        
-        for (UUID depId : task.blockingDependencies()) {
-            Task depTask = findTaskById(allTasks, depId);
-            if (depTask != null && hasCycleDFS(depTask, allTasks, newVisiting, newVisited)) {
-                return true;
+        TaskPlan current = plan;
+        PlanShape shape = shape(current.tasks());
+        while (shape.depth() > maxDepth) {
+            DependencyEdge relaxable = null;
+            List<UUID> path = shape.criticalPath();
+            for (int i = 1; i < path.size() && relaxable == null; i++) {
+                DependencyEdge edge = new DependencyEdge(path.get(i), path.get(i - 1));
+                String reason = reasons.get(edge);
+                if (reason != null && informationalReasons.matcher(reason).find()) {
+                    relaxable = edge;
+                }
+            }
+            if (relaxable == null) {
+                break;
+            }
+            reasons.remove(relaxable);
+            current = makeInformational(current, Set.of(relaxable));
+            shape = shape(current.tasks());
+        }
+        return current;
+    }
+    
+    /**
+     * Kahn's algorithm over blocking dependencies; tasks on a cycle are left out
+     */
+    private List<Task> topologicalOrder(List<Task> tasks) {
+        Map<UUID, Task> tasksById = new HashMap<>();
+        tasks.forEach(task -> tasksById.putIfAbsent(task.id(), task));
+        Map<UUID, Integer> waitingOn = new HashMap<>();
+        Map<UUID, List<Task>> dependents = new HashMap<>();
+        for (Task task : tasksById.values()) {
+            int count = 0;
+            for (UUID dependency : new HashSet<>(task.blockingDependencies())) {
+                if (tasksById.containsKey(dependency)) {
+                    count++;
+                    dependents.computeIfAbsent(dependency, id -> new ArrayList<>()).add(task);
+                }
             }
+            waitingOn.put(task.id(), count);
         }
         
-        newVisiting.remove(task.id());
-        newVisited.add(task.id());
-        return false;
+        Deque<Task> ready = new ArrayDeque<>();
+        tasks.stream()
+            .filter(task -> tasksById.get(task.id()) == task && waitingOn.get(task.id()) == 0)
+            .forEach(ready::add);
+        List<Task> order = new ArrayList<>(tasksById.size());
+        while (!ready.isEmpty()) {
+            Task task = ready.poll();
+            order.add(task);
+            for (Task dependent : dependents.getOrDefault(task.id(), List.of())) {
+                if (waitingOn.merge(dependent.id(), -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return order;
+    }
+    
+    private TaskPlan makeInformational(TaskPlan plan, Set<DependencyEdge> edges) {
+        List<Task> tasks = plan.tasks().stream()
+            .map(task -> {
+                List<UUID> relaxed = task.blockingDependencies().stream()
+                    .filter(dependency -> edges.contains(new DependencyEdge(task.id(), dependency)))
+                    .toList();
+                if (relaxed.isEmpty()) {
+                    return task;
+                }
+                List<UUID> informational = new ArrayList<>(task.informationalDependencies());
+                relaxed.stream().filter(dependency -> !informational.contains(dependency)).forEach(informational::add);
+                return new Task(
+                    task.id(),
+                    task.description(),
+                    task.result(),
+                    task.status(),
+                    task.blockingDependencies().stream().filter(dependency -> !relaxed.contains(dependency)).toList(),
+                    List.copyOf(informational),
+                    task.createdAt(),
+                    task.completedAt(),
+                    task.subGoal()
+                );
+            })
+            .toList();
+        List<TaskDependency> dependencies = plan.dependencies().stream()
+            .map(dependency -> dependency.type() == DependencyType.BLOCKING
+                    && edges.contains(new DependencyEdge(dependency.taskId(), dependency.dependsOnTaskId()))
+                ? new TaskDependency(dependency.id(), dependency.taskId(), dependency.dependsOnTaskId(),
+                    DependencyType.INFORMATIONAL, dependency.reason(), dependency.createdAt())
+                : dependency)
+            .toList();
+        return TaskPlan.of(tasks, dependencies);
     }
     
-    private Task findTaskById(List<Task> tasks, UUID id) {
+    private record DependencyEdge(UUID taskId, UUID dependsOnTaskId) {}
+    
+    private Set<UUID> getCompletedTaskIds(List<Task> tasks) {
         return tasks.stream()
-            .filter(task -> task.id().equals(id))
-            .findFirst()
-            .orElse(null);
+            .filter(task -> task.status() == TaskStatus.COMPLETED)
+            .map(Task::id)
+            .collect(Collectors.toSet());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package dev.alsalman.agenticworkflowengine.planning;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Shape the planner aims for (see {@link TaskPlanAgent}).
+ *
+ * @param targetParallelism Tasks the planner is asked to make runnable at the same time
+ * @param maxDepth Longest chain of blocking dependencies, in tasks, before the plan is reshaped
+ * @param informationalReasons Regex for dependency reasons that only describe context; such
+ *                             blocking dependencies on the longest chain become informational
+ *                             when the plan is too deep
+ * @param replan Whether a plan that is still too deep is sent back to the model once
+ * @param maxSubGoalDepth Levels of sub-goals below the goal; a task the planner marks as a
+ *                        sub-goal is planned and run as a goal of its own once it is ready,
+ *                        and below this level it runs as a single task. 0 plans flat.
+ */
+@ConfigurationProperties(prefix = "workflow.planning")
+public record PlanningProperties(
+    @DefaultValue("3") int targetParallelism,
+    @DefaultValue("3") int maxDepth,
+    String informationalReasons,
+    @DefaultValue("true") boolean replan,
+    @DefaultValue("2") int maxSubGoalDepth
+) {
+    
+    /** Context words, unless the reason also says the output is needed */
+    public static final String DEFAULT_INFORMATIONAL_REASONS =
+        "(?i)^(?!.*\\b(needs?|requires?|must|cannot|input)\\b).*\\b(context|insights?|informs?|background|reference|inspiration|helps?|useful|aligns?|consistent)\\b";
+    
+    public PlanningProperties {
+        informationalReasons = informationalReasons != null ? informationalReasons : DEFAULT_INFORMATIONAL_REASONS;
+    }
+}
@@ -1,20 +1,20 @@
 package dev.alsalman.agenticworkflowengine.planning;
 
 import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.planning.domain.PlanShape;
 import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
-import dev.alsalman.agenticworkflowengine.workflow.domain.TaskDependency;
-import dev.alsalman.agenticworkflowengine.workflow.domain.DependencyType;
 import org.springframework.stereotype.Component;
 import dev.alsalman.agenticworkflowengine.infrastructure.ResilientChatClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.Arrays;
-import java.util.ArrayList;
-import java.util.UUID;
+import java.util.Collection;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Component
 public class TaskPlanAgent {
@@ -22,257 +22,263 @@ public class TaskPlanAgent {
     private static final Logger log = LoggerFactory.getLogger(TaskPlanAgent.class);
     
     private final ResilientChatClient resilientChatClient;
+    private final DependencyResolver dependencyResolver;
+    private final PlanningProperties properties;
+    private final Pattern informationalReasons;
     
-    public TaskPlanAgent(ResilientChatClient resilientChatClient) {
+    public TaskPlanAgent(ResilientChatClient resilientChatClient, DependencyResolver dependencyResolver,
+                         PlanningProperties properties) {
         this.resilientChatClient = resilientChatClient;
+        this.dependencyResolver = dependencyResolver;
+        this.properties = properties;
+        this.informationalReasons = Pattern.compile(properties.informationalReasons());
     }
     
     
     public TaskPlan createTaskPlanWithDependencies(String userGoal) {
-        String prompt = """
+        return ResilientChatClient.await("task planning", createTaskPlanWithDependenciesAsync(userGoal));
+    }
+    
+    /**
+     * Plans the goal without holding the calling thread while the model responds
+     */
+    public CompletableFuture<TaskPlan> createTaskPlanWithDependenciesAsync(String userGoal) {
+        return planAsync("task planning", buildPlanningPrompt(userGoal, "", subGoalsAllowed(0)));
+    }
+    
+    /**
+     * Plans a sub-goal once its task is ready to start. Only this part of the larger goal is
+     * planned, so a goal with hundreds of tasks never needs one prompt that lists them all.
+     * 
+     * @param subGoal The sub-goal
+     * @param parentGoal The goal whose plan the sub-goal is part of
+     * @param depth Level of the sub-goal below the top-level goal, from 1; below
+     *              {@link PlanningProperties#maxSubGoalDepth()} it may be split further
+     */
+    public TaskPlan createSubGoalPlan(String subGoal, String parentGoal, int depth) {
+        String instructions = """
+            This goal is one part of a larger goal: %s
+            Plan only this part; the other parts of the larger goal are planned separately.
+            
+            """.formatted(parentGoal);
+        return ResilientChatClient.await("sub-goal planning",
+            planAsync("sub-goal planning", buildPlanningPrompt(subGoal, instructions, subGoalsAllowed(depth))));
+    }
+    
+    /**
+     * Plans a goal that still contains {{placeholders}}, asking the model to keep them
+     * verbatim in task descriptions so the plan can be reused for every set of values.
+     */
+    public TaskPlan createParameterizedTaskPlan(String templatedGoal, Collection<String> placeholders) {
+        String placeholderList = placeholders.stream()
+            .map(name -> "{{" + name + "}}")
+            .collect(Collectors.joining(", "));
+        String instructions = """
+            The goal is a template. Its placeholders (%s) will be filled in later with different values.
+            Keep every placeholder exactly as written in any task description that needs its value, and do not invent values for them.
+            
+            """.formatted(placeholderList);
+        
+        return ResilientChatClient.await("template task planning",
+            planAsync("template task planning", buildPlanningPrompt(templatedGoal, instructions, subGoalsAllowed(0))));
+    }
+    
+    /**
+     * A plan read from the model's answer once its dependencies have been reduced, and its shape
+     */
+    private record Draft(String response, TaskPlan plan, PlanShape shape) {}
+    
+    /**
+     * Asks for the plan as schema-constrained JSON. An answer that is not a usable plan gets
+     * one repair request naming what was wrong with it; if that fails too, planning fails.
+     * A plan whose blocking chain is still longer than allowed once it has been reduced is
+     * sent back once to be reshaped, and the shallower of the two plans is kept. Replanning
+     * only improves a usable plan, so when it fails the first plan is kept.
+     */
+    private CompletableFuture<TaskPlan> planAsync(String operationName, String prompt) {
+        return draftAsync(operationName, prompt).thenCompose(draft -> {
+            if (!needsReplanning(draft)) {
+                return CompletableFuture.completedFuture(draft.plan());
+            }
+            return resilientChatClient.callAsync("task replanning", buildReplanPrompt(prompt, draft), null,
+                    TaskPlanParser.SCHEMA)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        log.warn("Replanning failed, keeping the first plan: {}", error.getMessage());
+                        return draft.plan();
+                    }
+                    return shallower(draft, response);
+                });
+        });
+    }
+    
+    private CompletableFuture<Draft> draftAsync(String operationName, String prompt) {
+        return resilientChatClient.callAsync(operationName, prompt, null, TaskPlanParser.SCHEMA)
+            .thenCompose(response -> {
+                try {
+                    return CompletableFuture.completedFuture(toDraft(response));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid plan from {}, asking for a repair: {}", operationName, e.getMessage());
+                    return resilientChatClient.callAsync("plan repair", buildRepairPrompt(prompt, response, e.getMessage()),
+                            null, TaskPlanParser.SCHEMA)
+                        .thenApply(this::toDraft);
+                }
+            });
+    }
+    
+    /**
+     * Parses the answer, makes transitively implied blocking dependencies informational and,
+     * while the plan is too deep, those whose reason only gives context
+     *
+     * @throws IllegalArgumentException If the response is not a usable plan
+     */
+    private Draft toDraft(String response) {
+        TaskPlan plan = dependencyResolver.reduceTransitiveDependencies(parseTaskPlanResponse(response));
+        plan = dependencyResolver.relaxDependencies(plan, properties.maxDepth(), informationalReasons);
+        PlanShape shape = dependencyResolver.shape(plan.tasks());
+        log.info("Plan of {} tasks runs {} wide and {} deep", plan.tasks().size(), shape.width(), shape.depth());
+        return new Draft(response, plan, shape);
+    }
+    
+    private boolean needsReplanning(Draft draft) {
+        return properties.replan() && draft.shape().depth() > properties.maxDepth();
+    }
+    
+    /**
+     * @return The reshaped plan if it is usable and shallower than the first one, else the first one
+     */
+    private TaskPlan shallower(Draft first, String response) {
+        try {
+            Draft reshaped = toDraft(response);
+            if (reshaped.shape().depth() < first.shape().depth()) {
+                return reshaped.plan();
+            }
+            log.warn("Replanning did not make the plan shallower ({} deep), keeping the first plan", reshaped.shape().depth());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid plan from replanning, keeping the first plan: {}", e.getMessage());
+        }
+        return first.plan();
+    }
+    
+    /**
+     * @param depth Level of the goal being planned below the top-level goal
+     */
+    private boolean subGoalsAllowed(int depth) {
+        return depth < properties.maxSubGoalDepth();
+    }
+    
+    private String buildPlanningPrompt(String userGoal, String instructions, boolean subGoals) {
+        String subGoalPrinciple = subGoals
+            ? "- Sub-goals: If the goal is too large for 3-6 tasks, make each large part a sub-goal (\"subGoal\": true). A sub-goal is planned into tasks of its own when it is ready to start, so describe it as a goal rather than a step, and keep \"subGoal\" false for anything one step can do."
+            : "- Set \"subGoal\" to false for every task.";
+        return instructions + """
             Break down the following goal into 3-6 specific, actionable tasks. For each task, identify any other tasks that it depends on.
-
+            
             Goal: %s
-
+            
             Key principles:
             - Efficiency: If tasks are independent and can be done in parallel, do not create a dependency.
             - Logical Flow: Only create a dependency if one task's output is strictly required to start another.
             - No Forced Dependencies: If a goal can be broken into completely independent tasks, it is acceptable to have no dependencies.
-
+            - Shape: Let at least %d tasks run at the same time, and keep every chain of blocking dependencies to at most %d tasks.
+            %s
+            
             Examples of dependencies:
             - "Research market" must complete before "Create business plan" (blocking)
             - "Design logo" must complete before "Create marketing materials" (blocking)
             - "Set up legal structure" can inform "Open business bank account" but doesn't block it (informational)
-
-            Format EXACTLY as shown:
-            TASKS:
-            1. [First task description]
-            2. [Second task description]
-            ...
-
-            DEPENDENCIES:
-            Task 2 depends on Task 1 (blocking) - needs market research data to create plan
-            Task 3 depends on Task 1 (informational) - market insights help with branding
-            ...
-            """.formatted(userGoal);
             
-        String response = resilientChatClient.call("task planning", prompt);
-        return parseTaskPlanResponse(response);
+            Respond with JSON only, in this shape:
+            {
+              "tasks": [
+                {"id": 1, "description": "First task description", "subGoal": false},
+                {"id": 2, "description": "Second task description", "subGoal": false}
+              ],
+              "dependencies": [
+                {"task": 2, "dependsOn": 1, "type": "blocking", "reason": "needs market research data to create plan"}
+              ]
+            }
+            Number tasks from 1. "type" is "blocking" or "informational". Use an empty "dependencies" list when tasks are independent.
+            """.formatted(userGoal, properties.targetParallelism(), properties.maxDepth(), subGoalPrinciple);
     }
     
-    private TaskPlan parseTaskPlanResponse(String response) {
-        log.debug("Parsing task plan response:\n{}", response);
-        
-        String[] sections = response.split("DEPENDENCIES:");
-        String tasksSection = sections[0].replace("TASKS:", "").trim();
-        String dependenciesSection = sections.length > 1 ? sections[1].trim() : "";
-        
-        log.debug("Tasks section: {}", tasksSection);
-        log.debug("Dependencies section: {}", dependenciesSection);
-        
-        // Parse tasks
-        List<Task> tasks = Arrays.stream(tasksSection.split("\n"))
-            .map(String::trim)
-            .filter(line -> !line.isEmpty() && !line.startsWith("TASKS"))
-            .map(line -> line.replaceAll("^\\d+\\.\\s*", "")) // Remove numbering
-            .filter(line -> !line.isEmpty())
-            .map(Task::create)
-            .toList();
+    private String buildRepairPrompt(String prompt, String response, String problem) {
+        return prompt + """
             
-        log.info("Parsed {} tasks", tasks.size());
+            Your previous answer was:
+            %s
             
-        // Create task index map for dependency resolution
-        Map<Integer, UUID> taskIndexMap = new HashMap<>();
-        for (int i = 0; i < tasks.size(); i++) {
-            UUID taskId = tasks.get(i).id();
-            taskIndexMap.put(i + 1, taskId); // 1-based indexing
-            log.debug("Task index mapping: Task {} -> UUID {}", i + 1, taskId);
-        }
+            It could not be used: %s
+            Return the corrected plan as JSON only, changing only what is needed to fix these problems.
+            """.formatted(response, problem);
+    }
+    
+    private String buildReplanPrompt(String prompt, Draft draft) {
+        Map<UUID, String> descriptions = draft.plan().tasks().stream()
+            .collect(Collectors.toMap(Task::id, Task::description, (first, second) -> first));
+        String chain = draft.shape().criticalPath().stream()
+            .map(id -> "\"" + descriptions.get(id) + "\"")
+            .collect(Collectors.joining(" -> "));
+        return prompt + """
             
-        // Parse dependencies
-        List<TaskDependency> dependencies = new ArrayList<>();
-        if (!dependenciesSection.isEmpty()) {
-            Arrays.stream(dependenciesSection.split("\n"))
-                .map(String::trim)
-                .filter(line -> !line.isEmpty())
-                .forEach(line -> {
-                    try {
-                        log.debug("Parsing dependency line: {}", line);
-                        TaskDependency dependency = parseDependencyLine(line, taskIndexMap);
-                        if (dependency != null) {
-                            dependencies.add(dependency);
-                            log.debug("Successfully parsed dependency: {} -> {}", 
-                                     dependency.taskId(), dependency.dependsOnTaskId());
-                        } else {
-                            log.warn("Failed to parse dependency line (returned null): {}", line);
-                        }
-                    } catch (Exception e) {
-                        log.error("Exception parsing dependency line '{}': {}", line, e.getMessage());
-                    }
-                });
-        } else {
-            log.warn("No dependencies section found in response");
-        }
-        
-        log.info("Parsed {} dependencies", dependencies.size());
-        
-        // Update tasks with their dependencies
-        List<Task> updatedTasks = tasks.stream()
-            .map(task -> updateTaskWithDependencies(task, dependencies))
-            .toList();
+            Your previous answer was:
+            %s
             
-        return TaskPlan.of(updatedTasks, dependencies);
+            Its longest chain of blocking dependencies has %d tasks, more than the %d allowed:
+            %s
+            At most %d tasks can run at the same time; aim for at least %d.
+            Return a restructured plan as JSON only. Keep a blocking dependency only where a task cannot start without the other task's output, and merge or split tasks so that no chain is longer than %d tasks.
+            """.formatted(draft.response(), draft.shape().depth(), properties.maxDepth(), chain,
+                draft.shape().width(), properties.targetParallelism(), properties.maxDepth());
     }
     
-    private TaskDependency parseDependencyLine(String line, Map<Integer, UUID> taskIndexMap) {
-        log.debug("Parsing dependency line: '{}'", line);
-        
-        // Parse format: "Task X depends on Task Y (type) - reason"
-        if (!line.contains("depends on")) {
-            log.debug("Line does not contain 'depends on': {}", line);
-            return null;
-        }
-        
-        String[] parts = line.split("depends on");
-        if (parts.length != 2) {
-            log.warn("Invalid dependency format - expected 2 parts separated by 'depends on', got {}: {}", 
-                     parts.length, line);
-            return null;
-        }
-        
-        // Extract task numbers
-        int taskNum = extractTaskNumber(parts[0]);
-        int dependsOnNum = extractTaskNumber(parts[1]);
-        
-        if (taskNum == -1) {
-            log.warn("Could not extract task number from first part '{}' in line: {}", parts[0], line);
-            return null;
-        }
-        if (dependsOnNum == -1) {
-            log.warn("Could not extract dependency task number from second part '{}' in line: {}", parts[1], line);
-            return null;
-        }
-        
-        UUID taskId = taskIndexMap.get(taskNum);
-        UUID dependsOnId = taskIndexMap.get(dependsOnNum);
-        
-        if (taskId == null) {
-            log.warn("Task number {} not found in task index map for line: {}", taskNum, line);
-            return null;
-        }
-        if (dependsOnId == null) {
-            log.warn("Dependency task number {} not found in task index map for line: {}", dependsOnNum, line);
-            return null;
-        }
-        
-        // Extract type and reason with better error handling
-        String secondPart = parts[1];
-        boolean isBlocking = false;
-        String reason = "dependency relationship";
-        
-        try {
-            // Look for (blocking) or (informational) pattern
-            if (secondPart.contains("(")) {
-                int parenStart = secondPart.indexOf('(');
-                int parenEnd = secondPart.indexOf(')', parenStart);
-                
-                if (parenEnd > parenStart) {
-                    String typeSection = secondPart.substring(parenStart + 1, parenEnd).toLowerCase().trim();
-                    isBlocking = typeSection.contains("blocking");
-                    
-                    // Extract reason after the dash
-                    int dashIndex = secondPart.indexOf('-', parenEnd);
-                    if (dashIndex != -1 && dashIndex + 1 < secondPart.length()) {
-                        reason = secondPart.substring(dashIndex + 1).trim();
-                    }
-                } else {
-                    log.warn("Malformed parentheses in dependency line: {}", line);
-                    // Default to blocking if we can't parse type
-                    isBlocking = true;
-                }
-            } else {
-                log.warn("No dependency type found in parentheses, defaulting to blocking: {}", line);
-                isBlocking = true;
-            }
-        } catch (Exception e) {
-            log.warn("Error parsing dependency type and reason from '{}': {}", secondPart, e.getMessage());
-            // Default to blocking with generic reason
-            isBlocking = true;
-        }
-        
-        TaskDependency dependency = isBlocking ? 
-            TaskDependency.blocking(taskId, dependsOnId, reason) :
-            TaskDependency.informational(taskId, dependsOnId, reason);
-            
-        log.debug("Successfully parsed dependency: Task {} {} depends on Task {} ({})", 
-                 taskNum, isBlocking ? "BLOCKING" : "INFORMATIONAL", dependsOnNum, reason);
-        
-        return dependency;
+    /**
+     * @throws IllegalArgumentException If the response is not a usable plan
+     */
+    TaskPlan parseTaskPlanResponse(String response) {
+        log.debug("Parsing task plan response:\n{}", response);
+        TaskPlan plan = TaskPlanParser.parse(response);
+        log.info("Parsed {} tasks and {} dependencies", plan.tasks().size(), plan.dependencies().size());
+        return plan;
     }
     
-    private int extractTaskNumber(String text) {
-        try {
-            String[] words = text.split("\\s+");
-            for (String word : words) {
-                if (word.matches("\\d+")) {
-                    return Integer.parseInt(word);
-                }
-            }
-        } catch (NumberFormatException e) {
-            // Ignore
-        }
-        return -1;
+    public List<Task> reviewAndUpdatePlan(List<Task> currentTasks, Task completedTask) {
+        return ResilientChatClient.await("plan review", reviewAndUpdatePlanAsync(currentTasks, completedTask));
     }
     
-    private Task updateTaskWithDependencies(Task task, List<TaskDependency> dependencies) {
-        List<UUID> blockingDeps = dependencies.stream()
-            .filter(dep -> dep.taskId().equals(task.id()) && dep.type() == DependencyType.BLOCKING)
-            .map(TaskDependency::dependsOnTaskId)
-            .toList();
-            
-        List<UUID> informationalDeps = dependencies.stream()
-            .filter(dep -> dep.taskId().equals(task.id()) && dep.type() == DependencyType.INFORMATIONAL)
-            .map(TaskDependency::dependsOnTaskId)
-            .toList();
-            
-        // CRITICAL: Preserve the original task UUID, don't create a new one
-        return new Task(
-            task.id(), // Preserve original UUID
-            task.description(),
-            task.result(),
-            task.status(),
-            blockingDeps,
-            informationalDeps,
-            task.createdAt(),
-            task.completedAt()
-        );
+    /**
+     * Reviews the plan without holding the calling thread while the model responds
+     */
+    public CompletableFuture<List<Task>> reviewAndUpdatePlanAsync(List<Task> currentTasks, Task completedTask) {
+        return resilientChatClient.callAsync("plan review", buildReviewPrompt(currentTasks, completedTask))
+            .thenApply(response -> applyReview(response, currentTasks));
     }
     
-    public List<Task> reviewAndUpdatePlan(List<Task> currentTasks, Task completedTask) {
+    private String buildReviewPrompt(List<Task> currentTasks, Task completedTask) {
         String completedCount = String.valueOf(currentTasks.stream()
             .filter(task -> task.status().name().equals("COMPLETED"))
             .count());
-            
+        
         String pendingTasksInfo = currentTasks.stream()
             .filter(task -> task.status().name().equals("PENDING"))
             .map(task -> "- " + task.description())
             .limit(5)
             .reduce("", (acc, task) -> acc + task + "\n");
-            
+        
         String prompt = """
             A task has been completed. Review the results and determine if the remaining plan needs to be updated.
-
+            
             Completed Task: %s
             Result: %s
             Number of Tasks Completed: %s
-
+            
             Remaining Tasks:
             %s
-
+            
             Guiding Principles:
             - Maintain Stability: The original plan should be followed unless new information makes a change necessary. Do not add, remove, or alter tasks unless the completed task's result makes the existing plan inefficient or obsolete.
             - High-Impact Changes Only: Only modify the plan if the completed task reveals a critical new piece of information. For example, if a research task reveals that a key assumption in the plan is wrong.
-
+            
             Based on this, should the remaining tasks be changed?
             Respond with "NO_CHANGES" if the plan is still valid. Otherwise, provide a new, complete list of the remaining tasks.
             """.formatted(
@@ -281,11 +287,12 @@ public class TaskPlanAgent {
                 completedCount,
                 pendingTasksInfo
             );
-            
-        String response = resilientChatClient.call("plan review", prompt);
-        
+        return prompt;
+    }
+    
+    private List<Task> applyReview(String response, List<Task> currentTasks) {
         log.debug("Plan review response: {}", response);
-            
+        
         if ("NO_CHANGES".equals(response.trim()) || response.trim().toLowerCase().contains("no changes")) {
             log.debug("Plan review: NO_CHANGES - preserving existing tasks with dependencies");
             return currentTasks;
@@ -0,0 +1,264 @@
+package dev.alsalman.agenticworkflowengine.planning;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskDependency;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskStatus;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the planner's JSON answer (see {@link #SCHEMA}) in one streaming pass. Task numbers
+ * in dependencies may refer to tasks listed later, so dependencies are kept as numbers until
+ * the tasks are known. Anything the plan cannot be built from is rejected with a message
+ * meant for the model, so a repair request can say exactly what to fix.
+ */
+final class TaskPlanParser {
+    
+    /** Response format for the planner; strict structured output needs every property required */
+    static final String SCHEMA = """
+        {
+          "type": "object",
+          "properties": {
+            "tasks": {
+              "type": "array",
+              "items": {
+                "type": "object",
+                "properties": {
+                  "id": {"type": "integer"},
+                  "description": {"type": "string"},
+                  "subGoal": {"type": "boolean"}
+                },
+                "required": ["id", "description", "subGoal"],
+                "additionalProperties": false
+              }
+            },
+            "dependencies": {
+              "type": "array",
+              "items": {
+                "type": "object",
+                "properties": {
+                  "task": {"type": "integer"},
+                  "dependsOn": {"type": "integer"},
+                  "type": {"type": "string", "enum": ["blocking", "informational"]},
+                  "reason": {"type": "string"}
+                },
+                "required": ["task", "dependsOn", "type", "reason"],
+                "additionalProperties": false
+              }
+            }
+          },
+          "required": ["tasks", "dependencies"],
+          "additionalProperties": false
+        }
+        """;
+    
+    private static final JsonFactory JSON = new JsonFactory();
+    
+    private record PlannedTask(int number, String description, boolean subGoal) {}
+    
+    private record PlannedDependency(int task, int dependsOn, boolean blocking, String reason) {}
+    
+    private TaskPlanParser() {
+    }
+    
+    /**
+     * @param response The JSON plan; text around the object, such as a markdown fence, is ignored
+     * @throws IllegalArgumentException If the response is not a usable plan, with every problem found
+     */
+    static TaskPlan parse(String response) {
+        int start = response != null ? response.indexOf('{') : -1;
+        if (start < 0) {
+            throw new IllegalArgumentException("The response contains no JSON object");
+        }
+        List<PlannedTask> tasks = new ArrayList<>();
+        List<PlannedDependency> dependencies = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(start == 0 ? response : response.substring(start))) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("tasks".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        tasks.add(readTask(parser, tasks.size() + 1));
+                    }
+                } else if ("dependencies".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        dependencies.add(readDependency(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Invalid JSON at line %d, column %d: %s".formatted(
+                e.getLocation().getLineNr(), e.getLocation().getColumnNr(), e.getOriginalMessage()));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable response: " + e.getMessage());
+        }
+        return build(tasks, dependencies);
+    }
+    
+    /**
+     * Reads one task object; a task without a number is numbered by its position, and one
+     * without a sub-goal flag is a plain task
+     */
+    private static PlannedTask readTask(JsonParser parser, int position) throws IOException {
+        int number = position;
+        String description = null;
+        boolean subGoal = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> number = value.isNumeric() ? parser.getIntValue() : parseNumber(parser.getText(), position);
+                case "description" -> description = value == JsonToken.VALUE_STRING ? parser.getText().trim() : null;
+                case "subGoal" -> subGoal = value == JsonToken.VALUE_TRUE;
+                default -> parser.skipChildren();
+            }
+        }
+        return new PlannedTask(number, description, subGoal);
+    }
+    
+    /**
+     * Reads one dependency object; 0 stands for a missing task number, and a dependency
+     * without a type blocks, as the safe reading
+     */
+    private static PlannedDependency readDependency(JsonParser parser) throws IOException {
+        int task = 0;
+        int dependsOn = 0;
+        boolean blocking = true;
+        String reason = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "task" -> task = value.isNumeric() ? parser.getIntValue() : parseNumber(parser.getText(), 0);
+                case "dependsOn" -> dependsOn = value.isNumeric() ? parser.getIntValue() : parseNumber(parser.getText(), 0);
+                case "type" -> blocking = !"informational".equalsIgnoreCase(parser.getText());
+                case "reason" -> reason = value == JsonToken.VALUE_STRING ? parser.getText().trim() : null;
+                default -> parser.skipChildren();
+            }
+        }
+        return new PlannedDependency(task, dependsOn, blocking, reason);
+    }
+    
+    private static int parseNumber(String text, int fallback) {
+        try {
+            return text != null ? Integer.parseInt(text.trim()) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+    
+    private static TaskPlan build(List<PlannedTask> planned, List<PlannedDependency> plannedDependencies) {
+        List<String> problems = new ArrayList<>();
+        if (planned.isEmpty()) {
+            problems.add("The plan has no tasks");
+        }
+        Map<Integer, UUID> ids = new HashMap<>();
+        for (PlannedTask task : planned) {
+            if (task.description() == null || task.description().isEmpty()) {
+                problems.add("Task " + task.number() + " has no description");
+            }
+            if (ids.putIfAbsent(task.number(), UUID.randomUUID()) != null) {
+                problems.add("Task id " + task.number() + " is used more than once");
+            }
+        }
+        
+        List<TaskDependency> dependencies = new ArrayList<>(plannedDependencies.size());
+        Map<UUID, List<UUID>> blocking = new HashMap<>();
+        Map<UUID, List<UUID>> informational = new HashMap<>();
+        for (PlannedDependency dependency : plannedDependencies) {
+            UUID taskId = ids.get(dependency.task());
+            UUID dependsOnId = ids.get(dependency.dependsOn());
+            if (taskId == null || dependsOnId == null) {
+                problems.add("Dependency of task %d on task %d refers to a task that is not in the plan"
+                    .formatted(dependency.task(), dependency.dependsOn()));
+                continue;
+            }
+            if (taskId.equals(dependsOnId)) {
+                problems.add("Task " + dependency.task() + " depends on itself");
+                continue;
+            }
+            String reason = dependency.reason() != null && !dependency.reason().isEmpty()
+                ? dependency.reason()
+                : "dependency relationship";
+            if (dependency.blocking()) {
+                dependencies.add(TaskDependency.blocking(taskId, dependsOnId, reason));
+                blocking.computeIfAbsent(taskId, id -> new ArrayList<>()).add(dependsOnId);
+            } else {
+                dependencies.add(TaskDependency.informational(taskId, dependsOnId, reason));
+                informational.computeIfAbsent(taskId, id -> new ArrayList<>()).add(dependsOnId);
+            }
+        }
+        if (problems.isEmpty()) {
+            String cycle = findCycle(planned, plannedDependencies);
+            if (cycle != null) {
+                problems.add("Blocking dependencies form a cycle: " + cycle);
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", problems));
+        }
+        
+        Instant now = Instant.now();
+        List<Task> tasks = new ArrayList<>(planned.size());
+        for (PlannedTask task : planned) {
+            UUID id = ids.get(task.number());
+            tasks.add(new Task(id, task.description(), null, TaskStatus.PENDING,
+                List.copyOf(blocking.getOrDefault(id, List.of())),
+                List.copyOf(informational.getOrDefault(id, List.of())),
+                now, null, task.subGoal()));
+        }
+        return TaskPlan.of(tasks, dependencies);
+    }
+    
+    /**
+     * @return Task numbers still waiting on each other once every task that can run has run,
+     *         or null if the blocking dependencies leave none
+     */
+    private static String findCycle(List<PlannedTask> planned, List<PlannedDependency> dependencies) {
+        Map<Integer, Integer> waitingOn = new HashMap<>();
+        Map<Integer, List<Integer>> dependents = new HashMap<>();
+        planned.forEach(task -> waitingOn.put(task.number(), 0));
+        for (PlannedDependency dependency : dependencies) {
+            if (dependency.blocking()) {
+                waitingOn.merge(dependency.task(), 1, Integer::sum);
+                dependents.computeIfAbsent(dependency.dependsOn(), number -> new ArrayList<>()).add(dependency.task());
+            }
+        }
+        Deque<Integer> ready = new ArrayDeque<>();
+        waitingOn.forEach((number, count) -> {
+            if (count == 0) {
+                ready.add(number);
+            }
+        });
+        while (!ready.isEmpty()) {
+            int number = ready.poll();
+            waitingOn.remove(number);
+            for (int dependent : dependents.getOrDefault(number, List.of())) {
+                if (waitingOn.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (waitingOn.isEmpty()) {
+            return null;
+        }
+        return waitingOn.keySet().stream().sorted().map(String::valueOf).collect(Collectors.joining(", ", "tasks ", ""));
+    }
+}
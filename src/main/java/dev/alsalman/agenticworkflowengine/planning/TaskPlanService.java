@@ -6,6 +6,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+
 /**
  * Service responsible for creating task plans.
  * Coordinates with TaskPlanAgent to generate task plans with dependencies.
@@ -31,4 +33,29 @@ public class TaskPlanService {
         log.info("Creating task plan for query: '{}'", userQuery);
         return taskPlanAgent.createTaskPlanWithDependencies(userQuery);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Creates the task plan of a sub-goal once its task is ready to start.
+     * 
+     * @param subGoal The sub-goal
+     * @param parentGoal The goal whose plan contains the sub-goal
+     * @param depth Level of the sub-goal below the top-level goal, from 1
+     * @return TaskPlan for the sub-goal alone
+     */
+    public TaskPlan createSubGoalPlan(String subGoal, String parentGoal, int depth) {
+        log.info("Creating task plan for sub-goal: '{}'", subGoal);
+        return taskPlanAgent.createSubGoalPlan(subGoal, parentGoal, depth);
+    }
+    
+    /**
+     * Creates one task plan for a templated goal whose placeholders are filled in later.
+     * 
+     * @param templatedGoal The goal text with {{placeholders}}
+     * @param placeholders Names of the placeholders to keep in task descriptions
+     * @return TaskPlan whose task descriptions may contain the placeholders
+     */
+    public TaskPlan createParameterizedTaskPlan(String templatedGoal, Collection<String> placeholders) {
+        log.info("Creating shared task plan for templated goal with placeholders {}", placeholders);
+        return taskPlanAgent.createParameterizedTaskPlan(templatedGoal, placeholders);
+    }
+}
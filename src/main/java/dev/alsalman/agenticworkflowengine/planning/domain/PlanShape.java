@@ -0,0 +1,23 @@
+package dev.alsalman.agenticworkflowengine.planning.domain;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * How a plan's blocking dependencies let it run: tasks are levelled by the longest chain of
+ * blocking dependencies leading to them.
+ *
+ * @param width Most tasks on one level, i.e. how many can run at once
+ * @param depth Number of levels; with similar task durations the makespan grows with it
+ * @param criticalPath One longest chain, from the first task to the last
+ */
+public record PlanShape(
+    int width,
+    int depth,
+    List<UUID> criticalPath
+) {
+    
+    public PlanShape {
+        criticalPath = List.copyOf(criticalPath);
+    }
+}
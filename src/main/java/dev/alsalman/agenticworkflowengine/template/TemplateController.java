@@ -1,16 +1,26 @@
 package dev.alsalman.agenticworkflowengine.template;
 
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledTemplate;
 import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
 import dev.alsalman.agenticworkflowengine.template.domain.WorkflowTemplate;
-import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
 import dev.alsalman.agenticworkflowengine.template.TemplateService;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRow;
 import dev.alsalman.agenticworkflowengine.template.dto.ParameterDiscoveryResponseDto;
+import dev.alsalman.agenticworkflowengine.template.service.BatchExecutionService;
+import dev.alsalman.agenticworkflowengine.template.service.BatchInputParser;
 import dev.alsalman.agenticworkflowengine.template.service.ParameterPersistenceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -24,11 +34,17 @@ public class TemplateController {
     
     private final TemplateService templateService;
     private final ParameterPersistenceService parameterPersistenceService;
+    private final BatchInputParser batchInputParser;
+    private final BatchExecutionService batchExecutionService;
     
     public TemplateController(TemplateService templateService, 
-                            ParameterPersistenceService parameterPersistenceService) {
+                            ParameterPersistenceService parameterPersistenceService,
+                            BatchInputParser batchInputParser,
+                            BatchExecutionService batchExecutionService) {
         this.templateService = templateService;
         this.parameterPersistenceService = parameterPersistenceService;
+        this.batchInputParser = batchInputParser;
+        this.batchExecutionService = batchExecutionService;
     }
     
     @GetMapping
@@ -68,6 +84,11 @@ public class TemplateController {
         }
     }
     
+    /**
+     * Validates the parameters and starts the workflow in the background. Responds with
+     * 202 and the goal's status URL; the workflow's completion can be awaited with
+     * {@code GET /api/workflow/goal/{goalId}/await}.
+     */
     @PostMapping("/{templateId}/execute")
     public ResponseEntity<ExecuteResponse> executeTemplate(
         @PathVariable UUID templateId,
@@ -75,41 +96,71 @@ public class TemplateController {
     ) {
         log.info("Executing template {} with parameters: {}", templateId, parameters);
         try {
-            WorkflowResult result = templateService.executeTemplate(templateId, parameters);
+            UUID goalId = templateService.startTemplate(templateId, new HashMap<>(parameters));
+            String statusUrl = "/api/workflow/goal/" + goalId;
             
-            if (result.success()) {
-                return ResponseEntity.ok(new ExecuteResponse(
-                    result.goal().id(),
-                    "Template executed successfully",
-                    true
-                ));
-            } else {
-                return ResponseEntity.ok(new ExecuteResponse(
-                    null,
-                    "Template execution failed", 
-                    false
-                ));
-            }
+            return ResponseEntity.accepted()
+                .location(URI.create(statusUrl))
+                .body(new ExecuteResponse(goalId, "Template execution started", true, statusUrl));
         } catch (IllegalArgumentException e) {
             log.error("Template execution failed: {}", e.getMessage());
             return ResponseEntity.badRequest().body(new ExecuteResponse(
                 null,
                 e.getMessage(),
-                false
+                false,
+                null
             ));
         } catch (Exception e) {
             log.error("Unexpected error executing template", e);
             return ResponseEntity.status(500).body(new ExecuteResponse(
                 null,
                 "Internal server error",
-                false
+                false,
+                null
             ));
         }
     }
     
+    /**
+     * Executes the template once per parameter set in the body (NDJSON objects, or CSV
+     * with a header row) and streams one NDJSON result line per row as rows finish
+     */
+    @PostMapping(
+        value = "/{templateId}/execute-batch",
+        consumes = {BatchInputParser.NDJSON, BatchInputParser.CSV},
+        produces = BatchInputParser.NDJSON
+    )
+    public ResponseEntity<StreamingResponseBody> executeTemplateBatch(
+        @PathVariable UUID templateId,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+        InputStream body
+    ) {
+        CompiledTemplate compiled;
+        try {
+            compiled = templateService.getCompiledTemplate(templateId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        List<BatchRow> rows;
+        try {
+            rows = batchInputParser.parse(body, contentType);
+        } catch (IllegalArgumentException | IOException e) {
+            log.error("Rejected batch for template {}: {}", templateId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        
+        log.info("Executing template {} for a batch of {} parameter sets", templateId, rows.size());
+        StreamingResponseBody stream = out -> batchExecutionService.executeBatch(compiled, rows, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(BatchInputParser.NDJSON))
+            .body(stream);
+    }
+    
     public record ExecuteResponse(
         UUID goalId,
         String message,
-        boolean success
+        boolean success,
+        String statusUrl
     ) {}
 }
\ No newline at end of file
@@ -1,21 +1,31 @@
 package dev.alsalman.agenticworkflowengine.template;
 
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledParameter;
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledTemplate;
 import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
 import dev.alsalman.agenticworkflowengine.template.domain.ParameterType;
+import dev.alsalman.agenticworkflowengine.template.domain.PreparedExecution;
 import dev.alsalman.agenticworkflowengine.template.domain.WorkflowTemplate;
 import dev.alsalman.agenticworkflowengine.template.domain.ValidationRule;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowExecutor;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
 import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
 import dev.alsalman.agenticworkflowengine.template.repository.TemplateRepository;
 import dev.alsalman.agenticworkflowengine.template.validation.ParameterValidator;
 import dev.alsalman.agenticworkflowengine.template.validation.AdvancedParameterValidator;
 import dev.alsalman.agenticworkflowengine.template.service.ParameterPersistenceService;
+import dev.alsalman.agenticworkflowengine.template.service.TemplateCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -27,17 +37,26 @@ public class TemplateService {
     private final dev.alsalman.agenticworkflowengine.workflow.WorkflowOrchestrator orchestrator;
     private final AdvancedParameterValidator advancedValidator;
     private final ParameterPersistenceService parameterPersistenceService;
+    private final TemplateCache templateCache;
+    private final WorkflowPersistenceService persistenceService;
+    private final WorkflowExecutor workflowExecutor;
     
     // Parameters are now stored in database via Flyway migrations
     
     public TemplateService(TemplateRepository repository, 
                                 dev.alsalman.agenticworkflowengine.workflow.WorkflowOrchestrator orchestrator,
                                 AdvancedParameterValidator advancedValidator,
-                                ParameterPersistenceService parameterPersistenceService) {
+                                ParameterPersistenceService parameterPersistenceService,
+                                TemplateCache templateCache,
+                                WorkflowPersistenceService persistenceService,
+                                WorkflowExecutor workflowExecutor) {
         this.repository = repository;
         this.orchestrator = orchestrator;
         this.advancedValidator = advancedValidator;
         this.parameterPersistenceService = parameterPersistenceService;
+        this.templateCache = templateCache;
+        this.persistenceService = persistenceService;
+        this.workflowExecutor = workflowExecutor;
     }
     
     // Template initialization is now handled by Flyway migrations
@@ -57,50 +76,110 @@ public class TemplateService {
         return parameterPersistenceService.loadTemplateParameters(templateId);
     }
     
+    /**
+     * Get the compiled template aggregate, loading and compiling it on first use
+     */
+    public CompiledTemplate getCompiledTemplate(UUID templateId) {
+        return templateCache.get(templateId, this::compileTemplate);
+    }
+    
     public WorkflowResult executeTemplate(UUID templateId, Map<String, Object> parameters) {
         log.info("Executing template {} with parameters: {}", templateId, parameters);
         
-        WorkflowTemplate template = getTemplate(templateId);
-        List<Parameter> templateParams = getTemplateParameters(templateId);
+        String prompt = renderOrThrow(templateId, parameters);
         
+        // Execute through existing orchestrator
+        return WorkflowContext.callWithTemplate(templateId, () -> orchestrator.executeWorkflow(prompt, null));
+    }
+    
+    /**
+     * Validates parameters and creates the goal on the calling thread, then runs the
+     * workflow on the background executor.
+     * 
+     * @return ID of the goal the workflow will complete
+     * @throws IllegalArgumentException If the template does not exist or parameters are invalid
+     */
+    public UUID startTemplate(UUID templateId, Map<String, Object> parameters) {
+        log.info("Starting template {} with parameters: {}", templateId, parameters);
+        
+        String prompt = renderOrThrow(templateId, parameters);
+        Goal goal = persistenceService.saveGoal(Goal.create(prompt));
+        
+        workflowExecutor.submit(goal.id(),
+            () -> WorkflowContext.callWithTemplate(templateId, () -> orchestrator.executeWorkflow(prompt, goal.id())));
+        return goal.id();
+    }
+    
+    /**
+     * Validates parameters (filling in defaults) and renders the prompt.
+     * 
+     * @param compiled The compiled template
+     * @param parameters Parameter values; defaults are added to this map
+     * @return The rendered prompt, or the validation errors
+     */
+    public PreparedExecution prepareExecution(CompiledTemplate compiled, Map<String, Object> parameters) {
         // Validate all parameters
         List<String> validationErrors = new ArrayList<>();
-        for (Parameter param : templateParams) {
+        for (CompiledParameter param : compiled.parameters()) {
             Object value = parameters.get(param.name());
             
             // Use default value if not provided
-            if (value == null && param.defaultValue() != null) {
-                value = param.defaultValue();
+            if (value == null && param.parameter().defaultValue() != null) {
+                value = param.parameter().defaultValue();
                 parameters.put(param.name(), value);
             }
             
             // Convert value to string for validation
             String stringValue = value != null ? value.toString() : null;
             
-            // Use advanced validator for parameters with validation rules
+            // Use advanced validator with the parameter's precompiled rules
             List<String> errors = advancedValidator.validateParameter(param, stringValue);
             validationErrors.addAll(errors);
         }
         
         if (!validationErrors.isEmpty()) {
-            throw new IllegalArgumentException("Parameter validation failed: " + String.join("; ", validationErrors));
+            return PreparedExecution.invalid(validationErrors);
         }
         
         // Render prompt with parameters
-        String renderedPrompt = renderPrompt(template.promptTemplate(), parameters);
-        log.info("Rendered prompt: {}", renderedPrompt);
+        return PreparedExecution.valid(compiled.render(parameters));
+    }
+    
+    /**
+     * Evicts cached templates that were changed or deleted outside this node
+     */
+    @Scheduled(fixedDelayString = "${workflow.template-cache.refresh-interval:PT30S}")
+    public void evictStaleTemplates() {
+        Set<UUID> cachedIds = templateCache.templateIds();
+        if (cachedIds.isEmpty()) {
+            return;
+        }
+        templateCache.evictStale(repository.findAllById(cachedIds));
+    }
+    
+    private String renderOrThrow(UUID templateId, Map<String, Object> parameters) {
+        PreparedExecution prepared = prepareExecution(getCompiledTemplate(templateId), parameters);
+        if (!prepared.isValid()) {
+            throw new IllegalArgumentException("Parameter validation failed: " + String.join("; ", prepared.errors()));
+        }
         
-        // Execute through existing orchestrator
-        return orchestrator.executeWorkflow(renderedPrompt, null);
+        log.info("Rendered prompt: {}", prepared.prompt());
+        return prepared.prompt();
     }
     
-    private String renderPrompt(String template, Map<String, Object> parameters) {
-        String rendered = template;
-        for (Map.Entry<String, Object> entry : parameters.entrySet()) {
-            String placeholder = "{{" + entry.getKey() + "}}";
-            String value = entry.getValue() != null ? entry.getValue().toString() : "";
-            rendered = rendered.replace(placeholder, value);
+    private CompiledTemplate compileTemplate(UUID templateId) {
+        WorkflowTemplate template = getTemplate(templateId);
+        List<Parameter> templateParams = getTemplateParameters(templateId);
+        CompiledTemplate compiled = CompiledTemplate.compile(template, templateParams);
+        
+        if (!compiled.missingParameters().isEmpty()) {
+            log.warn("Template {} has placeholders without parameter definitions (left as text): {}", 
+                templateId, compiled.missingParameters());
+        }
+        if (!compiled.unusedParameters().isEmpty()) {
+            log.warn("Template {} defines parameters not used by its prompt: {}", 
+                templateId, compiled.unusedParameters());
         }
-        return rendered;
+        return compiled;
     }
-}
\ No newline at end of file
+}
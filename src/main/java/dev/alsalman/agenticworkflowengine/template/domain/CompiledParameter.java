@@ -0,0 +1,20 @@
+package dev.alsalman.agenticworkflowengine.template.domain;
+
+import dev.alsalman.agenticworkflowengine.template.validation.ValidatorChain;
+
+/**
+ * Parameter definition with its type check and validation rules compiled once
+ */
+public record CompiledParameter(
+    Parameter parameter,
+    ValidatorChain validator
+) {
+
+    public static CompiledParameter compile(Parameter parameter) {
+        return new CompiledParameter(parameter, ValidatorChain.compile(parameter));
+    }
+
+    public String name() {
+        return parameter.name();
+    }
+}
@@ -0,0 +1,127 @@
+package dev.alsalman.agenticworkflowengine.template.domain;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prompt template parsed once into alternating literal and placeholder segments.
+ * Rendering is a single pass into a builder sized from the literal text and the
+ * resolved values. Placeholders that do not name a template parameter are kept as
+ * literal text and reported through {@link #unknownPlaceholders()}.
+ */
+public final class CompiledPrompt {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String source;
+    private final String[] literals;   // literals.length == names.length + 1
+    private final String[] names;
+    private final int literalLength;
+    private final List<String> placeholders;
+    private final List<String> unknownPlaceholders;
+
+    private CompiledPrompt(String source, String[] literals, String[] names,
+                           List<String> placeholders, List<String> unknownPlaceholders) {
+        this.source = source;
+        this.literals = literals;
+        this.names = names;
+        this.placeholders = placeholders;
+        this.unknownPlaceholders = unknownPlaceholders;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse a prompt template
+     *
+     * @param source Template text with {{name}} placeholders
+     * @param parameterNames Names of the template's parameters; other placeholders stay literal
+     */
+    public static CompiledPrompt compile(String source, Set<String> parameterNames) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        Set<String> placeholders = new LinkedHashSet<>();
+        Set<String> unknown = new LinkedHashSet<>();
+
+        // Same matching as the pattern \{\{([^{}]+)}}, without the regex
+        int literalStart = 0;
+        int open = source.indexOf(OPEN);
+        while (open >= 0) {
+            int end = open + OPEN.length();
+            while (end < source.length() && source.charAt(end) != '{' && source.charAt(end) != '}') {
+                end++;
+            }
+
+            if (end == open + OPEN.length() || !source.startsWith(CLOSE, end)) {
+                open = source.indexOf(OPEN, open + 1);
+                continue;
+            }
+
+            String name = source.substring(open + OPEN.length(), end);
+            if (parameterNames.contains(name)) {
+                literals.add(source.substring(literalStart, open));
+                names.add(name);
+                placeholders.add(name);
+                literalStart = end + CLOSE.length();
+            } else {
+                unknown.add(name); // Left in the surrounding literal
+            }
+            open = source.indexOf(OPEN, end + CLOSE.length());
+        }
+        literals.add(source.substring(literalStart));
+
+        return new CompiledPrompt(
+            source,
+            literals.toArray(String[]::new),
+            names.toArray(String[]::new),
+            List.copyOf(placeholders),
+            List.copyOf(unknown)
+        );
+    }
+
+    /**
+     * Render the prompt. Placeholders whose value is absent or null render as empty text.
+     */
+    public String render(Map<String, ?> values) {
+        String[] rendered = new String[names.length];
+        int length = literalLength;
+        for (int i = 0; i < names.length; i++) {
+            Object value = values.get(names[i]);
+            rendered[i] = value != null ? value.toString() : "";
+            length += rendered[i].length();
+        }
+
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(literals[0]);
+        for (int i = 0; i < names.length; i++) {
+            builder.append(rendered[i]).append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    public String source() {
+        return source;
+    }
+
+    /**
+     * Distinct parameter placeholders in order of first appearance
+     */
+    public List<String> placeholders() {
+        return placeholders;
+    }
+
+    /**
+     * Distinct placeholders that do not match any template parameter
+     */
+    public List<String> unknownPlaceholders() {
+        return unknownPlaceholders;
+    }
+}
@@ -0,0 +1,76 @@
+package dev.alsalman.agenticworkflowengine.template.domain;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Template aggregate prepared for execution: the template, its ordered parameters with
+ * compiled validators, and the prompt parsed into segments.
+ * Instances are immutable and cached per template version.
+ */
+public record CompiledTemplate(
+    WorkflowTemplate template,
+    List<CompiledParameter> parameters,
+    CompiledPrompt prompt
+) {
+    
+    public static CompiledTemplate compile(WorkflowTemplate template, List<Parameter> parameters) {
+        List<CompiledParameter> compiledParameters = parameters.stream()
+            .map(CompiledParameter::compile)
+            .toList();
+        
+        Set<String> parameterNames = new LinkedHashSet<>();
+        parameters.forEach(parameter -> parameterNames.add(parameter.name()));
+        
+        return new CompiledTemplate(template, compiledParameters,
+            CompiledPrompt.compile(template.promptTemplate(), parameterNames));
+    }
+    
+    public UUID id() {
+        return template.id();
+    }
+    
+    /**
+     * Parameter placeholders used by the prompt, in order of first appearance
+     */
+    public List<String> placeholders() {
+        return prompt.placeholders();
+    }
+    
+    /**
+     * Placeholders in the prompt that have no parameter definition
+     */
+    public List<String> missingParameters() {
+        return prompt.unknownPlaceholders();
+    }
+    
+    /**
+     * Parameters that are defined but never referenced by the prompt
+     */
+    public List<String> unusedParameters() {
+        return parameters.stream()
+            .map(CompiledParameter::name)
+            .filter(name -> !prompt.placeholders().contains(name))
+            .toList();
+    }
+    
+    /**
+     * Render the prompt with validated parameter values
+     */
+    public String render(Map<String, ?> values) {
+        return prompt.render(values);
+    }
+    
+    /**
+     * Check whether this aggregate was compiled from the given revision of the template
+     */
+    public boolean isCurrent(WorkflowTemplate latest) {
+        return latest != null
+            && Objects.equals(template.version(), latest.version())
+            && Objects.equals(template.updatedAt(), latest.updatedAt());
+    }
+}
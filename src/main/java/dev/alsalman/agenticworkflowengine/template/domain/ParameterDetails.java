@@ -0,0 +1,58 @@
+package dev.alsalman.agenticworkflowengine.template.domain;
+
+import dev.alsalman.agenticworkflowengine.template.dto.ParameterMetadataDto;
+import dev.alsalman.agenticworkflowengine.template.dto.ParameterResponseDto;
+import dev.alsalman.agenticworkflowengine.template.dto.ValidationRuleDto;
+
+import java.util.List;
+
+/**
+ * Template parameter together with its metadata and validation rules, as loaded in one query
+ */
+public record ParameterDetails(
+    TemplateParameter parameter,
+    ParameterMetadata metadata, // Null when the parameter has no metadata row
+    List<ParameterValidationRule> validationRules
+) {
+
+    /**
+     * Convert to domain Parameter with validation rules
+     */
+    public Parameter toDomainParameter() {
+        List<ValidationRule> domainRules = validationRules.stream()
+            .map(ParameterValidationRule::toDomainValidationRule)
+            .toList();
+
+        return new Parameter(
+            parameter.name(),
+            parameter.description(),
+            ParameterType.valueOf(parameter.type()),
+            parameter.required(),
+            parameter.defaultValue(),
+            domainRules
+        );
+    }
+
+    /**
+     * Convert to DTO for the parameter discovery API
+     */
+    public ParameterResponseDto toResponseDto() {
+        List<ValidationRuleDto> ruleDtos = validationRules.stream()
+            .map(rule -> ValidationRuleDto.fromValidationRule(rule.toDomainValidationRule()))
+            .toList();
+
+        ParameterMetadataDto metadataDto = metadata != null
+            ? metadata.toDto(parameter.displayOrder() + 1)
+            : null;
+
+        return new ParameterResponseDto(
+            parameter.name(),
+            parameter.description(),
+            ParameterType.valueOf(parameter.type()),
+            parameter.required(),
+            parameter.defaultValue(),
+            ruleDtos,
+            metadataDto
+        );
+    }
+}
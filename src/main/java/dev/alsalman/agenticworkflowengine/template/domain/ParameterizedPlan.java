@@ -0,0 +1,57 @@
+package dev.alsalman.agenticworkflowengine.template.domain;
+
+import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Task plan created once for a template, with each task description compiled like a
+ * prompt so the plan can be instantiated for any parameter set without another planning call
+ */
+public record ParameterizedPlan(
+    TaskPlan plan,
+    List<CompiledPrompt> descriptions
+) {
+    
+    public static ParameterizedPlan of(TaskPlan plan, Set<String> parameterNames) {
+        List<CompiledPrompt> descriptions = plan.tasks().stream()
+            .map(task -> CompiledPrompt.compile(task.description(), parameterNames))
+            .toList();
+        return new ParameterizedPlan(plan, descriptions);
+    }
+    
+    /**
+     * Whether any task description refers to a parameter. A plan without placeholders
+     * was planned for the literal placeholder text and is not reusable.
+     */
+    public boolean isParameterized() {
+        return descriptions.stream().anyMatch(description -> !description.placeholders().isEmpty());
+    }
+    
+    /**
+     * Fill in the parameter values. Planning IDs and dependencies are kept; they are
+     * remapped to fresh database IDs when the plan is persisted for a goal.
+     */
+    public TaskPlan instantiate(Map<String, ?> values) {
+        List<Task> tasks = new ArrayList<>(plan.tasks().size());
+        for (int i = 0; i < plan.tasks().size(); i++) {
+            Task task = plan.tasks().get(i);
+            tasks.add(new Task(
+                task.id(),
+                descriptions.get(i).render(values),
+                task.result(),
+                task.status(),
+                task.blockingDependencies(),
+                task.informationalDependencies(),
+                task.createdAt(),
+                task.completedAt(),
+                task.subGoal()
+            ));
+        }
+        return TaskPlan.of(tasks, plan.dependencies());
+    }
+}
@@ -0,0 +1,25 @@
+package dev.alsalman.agenticworkflowengine.template.domain;
+
+import java.util.List;
+
+/**
+ * Outcome of validating one parameter set against a template: the rendered prompt,
+ * or the validation errors that prevent execution
+ */
+public record PreparedExecution(
+    String prompt,
+    List<String> errors
+) {
+    
+    public static PreparedExecution valid(String prompt) {
+        return new PreparedExecution(prompt, List.of());
+    }
+    
+    public static PreparedExecution invalid(List<String> errors) {
+        return new PreparedExecution(null, List.copyOf(errors));
+    }
+    
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+}
@@ -45,6 +45,13 @@ public record TemplateParameter(
         );
     }
     
+    /**
+     * Copy with a client-assigned ID, used when inserting in batches
+     */
+    public TemplateParameter withId(UUID id) {
+        return new TemplateParameter(id, templateId, name, description, type, required, defaultValue, displayOrder, createdAt);
+    }
+    
     /**
      * Convert database entity to domain Parameter
      */
@@ -0,0 +1,25 @@
+package dev.alsalman.agenticworkflowengine.template.dto;
+
+import java.util.Map;
+
+/**
+ * One parameter set of a batch request
+ *
+ * @param index Zero-based position in the request body, excluding any CSV header
+ * @param parameters Parameter values by name
+ * @param parseError Why the row could not be read, or null
+ */
+public record BatchRow(
+    int index,
+    Map<String, Object> parameters,
+    String parseError
+) {
+    
+    public static BatchRow of(int index, Map<String, Object> parameters) {
+        return new BatchRow(index, parameters, null);
+    }
+    
+    public static BatchRow unreadable(int index, String parseError) {
+        return new BatchRow(index, Map.of(), parseError);
+    }
+}
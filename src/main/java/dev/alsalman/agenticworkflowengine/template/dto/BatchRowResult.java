@@ -0,0 +1,34 @@
+package dev.alsalman.agenticworkflowengine.template.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of one batch row, streamed to the client as a single NDJSON line
+ */
+public record BatchRowResult(
+    int row,
+    Status status,
+    UUID goalId,
+    List<String> errors,
+    Long durationMs
+) {
+    
+    public enum Status {
+        INVALID,
+        COMPLETED,
+        FAILED
+    }
+    
+    public static BatchRowResult invalid(int row, List<String> errors) {
+        return new BatchRowResult(row, Status.INVALID, null, errors, null);
+    }
+    
+    public static BatchRowResult completed(int row, UUID goalId, long durationMs) {
+        return new BatchRowResult(row, Status.COMPLETED, goalId, List.of(), durationMs);
+    }
+    
+    public static BatchRowResult failed(int row, UUID goalId, String error, long durationMs) {
+        return new BatchRowResult(row, Status.FAILED, goalId, error != null ? List.of(error) : List.of(), durationMs);
+    }
+}
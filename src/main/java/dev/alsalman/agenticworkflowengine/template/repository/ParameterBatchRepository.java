@@ -0,0 +1,176 @@
+package dev.alsalman.agenticworkflowengine.template.repository;
+
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterDetails;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterMetadata;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterValidationRule;
+import dev.alsalman.agenticworkflowengine.template.domain.TemplateParameter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC access for template parameters that needs a constant number of round-trips:
+ * parameters, metadata and validation rules are read with a single join and written
+ * with one batch statement per table.
+ */
+@Repository
+public class ParameterBatchRepository {
+
+    private static final String SELECT_WITH_DETAILS = """
+        SELECT p.id, p.template_id, p.name, p.description, p.type, p.required,
+               p.default_value, p.display_order, p.created_at,
+               m.id AS m_id, m.placeholder, m.help_text, m.display_group, m.ui_component,
+               m.additional_properties, m.created_at AS m_created_at,
+               r.id AS r_id, r.validation_type, r.rule_value, r.error_message, r.created_at AS r_created_at
+        FROM template_parameters p
+        LEFT JOIN parameter_metadata m ON m.parameter_id = p.id
+        LEFT JOIN parameter_validation_rules r ON r.parameter_id = p.id
+        WHERE p.template_id = ?
+        ORDER BY p.display_order, p.id, r.created_at, r.id
+        """;
+
+    private static final String INSERT_PARAMETER = """
+        INSERT INTO template_parameters (id, template_id, name, description, type, required,
+                                         default_value, display_order, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_METADATA = """
+        INSERT INTO parameter_metadata (parameter_id, placeholder, help_text, display_group,
+                                        ui_component, additional_properties, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_RULE = """
+        INSERT INTO parameter_validation_rules (parameter_id, validation_type, rule_value, error_message, created_at)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ParameterBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Load all parameters of a template with their metadata and rules, ordered by display order
+     */
+    public List<ParameterDetails> findDetailsByTemplateId(UUID templateId) {
+        DetailsCollector collector = new DetailsCollector();
+        jdbcTemplate.query(SELECT_WITH_DETAILS, collector, templateId);
+        return collector.results();
+    }
+
+    /**
+     * Insert parameters, metadata and validation rules as three batch statements.
+     * Parameter IDs must be assigned by the caller so metadata and rules can reference them.
+     */
+    public void insertAll(List<TemplateParameter> parameters,
+                          List<ParameterMetadata> metadata,
+                          List<ParameterValidationRule> rules) {
+        if (!parameters.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PARAMETER, parameters.stream()
+                .map(p -> new Object[] {
+                    p.id(), p.templateId(), p.name(), p.description(), p.type(), p.required(),
+                    p.defaultValue(), p.displayOrder(), timestamp(p.createdAt())
+                })
+                .toList());
+        }
+        if (!metadata.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_METADATA, metadata.stream()
+                .map(m -> new Object[] {
+                    m.parameterId(), m.placeholder(), m.helpText(), m.displayGroup(),
+                    m.uiComponent(), m.additionalProperties(), timestamp(m.createdAt())
+                })
+                .toList());
+        }
+        if (!rules.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RULE, rules.stream()
+                .map(r -> new Object[] {
+                    r.parameterId(), r.validationType(), r.ruleValue(), r.errorMessage(), timestamp(r.createdAt())
+                })
+                .toList());
+        }
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return Timestamp.from(instant != null ? instant : Instant.now());
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    /**
+     * Folds the one-row-per-rule join result back into one entry per parameter
+     */
+    private static final class DetailsCollector implements RowCallbackHandler {
+
+        private final Map<UUID, TemplateParameter> parameters = new LinkedHashMap<>();
+        private final Map<UUID, ParameterMetadata> metadata = new LinkedHashMap<>();
+        private final Map<UUID, List<ParameterValidationRule>> rules = new LinkedHashMap<>();
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID parameterId = rs.getObject("id", UUID.class);
+
+            if (!parameters.containsKey(parameterId)) {
+                parameters.put(parameterId, new TemplateParameter(
+                    parameterId,
+                    rs.getObject("template_id", UUID.class),
+                    rs.getString("name"),
+                    rs.getString("description"),
+                    rs.getString("type"),
+                    rs.getBoolean("required"),
+                    rs.getString("default_value"),
+                    rs.getInt("display_order"),
+                    instant(rs, "created_at")
+                ));
+                rules.put(parameterId, new ArrayList<>());
+
+                UUID metadataId = rs.getObject("m_id", UUID.class);
+                if (metadataId != null) {
+                    metadata.put(parameterId, new ParameterMetadata(
+                        metadataId,
+                        parameterId,
+                        rs.getString("placeholder"),
+                        rs.getString("help_text"),
+                        rs.getString("display_group"),
+                        rs.getString("ui_component"),
+                        rs.getString("additional_properties"),
+                        instant(rs, "m_created_at")
+                    ));
+                }
+            }
+
+            UUID ruleId = rs.getObject("r_id", UUID.class);
+            if (ruleId != null) {
+                rules.get(parameterId).add(new ParameterValidationRule(
+                    ruleId,
+                    parameterId,
+                    rs.getString("validation_type"),
+                    rs.getString("rule_value"),
+                    rs.getString("error_message"),
+                    instant(rs, "r_created_at")
+                ));
+            }
+        }
+
+        List<ParameterDetails> results() {
+            return parameters.values().stream()
+                .map(p -> new ParameterDetails(p, metadata.get(p.id()), List.copyOf(rules.get(p.id()))))
+                .toList();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package dev.alsalman.agenticworkflowengine.template.repository;
 
 import dev.alsalman.agenticworkflowengine.template.domain.WorkflowTemplate;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -15,4 +17,11 @@ public interface TemplateRepository extends CrudRepository<WorkflowTemplate, UUI
     List<WorkflowTemplate> findByCategory(String category);
     
     List<WorkflowTemplate> findByName(String name);
-}
\ No newline at end of file
+    
+    /**
+     * Bump the template version so cached compiled templates on every node become stale
+     */
+    @Modifying
+    @Query("UPDATE templates SET version = COALESCE(version, 0) + 1 WHERE id = :templateId")
+    void incrementVersion(UUID templateId);
+}
@@ -0,0 +1,19 @@
+package dev.alsalman.agenticworkflowengine.template.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for bulk template execution.
+ *
+ * @param maxConcurrentWorkflows Workflows running at once across all batches; bounds LLM request rate
+ * @param maxRows Largest accepted batch
+ * @param sharedPlanning Whether a batch plans the templated goal once and reuses the plan for every row
+ */
+@ConfigurationProperties(prefix = "workflow.batch")
+public record BatchExecutionProperties(
+    @DefaultValue("8") int maxConcurrentWorkflows,
+    @DefaultValue("10000") int maxRows,
+    @DefaultValue("true") boolean sharedPlanning
+) {
+}
@@ -0,0 +1,233 @@
+package dev.alsalman.agenticworkflowengine.template.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.planning.TaskPlanService;
+import dev.alsalman.agenticworkflowengine.template.TemplateService;
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledParameter;
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledTemplate;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterizedPlan;
+import dev.alsalman.agenticworkflowengine.template.domain.PreparedExecution;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRow;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRowResult;
+import dev.alsalman.agenticworkflowengine.workflow.WorkflowOrchestrator;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Executes a template for many parameter sets. All rows are validated and rendered up
+ * front; invalid rows are reported immediately and never reach the LLM. Valid rows run
+ * as independent workflows on virtual threads, limited by a fair semaphore shared by all
+ * batches so total throughput stays within the LLM quota no matter how many batches
+ * are in flight. Results are emitted in completion order.
+ */
+@Service
+public class BatchExecutionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BatchExecutionService.class);
+    
+    private final TemplateService templateService;
+    private final WorkflowOrchestrator orchestrator;
+    private final TaskPlanService taskPlanService;
+    private final WorkflowPersistenceService persistenceService;
+    private final BatchExecutionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Semaphore workflowPermits;
+    
+    public BatchExecutionService(TemplateService templateService,
+                                 WorkflowOrchestrator orchestrator,
+                                 TaskPlanService taskPlanService,
+                                 WorkflowPersistenceService persistenceService,
+                                 BatchExecutionProperties properties,
+                                 ObjectMapper objectMapper) {
+        this.templateService = templateService;
+        this.orchestrator = orchestrator;
+        this.taskPlanService = taskPlanService;
+        this.persistenceService = persistenceService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.workflowPermits = new Semaphore(properties.maxConcurrentWorkflows(), true);
+    }
+    
+    /**
+     * Executes the batch and writes each row result to the stream as one JSON line,
+     * flushing after every line. Returns once every row has finished.
+     *
+     * @throws UncheckedIOException If the stream fails, e.g. because the client disconnected;
+     *                              the rows still running are cancelled
+     */
+    public void executeBatch(CompiledTemplate compiled, List<BatchRow> rows, OutputStream out) {
+        executeBatch(compiled, rows, result -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    /**
+     * Executes the batch, passing each row result to the sink. The sink is never called
+     * concurrently. Returns once every row has finished. If the sink throws, no further
+     * rows are started, the ones running are interrupted and the sink's exception is rethrown.
+     */
+    public void executeBatch(CompiledTemplate compiled, List<BatchRow> rows, Consumer<BatchRowResult> sink) {
+        AtomicReference<RuntimeException> sinkFailure = new AtomicReference<>();
+        Consumer<BatchRowResult> serialSink = serialized(sink, sinkFailure);
+        
+        // Validation and rendering are CPU-only, so they run before any workflow starts
+        List<PreparedExecution> prepared = rows.parallelStream()
+            .map(row -> row.parseError() != null
+                ? PreparedExecution.invalid(List.of(row.parseError()))
+                : templateService.prepareExecution(compiled, row.parameters()))
+            .toList();
+        
+        int valid = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (prepared.get(i).isValid()) {
+                valid++;
+            } else {
+                serialSink.accept(BatchRowResult.invalid(rows.get(i).index(), prepared.get(i).errors()));
+            }
+        }
+        log.info("Batch for template {}: {} rows, {} valid", compiled.id(), rows.size(), valid);
+        if (valid == 0) {
+            return;
+        }
+        
+        ParameterizedPlan sharedPlan = valid > 1
+            ? WorkflowContext.callWithTemplate(compiled.id(), () -> planOnce(compiled))
+            : null;
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < rows.size() && sinkFailure.get() == null; i++) {
+                if (!prepared.get(i).isValid()) {
+                    continue;
+                }
+                BatchRow row = rows.get(i);
+                String prompt = prepared.get(i).prompt();
+                try {
+                    executor.submit(() -> {
+                        try {
+                            WorkflowContext.runWithTemplate(compiled.id(),
+                                () -> serialSink.accept(executeRow(row, prompt, sharedPlan)));
+                        } catch (RuntimeException e) {
+                            // Nobody is reading the results any more, so stop the rows still running
+                            executor.shutdownNow();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    break;
+                }
+            }
+        }
+        
+        RuntimeException failure = sinkFailure.get();
+        if (failure != null) {
+            log.warn("Batch for template {} abandoned: {}", compiled.id(), failure.getMessage());
+            throw failure;
+        }
+    }
+    
+    /**
+     * Runs one row as its own goal. The goal is created first, so a row that fails is
+     * reported, and marked failed, against the goal it actually ran.
+     */
+    private BatchRowResult executeRow(BatchRow row, String prompt, ParameterizedPlan sharedPlan) {
+        try {
+            workflowPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BatchRowResult.failed(row.index(), null, "Interrupted before start", 0);
+        }
+        
+        long start = System.nanoTime();
+        UUID goalId = null;
+        try {
+            goalId = persistenceService.saveGoal(Goal.create(prompt)).id();
+            WorkflowResult result = orchestrator.executeWorkflow(prompt, goalId,
+                sharedPlan != null ? sharedPlan.instantiate(row.parameters()) : null);
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            
+            return result.success()
+                ? BatchRowResult.completed(row.index(), goalId, durationMs)
+                : BatchRowResult.failed(row.index(), goalId, "Workflow execution failed", durationMs);
+        } catch (Exception e) {
+            log.error("Batch row {} failed (goal {})", row.index(), goalId, e);
+            return BatchRowResult.failed(row.index(), goalId, e.getMessage(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            workflowPermits.release();
+        }
+    }
+    
+    /**
+     * Plans the templated goal once for the whole batch. Returns null, so every row is
+     * planned separately, when shared planning is disabled, the prompt has no placeholders,
+     * or the plan does not carry the placeholders through to its tasks.
+     */
+    private ParameterizedPlan planOnce(CompiledTemplate compiled) {
+        if (!properties.sharedPlanning() || compiled.placeholders().isEmpty()) {
+            return null;
+        }
+        
+        Set<String> parameterNames = compiled.parameters().stream()
+            .map(CompiledParameter::name)
+            .collect(Collectors.toSet());
+        try {
+            ParameterizedPlan plan = ParameterizedPlan.of(
+                taskPlanService.createParameterizedTaskPlan(compiled.prompt().source(), compiled.placeholders()),
+                parameterNames);
+            if (plan.isParameterized()) {
+                log.info("Sharing one {}-task plan across the batch for template {}",
+                    plan.plan().tasks().size(), compiled.id());
+                return plan;
+            }
+            log.warn("Shared plan for template {} lost its placeholders; planning rows individually", compiled.id());
+        } catch (Exception e) {
+            log.warn("Shared planning failed for template {}; planning rows individually", compiled.id(), e);
+        }
+        return null;
+    }
+    
+    /**
+     * Serializes calls to the sink and records its first failure; results that arrive after
+     * it has failed are dropped
+     */
+    private static Consumer<BatchRowResult> serialized(Consumer<BatchRowResult> sink,
+                                                       AtomicReference<RuntimeException> failure) {
+        Object lock = new Object();
+        return result -> {
+            synchronized (lock) {
+                if (failure.get() != null) {
+                    return;
+                }
+                try {
+                    sink.accept(result);
+                } catch (RuntimeException e) {
+                    failure.set(e);
+                    throw e;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,200 @@
+package dev.alsalman.agenticworkflowengine.template.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRow;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads batch request bodies into parameter sets. NDJSON carries one JSON object per line;
+ * CSV (RFC 4180) needs a header row naming the parameters, and empty cells count as absent
+ * so template defaults apply. A malformed row becomes a row with a parse error rather than
+ * failing the whole batch.
+ */
+@Component
+public class BatchInputParser {
+    
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+    
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+    
+    private final ObjectMapper objectMapper;
+    private final BatchExecutionProperties properties;
+    
+    public BatchInputParser(ObjectMapper objectMapper, BatchExecutionProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+    
+    /**
+     * @param body Request body, read as UTF-8
+     * @param contentType Content type of the body; parameters such as charset are ignored
+     * @throws IllegalArgumentException If the format is unsupported, the CSV header is missing
+     *         or the batch has more than the configured number of rows
+     */
+    public List<BatchRow> parse(InputStream body, String contentType) throws IOException {
+        String mediaType = contentType != null ? contentType.split(";", 2)[0].trim().toLowerCase() : "";
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return switch (mediaType) {
+            case NDJSON -> parseNdjson(reader);
+            case CSV -> parseCsv(reader);
+            default -> throw new IllegalArgumentException("Unsupported batch content type: " + contentType);
+        };
+    }
+    
+    private List<BatchRow> parseNdjson(BufferedReader reader) throws IOException {
+        List<BatchRow> rows = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int index = rows.size();
+            checkRowLimit(index);
+            try {
+                Map<String, Object> parameters = objectMapper.readValue(line, ROW_TYPE);
+                rows.add(parameters != null
+                    ? BatchRow.of(index, new LinkedHashMap<>(parameters))
+                    : BatchRow.unreadable(index, "Row is not a JSON object"));
+            } catch (JsonProcessingException e) {
+                rows.add(BatchRow.unreadable(index, "Invalid JSON: " + e.getOriginalMessage()));
+            }
+        }
+        return rows;
+    }
+    
+    private List<BatchRow> parseCsv(BufferedReader reader) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null || header.stream().allMatch(String::isBlank)) {
+            throw new IllegalArgumentException("CSV batch requires a header row with parameter names");
+        }
+        header = header.stream().map(String::trim).toList();
+        
+        List<BatchRow> rows = new ArrayList<>();
+        List<String> record;
+        while ((record = records.next()) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue; // Blank line
+            }
+            int index = rows.size();
+            checkRowLimit(index);
+            if (records.unterminatedQuote()) {
+                rows.add(BatchRow.unreadable(index, "Unterminated quoted field at end of input"));
+                continue;
+            }
+            if (record.size() != header.size()) {
+                rows.add(BatchRow.unreadable(index, String.format(
+                    "Expected %d columns but found %d", header.size(), record.size())));
+                continue;
+            }
+            
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                if (!record.get(i).isEmpty()) {
+                    parameters.put(header.get(i), record.get(i));
+                }
+            }
+            rows.add(BatchRow.of(index, parameters));
+        }
+        return rows;
+    }
+    
+    private void checkRowLimit(int index) {
+        if (index >= properties.maxRows()) {
+            throw new IllegalArgumentException("Batch exceeds the limit of " + properties.maxRows() + " rows");
+        }
+    }
+    
+    /**
+     * Streaming RFC 4180 record reader: quoted fields may contain commas, doubled quotes
+     * and line breaks; records end at LF or CRLF.
+     */
+    private static final class CsvRecordReader {
+        
+        private final BufferedReader reader;
+        private boolean eof;
+        private boolean unterminatedQuote;
+        
+        CsvRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        /**
+         * @return Fields of the next record, or null at end of input
+         */
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean read = false;
+            
+            int c;
+            while ((c = reader.read()) != -1) {
+                read = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int nextChar = reader.read();
+                        if (nextChar == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (nextChar != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    fields.add(stripCarriageReturn(field));
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            
+            eof = true;
+            if (!read) {
+                return null;
+            }
+            unterminatedQuote = quoted;
+            fields.add(stripCarriageReturn(field));
+            return fields;
+        }
+        
+        boolean unterminatedQuote() {
+            return unterminatedQuote;
+        }
+        
+        private static String stripCarriageReturn(StringBuilder field) {
+            int length = field.length();
+            if (length > 0 && field.charAt(length - 1) == '\r') {
+                field.setLength(length - 1);
+            }
+            return field.toString();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package dev.alsalman.agenticworkflowengine.template.service;
 
 import dev.alsalman.agenticworkflowengine.template.domain.*;
+import dev.alsalman.agenticworkflowengine.template.dto.ParameterResponseDto;
 import dev.alsalman.agenticworkflowengine.template.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,31 +21,39 @@ public class ParameterPersistenceService {
     private static final Logger log = LoggerFactory.getLogger(ParameterPersistenceService.class);
     
     private final TemplateParameterRepository parameterRepository;
-    private final ParameterMetadataRepository metadataRepository;
-    private final ParameterValidationRuleRepository validationRuleRepository;
+    private final ParameterBatchRepository batchRepository;
+    private final TemplateRepository templateRepository;
+    private final TemplateCache templateCache;
     
     public ParameterPersistenceService(
             TemplateParameterRepository parameterRepository,
-            ParameterMetadataRepository metadataRepository,
-            ParameterValidationRuleRepository validationRuleRepository) {
+            ParameterBatchRepository batchRepository,
+            TemplateRepository templateRepository,
+            TemplateCache templateCache) {
         this.parameterRepository = parameterRepository;
-        this.metadataRepository = metadataRepository;
-        this.validationRuleRepository = validationRuleRepository;
+        this.batchRepository = batchRepository;
+        this.templateRepository = templateRepository;
+        this.templateCache = templateCache;
     }
     
     /**
-     * Save a list of parameters for a template
+     * Save a list of parameters for a template.
+     * Parameters, metadata and rules are written as one batch per table in a single transaction.
      */
     @Transactional
     public void saveTemplateParameters(UUID templateId, List<Parameter> parameters) {
         log.info("Saving {} parameters for template {}", parameters.size(), templateId);
         
-        // Delete existing parameters for this template
+        // Delete existing parameters for this template (metadata and rules cascade)
         parameterRepository.deleteByTemplateId(templateId);
         
+        List<TemplateParameter> templateParams = new ArrayList<>(parameters.size());
+        List<ParameterMetadata> metadata = new ArrayList<>(parameters.size());
+        List<ParameterValidationRule> rules = new ArrayList<>();
+        
         int order = 0;
         for (Parameter param : parameters) {
-            // Save the parameter
+            // IDs are assigned here so metadata and rules can reference them without a round-trip
             TemplateParameter templateParam = TemplateParameter.create(
                 templateId,
                 param.name(),
@@ -53,20 +62,27 @@ public class ParameterPersistenceService {
                 param.required(),
                 param.defaultValue(),
                 order++
-            );
-            TemplateParameter savedParam = parameterRepository.save(templateParam);
+            ).withId(UUID.randomUUID());
+            templateParams.add(templateParam);
             
-            // Save metadata (generate default metadata based on type)
-            ParameterMetadata metadata = generateDefaultMetadata(savedParam);
-            metadataRepository.save(metadata);
+            // Generate default metadata based on type
+            metadata.add(generateDefaultMetadata(templateParam));
             
-            // Save validation rules
-            if (param.validationRules() != null && !param.validationRules().isEmpty()) {
-                saveValidationRules(savedParam.id(), param.validationRules());
+            if (param.validationRules() != null) {
+                for (ValidationRule rule : param.validationRules()) {
+                    rules.add(ParameterValidationRule.fromDomainValidationRule(templateParam.id(), rule));
+                }
             }
         }
         
-        log.info("Successfully saved parameters for template {}", templateId);
+        batchRepository.insertAll(templateParams, metadata, rules);
+        
+        // New version makes compiled copies of this template stale everywhere
+        templateRepository.incrementVersion(templateId);
+        templateCache.invalidate(templateId);
+        
+        log.info("Successfully saved {} parameters and {} validation rules for template {}", 
+            templateParams.size(), rules.size(), templateId);
     }
     
     /**
@@ -74,78 +90,19 @@ public class ParameterPersistenceService {
      */
     @Transactional(readOnly = true)
     public List<Parameter> loadTemplateParameters(UUID templateId) {
-        List<TemplateParameter> templateParams = parameterRepository.findByTemplateIdOrderByDisplayOrder(templateId);
-        List<Parameter> parameters = new ArrayList<>();
-        
-        for (TemplateParameter templateParam : templateParams) {
-            // Load validation rules
-            List<ParameterValidationRule> validationRules = validationRuleRepository.findByParameterId(templateParam.id());
-            List<ValidationRule> domainRules = validationRules.stream()
-                .map(ParameterValidationRule::toDomainValidationRule)
-                .toList();
-            
-            // Create domain parameter with validation rules
-            Parameter param = new Parameter(
-                templateParam.name(),
-                templateParam.description(),
-                ParameterType.valueOf(templateParam.type()),
-                templateParam.required(),
-                templateParam.defaultValue(),
-                domainRules
-            );
-            parameters.add(param);
-        }
-        
-        return parameters;
+        return batchRepository.findDetailsByTemplateId(templateId).stream()
+            .map(ParameterDetails::toDomainParameter)
+            .toList();
     }
     
     /**
      * Load parameter with metadata for API response
      */
     @Transactional(readOnly = true)
-    public List<dev.alsalman.agenticworkflowengine.template.dto.ParameterResponseDto> loadParametersWithMetadata(UUID templateId) {
-        List<TemplateParameter> templateParams = parameterRepository.findByTemplateIdOrderByDisplayOrder(templateId);
-        List<dev.alsalman.agenticworkflowengine.template.dto.ParameterResponseDto> responses = new ArrayList<>();
-        
-        for (TemplateParameter templateParam : templateParams) {
-            // Load validation rules
-            List<ParameterValidationRule> validationRules = validationRuleRepository.findByParameterId(templateParam.id());
-            List<dev.alsalman.agenticworkflowengine.template.dto.ValidationRuleDto> ruleDtos = validationRules.stream()
-                .map(rule -> {
-                    ValidationRule domainRule = rule.toDomainValidationRule();
-                    return dev.alsalman.agenticworkflowengine.template.dto.ValidationRuleDto.fromValidationRule(domainRule);
-                })
-                .toList();
-            
-            // Load metadata
-            ParameterMetadata metadata = metadataRepository.findByParameterId(templateParam.id()).orElse(null);
-            dev.alsalman.agenticworkflowengine.template.dto.ParameterMetadataDto metadataDto = null;
-            if (metadata != null) {
-                metadataDto = metadata.toDto(templateParam.displayOrder() + 1);
-            }
-            
-            // Create response DTO
-            dev.alsalman.agenticworkflowengine.template.dto.ParameterResponseDto responseDto = 
-                new dev.alsalman.agenticworkflowengine.template.dto.ParameterResponseDto(
-                    templateParam.name(),
-                    templateParam.description(),
-                    ParameterType.valueOf(templateParam.type()),
-                    templateParam.required(),
-                    templateParam.defaultValue(),
-                    ruleDtos,
-                    metadataDto
-                );
-            responses.add(responseDto);
-        }
-        
-        return responses;
-    }
-    
-    private void saveValidationRules(UUID parameterId, List<ValidationRule> rules) {
-        for (ValidationRule rule : rules) {
-            ParameterValidationRule dbRule = ParameterValidationRule.fromDomainValidationRule(parameterId, rule);
-            validationRuleRepository.save(dbRule);
-        }
+    public List<ParameterResponseDto> loadParametersWithMetadata(UUID templateId) {
+        return batchRepository.findDetailsByTemplateId(templateId).stream()
+            .map(ParameterDetails::toResponseDto)
+            .toList();
     }
     
     private ParameterMetadata generateDefaultMetadata(TemplateParameter param) {
@@ -0,0 +1,122 @@
+package dev.alsalman.agenticworkflowengine.template.service;
+
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledTemplate;
+import dev.alsalman.agenticworkflowengine.template.domain.WorkflowTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * In-process cache of compiled template aggregates, keyed by template ID.
+ * Entries are invalidated when parameters are saved and evicted when the
+ * template's version or updated_at no longer matches the database. Each entry is a
+ * future completed by the first caller to miss, outside the map, so the database reads
+ * of one load never hold a map lock; concurrent callers for the same template wait for it.
+ */
+@Component
+public class TemplateCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(TemplateCache.class);
+    
+    private final ConcurrentMap<UUID, CompletableFuture<CompiledTemplate>> templates = new ConcurrentHashMap<>();
+    
+    /**
+     * Get the compiled template, compiling it with the loader on a cache miss. A failed
+     * load is not cached; its exception is thrown to every caller waiting on it.
+     */
+    public CompiledTemplate get(UUID templateId, Function<UUID, CompiledTemplate> loader) {
+        CompletableFuture<CompiledTemplate> entry = templates.get(templateId);
+        if (entry == null) {
+            CompletableFuture<CompiledTemplate> loading = new CompletableFuture<>();
+            entry = templates.putIfAbsent(templateId, loading);
+            if (entry == null) {
+                entry = loading;
+                load(templateId, loading, loader);
+            }
+        }
+        
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private void load(UUID templateId, CompletableFuture<CompiledTemplate> loading,
+                      Function<UUID, CompiledTemplate> loader) {
+        log.debug("Compiling template {} into cache", templateId);
+        try {
+            loading.complete(loader.apply(templateId));
+        } catch (RuntimeException e) {
+            templates.remove(templateId, loading);
+            loading.completeExceptionally(e);
+        }
+    }
+    
+    /**
+     * Remove a template from the cache. When called inside a transaction the entry is
+     * removed again after commit, so a concurrent reload cannot cache pre-commit data.
+     */
+    public void invalidate(UUID templateId) {
+        templates.remove(templateId);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    templates.remove(templateId);
+                }
+            });
+        }
+        log.debug("Invalidated cached template {}", templateId);
+    }
+    
+    /**
+     * Evict cached entries whose template was deleted or changed
+     * 
+     * @param currentTemplates The latest rows for the cached template IDs
+     * @return Number of evicted entries
+     */
+    public int evictStale(Iterable<WorkflowTemplate> currentTemplates) {
+        Map<UUID, WorkflowTemplate> latest = new HashMap<>();
+        currentTemplates.forEach(template -> latest.put(template.id(), template));
+        
+        int evicted = 0;
+        for (Map.Entry<UUID, CompletableFuture<CompiledTemplate>> entry : templates.entrySet()) {
+            // Entries still loading are skipped; they read the latest rows anyway
+            CompiledTemplate compiled = entry.getValue().getNow(null);
+            if (compiled != null && !compiled.isCurrent(latest.get(entry.getKey()))
+                    && templates.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        
+        if (evicted > 0) {
+            log.info("Evicted {} stale templates from cache", evicted);
+        }
+        return evicted;
+    }
+    
+    public Set<UUID> templateIds() {
+        return Set.copyOf(templates.keySet());
+    }
+    
+    public int size() {
+        return templates.size();
+    }
+}
@@ -4,15 +4,16 @@ import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
 import dev.alsalman.agenticworkflowengine.template.domain.ParameterType;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.Currency;
+import java.time.Month;
+import java.time.Year;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
- * Validates parameter values based on their type
+ * Validates parameter values based on their type.
+ * Patterns are compiled once and dates/times are parsed without exceptions, so a
+ * {@link TypeCheck} compiled for a parameter can be reused for any number of values.
  */
 public class ParameterValidator {
     
@@ -20,12 +21,21 @@ public class ParameterValidator {
         "USD", "EUR", "GBP", "JPY", "AUD", "CAD", "CHF", "CNY", "SEK", "NZD"
     );
     
-    private static final DateTimeFormatter[] DATE_FORMATTERS = {
-        DateTimeFormatter.ISO_LOCAL_DATE,
-        DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-        DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-        DateTimeFormatter.ofPattern("yyyy-MM-dd")
-    };
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern EMAIL = Pattern.compile("^[\\w.-]+@[\\w.-]+\\.\\w+$");
+    // Accept formats like "2 hours", "30 minutes", "1.5 hours", "90 min"
+    private static final Pattern DURATION = Pattern.compile(
+        "^\\d+(\\.\\d+)?\\s*(hours?|hrs?|minutes?|mins?|h|m)$", Pattern.CASE_INSENSITIVE);
+    
+    private static final ValidationResult SUCCESS = new ValidationResult(true, List.of());
+    
+    /**
+     * Type check bound to a single parameter
+     */
+    @FunctionalInterface
+    public interface TypeCheck {
+        ValidationResult check(Object value);
+    }
     
     public static class ValidationResult {
         private final boolean valid;
@@ -37,7 +47,7 @@ public class ParameterValidator {
         }
         
         public static ValidationResult success() {
-            return new ValidationResult(true, List.of());
+            return SUCCESS;
         }
         
         public static ValidationResult failure(String error) {
@@ -58,28 +68,125 @@ public class ParameterValidator {
     }
     
     public static ValidationResult validate(Parameter parameter, Object value) {
-        if (value == null) {
-            if (parameter.required()) {
-                return ValidationResult.failure("Required parameter '" + parameter.name() + "' is missing");
+        return compile(parameter).check(value);
+    }
+    
+    /**
+     * Resolve the type check for a parameter once, for reuse across values
+     */
+    public static TypeCheck compile(Parameter parameter) {
+        ValidationResult missing = parameter.required()
+            ? ValidationResult.failure("Required parameter '" + parameter.name() + "' is missing")
+            : SUCCESS;
+        TypeCheck typeCheck = switch (parameter.type()) {
+            case TEXT -> value -> validateString(parameter, value.toString());
+            case NUMBER -> value -> validateNumber(parameter, value);
+            case SELECTION -> value -> validateSelection(parameter, value.toString());
+            case DATE -> value -> validateDate(parameter, value.toString());
+            case CURRENCY -> value -> validateCurrency(parameter, value.toString());
+            case LOCATION -> value -> validateLocation(parameter, value.toString());
+            case BOOLEAN -> value -> validateBoolean(parameter, value.toString());
+            case EMAIL -> value -> validateEmail(parameter, value.toString());
+            case URL -> value -> validateUrl(parameter, value.toString());
+            case PERCENTAGE -> value -> validatePercentage(parameter, value.toString());
+            case PHONE -> value -> validatePhone(parameter, value.toString());
+            case TIME -> value -> validateTime(parameter, value.toString());
+            case DURATION -> value -> validateDuration(parameter, value.toString());
+        };
+        return value -> value == null ? missing : typeCheck.check(value);
+    }
+    
+    /**
+     * Parse a date in yyyy-MM-dd, MM/dd/yyyy or dd/MM/yyyy format without throwing.
+     * yyyy-MM-dd is strict; the slash formats clamp an out-of-range day to the end of
+     * the month, matching the previous DateTimeFormatter behaviour.
+     * 
+     * @return The date, or null if the value is not a supported date
+     */
+    public static LocalDate parseDate(String value) {
+        if (value == null || value.length() != 10) {
+            return null;
+        }
+        
+        if (value.charAt(4) == '-' && value.charAt(7) == '-') {
+            return toDate(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2), false);
+        }
+        
+        if (value.charAt(2) == '/' && value.charAt(5) == '/') {
+            int first = digits(value, 0, 2);
+            int second = digits(value, 3, 2);
+            int year = digits(value, 6, 4);
+            if (year < 1) {
+                return null;
             }
-            return ValidationResult.success();
+            LocalDate monthFirst = toDate(year, first, second, true);
+            return monthFirst != null ? monthFirst : toDate(year, second, first, true);
         }
         
-        return switch (parameter.type()) {
-            case TEXT -> validateString(parameter, value.toString());
-            case NUMBER -> validateNumber(parameter, value);
-            case SELECTION -> validateSelection(parameter, value.toString());
-            case DATE -> validateDate(parameter, value.toString());
-            case CURRENCY -> validateCurrency(parameter, value.toString());
-            case LOCATION -> validateLocation(parameter, value.toString());
-            case BOOLEAN -> validateBoolean(parameter, value.toString());
-            case EMAIL -> validateEmail(parameter, value.toString());
-            case URL -> validateUrl(parameter, value.toString());
-            case PERCENTAGE -> validatePercentage(parameter, value.toString());
-            case PHONE -> validatePhone(parameter, value.toString());
-            case TIME -> validateTime(parameter, value.toString());
-            case DURATION -> validateDuration(parameter, value.toString());
-        };
+        return null;
+    }
+    
+    /**
+     * Check an ISO local time (HH:mm, HH:mm:ss or HH:mm:ss.SSSSSSSSS) without throwing
+     */
+    public static boolean isValidTime(String value) {
+        int length = value.length();
+        if (length < 5 || value.charAt(2) != ':' || !inRange(digits(value, 0, 2), 23) || !inRange(digits(value, 3, 2), 59)) {
+            return false;
+        }
+        if (length == 5) {
+            return true;
+        }
+        if (length < 8 || value.charAt(5) != ':' || !inRange(digits(value, 6, 2), 59)) {
+            return false;
+        }
+        if (length == 8) {
+            return true;
+        }
+        int fractionDigits = length - 9;
+        return value.charAt(8) == '.' && fractionDigits >= 1 && fractionDigits <= 9 && digits(value, 9, fractionDigits) >= 0;
+    }
+    
+    private static LocalDate toDate(int year, int month, int day, boolean clampDay) {
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        int lengthOfMonth = Month.of(month).length(Year.isLeap(year));
+        if (day > lengthOfMonth) {
+            if (!clampDay) {
+                return null;
+            }
+            day = lengthOfMonth;
+        }
+        return LocalDate.of(year, month, day);
+    }
+    
+    /**
+     * Parse a fixed-width run of ASCII digits, or return -1 if any character is not a digit
+     */
+    private static int digits(String value, int start, int length) {
+        int result = 0;
+        for (int i = start; i < start + length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+    
+    private static boolean inRange(int value, int max) {
+        return value >= 0 && value <= max;
+    }
+    
+    private static boolean isRegexWhitespace(char c) {
+        // Same set as \s in java.util.regex
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+    
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
     }
     
     private static ValidationResult validateString(Parameter parameter, String value) {
@@ -111,14 +218,8 @@ public class ParameterValidator {
     }
     
     private static ValidationResult validateDate(Parameter parameter, String value) {
-        // Try multiple date formats
-        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
-            try {
-                LocalDate.parse(value, formatter);
-                return ValidationResult.success();
-            } catch (DateTimeParseException ignored) {
-                // Try next format
-            }
+        if (parseDate(value) != null) {
+            return ValidationResult.success();
         }
         
         return ValidationResult.failure(
@@ -129,7 +230,7 @@ public class ParameterValidator {
     
     private static ValidationResult validateCurrency(Parameter parameter, String value) {
         // Format: "100 USD" or "USD 100" or just "USD"
-        String[] parts = value.trim().split("\\s+");
+        String[] parts = WHITESPACE.split(value.trim());
         
         if (parts.length == 0 || parts.length > 2) {
             return ValidationResult.failure(
@@ -188,7 +289,7 @@ public class ParameterValidator {
         }
         
         // Simple validation: must contain at least letters and can have spaces, commas
-        if (!value.matches("^[a-zA-Z\\s,.-]+$")) {
+        if (!isLocationName(value)) {
             return ValidationResult.failure(
                 "Parameter '" + parameter.name() + "' must be a valid location name"
             );
@@ -208,8 +309,7 @@ public class ParameterValidator {
     }
     
     private static ValidationResult validateEmail(Parameter parameter, String value) {
-        String emailRegex = "^[\\w.-]+@[\\w.-]+\\.\\w+$";
-        if (value.matches(emailRegex)) {
+        if (EMAIL.matcher(value).matches()) {
             return ValidationResult.success();
         }
         return ValidationResult.failure("Parameter '" + parameter.name() + "' must be a valid email address");
@@ -238,28 +338,55 @@ public class ParameterValidator {
     
     private static ValidationResult validatePhone(Parameter parameter, String value) {
         // Basic phone validation - allows digits, spaces, dashes, parentheses, plus
-        String phoneRegex = "^[\\+]?[\\d\\s\\-\\(\\)]+$";
-        if (value.matches(phoneRegex) && value.replaceAll("[^\\d]", "").length() >= 7) {
+        if (isPhoneNumber(value)) {
             return ValidationResult.success();
         }
         return ValidationResult.failure("Parameter '" + parameter.name() + "' must be a valid phone number");
     }
     
     private static ValidationResult validateTime(Parameter parameter, String value) {
-        try {
-            java.time.LocalTime.parse(value);
+        if (isValidTime(value)) {
             return ValidationResult.success();
-        } catch (java.time.format.DateTimeParseException e) {
-            return ValidationResult.failure("Parameter '" + parameter.name() + "' must be a valid time (HH:MM format)");
         }
+        return ValidationResult.failure("Parameter '" + parameter.name() + "' must be a valid time (HH:MM format)");
     }
     
     private static ValidationResult validateDuration(Parameter parameter, String value) {
-        // Accept formats like "2 hours", "30 minutes", "1.5 hours", "90 min"
-        String durationRegex = "^\\d+(\\.\\d+)?\\s*(hours?|hrs?|minutes?|mins?|h|m)$";
-        if (value.toLowerCase().matches(durationRegex)) {
+        if (DURATION.matcher(value).matches()) {
             return ValidationResult.success();
         }
         return ValidationResult.failure("Parameter '" + parameter.name() + "' must be a valid duration (e.g., '2 hours', '30 minutes')");
     }
-}
\ No newline at end of file
+    
+    // Equivalent to ^[a-zA-Z\s,.-]+$
+    private static boolean isLocationName(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetter(c) && !isRegexWhitespace(c) && c != ',' && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Equivalent to ^[+]?[\d\s()-]+$ with at least 7 digits
+    private static boolean isPhoneNumber(String value) {
+        int start = !value.isEmpty() && value.charAt(0) == '+' ? 1 : 0;
+        if (start == value.length()) {
+            return false;
+        }
+        int digitCount = 0;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitCount++;
+            } else if (!isRegexWhitespace(c) && c != '-' && c != '(' && c != ')') {
+                return false;
+            }
+        }
+        return digitCount >= 7;
+    }
+}
@@ -0,0 +1,187 @@
+package dev.alsalman.agenticworkflowengine.template.validation;
+
+import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterType;
+import dev.alsalman.agenticworkflowengine.template.domain.ValidationRule;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable validation pipeline for a single parameter: the type check followed by
+ * one check per validation rule. Patterns, allowed-value sets and default error
+ * messages are resolved when the chain is compiled, so validating a value does no
+ * regex compilation, formatting or exception handling on the common path.
+ * Chains are thread-safe and shared through the template cache.
+ */
+public final class ValidatorChain {
+
+    /**
+     * Compiled rule check
+     */
+    @FunctionalInterface
+    interface RuleCheck {
+        /**
+         * @return Error message, or null if the value passes
+         */
+        String check(String value);
+    }
+
+    private final Parameter parameter;
+    private final ParameterValidator.TypeCheck typeCheck;
+    private final List<RuleCheck> ruleChecks;
+
+    private ValidatorChain(Parameter parameter, ParameterValidator.TypeCheck typeCheck, List<RuleCheck> ruleChecks) {
+        this.parameter = parameter;
+        this.typeCheck = typeCheck;
+        this.ruleChecks = ruleChecks;
+    }
+
+    public static ValidatorChain compile(Parameter parameter) {
+        List<ValidationRule> rules = parameter.validationRules() != null ? parameter.validationRules() : List.of();
+        List<RuleCheck> ruleChecks = new ArrayList<>(rules.size());
+
+        for (ValidationRule rule : rules) {
+            RuleCheck check = compileRule(parameter, rule);
+            if (check != null) {
+                ruleChecks.add(check);
+            }
+        }
+
+        return new ValidatorChain(parameter, ParameterValidator.compile(parameter), List.copyOf(ruleChecks));
+    }
+
+    public Parameter parameter() {
+        return parameter;
+    }
+
+    /**
+     * Validate a value: the type check first, then every rule
+     * @return List of error messages (empty if valid)
+     */
+    public List<String> validate(String value) {
+        ParameterValidator.ValidationResult basicResult = typeCheck.check(value);
+        if (!basicResult.isValid()) {
+            return basicResult.getErrors(); // Rules are not applied to values of the wrong type
+        }
+
+        // Skip further validation if value is null/empty and not required
+        if ((value == null || value.isBlank()) && !parameter.required()) {
+            return List.of();
+        }
+
+        List<String> errors = null;
+        for (RuleCheck check : ruleChecks) {
+            String error = check.check(value);
+            if (error != null) {
+                if (errors == null) {
+                    errors = new ArrayList<>(ruleChecks.size());
+                }
+                errors.add(error);
+            }
+        }
+
+        return errors != null ? errors : List.of();
+    }
+
+    /**
+     * @return The check for the rule, or null if the rule does not apply to this parameter
+     */
+    private static RuleCheck compileRule(Parameter parameter, ValidationRule rule) {
+        return switch (rule.type()) {
+            case REQUIRED -> compileRequired(rule);
+            case PATTERN -> compilePattern(rule);
+            case RANGE -> parameter.type() == ParameterType.NUMBER ? compileRange(rule) : null;
+            case DATE_RANGE -> parameter.type() == ParameterType.DATE ? compileDateRange(rule) : null;
+            case ALLOWED_VALUES -> compileAllowedValues(rule);
+        };
+    }
+
+    private static RuleCheck compileRequired(ValidationRule rule) {
+        String message = messageOr(rule, "Value is required");
+        return value -> value == null || value.isBlank() ? message : null;
+    }
+
+    private static RuleCheck compilePattern(ValidationRule rule) {
+        if (rule.pattern() == null) {
+            return null;
+        }
+
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(rule.pattern());
+        } catch (PatternSyntaxException e) {
+            return value -> "Invalid validation pattern configured";
+        }
+
+        String message = messageOr(rule, String.format("Value must match pattern: %s", rule.pattern()));
+        return value -> pattern.matcher(value).matches() ? null : message;
+    }
+
+    private static RuleCheck compileRange(ValidationRule rule) {
+        BigDecimal min = rule.minValue();
+        BigDecimal max = rule.maxValue();
+        String minMessage = min != null ? messageOr(rule, String.format("Value must be at least %s", min)) : null;
+        String maxMessage = max != null ? messageOr(rule, String.format("Value must be at most %s", max)) : null;
+
+        return value -> {
+            BigDecimal number;
+            try {
+                number = new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                // Only reachable for values Double accepts but BigDecimal does not, e.g. "NaN"
+                return "Invalid number format";
+            }
+            if (min != null && number.compareTo(min) < 0) {
+                return minMessage;
+            }
+            if (max != null && number.compareTo(max) > 0) {
+                return maxMessage;
+            }
+            return null;
+        };
+    }
+
+    private static RuleCheck compileDateRange(ValidationRule rule) {
+        LocalDate min = rule.minDate();
+        LocalDate max = rule.maxDate();
+        String minMessage = min != null ? messageOr(rule, String.format("Date must be on or after %s", min)) : null;
+        String maxMessage = max != null ? messageOr(rule, String.format("Date must be on or before %s", max)) : null;
+
+        return value -> {
+            LocalDate date = ParameterValidator.parseDate(value);
+            if (date == null) {
+                return "Invalid date format"; // Should have been caught by the type check
+            }
+            if (min != null && date.isBefore(min)) {
+                return minMessage;
+            }
+            if (max != null && date.isAfter(max)) {
+                return maxMessage;
+            }
+            return null;
+        };
+    }
+
+    private static RuleCheck compileAllowedValues(ValidationRule rule) {
+        if (rule.allowedValues() == null || rule.allowedValues().isEmpty()) {
+            return null;
+        }
+
+        Set<String> allowed = Collections.unmodifiableSet(new HashSet<>(rule.allowedValues()));
+        String message = messageOr(rule,
+            String.format("Value must be one of: %s", String.join(", ", rule.allowedValues())));
+        return value -> allowed.contains(value) ? null : message;
+    }
+
+    private static String messageOr(ValidationRule rule, String defaultMessage) {
+        return rule.customMessage() != null ? rule.customMessage() : defaultMessage;
+    }
+}
@@ -2,19 +2,28 @@ package dev.alsalman.agenticworkflowengine.workflow;
 
 import dev.alsalman.agenticworkflowengine.template.domain.ExecutionResponse;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
+import dev.alsalman.agenticworkflowengine.workflow.domain.GoalProfile;
 import dev.alsalman.agenticworkflowengine.workflow.domain.GoalSummary;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.UsageSummary;
 import dev.alsalman.agenticworkflowengine.workflow.WorkflowOrchestrator;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowExecutionProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowExecutor;
 import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
+import dev.alsalman.agenticworkflowengine.workflow.service.GoalProfileService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
 
 @RestController
 @RequestMapping("/api/workflow")
@@ -24,10 +33,20 @@ public class WorkflowController {
     
     private final WorkflowOrchestrator workflowOrchestrator;
     private final WorkflowPersistenceService persistenceService;
+    private final WorkflowExecutor workflowExecutor;
+    private final WorkflowExecutionProperties executionProperties;
+    private final GoalProfileService profileService;
     
-    public WorkflowController(WorkflowOrchestrator workflowOrchestrator, WorkflowPersistenceService persistenceService) {
+    public WorkflowController(WorkflowOrchestrator workflowOrchestrator, 
+                            WorkflowPersistenceService persistenceService,
+                            WorkflowExecutor workflowExecutor,
+                            WorkflowExecutionProperties executionProperties,
+                            GoalProfileService profileService) {
         this.workflowOrchestrator = workflowOrchestrator;
         this.persistenceService = persistenceService;
+        this.workflowExecutor = workflowExecutor;
+        this.executionProperties = executionProperties;
+        this.profileService = profileService;
     }
     
     @PostMapping("/execute")
@@ -37,18 +56,10 @@ public class WorkflowController {
             Goal goal = Goal.create(request.query());
             goal = persistenceService.saveGoal(goal);
             
-            // Execute workflow asynchronously in virtual thread
-            final Goal finalGoal = goal;
+            // Execute workflow asynchronously on the shared workflow executor
+            final UUID goalId = goal.id();
             final String query = request.query();
-            CompletableFuture.runAsync(() -> {
-                try {
-                    log.info("Starting async workflow execution for goal: {}", finalGoal.id());
-                    workflowOrchestrator.executeWorkflow(query, finalGoal.id());
-                    log.info("Completed async workflow execution for goal: {}", finalGoal.id());
-                } catch (Exception e) {
-                    log.error("Async workflow execution failed for goal: {}", finalGoal.id(), e);
-                }
-            }, Executors.newVirtualThreadPerTaskExecutor());
+            workflowExecutor.submit(goalId, () -> workflowOrchestrator.executeWorkflow(query, goalId));
             
             return ResponseEntity.ok(ExecutionResponse.success(goal.id()));
         } catch (Exception e) {
@@ -64,13 +75,37 @@ public class WorkflowController {
             if (goal == null) {
                 return ResponseEntity.notFound().build();
             }
-            return ResponseEntity.ok(GoalSummary.from(goal));
+            UsageSummary usage = persistenceService.findUsageByGoalId(goalId);
+            return ResponseEntity.ok(GoalSummary.from(goal, usage));
         } catch (Exception e) {
             log.error("Failed to retrieve goal: {}", goalId, e);
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    /**
+     * Long-poll for completion of a goal's workflow. Responds 200 with the goal once the
+     * workflow has finished (immediately if it is not running on this node), or 202 with
+     * the goal's current state when the timeout elapses first.
+     */
+    @GetMapping("/goal/{goalId}/await")
+    public DeferredResult<ResponseEntity<GoalSummary>> awaitGoal(
+        @PathVariable UUID goalId,
+        @RequestParam(required = false) Long timeoutSeconds
+    ) {
+        Duration timeout = executionProperties.awaitTimeout(timeoutSeconds);
+        DeferredResult<ResponseEntity<GoalSummary>> deferred = new DeferredResult<>(timeout.toMillis());
+        deferred.onTimeout(() -> deferred.setResult(currentGoal(goalId, HttpStatus.ACCEPTED)));
+        
+        Optional<CompletableFuture<WorkflowResult>> running = workflowExecutor.find(goalId);
+        if (running.isEmpty()) {
+            deferred.setResult(currentGoal(goalId, HttpStatus.OK));
+        } else {
+            running.get().whenComplete((result, error) -> deferred.setResult(currentGoal(goalId, HttpStatus.OK)));
+        }
+        return deferred;
+    }
+    
     @GetMapping("/goal/{goalId}/tasks")
     public ResponseEntity<List<Task>> getGoalTasks(@PathVariable UUID goalId) {
         try {
@@ -82,5 +117,54 @@ public class WorkflowController {
         }
     }
     
+    /**
+     * Sub-goals planned and run for sub-goal tasks of the goal; their own tasks and sub-goals
+     * are read the same way
+     */
+    @GetMapping("/goal/{goalId}/sub-goals")
+    public ResponseEntity<List<GoalSummary>> getSubGoals(@PathVariable UUID goalId) {
+        try {
+            List<GoalSummary> subGoals = persistenceService.findSubGoals(goalId).stream()
+                .map(GoalSummary::from)
+                .toList();
+            return ResponseEntity.ok(subGoals);
+        } catch (Exception e) {
+            log.error("Failed to retrieve sub-goals for goal: {}", goalId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Execution timeline of a goal: per-task ready, dispatch and execution times, LLM and
+     * persistence time, the critical path and scheduler idle time. Partial while the goal runs.
+     */
+    @GetMapping("/goal/{goalId}/profile")
+    public ResponseEntity<GoalProfile> getGoalProfile(@PathVariable UUID goalId) {
+        try {
+            GoalProfile profile = profileService.profile(goalId);
+            if (profile == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(profile);
+        } catch (Exception e) {
+            log.error("Failed to build profile for goal: {}", goalId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    private ResponseEntity<GoalSummary> currentGoal(UUID goalId, HttpStatus status) {
+        try {
+            Goal goal = persistenceService.findGoalById(goalId);
+            if (goal == null) {
+                return ResponseEntity.notFound().build();
+            }
+            UsageSummary usage = persistenceService.findUsageByGoalId(goalId);
+            return ResponseEntity.status(status).body(GoalSummary.from(goal, usage));
+        } catch (Exception e) {
+            log.error("Failed to retrieve goal: {}", goalId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     public record WorkflowRequest(String query) {}
 }
\ No newline at end of file
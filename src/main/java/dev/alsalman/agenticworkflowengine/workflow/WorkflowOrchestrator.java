@@ -1,7 +1,14 @@
 package dev.alsalman.agenticworkflowengine.workflow;
 
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowTracing;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.FlightEvents;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.WorkflowExecutionEvent;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskStatus;
 import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
 import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
 import org.slf4j.Logger;
@@ -13,6 +20,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Orchestrates the workflow execution with three core responsibilities:
@@ -32,6 +40,9 @@ public class WorkflowOrchestrator {
     private final dev.alsalman.agenticworkflowengine.workflow.service.TaskExecutionService taskExecutionService;
     private final dev.alsalman.agenticworkflowengine.planning.PlanReviewService planReviewService;
     private final dev.alsalman.agenticworkflowengine.workflow.service.WorkflowSummaryService summaryService;
+    private final WorkflowMetrics metrics;
+    private final WorkflowTracing tracing;
+    private final WorkflowProfiler profiler;
     
     public WorkflowOrchestrator(dev.alsalman.agenticworkflowengine.workflow.service.GoalService goalService,
                               dev.alsalman.agenticworkflowengine.planning.TaskPlanService taskPlanService,
@@ -39,7 +50,10 @@ public class WorkflowOrchestrator {
                               dev.alsalman.agenticworkflowengine.execution.TaskPreparationService taskPreparationService,
                               dev.alsalman.agenticworkflowengine.workflow.service.TaskExecutionService taskExecutionService,
                               dev.alsalman.agenticworkflowengine.planning.PlanReviewService planReviewService,
-                              dev.alsalman.agenticworkflowengine.workflow.service.WorkflowSummaryService summaryService) {
+                              dev.alsalman.agenticworkflowengine.workflow.service.WorkflowSummaryService summaryService,
+                              WorkflowMetrics metrics,
+                              WorkflowTracing tracing,
+                              WorkflowProfiler profiler) {
         this.goalService = goalService;
         this.taskPlanService = taskPlanService;
         this.taskPersistenceService = taskPersistenceService;
@@ -47,6 +61,9 @@ public class WorkflowOrchestrator {
         this.taskExecutionService = taskExecutionService;
         this.planReviewService = planReviewService;
         this.summaryService = summaryService;
+        this.metrics = metrics;
+        this.tracing = tracing;
+        this.profiler = profiler;
     }
     
     /**
@@ -62,26 +79,45 @@ public class WorkflowOrchestrator {
      * @return WorkflowResult containing the completed goal
      */
     public WorkflowResult executeWorkflow(String userQuery, UUID goalId) {
+        return executeWorkflow(userQuery, goalId, null);
+    }
+    
+    /**
+     * Orchestrates the workflow execution with an optional precomputed plan.
+     * Used by batch template execution, where one planning call is shared by many goals;
+     * task IDs in the plan are remapped to new database IDs for every goal.
+     * 
+     * @param userQuery The user's query/request
+     * @param goalId Optional existing goal ID
+     * @param plannedTasks Plan to execute, or null to plan the query
+     * @return WorkflowResult containing the completed goal
+     */
+    public WorkflowResult executeWorkflow(String userQuery, UUID goalId, TaskPlan plannedTasks) {
+        return tracing.traceWorkflow("workflow.execute", () -> FlightEvents.record(new WorkflowExecutionEvent(),
+            () -> runWorkflow(userQuery, goalId, plannedTasks), WorkflowExecutionEvent::describe));
+    }
+    
+    private WorkflowResult runWorkflow(String userQuery, UUID goalId, TaskPlan plannedTasks) {
         Instant startTime = Instant.now();
         log.info("Starting workflow execution for query: '{}' with goal ID: {}", userQuery, goalId);
+        metrics.goalStarted();
+        boolean success = false;
+        UUID profiledGoalId = null;
         
         try {
             // 1. Initialize goal (load existing or create new)
             Goal goal = goalService.initializeGoal(userQuery, goalId);
+            tracing.tagGoal(goal.id());
+            profiledGoalId = goal.id();
             
-            // 2. Map user's goal into TaskPlan
-            TaskPlan taskPlan = createTaskPlan(userQuery);
-            List<Task> tasks = persistTaskPlan(taskPlan, goal.id());
-            
-            // 3. Execute and review the TaskPlan
-            List<Task> completedTasks = executeTasksWithReview(tasks, userQuery, goal.id());
-            
-            // 4. Create summary after everything is executed
-            Goal completedGoal = summaryService.summarizeWorkflow(goal, completedTasks);
+            // LLM usage from here on is attributed to the goal
+            Goal completedGoal = WorkflowContext.callWithGoal(goal.id(),
+                () -> planExecuteAndSummarize(goal, userQuery, plannedTasks));
             
             Duration executionTime = Duration.between(startTime, Instant.now());
             log.info("Workflow execution completed successfully in {} ms", executionTime.toMillis());
             
+            success = true;
             return WorkflowResult.success(completedGoal, startTime);
             
         } catch (Exception e) {
@@ -90,6 +126,59 @@ public class WorkflowOrchestrator {
             // Handle failure by updating goal status
             Goal failedGoal = handleWorkflowFailure(goalId, userQuery, e);
             return WorkflowResult.failure(failedGoal, startTime);
+        } finally {
+            metrics.goalFinished(success);
+            if (profiledGoalId != null) {
+                profiler.finish(profiledGoalId);
+            }
+        }
+    }
+    
+    private Goal planExecuteAndSummarize(Goal goal, String userQuery, TaskPlan plannedTasks) {
+        // 2. Map user's goal into TaskPlan
+        TaskPlan taskPlan = plannedTasks != null ? plannedTasks : createTaskPlan(userQuery);
+        List<Task> tasks = persistTaskPlan(taskPlan, goal.id());
+        
+        // 3. Execute and review the TaskPlan
+        List<Task> completedTasks = executeTasksWithReview(tasks, userQuery, goal.id(), List.of());
+        
+        // 4. Create summary after everything is executed
+        return stage(WorkflowMetrics.STAGE_SUMMARY, "workflow.summarize",
+            () -> summaryService.summarizeWorkflow(goal, completedTasks));
+    }
+    
+    /**
+     * Plans and runs a sub-goal task of the current goal as a child goal, with the same
+     * scheduler as its parent, and completes the task with the child goal's summary. Called
+     * from the task's wave, so sub-goals that become ready together are planned and run in
+     * parallel, and each is only planned once the tasks it depends on have completed.
+     * 
+     * @param task The sub-goal task
+     * @param userQuery The query of the goal whose plan contains the task
+     * @param completedTasks Completed tasks of that goal, given as context to the sub-goal's tasks
+     * @return The task completed with the sub-goal's summary, or marked FAILED if the sub-goal
+     *         failed; like a failed task, it is left to the plan review and does not fail the wave
+     */
+    public Task executeSubGoal(Task task, String userQuery, List<Task> completedTasks) {
+        String query = task.subGoalQuery();
+        Goal subGoal = goalService.createSubGoal(query, WorkflowContext.goalId());
+        try {
+            Goal completedGoal = WorkflowContext.callWithSubGoal(subGoal.id(), () -> {
+                TaskPlan taskPlan = stage(WorkflowMetrics.STAGE_PLANNING, "workflow.createSubGoalPlan",
+                    () -> taskPlanService.createSubGoalPlan(query, userQuery, WorkflowContext.subGoalDepth()));
+                List<Task> tasks = persistTaskPlan(taskPlan, subGoal.id());
+                List<Task> subGoalTasks = executeTasksWithReview(tasks, query, subGoal.id(), completedTasks);
+                return stage(WorkflowMetrics.STAGE_SUMMARY, "workflow.summarize",
+                    () -> summaryService.summarizeWorkflow(subGoal, subGoalTasks));
+            });
+            log.info("Sub-goal {} completed for task '{}'", subGoal.id(), task.description());
+            return task.withResult(completedGoal.summary());
+        } catch (RuntimeException e) {
+            log.error("Sub-goal {} failed for task '{}'", subGoal.id(), task.description(), e);
+            goalService.markGoalAsFailed(subGoal, e.getMessage());
+            return task.withResult("Sub-goal failed: " + e.getMessage()).withStatus(TaskStatus.FAILED);
+        } finally {
+            profiler.finish(subGoal.id());
         }
     }
     
@@ -98,7 +187,8 @@ public class WorkflowOrchestrator {
      */
     private TaskPlan createTaskPlan(String userQuery) {
         log.info("Creating task plan for query: '{}'", userQuery);
-        return taskPlanService.createTaskPlan(userQuery);
+        return stage(WorkflowMetrics.STAGE_PLANNING, "workflow.createTaskPlan",
+            () -> taskPlanService.createTaskPlan(userQuery));
     }
     
     /**
@@ -106,49 +196,120 @@ public class WorkflowOrchestrator {
      */
     private List<Task> persistTaskPlan(TaskPlan taskPlan, UUID goalId) {
         log.info("Persisting task plan with {} tasks", taskPlan.tasks().size());
-        return taskPersistenceService.persistTaskPlan(taskPlan, goalId);
+        return stage(WorkflowMetrics.STAGE_PERSISTENCE, "workflow.persistTaskPlan",
+            () -> taskPersistenceService.persistTaskPlan(taskPlan, goalId));
     }
     
     /**
      * Step 2: Execute and review the TaskPlan after every task
+     * 
+     * @param context Completed tasks of the parent goal when running a sub-goal; they inform
+     *                its tasks but are not part of its result
      */
-    private List<Task> executeTasksWithReview(List<Task> tasks, String userQuery, UUID goalId) {
+    private List<Task> executeTasksWithReview(List<Task> tasks, String userQuery, UUID goalId, List<Task> context) {
         log.info("Starting task execution with review cycle");
         
         // Prepare tasks (validate dependencies)
         List<Task> preparedTasks = taskPreparationService.prepareTasks(tasks);
+        Instant planReadyAt = Instant.now();
         List<Task> completedTasks = new ArrayList<>();
         List<Task> remainingTasks = new ArrayList<>(preparedTasks);
+        int queued = countPending(remainingTasks);
+        metrics.tasksQueued(queued);
         
-        // Execute tasks based on dependencies
-        while (!remainingTasks.isEmpty()) {
-            List<Task> executableTasks = taskExecutionService.getExecutableTasks(remainingTasks);
-            
-            if (executableTasks.isEmpty()) {
-                log.error("No executable tasks found, but {} tasks remain", remainingTasks.size());
-                break;
-            }
-            
-            log.info("Found {} executable tasks for execution", executableTasks.size());
-            
-            // Execute tasks in parallel when possible
-            List<Task> executedTasks = taskExecutionService.executeTasksInParallel(
-                executableTasks, userQuery, completedTasks
-            );
-            
-            // Update task lists and review plan after each execution
-            for (Task executedTask : executedTasks) {
-                remainingTasks = planReviewService.updateTaskInList(remainingTasks, executedTask, goalId);
-                completedTasks.add(executedTask);
+        try {
+            // Execute tasks based on dependencies
+            while (!remainingTasks.isEmpty()) {
+                List<Task> executableTasks = taskExecutionService.getExecutableTasks(remainingTasks);
+                
+                if (executableTasks.isEmpty()) {
+                    log.error("No executable tasks found, but {} tasks remain", remainingTasks.size());
+                    break;
+                }
+                
+                log.info("Found {} executable tasks for execution", executableTasks.size());
+                recordQueued(executableTasks, completedTasks, planReadyAt);
+                
+                // Execute tasks in parallel when possible
+                int width = executableTasks.size();
+                metrics.waveStarted(width);
+                List<Task> executedTasks;
+                try {
+                    List<Task> known = context.isEmpty() ? completedTasks : concat(context, completedTasks);
+                    executedTasks = stage(WorkflowMetrics.STAGE_WAVE, "workflow.wave",
+                        () -> taskExecutionService.executeTasksInParallel(executableTasks, userQuery, known));
+                } finally {
+                    metrics.waveFinished(width);
+                }
                 
-                // Review and potentially update remaining tasks
-                remainingTasks = planReviewService.handlePlanReview(remainingTasks, executedTask, goalId);
+                // Update task lists and review plan after each execution
+                for (Task executedTask : executedTasks) {
+                    List<Task> current = remainingTasks;
+                    remainingTasks = taskStage(WorkflowMetrics.STAGE_PERSISTENCE, "workflow.updateTask", executedTask,
+                        () -> planReviewService.updateTaskInList(current, executedTask, goalId));
+                    completedTasks.add(executedTask);
+                    
+                    // Review and potentially update remaining tasks
+                    List<Task> updated = remainingTasks;
+                    remainingTasks = taskStage(WorkflowMetrics.STAGE_REVIEW, "workflow.handlePlanReview", executedTask,
+                        () -> planReviewService.handlePlanReview(updated, executedTask, goalId));
+                }
+                
+                int pending = countPending(remainingTasks);
+                metrics.tasksQueued(pending - queued);
+                queued = pending;
             }
+        } finally {
+            metrics.tasksQueued(-queued);
         }
         
         return completedTasks;
     }
     
+    /**
+     * Runs one stage in its own span and records its duration
+     */
+    private <T> T stage(String stage, String spanName, Supplier<T> operation) {
+        return tracing.span(spanName, () -> metrics.stage(stage, () -> profiler.time(stage, operation)));
+    }
+    
+    /**
+     * Runs one stage on behalf of a task, so its time and LLM usage are attributed to it
+     */
+    private <T> T taskStage(String stage, String spanName, Task task, Supplier<T> operation) {
+        return WorkflowContext.callWithTask(task.id(), () -> stage(stage, spanName, operation));
+    }
+    
+    /**
+     * Records how long each task of the wave waited between becoming ready (its last
+     * blocking dependency completed, or the plan was ready) and being dispatched
+     */
+    private void recordQueued(List<Task> executableTasks, List<Task> completedTasks, Instant planReadyAt) {
+        Instant dispatchedAt = Instant.now();
+        for (Task task : executableTasks) {
+            Instant readyAt = task.createdAt() != null && task.createdAt().isAfter(planReadyAt)
+                ? task.createdAt() : planReadyAt;
+            for (Task completed : completedTasks) {
+                if (completed.completedAt() != null && task.blockingDependencies().contains(completed.id())
+                        && completed.completedAt().isAfter(readyAt)) {
+                    readyAt = completed.completedAt();
+                }
+            }
+            profiler.record(task.id(), WorkflowProfiler.QUEUED, readyAt, dispatchedAt);
+        }
+    }
+    
+    private static List<Task> concat(List<Task> first, List<Task> second) {
+        List<Task> tasks = new ArrayList<>(first.size() + second.size());
+        tasks.addAll(first);
+        tasks.addAll(second);
+        return tasks;
+    }
+    
+    private static int countPending(List<Task> tasks) {
+        return (int) tasks.stream().filter(task -> task.status() == TaskStatus.PENDING).count();
+    }
+    
     /**
      * Handle workflow failure by updating goal status
      */
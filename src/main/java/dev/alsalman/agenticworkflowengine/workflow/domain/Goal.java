@@ -12,8 +12,17 @@ public record Goal(
     String summary,
     GoalStatus status,
     Instant createdAt,
-    Instant completedAt
+    Instant completedAt,
+    UUID parentGoalId
 ) {
+    /**
+     * A top-level goal, one that is not a sub-goal of another
+     */
+    public Goal(UUID id, String query, List<Task> tasks, String summary, GoalStatus status,
+                Instant createdAt, Instant completedAt) {
+        this(id, query, tasks, summary, status, createdAt, completedAt, null);
+    }
+    
     public static Goal create(String query) {
         return new Goal(
             UUID.randomUUID(),
@@ -26,6 +35,22 @@ public record Goal(
         );
     }
     
+    /**
+     * A new sub-goal, planned and run for a task of the parent goal's plan
+     */
+    public static Goal createSubGoal(String query, UUID parentGoalId) {
+        return new Goal(
+            null,
+            query,
+            List.of(),
+            null,
+            GoalStatus.IN_PROGRESS,
+            Instant.now(),
+            null,
+            parentGoalId
+        );
+    }
+    
     public Goal withTasks(List<Task> tasks) {
         return new Goal(
             id,
@@ -34,7 +59,8 @@ public record Goal(
             summary,
             GoalStatus.IN_PROGRESS,
             createdAt,
-            completedAt
+            completedAt,
+            parentGoalId
         );
     }
     
@@ -46,7 +72,8 @@ public record Goal(
             summary,
             GoalStatus.COMPLETED,
             createdAt,
-            Instant.now()
+            Instant.now(),
+            parentGoalId
         );
     }
     
@@ -58,7 +85,8 @@ public record Goal(
             summary,
             status,
             createdAt,
-            status == GoalStatus.COMPLETED ? Instant.now() : completedAt
+            status == GoalStatus.COMPLETED ? Instant.now() : completedAt,
+            parentGoalId
         );
     }
 }
\ No newline at end of file
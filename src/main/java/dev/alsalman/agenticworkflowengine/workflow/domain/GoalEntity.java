@@ -14,7 +14,8 @@ public record GoalEntity(
     String summary,
     GoalStatus status,
     Instant createdAt,
-    Instant completedAt
+    Instant completedAt,
+    UUID parentGoalId
 ) {
     public static GoalEntity fromGoal(Goal goal) {
         return new GoalEntity(
@@ -23,7 +24,8 @@ public record GoalEntity(
             goal.summary(),
             goal.status(),
             goal.createdAt(),
-            goal.completedAt()
+            goal.completedAt(),
+            goal.parentGoalId()
         );
     }
     
@@ -34,7 +36,8 @@ public record GoalEntity(
             goal.summary(),
             goal.status(),
             goal.createdAt(),
-            goal.completedAt()
+            goal.completedAt(),
+            goal.parentGoalId()
         );
     }
     
@@ -46,7 +49,8 @@ public record GoalEntity(
             summary,
             status,
             createdAt,
-            completedAt
+            completedAt,
+            parentGoalId
         );
     }
 }
\ No newline at end of file
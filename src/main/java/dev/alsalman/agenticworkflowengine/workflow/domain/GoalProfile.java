@@ -0,0 +1,65 @@
+package dev.alsalman.agenticworkflowengine.workflow.domain;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Execution timeline of a goal, for answering "why was this goal slow".
+ *
+ * @param running Whether the goal is still executing; the timeline is then partial
+ * @param wallClockMs From the first to the last recorded event
+ * @param schedulerIdleMs Time between the first task becoming ready and the last task
+ *                        finishing during which no task was executing (persistence, plan
+ *                        review and wave barriers)
+ * @param criticalPath Task IDs, first to last, of the dependency chain that finished last:
+ *                     each task's predecessor is the blocking dependency that completed last
+ * @param criticalPathMs Execution time of the tasks on the critical path
+ * @param totalMsByType Total time per event type (planning, persistence, wave, review,
+ *                      summary, queued, execution, llm_call)
+ */
+public record GoalProfile(
+    UUID goalId,
+    GoalStatus status,
+    boolean running,
+    Instant startedAt,
+    Instant finishedAt,
+    long wallClockMs,
+    long schedulerIdleMs,
+    List<UUID> criticalPath,
+    long criticalPathMs,
+    Map<String, Long> totalMsByType,
+    List<TaskTimeline> tasks
+) {
+    
+    /**
+     * @param readyAt When the task's last blocking dependency completed, or the plan was ready
+     * @param dispatchedAt When the scheduler handed the task to a wave
+     * @param startedAt When the task's execution started
+     * @param finishedAt When the task's execution returned
+     * @param queuedMs Ready but not dispatched
+     * @param llmWaitMs Executing but not in an LLM call: subtask start-up, prompt assembly,
+     *                  waiting for a call slot and retry backoff
+     * @param llmMs Time in LLM call attempts during execution
+     * @param persistenceMs Time storing the task's result
+     * @param reviewMs Time reviewing the plan after the task
+     */
+    public record TaskTimeline(
+        UUID taskId,
+        String description,
+        TaskStatus status,
+        Instant readyAt,
+        Instant dispatchedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        long queuedMs,
+        long llmWaitMs,
+        long llmMs,
+        int llmCalls,
+        long persistenceMs,
+        long reviewMs,
+        boolean onCriticalPath
+    ) {
+    }
+}
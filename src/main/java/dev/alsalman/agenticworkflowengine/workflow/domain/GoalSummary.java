@@ -6,6 +6,7 @@ import java.util.UUID;
 /**
  * Frontend-focused goal summary without task details.
  * Used for high-level goal status API responses.
+ * Includes the goal's LLM token usage and cost when it has been loaded.
  */
 public record GoalSummary(
     UUID id,
@@ -13,7 +14,9 @@ public record GoalSummary(
     String summary,
     GoalStatus status,
     Instant createdAt,
-    Instant completedAt
+    Instant completedAt,
+    UUID parentGoalId,
+    UsageSummary usage
 ) {
     
     /**
@@ -21,13 +24,22 @@ public record GoalSummary(
      * Excludes tasks to provide clean summary response.
      */
     public static GoalSummary from(Goal goal) {
+        return from(goal, null);
+    }
+    
+    /**
+     * Creates a GoalSummary with the goal's LLM usage.
+     */
+    public static GoalSummary from(Goal goal, UsageSummary usage) {
         return new GoalSummary(
             goal.id(),
             goal.query(),
             goal.summary(),
             goal.status(),
             goal.createdAt(),
-            goal.completedAt()
+            goal.completedAt(),
+            goal.parentGoalId(),
+            usage
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package dev.alsalman.agenticworkflowengine.workflow.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Tokens and cost of one LLM call. Goal, task and template are null when the call was
+ * made outside of them.
+ */
+@Table("llm_usage")
+public record LlmUsage(
+    @Id UUID id,
+    UUID goalId,
+    UUID taskId,
+    UUID templateId,
+    String operation,
+    String model,
+    int promptTokens,
+    int completionTokens,
+    BigDecimal costUsd,
+    Instant createdAt
+) {
+    public static LlmUsage of(UUID goalId, UUID taskId, UUID templateId, String operation, String model,
+                              int promptTokens, int completionTokens, BigDecimal costUsd) {
+        return new LlmUsage(null, goalId, taskId, templateId, operation, model,
+            promptTokens, completionTokens, costUsd, Instant.now());
+    }
+}
@@ -14,8 +14,18 @@ public record Task(
     List<UUID> blockingDependencies,
     List<UUID> informationalDependencies,
     Instant createdAt,
-    Instant completedAt
+    Instant completedAt,
+    boolean subGoal
 ) {
+    /**
+     * A task run in one step, not a sub-goal
+     */
+    public Task(UUID id, String description, String result, TaskStatus status, List<UUID> blockingDependencies,
+                List<UUID> informationalDependencies, Instant createdAt, Instant completedAt) {
+        this(id, description, result, status, blockingDependencies, informationalDependencies,
+            createdAt, completedAt, false);
+    }
+    
     public static Task create(String description) {
         return new Task(
             UUID.randomUUID(),
@@ -42,6 +52,24 @@ public record Task(
         );
     }
     
+    /**
+     * A new sub-goal: a task too large for one step, planned and run as a goal of its own
+     * once it is ready to start
+     */
+    public static Task createSubGoal(String description) {
+        return new Task(
+            UUID.randomUUID(),
+            description,
+            null,
+            TaskStatus.PENDING,
+            List.of(),
+            List.of(),
+            Instant.now(),
+            null,
+            true
+        );
+    }
+    
     public Task withResult(String result) {
         return new Task(
             id,
@@ -51,7 +79,8 @@ public record Task(
             blockingDependencies,
             informationalDependencies,
             createdAt,
-            Instant.now()
+            Instant.now(),
+            subGoal
         );
     }
     
@@ -64,10 +93,17 @@ public record Task(
             blockingDependencies,
             informationalDependencies,
             createdAt,
-            status == TaskStatus.COMPLETED ? Instant.now() : completedAt
+            status == TaskStatus.COMPLETED ? Instant.now() : completedAt,
+            subGoal
         );
     }
     
+    /**
+     * @return The goal a sub-goal task is planned as
+     */
+    public String subGoalQuery() {
+        return description;
+    }
     
     public boolean canExecute(List<UUID> completedTaskIds) {
         return new HashSet<>(completedTaskIds).containsAll(blockingDependencies);
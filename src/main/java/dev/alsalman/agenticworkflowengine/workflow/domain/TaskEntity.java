@@ -17,7 +17,10 @@ public record TaskEntity(
     List<UUID> blockingDependencies,
     List<UUID> informationalDependencies,
     Instant createdAt,
-    Instant completedAt
+    Instant completedAt,
+    Instant readyAt,
+    Instant startedAt,
+    boolean subGoal
 ) {
     public static TaskEntity fromTask(Task task, UUID goalId) {
         return new TaskEntity(
@@ -29,7 +32,10 @@ public record TaskEntity(
             task.blockingDependencies(),
             task.informationalDependencies(),
             task.createdAt(),
-            task.completedAt()
+            task.completedAt(),
+            null, // Timings are written when the goal finishes
+            null,
+            task.subGoal()
         );
     }
     
@@ -43,7 +49,10 @@ public record TaskEntity(
             task.blockingDependencies(),
             task.informationalDependencies(),
             task.createdAt(),
-            task.completedAt()
+            task.completedAt(),
+            null, // Timings are written when the goal finishes
+            null,
+            task.subGoal()
         );
     }
     
@@ -56,7 +65,8 @@ public record TaskEntity(
             blockingDependencies,
             informationalDependencies,
             createdAt,
-            completedAt
+            completedAt,
+            subGoal
         );
     }
 }
\ No newline at end of file
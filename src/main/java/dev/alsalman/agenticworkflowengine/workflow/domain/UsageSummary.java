@@ -0,0 +1,34 @@
+package dev.alsalman.agenticworkflowengine.workflow.domain;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Token usage and cost of a goal, in total and per operation.
+ */
+public record UsageSummary(
+    int calls,
+    long promptTokens,
+    long completionTokens,
+    BigDecimal costUsd,
+    Map<String, BigDecimal> costByOperation
+) {
+    
+    public static final UsageSummary EMPTY = new UsageSummary(0, 0, 0, BigDecimal.ZERO, Map.of());
+    
+    public static UsageSummary of(List<LlmUsage> usages) {
+        long prompt = 0;
+        long completion = 0;
+        BigDecimal cost = BigDecimal.ZERO;
+        Map<String, BigDecimal> byOperation = new TreeMap<>();
+        for (LlmUsage usage : usages) {
+            prompt += usage.promptTokens();
+            completion += usage.completionTokens();
+            cost = cost.add(usage.costUsd());
+            byOperation.merge(usage.operation(), usage.costUsd(), BigDecimal::add);
+        }
+        return new UsageSummary(usages.size(), prompt, completion, cost, byOperation);
+    }
+}
@@ -0,0 +1,32 @@
+package dev.alsalman.agenticworkflowengine.workflow.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One timed interval in the execution of a goal: a stage, a task waiting or executing,
+ * or an LLM call. Task ID is null for goal-level stages such as planning.
+ */
+@Table("workflow_events")
+public record WorkflowEvent(
+    @Id UUID id,
+    UUID goalId,
+    UUID taskId,
+    @Column("event_type") String type,
+    Instant startedAt,
+    Instant endedAt,
+    Instant createdAt
+) {
+    public static WorkflowEvent of(UUID goalId, UUID taskId, String type, Instant startedAt, Instant endedAt) {
+        return new WorkflowEvent(null, goalId, taskId, type, startedAt, endedAt, Instant.now());
+    }
+    
+    public Duration duration() {
+        return Duration.between(startedAt, endedAt);
+    }
+}
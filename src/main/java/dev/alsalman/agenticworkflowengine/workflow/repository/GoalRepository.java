@@ -4,9 +4,11 @@ import dev.alsalman.agenticworkflowengine.workflow.domain.GoalEntity;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface GoalRepository extends CrudRepository<GoalEntity, UUID> {
     
+    List<GoalEntity> findByParentGoalId(UUID parentGoalId);
 }
\ No newline at end of file
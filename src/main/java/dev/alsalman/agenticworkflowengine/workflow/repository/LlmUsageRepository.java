@@ -0,0 +1,17 @@
+package dev.alsalman.agenticworkflowengine.workflow.repository;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.LlmUsage;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LlmUsageRepository extends CrudRepository<LlmUsage, UUID> {
+    
+    @Query("SELECT * FROM llm_usage WHERE goal_id = :goalId ORDER BY created_at ASC")
+    List<LlmUsage> findByGoalId(UUID goalId);
+
+}
@@ -1,10 +1,12 @@
 package dev.alsalman.agenticworkflowengine.workflow.repository;
 
 import dev.alsalman.agenticworkflowengine.workflow.domain.TaskEntity;
+import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,5 +15,9 @@ public interface TaskRepository extends CrudRepository<TaskEntity, UUID> {
     
     @Query("SELECT * FROM tasks WHERE goal_id = :goalId ORDER BY created_at ASC")
     List<TaskEntity> findByGoalId(UUID goalId);
+    
+    @Modifying
+    @Query("UPDATE tasks SET ready_at = :readyAt, started_at = :startedAt WHERE id = :id")
+    int updateTimings(UUID id, Instant readyAt, Instant startedAt);
 
 }
\ No newline at end of file
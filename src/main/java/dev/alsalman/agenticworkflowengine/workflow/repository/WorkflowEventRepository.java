@@ -0,0 +1,17 @@
+package dev.alsalman.agenticworkflowengine.workflow.repository;
+
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowEvent;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WorkflowEventRepository extends CrudRepository<WorkflowEvent, UUID> {
+    
+    @Query("SELECT * FROM workflow_events WHERE goal_id = :goalId ORDER BY started_at ASC")
+    List<WorkflowEvent> findByGoalId(UUID goalId);
+
+}
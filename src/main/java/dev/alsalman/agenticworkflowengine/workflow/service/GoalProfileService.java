@@ -0,0 +1,220 @@
+package dev.alsalman.agenticworkflowengine.workflow.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
+import dev.alsalman.agenticworkflowengine.workflow.domain.GoalProfile;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowEvent;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Builds the execution profile of a goal from the events recorded by {@link WorkflowProfiler}:
+ * the in-memory events while the goal runs, the stored ones once it has finished.
+ */
+@Service
+public class GoalProfileService {
+    
+    private final WorkflowPersistenceService persistenceService;
+    private final WorkflowProfiler profiler;
+    
+    public GoalProfileService(WorkflowPersistenceService persistenceService, WorkflowProfiler profiler) {
+        this.persistenceService = persistenceService;
+        this.profiler = profiler;
+    }
+    
+    /**
+     * @return The goal's profile, or null if the goal does not exist
+     */
+    public GoalProfile profile(UUID goalId) {
+        Goal goal = persistenceService.findGoalById(goalId);
+        if (goal == null) {
+            return null;
+        }
+        List<WorkflowEvent> runningEvents = profiler.runningEvents(goalId);
+        List<WorkflowEvent> events = runningEvents != null ? runningEvents : persistenceService.findWorkflowEvents(goalId);
+        List<Task> tasks = persistenceService.findTasksByGoalId(goalId);
+        return build(goal, tasks, events, runningEvents != null);
+    }
+    
+    private static GoalProfile build(Goal goal, List<Task> tasks, List<WorkflowEvent> events, boolean running) {
+        Map<UUID, List<WorkflowEvent>> byTask = new HashMap<>();
+        Map<String, Long> totalMsByType = new TreeMap<>();
+        Instant first = null;
+        Instant last = null;
+        for (WorkflowEvent event : events) {
+            if (event.taskId() != null) {
+                byTask.computeIfAbsent(event.taskId(), id -> new ArrayList<>()).add(event);
+            }
+            totalMsByType.merge(event.type(), event.duration().toMillis(), Long::sum);
+            first = first == null || event.startedAt().isBefore(first) ? event.startedAt() : first;
+            last = last == null || event.endedAt().isAfter(last) ? event.endedAt() : last;
+        }
+        
+        Map<UUID, WorkflowEvent> executions = new HashMap<>();
+        for (Task task : tasks) {
+            WorkflowEvent execution = firstOfType(byTask.get(task.id()), WorkflowProfiler.EXECUTION);
+            if (execution != null) {
+                executions.put(task.id(), execution);
+            }
+        }
+        List<UUID> criticalPath = criticalPath(tasks, executions);
+        Set<UUID> onCriticalPath = new HashSet<>(criticalPath);
+        long criticalPathMs = criticalPath.stream()
+            .mapToLong(id -> executions.get(id).duration().toMillis())
+            .sum();
+        
+        List<GoalProfile.TaskTimeline> timelines = tasks.stream()
+            .map(task -> timeline(task, byTask.getOrDefault(task.id(), List.of()), onCriticalPath.contains(task.id())))
+            .toList();
+        
+        return new GoalProfile(
+            goal.id(),
+            goal.status(),
+            running,
+            first,
+            last,
+            first != null ? Duration.between(first, last).toMillis() : 0,
+            schedulerIdleMs(events),
+            criticalPath,
+            criticalPathMs,
+            totalMsByType,
+            timelines
+        );
+    }
+    
+    private static GoalProfile.TaskTimeline timeline(Task task, List<WorkflowEvent> events, boolean onCriticalPath) {
+        WorkflowEvent queued = firstOfType(events, WorkflowProfiler.QUEUED);
+        WorkflowEvent execution = firstOfType(events, WorkflowProfiler.EXECUTION);
+        
+        long llmMs = 0;
+        int llmCalls = 0;
+        long persistenceMs = 0;
+        long reviewMs = 0;
+        for (WorkflowEvent event : events) {
+            switch (event.type()) {
+                case WorkflowProfiler.LLM_CALL -> {
+                    // Plan review calls are attributed to the task too, but fall outside its execution
+                    if (execution != null && within(event, execution)) {
+                        llmMs += event.duration().toMillis();
+                        llmCalls++;
+                    }
+                }
+                case WorkflowMetrics.STAGE_PERSISTENCE -> persistenceMs += event.duration().toMillis();
+                case WorkflowMetrics.STAGE_REVIEW -> reviewMs += event.duration().toMillis();
+                default -> {
+                }
+            }
+        }
+        
+        long queuedMs = queued != null ? queued.duration().toMillis() : 0;
+        long llmWaitMs = 0;
+        if (execution != null) {
+            Instant dispatchedAt = queued != null ? queued.endedAt() : execution.startedAt();
+            llmWaitMs = Math.max(0, Duration.between(dispatchedAt, execution.endedAt()).toMillis() - llmMs);
+        }
+        
+        return new GoalProfile.TaskTimeline(
+            task.id(),
+            task.description(),
+            task.status(),
+            queued != null ? queued.startedAt() : null,
+            queued != null ? queued.endedAt() : null,
+            execution != null ? execution.startedAt() : null,
+            execution != null ? execution.endedAt() : null,
+            queuedMs,
+            llmWaitMs,
+            llmMs,
+            llmCalls,
+            persistenceMs,
+            reviewMs,
+            onCriticalPath
+        );
+    }
+    
+    /**
+     * Walks back from the task that finished last, each time to the blocking dependency
+     * that finished last
+     */
+    private static List<UUID> criticalPath(List<Task> tasks, Map<UUID, WorkflowEvent> executions) {
+        Map<UUID, Task> byId = new HashMap<>();
+        tasks.forEach(task -> byId.put(task.id(), task));
+        
+        UUID current = executions.entrySet().stream()
+            .max(Comparator.comparing(entry -> entry.getValue().endedAt()))
+            .map(Map.Entry::getKey)
+            .orElse(null);
+        List<UUID> path = new ArrayList<>();
+        while (current != null && !path.contains(current)) {
+            path.add(current);
+            Task task = byId.get(current);
+            current = task == null ? null : task.blockingDependencies().stream()
+                .filter(executions::containsKey)
+                .max(Comparator.comparing(dependency -> executions.get(dependency).endedAt()))
+                .orElse(null);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    /**
+     * Time between the first task becoming ready and the last task finishing that is not
+     * covered by any task execution
+     */
+    private static long schedulerIdleMs(List<WorkflowEvent> events) {
+        Instant windowStart = null;
+        List<WorkflowEvent> executions = new ArrayList<>();
+        for (WorkflowEvent event : events) {
+            if (event.type().equals(WorkflowProfiler.QUEUED)
+                    && (windowStart == null || event.startedAt().isBefore(windowStart))) {
+                windowStart = event.startedAt();
+            } else if (event.type().equals(WorkflowProfiler.EXECUTION)) {
+                executions.add(event);
+            }
+        }
+        if (windowStart == null || executions.isEmpty()) {
+            return 0;
+        }
+        executions.sort(Comparator.comparing(WorkflowEvent::startedAt));
+        
+        long idleNanos = 0;
+        Instant coveredUntil = windowStart;
+        for (WorkflowEvent execution : executions) {
+            if (execution.startedAt().isAfter(coveredUntil)) {
+                idleNanos += Duration.between(coveredUntil, execution.startedAt()).toNanos();
+            }
+            if (execution.endedAt().isAfter(coveredUntil)) {
+                coveredUntil = execution.endedAt();
+            }
+        }
+        return Duration.ofNanos(idleNanos).toMillis();
+    }
+    
+    private static WorkflowEvent firstOfType(List<WorkflowEvent> events, String type) {
+        if (events == null) {
+            return null;
+        }
+        return events.stream()
+            .filter(event -> event.type().equals(type))
+            .min(Comparator.comparing(WorkflowEvent::startedAt))
+            .orElse(null);
+    }
+    
+    private static boolean within(WorkflowEvent event, WorkflowEvent interval) {
+        return !event.startedAt().isBefore(interval.startedAt()) && !event.endedAt().isAfter(interval.endedAt());
+    }
+}
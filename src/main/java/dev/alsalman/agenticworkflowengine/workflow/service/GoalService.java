@@ -70,6 +70,19 @@ public class GoalService {
         return savedGoal;
     }
     
+    /**
+     * Creates the goal a sub-goal task of the parent goal is planned and run as.
+     * 
+     * @param query The sub-goal
+     * @param parentGoalId The goal whose plan contains the sub-goal task
+     * @return New goal with IN_PROGRESS status
+     */
+    public Goal createSubGoal(String query, UUID parentGoalId) {
+        Goal savedGoal = persistenceService.saveGoal(Goal.createSubGoal(query, parentGoalId));
+        log.info("Created sub-goal {} of goal {}", savedGoal.id(), parentGoalId);
+        return savedGoal;
+    }
+    
     /**
      * Updates goal status to FAILED with error message.
      * 
@@ -85,7 +98,8 @@ public class GoalService {
             "Workflow failed: " + errorMessage,
             GoalStatus.FAILED,
             goal.createdAt(),
-            Instant.now()
+            Instant.now(),
+            goal.parentGoalId()
         );
             
         return persistenceService.saveGoal(failedGoal);
@@ -106,7 +120,8 @@ public class GoalService {
             summary,
             GoalStatus.COMPLETED,
             goal.createdAt(),
-            Instant.now()
+            Instant.now(),
+            goal.parentGoalId()
         );
             
         return persistenceService.saveGoal(completedGoal);
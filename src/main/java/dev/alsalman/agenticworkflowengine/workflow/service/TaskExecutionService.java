@@ -1,11 +1,20 @@
 package dev.alsalman.agenticworkflowengine.workflow.service;
 
 import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;
+import dev.alsalman.agenticworkflowengine.planning.PlanningProperties;
 import dev.alsalman.agenticworkflowengine.execution.TaskAgent;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowTracing;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.FlightEvents;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.TaskExecutionEvent;
+import dev.alsalman.agenticworkflowengine.workflow.WorkflowOrchestrator;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
 import dev.alsalman.agenticworkflowengine.workflow.domain.TaskStatus;
+import io.micrometer.tracing.TraceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,10 +27,24 @@ public class TaskExecutionService {
     
     private final TaskAgent taskAgent;
     private final DependencyResolver dependencyResolver;
+    private final WorkflowTracing tracing;
+    private final WorkflowProfiler profiler;
+    private final PlanningProperties planningProperties;
+    private final ObjectProvider<WorkflowOrchestrator> orchestrator;
     
-    public TaskExecutionService(TaskAgent taskAgent, DependencyResolver dependencyResolver) {
+    /**
+     * @param orchestrator Runs sub-goal tasks; looked up on use, as it executes its waves here
+     */
+    public TaskExecutionService(TaskAgent taskAgent, DependencyResolver dependencyResolver,
+                                WorkflowTracing tracing, WorkflowProfiler profiler,
+                                PlanningProperties planningProperties,
+                                ObjectProvider<WorkflowOrchestrator> orchestrator) {
         this.taskAgent = taskAgent;
         this.dependencyResolver = dependencyResolver;
+        this.tracing = tracing;
+        this.profiler = profiler;
+        this.planningProperties = planningProperties;
+        this.orchestrator = orchestrator;
     }
     
     /**
@@ -43,6 +66,9 @@ public class TaskExecutionService {
      * @return List of completed tasks
      */
     public List<Task> executeTasksInParallel(List<Task> executableTasks, String userQuery, List<Task> allTasks) {
+        // Forks run on their own threads, so task spans are parented explicitly
+        TraceContext waveSpan = tracing.currentContext();
+        
         if (executableTasks.size() == 1) {
             // Single task - no need for parallel execution
             Task task = executableTasks.getFirst();
@@ -52,7 +78,8 @@ public class TaskExecutionService {
                 .filter(t -> t.status() == TaskStatus.COMPLETED)
                 .toList();
                 
-            return List.of(taskAgent.executeTask(task, userQuery, completedTasks));
+            return List.of(tracing.traceTask(task, waveSpan,
+                () -> execute(task, userQuery, completedTasks)));
         }
         
         // Multiple tasks - execute in parallel
@@ -68,7 +95,8 @@ public class TaskExecutionService {
                         .toList();
                     final Task finalTask = task;
                     
-                    return parallelScope.fork(() -> taskAgent.executeTask(finalTask, userQuery, completedTasks));
+                    return parallelScope.fork(() -> tracing.traceTask(finalTask, waveSpan,
+                        () -> execute(finalTask, userQuery, completedTasks)));
                 })
                 .toList();
                 
@@ -93,4 +121,19 @@ public class TaskExecutionService {
             throw new RuntimeException("Parallel execution failed", e);
         }
     }
+    
+    /**
+     * Executes one task with its time and LLM usage attributed to it. A sub-goal is planned
+     * and run as a goal of its own, within the wave, so sub-goals that are ready together are
+     * planned and run in parallel; at the deepest sub-goal level it runs as a single task.
+     */
+    private Task execute(Task task, String userQuery, List<Task> completedTasks) {
+        if (task.subGoal() && WorkflowContext.subGoalDepth() < planningProperties.maxSubGoalDepth()) {
+            return WorkflowContext.callWithTask(task.id(), () -> profiler.time(WorkflowProfiler.EXECUTION,
+                () -> orchestrator.getObject().executeSubGoal(task, userQuery, completedTasks)));
+        }
+        return WorkflowContext.callWithTask(task.id(), () -> FlightEvents.record(new TaskExecutionEvent(),
+            () -> profiler.time(WorkflowProfiler.EXECUTION, () -> taskAgent.executeTask(task, userQuery, completedTasks)),
+            TaskExecutionEvent::describe));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+-- V2: Monthly range partitioning for goals, tasks and task_dependencies
+-- Partitions are keyed on created_at so history can be archived and dropped a month at a time
+-- (see PartitionRetentionService) instead of growing the hot indexes without bound.
+--
+-- Notes:
+-- - Primary keys must include the partition key, so they become (id, created_at).
+--   Lookups by id still use the leading column of the primary key index.
+-- - Foreign keys between partitioned tables would require the partition key on both sides,
+--   so goal/task references are no longer enforced by the database. Rows are removed together
+--   by the retention job, which drops whole partitions.
+
+-- Creates the partition for the month containing month_start if it does not exist yet.
+-- Partition names follow <parent>_pYYYYMM and bounds are UTC month boundaries.
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::date;
+    range_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := format('%s_p%s', parent_table, to_char(range_start, 'YYYYMM'));
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name,
+                   parent_table,
+                   to_char(range_start, 'YYYY-MM-DD') || ' 00:00:00+00',
+                   to_char(range_end, 'YYYY-MM-DD') || ' 00:00:00+00');
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates every missing monthly partition between from_month and to_month (inclusive).
+-- Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent_table TEXT, from_month DATE, to_month DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE;
+    created INTEGER := 0;
+BEGIN
+    FOR month_start IN
+        SELECT generate_series(date_trunc('month', from_month), date_trunc('month', to_month), INTERVAL '1 month')::date
+    LOOP
+        IF create_monthly_partition(parent_table, month_start) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Move the existing tables out of the way
+ALTER TABLE task_dependencies RENAME TO task_dependencies_legacy;
+ALTER TABLE tasks RENAME TO tasks_legacy;
+ALTER TABLE goals RENAME TO goals_legacy;
+ALTER TABLE task_dependencies_legacy RENAME CONSTRAINT task_dependencies_pkey TO task_dependencies_legacy_pkey;
+ALTER TABLE tasks_legacy RENAME CONSTRAINT tasks_pkey TO tasks_legacy_pkey;
+ALTER TABLE goals_legacy RENAME CONSTRAINT goals_pkey TO goals_legacy_pkey;
+
+CREATE TABLE goals (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    query TEXT NOT NULL,
+    summary TEXT,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE tasks (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    goal_id UUID NOT NULL,
+    description TEXT NOT NULL,
+    result TEXT,
+    status VARCHAR(20) NOT NULL,
+    blocking_dependencies UUID[] DEFAULT '{}',
+    informational_dependencies UUID[] DEFAULT '{}',
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE task_dependencies (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    task_id UUID NOT NULL,
+    depends_on_task_id UUID NOT NULL,
+    dependency_type VARCHAR(20) NOT NULL,
+    reason TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at),
+    UNIQUE (task_id, depends_on_task_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Default partitions catch rows outside the pre-created range so inserts never fail.
+-- The retention job keeps future months pre-created so these normally stay empty.
+CREATE TABLE goals_default PARTITION OF goals DEFAULT;
+CREATE TABLE tasks_default PARTITION OF tasks DEFAULT;
+CREATE TABLE task_dependencies_default PARTITION OF task_dependencies DEFAULT;
+
+-- Create partitions covering existing data plus the next three months
+DO $$
+DECLARE
+    upcoming DATE := (date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months')::date;
+BEGIN
+    PERFORM ensure_monthly_partitions('goals',
+        (SELECT (COALESCE(MIN(created_at), NOW()) AT TIME ZONE 'UTC')::date FROM goals_legacy), upcoming);
+    PERFORM ensure_monthly_partitions('tasks',
+        (SELECT (COALESCE(MIN(created_at), NOW()) AT TIME ZONE 'UTC')::date FROM tasks_legacy), upcoming);
+    PERFORM ensure_monthly_partitions('task_dependencies',
+        (SELECT (COALESCE(MIN(created_at), NOW()) AT TIME ZONE 'UTC')::date FROM task_dependencies_legacy), upcoming);
+END $$;
+
+-- Copy existing data
+INSERT INTO goals (id, query, summary, status, created_at, completed_at)
+SELECT id, query, summary, status, created_at, completed_at FROM goals_legacy;
+
+INSERT INTO tasks (id, goal_id, description, result, status, blocking_dependencies,
+                   informational_dependencies, created_at, completed_at)
+SELECT id, goal_id, description, result, status, blocking_dependencies,
+       informational_dependencies, created_at, completed_at
+FROM tasks_legacy;
+
+INSERT INTO task_dependencies (id, task_id, depends_on_task_id, dependency_type, reason, created_at)
+SELECT id, task_id, depends_on_task_id, dependency_type, reason, created_at FROM task_dependencies_legacy;
+
+DROP TABLE task_dependencies_legacy;
+DROP TABLE tasks_legacy;
+DROP TABLE goals_legacy;
+
+-- Recreate indexes on the partitioned parents (propagated to every partition)
+CREATE INDEX idx_tasks_goal_id ON tasks(goal_id);
+CREATE INDEX idx_goals_status ON goals(status);
+CREATE INDEX idx_tasks_status ON tasks(status);
+CREATE INDEX idx_goals_created_at ON goals(created_at);
+CREATE INDEX idx_tasks_created_at ON tasks(created_at);
+CREATE INDEX idx_tasks_blocking_dependencies ON tasks USING GIN(blocking_dependencies);
+CREATE INDEX idx_tasks_informational_dependencies ON tasks USING GIN(informational_dependencies);
+CREATE INDEX idx_task_dependencies_task_id ON task_dependencies(task_id);
+CREATE INDEX idx_task_dependencies_depends_on ON task_dependencies(depends_on_task_id);
+CREATE INDEX idx_task_dependencies_type ON task_dependencies(dependency_type);
@@ -0,0 +1,27 @@
+-- V3: Token usage and cost of every LLM call, attributed to goal, task and operation
+-- Partitioned monthly like the workflow tables and dropped with them by PartitionRetentionService.
+-- goal_id and task_id are null for calls made outside a goal, such as shared batch planning.
+
+CREATE TABLE llm_usage (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    goal_id UUID,
+    task_id UUID,
+    template_id UUID,
+    operation VARCHAR(100) NOT NULL,
+    model VARCHAR(100) NOT NULL,
+    prompt_tokens INTEGER NOT NULL DEFAULT 0,
+    completion_tokens INTEGER NOT NULL DEFAULT 0,
+    cost_usd NUMERIC(12, 6) NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE llm_usage_default PARTITION OF llm_usage DEFAULT;
+
+SELECT ensure_monthly_partitions('llm_usage',
+    (NOW() AT TIME ZONE 'UTC')::date,
+    (date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months')::date);
+
+CREATE INDEX idx_llm_usage_goal_id ON llm_usage(goal_id);
+CREATE INDEX idx_llm_usage_template_id ON llm_usage(template_id);
+CREATE INDEX idx_llm_usage_created_at ON llm_usage(created_at);
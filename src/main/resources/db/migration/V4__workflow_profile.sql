@@ -0,0 +1,28 @@
+-- V4: Execution timeline of each goal, served by GET /api/workflow/goal/{id}/profile
+-- ready_at is when all blocking dependencies of a task had completed, started_at when its
+-- execution began; both are written once the goal finishes.
+-- workflow_events holds timed intervals (stages, queueing, execution, LLM calls) per goal and
+-- task, partitioned monthly and expired with the workflow tables by PartitionRetentionService.
+
+ALTER TABLE tasks
+    ADD COLUMN ready_at TIMESTAMP WITH TIME ZONE,
+    ADD COLUMN started_at TIMESTAMP WITH TIME ZONE;
+
+CREATE TABLE workflow_events (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    goal_id UUID NOT NULL,
+    task_id UUID,
+    event_type VARCHAR(30) NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    ended_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE workflow_events_default PARTITION OF workflow_events DEFAULT;
+
+SELECT ensure_monthly_partitions('workflow_events',
+    (NOW() AT TIME ZONE 'UTC')::date,
+    (date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months')::date);
+
+CREATE INDEX idx_workflow_events_goal_id ON workflow_events(goal_id);
@@ -0,0 +1,56 @@
+-- V5: Request rate limit of each LLM endpoint, shared by every instance of the application
+-- One token bucket per endpoint, sized and refilled from the x-ratelimit-* headers the provider
+-- sends. Instances lease tokens in batches through lease_llm_rate_limit, so the database is
+-- involved once per batch rather than once per call.
+
+CREATE TABLE llm_rate_limits (
+    endpoint VARCHAR(100) PRIMARY KEY,
+    capacity DOUBLE PRECISION NOT NULL,
+    refill_per_second DOUBLE PRECISION NOT NULL,
+    tokens DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Leases up to batch tokens from the endpoint's bucket and returns how many were granted.
+-- capacity and refill_per_second come from the limit the caller last saw reported, and
+-- provider_remaining from the requests the provider would accept now by that report; either
+-- may be null when the caller has seen no report. Until some instance has seen one there is
+-- no bucket, and the whole batch is granted.
+CREATE OR REPLACE FUNCTION lease_llm_rate_limit(endpoint_name TEXT, limit_capacity DOUBLE PRECISION,
+                                                limit_refill_per_second DOUBLE PRECISION,
+                                                provider_remaining DOUBLE PRECISION, batch INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    available DOUBLE PRECISION;
+    granted INTEGER;
+BEGIN
+    IF limit_capacity IS NOT NULL THEN
+        INSERT INTO llm_rate_limits (endpoint, capacity, refill_per_second, tokens, updated_at)
+        VALUES (endpoint_name, limit_capacity, limit_refill_per_second, limit_capacity, now())
+        ON CONFLICT (endpoint) DO UPDATE
+            SET capacity = EXCLUDED.capacity, refill_per_second = EXCLUDED.refill_per_second;
+    END IF;
+
+    SELECT LEAST(capacity, tokens + refill_per_second * EXTRACT(EPOCH FROM now() - updated_at))
+    INTO available
+    FROM llm_rate_limits
+    WHERE endpoint = endpoint_name
+    FOR UPDATE;
+
+    IF NOT FOUND THEN
+        RETURN batch;
+    END IF;
+
+    -- The provider's count also covers calls made with the same key outside this application
+    IF provider_remaining IS NOT NULL THEN
+        available := LEAST(available, provider_remaining);
+    END IF;
+    available := GREATEST(available, 0);
+    granted := LEAST(batch, FLOOR(available))::INTEGER;
+
+    UPDATE llm_rate_limits
+    SET tokens = available - granted, updated_at = now()
+    WHERE endpoint = endpoint_name;
+    RETURN granted;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,12 @@
+-- V6: Sub-goals of a hierarchical plan, stored as child goals
+-- A task the planner marks as a sub-goal (tasks.sub_goal) is planned and run as a goal of its
+-- own when it is ready to start; parent_goal_id links that goal to the goal whose plan
+-- contains the task.
+-- Top-level goals have none. Like the other workflow tables, no foreign key: the parent may
+-- sit in an older partition and expire first.
+
+ALTER TABLE goals ADD COLUMN parent_goal_id UUID;
+
+CREATE INDEX idx_goals_parent_goal_id ON goals(parent_goal_id);
+
+ALTER TABLE tasks ADD COLUMN sub_goal BOOLEAN NOT NULL DEFAULT false;
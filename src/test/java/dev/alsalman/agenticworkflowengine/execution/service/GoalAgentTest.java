@@ -17,6 +17,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -26,18 +27,18 @@ import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class GoalAgentTest {
-
+    
     @Mock
     private ResilientChatClient resilientChatClient;
-
+    
     @InjectMocks
     private GoalAgent goalAgent;
-
+    
     private Goal goal;
     private Task completedTask1;
     private Task completedTask2;
     private Task failedTask;
-
+    
     @BeforeEach
     void setUp() {
         Instant fixedTime = Instant.parse("2024-01-01T12:00:00Z");
@@ -52,7 +53,7 @@ class GoalAgentTest {
             fixedTime,
             fixedTime
         );
-
+        
         completedTask2 = new Task(
             UUID.randomUUID(),
             "Generate report",
@@ -63,7 +64,7 @@ class GoalAgentTest {
             fixedTime,
             fixedTime
         );
-
+        
         failedTask = new Task(
             UUID.randomUUID(),
             "Send email notifications",
@@ -74,7 +75,7 @@ class GoalAgentTest {
             fixedTime,
             null
         );
-
+        
         goal = new Goal(
             UUID.randomUUID(),
             "Analyze customer data and generate insights report",
@@ -85,7 +86,7 @@ class GoalAgentTest {
             fixedTime
         );
     }
-
+    
     @Test
     void summarizeGoalCompletion_WithMixedTaskStatuses_ShouldCreateComprehensiveSummary() {
         // Given
@@ -93,49 +94,49 @@ class GoalAgentTest {
                                 "Data analysis revealed key insights, report generated. " +
                                 "Email notification task failed but core objective met.";
         
-        when(resilientChatClient.call(eq("goal summarization"), any(String.class)))
-            .thenReturn(expectedSummary);
-
+        when(resilientChatClient.callAsync(eq("goal summarization"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(expectedSummary));
+        
         // When
         Goal result = goalAgent.summarizeGoalCompletion(goal);
-
+        
         // Then
         assertThat(result.summary()).isEqualTo(expectedSummary);
         assertThat(result.id()).isEqualTo(goal.id()); // Other properties should be preserved
         assertThat(result.query()).isEqualTo(goal.query());
         assertThat(result.tasks()).isEqualTo(goal.tasks());
     }
-
+    
     @Test
     void summarizeGoalCompletion_ShouldIncludeCorrectTaskCountsInPrompt() {
         // Given
-        when(resilientChatClient.call(eq("goal summarization"), any(String.class)))
-            .thenReturn("Summary of goal completion");
-
+        when(resilientChatClient.callAsync(eq("goal summarization"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Summary of goal completion"));
+        
         // When
         goalAgent.summarizeGoalCompletion(goal);
-
+        
         // Then
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("goal summarization"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("goal summarization"), promptCaptor.capture());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Results: 2/3 completed, 1 failed");
         assertThat(capturedPrompt).contains("Analyze customer data and generate insights report");
     }
-
+    
     @Test
     void summarizeGoalCompletion_ShouldIncludeAllTaskDetailsInPrompt() {
         // Given
-        when(resilientChatClient.call(eq("goal summarization"), any(String.class)))
-            .thenReturn("Detailed summary");
-
+        when(resilientChatClient.callAsync(eq("goal summarization"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Detailed summary"));
+        
         // When
         goalAgent.summarizeGoalCompletion(goal);
-
+        
         // Then
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("goal summarization"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("goal summarization"), promptCaptor.capture());
         
         String capturedPrompt = promptCaptor.getValue();
         
@@ -151,7 +152,7 @@ class GoalAgentTest {
         assertThat(capturedPrompt).contains("[FAILED]");
         assertThat(capturedPrompt).contains("No result");
     }
-
+    
     @Test
     void summarizeGoalCompletion_WithAllTasksCompleted_ShouldReflectSuccess() {
         // Given
@@ -165,20 +166,20 @@ class GoalAgentTest {
             Instant.now()
         );
         
-        when(resilientChatClient.call(eq("goal summarization"), any(String.class)))
-            .thenReturn("Project completed successfully with all objectives met");
-
+        when(resilientChatClient.callAsync(eq("goal summarization"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Project completed successfully with all objectives met"));
+        
         // When
         goalAgent.summarizeGoalCompletion(successfulGoal);
-
+        
         // Then
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("goal summarization"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("goal summarization"), promptCaptor.capture());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Results: 2/2 completed, 0 failed");
     }
-
+    
     @Test
     void summarizeGoalCompletion_WithAllTasksFailed_ShouldReflectFailure() {
         // Given
@@ -203,20 +204,20 @@ class GoalAgentTest {
             Instant.now()
         );
         
-        when(resilientChatClient.call(eq("goal summarization"), any(String.class)))
-            .thenReturn("Goal failed due to multiple task failures");
-
+        when(resilientChatClient.callAsync(eq("goal summarization"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Goal failed due to multiple task failures"));
+        
         // When
         goalAgent.summarizeGoalCompletion(failedGoal);
-
+        
         // Then
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("goal summarization"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("goal summarization"), promptCaptor.capture());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Results: 0/2 completed, 2 failed");
     }
-
+    
     @Test
     void summarizeGoalCompletion_WithEmptyTaskList_ShouldHandleGracefully() {
         // Given
@@ -230,23 +231,23 @@ class GoalAgentTest {
             Instant.now()
         );
         
-        when(resilientChatClient.call(eq("goal summarization"), any(String.class)))
-            .thenReturn("Goal completed but no tasks were defined");
-
+        when(resilientChatClient.callAsync(eq("goal summarization"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Goal completed but no tasks were defined"));
+        
         // When
         Goal result = goalAgent.summarizeGoalCompletion(emptyGoal);
-
+        
         // Then
         assertThat(result.summary()).isEqualTo("Goal completed but no tasks were defined");
         
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("goal summarization"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("goal summarization"), promptCaptor.capture());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Results: 0/0 completed, 0 failed");
         assertThat(capturedPrompt).contains("Tasks:\n\n"); // Empty task section
     }
-
+    
     @Test
     void summarizeGoalCompletion_WithTasksHavingNullResults_ShouldHandleGracefully() {
         // Given
@@ -271,30 +272,30 @@ class GoalAgentTest {
             Instant.now()
         );
         
-        when(resilientChatClient.call(eq("goal summarization"), any(String.class)))
-            .thenReturn("Goal completed with limited results");
-
+        when(resilientChatClient.callAsync(eq("goal summarization"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Goal completed with limited results"));
+        
         // When
         goalAgent.summarizeGoalCompletion(goalWithNullResults);
-
+        
         // Then
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("goal summarization"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("goal summarization"), promptCaptor.capture());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Task with null result");
         assertThat(capturedPrompt).contains("No result");
     }
-
+    
     @Test
     void summarizeGoalCompletion_ShouldPreserveAllGoalProperties() {
         // Given
-        when(resilientChatClient.call(eq("goal summarization"), any(String.class)))
-            .thenReturn("Updated summary");
-
+        when(resilientChatClient.callAsync(eq("goal summarization"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Updated summary"));
+        
         // When
         Goal result = goalAgent.summarizeGoalCompletion(goal);
-
+        
         // Then - All properties except summary and completedAt should be preserved
         assertThat(result.id()).isEqualTo(goal.id());
         assertThat(result.query()).isEqualTo(goal.query());
@@ -307,4 +308,21 @@ class GoalAgentTest {
         assertThat(result.summary()).isEqualTo("Updated summary");
         assertThat(result.summary()).isNotEqualTo(goal.summary());
     }
+    
+    @Test
+    void summarizeGoalCompletionAsync_ShouldSendSamePromptAsBlockingCall() {
+        // Given
+        when(resilientChatClient.callAsync(eq("goal summarization"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Async summary"));
+        
+        // When
+        Goal result = goalAgent.summarizeGoalCompletionAsync(goal).join();
+        
+        // Then
+        assertThat(result.summary()).isEqualTo("Async summary");
+        ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
+        verify(resilientChatClient).callAsync(eq("goal summarization"), promptCaptor.capture());
+        assertThat(promptCaptor.getValue()).contains(goal.query());
+        assertThat(promptCaptor.getValue()).contains("Send email notifications");
+    }
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -23,17 +24,17 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TaskAgentTest {
-
+    
     @Mock
     private ResilientChatClient resilientChatClient;
-
+    
     @InjectMocks
     private TaskAgent taskAgent;
-
+    
     private Task task;
     private String originalGoal;
     private UUID dependencyTaskId;
-
+    
     @BeforeEach
     void setUp() {
         dependencyTaskId = UUID.randomUUID();
@@ -49,7 +50,7 @@ class TaskAgentTest {
         );
         originalGoal = "Analyze data and generate insights";
     }
-
+    
     @Test
     void executeTask_WithNoDependencies_ShouldProvideGeneralContext() {
         // Given
@@ -60,18 +61,18 @@ class TaskAgentTest {
                 List.of(), List.of(), Instant.now(), Instant.now())
         );
         
-        when(resilientChatClient.call(eq("task execution"), any(String.class)))
-            .thenReturn("Analysis completed successfully");
-
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), any()))
+            .thenReturn(CompletableFuture.completedFuture("Analysis completed successfully"));
+        
         // When
         Task result = taskAgent.executeTask(task, originalGoal, completedTasks);
-
+        
         // Then
         assertThat(result.result()).isEqualTo("Analysis completed successfully");
         assertThat(result.status()).isEqualTo(TaskStatus.COMPLETED); // withResult sets status to COMPLETED
         
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("task execution"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("task execution"), promptCaptor.capture(), any());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Complete analysis task");
@@ -80,7 +81,7 @@ class TaskAgentTest {
         assertThat(capturedPrompt).contains("Task 1");
         assertThat(capturedPrompt).contains("Result 1");
     }
-
+    
     @Test
     void executeTask_WithBlockingDependencies_ShouldUseSpecificDependencyContext() {
         // Given
@@ -108,17 +109,17 @@ class TaskAgentTest {
         
         List<Task> completedTasks = List.of(dependencyTask);
         
-        when(resilientChatClient.call(eq("task execution"), any(String.class)))
-            .thenReturn("Report generated based on collected data");
-
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), any()))
+            .thenReturn(CompletableFuture.completedFuture("Report generated based on collected data"));
+        
         // When
         Task result = taskAgent.executeTask(taskWithDeps, originalGoal, completedTasks);
-
+        
         // Then
         assertThat(result.result()).isEqualTo("Report generated based on collected data");
         
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("task execution"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("task execution"), promptCaptor.capture(), any());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Generate report");
@@ -127,7 +128,7 @@ class TaskAgentTest {
         assertThat(capturedPrompt).contains("Data collection completed with 100 records");
         assertThat(capturedPrompt).contains("build upon and reference the dependency outputs");
     }
-
+    
     @Test
     void executeTask_WithInformationalDependencies_ShouldUseReferenceDependencyContext() {
         // Given
@@ -155,17 +156,17 @@ class TaskAgentTest {
         
         List<Task> completedTasks = List.of(dependencyTask);
         
-        when(resilientChatClient.call(eq("task execution"), any(String.class)))
-            .thenReturn("Summary written with background context");
-
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), any()))
+            .thenReturn(CompletableFuture.completedFuture("Summary written with background context"));
+        
         // When
         Task result = taskAgent.executeTask(taskWithDeps, originalGoal, completedTasks);
-
+        
         // Then
         assertThat(result.result()).isEqualTo("Summary written with background context");
         
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("task execution"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("task execution"), promptCaptor.capture(), any());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Write summary");
@@ -173,7 +174,7 @@ class TaskAgentTest {
         assertThat(capturedPrompt).contains("REFERENCE DEPENDENCY: Research background");
         assertThat(capturedPrompt).contains("Found relevant background information");
     }
-
+    
     @Test
     void executeTask_WithMixedDependencies_ShouldHandleBothTypes() {
         // Given
@@ -215,15 +216,15 @@ class TaskAgentTest {
         
         List<Task> completedTasks = List.of(blockingDep, infoDep);
         
-        when(resilientChatClient.call(eq("task execution"), any(String.class)))
-            .thenReturn("Final output created");
-
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), any()))
+            .thenReturn(CompletableFuture.completedFuture("Final output created"));
+        
         // When
         Task result = taskAgent.executeTask(taskWithDeps, originalGoal, completedTasks);
-
+        
         // Then
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("task execution"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("task execution"), promptCaptor.capture(), any());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("REQUIRED DEPENDENCY: Process core data");
@@ -231,7 +232,7 @@ class TaskAgentTest {
         assertThat(capturedPrompt).contains("Core processing complete");
         assertThat(capturedPrompt).contains("Context gathered successfully");
     }
-
+    
     @Test
     void executeTask_WithCompletedTasksButNoDependencies_ShouldFilterToRecentTasks() {
         // Given
@@ -246,15 +247,15 @@ class TaskAgentTest {
                 List.of(), List.of(), Instant.now(), Instant.now())
         );
         
-        when(resilientChatClient.call(eq("task execution"), any(String.class)))
-            .thenReturn("Task completed");
-
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), any()))
+            .thenReturn(CompletableFuture.completedFuture("Task completed"));
+        
         // When
         taskAgent.executeTask(task, originalGoal, completedTasks);
-
+        
         // Then
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("task execution"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("task execution"), promptCaptor.capture(), any());
         
         String capturedPrompt = promptCaptor.getValue();
         // Should limit to 3 tasks as per implementation
@@ -263,21 +264,21 @@ class TaskAgentTest {
         assertThat(capturedPrompt).contains("Task 3");
         // Task 4 should not be included due to limit(3)
     }
-
+    
     @Test
     void executeTask_WhenChatClientThrowsException_ShouldReturnFailedTask() {
         // Given
-        when(resilientChatClient.call(eq("task execution"), any(String.class)))
-            .thenThrow(new RuntimeException("AI service unavailable"));
-
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("AI service unavailable")));
+        
         // When
         Task result = taskAgent.executeTask(task, originalGoal, List.of());
-
+        
         // Then - withResult overrides status to COMPLETED even in error case
         assertThat(result.status()).isEqualTo(TaskStatus.COMPLETED); // withResult sets status to COMPLETED
         assertThat(result.result()).isEqualTo("Task execution failed: AI service unavailable");
     }
-
+    
     @Test
     void executeTask_WithNullDependencyLists_ShouldHandleGracefully() {
         // Given
@@ -292,14 +293,55 @@ class TaskAgentTest {
             null
         );
         
-        when(resilientChatClient.call(eq("task execution"), any(String.class)))
-            .thenReturn("Task completed despite null dependencies");
-
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), any()))
+            .thenReturn(CompletableFuture.completedFuture("Task completed despite null dependencies"));
+        
         // When
         Task result = taskAgent.executeTask(taskWithNullDeps, originalGoal, List.of());
-
+        
         // Then
         assertThat(result.result()).isEqualTo("Task completed despite null dependencies");
         assertThat(result.status()).isEqualTo(TaskStatus.COMPLETED); // withResult sets status to COMPLETED
     }
+    
+    @Test
+    void executeTaskAsync_ShouldCompleteTaskWithResult() {
+        // Given
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), any()))
+            .thenReturn(CompletableFuture.completedFuture("Async analysis completed"));
+        
+        // When
+        Task result = taskAgent.executeTaskAsync(task, originalGoal, List.of()).join();
+        
+        // Then
+        assertThat(result.result()).isEqualTo("Async analysis completed");
+        assertThat(result.status()).isEqualTo(TaskStatus.COMPLETED);
+        verify(resilientChatClient, never()).call(any(), any(), any());
+    }
+    
+    @Test
+    void executeTaskAsync_ShouldReturnFailureResult_WhenCallFails() {
+        // Given
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("AI service unavailable")));
+        
+        // When
+        Task result = taskAgent.executeTaskAsync(task, originalGoal, List.of()).join();
+        
+        // Then
+        assertThat(result.result()).isEqualTo("Task execution failed: AI service unavailable");
+    }
+    
+    @Test
+    void executeTask_ShouldPassTaskDescription_ForRouting() {
+        // Given
+        when(resilientChatClient.callAsync(eq("task execution"), any(String.class), eq("Complete analysis task")))
+            .thenReturn(CompletableFuture.completedFuture("Routed result"));
+        
+        // When
+        Task result = taskAgent.executeTask(task, originalGoal, List.of());
+        
+        // Then
+        assertThat(result.result()).isEqualTo("Routed result");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.BulkheadDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+    
+    @Mock
+    private DataSource pool;
+    
+    @Mock
+    private Connection connection;
+    
+    private BulkheadDataSource bulkhead;
+    
+    @BeforeEach
+    void setUp() {
+        bulkhead = new BulkheadDataSource("write", pool, 1, Duration.ofMillis(50));
+    }
+    
+    @Test
+    void getConnection_ShouldReject_WhenPermitsAreExhausted() throws SQLException {
+        // Given
+        when(pool.getConnection()).thenReturn(connection);
+        Connection held = bulkhead.getConnection();
+        
+        // When / Then
+        assertThatThrownBy(() -> bulkhead.getConnection())
+            .isInstanceOf(SQLTransientConnectionException.class)
+            .hasMessageContaining("No write connection available");
+        assertThat(bulkhead.rejected()).isEqualTo(1);
+        assertThat(bulkhead.inUse()).isEqualTo(1);
+        held.close();
+    }
+    
+    @Test
+    void close_ShouldReleasePermitOnce() throws SQLException {
+        // Given
+        when(pool.getConnection()).thenReturn(connection);
+        Connection held = bulkhead.getConnection();
+        
+        // When
+        held.close();
+        held.close();
+        
+        // Then
+        verify(connection, times(2)).close();
+        assertThat(bulkhead.inUse()).isZero();
+        assertThat(bulkhead.permits()).isEqualTo(1);
+        bulkhead.getConnection().close();
+        assertThat(bulkhead.acquired()).isEqualTo(2);
+    }
+    
+    @Test
+    void getConnection_ShouldReleasePermit_WhenPoolFails() throws SQLException {
+        // Given
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        
+        // When / Then
+        assertThatThrownBy(() -> bulkhead.getConnection()).hasMessage("pool exhausted");
+        assertThat(bulkhead.inUse()).isZero();
+    }
+    
+    @Test
+    void getConnection_ShouldWaitForPermit_WhenConnectionIsReturnedInTime() throws Exception {
+        // Given
+        bulkhead = new BulkheadDataSource("read", pool, 1, Duration.ofSeconds(5));
+        when(pool.getConnection()).thenReturn(connection);
+        Connection held = bulkhead.getConnection();
+        AtomicReference<Connection> waiter = new AtomicReference<>();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            try {
+                waiter.set(bulkhead.getConnection());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (bulkhead.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        
+        // When
+        held.close();
+        thread.join();
+        
+        // Then
+        assertThat(waiter.get()).isNotNull();
+        assertThat(bulkhead.inUse()).isEqualTo(1);
+        assertThat(bulkhead.waitNanos()).isPositive();
+        waiter.get().close();
+    }
+}
@@ -0,0 +1,124 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.FlightEvents;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.LlmCallEvent;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.PersistenceCallEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightEventsTest {
+    
+    @TempDir
+    Path directory;
+    
+    private Recording recording;
+    
+    @BeforeEach
+    void setUp() {
+        recording = new Recording();
+        recording.enable(PersistenceCallEvent.class);
+        recording.enable(LlmCallEvent.class);
+        recording.start();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+    
+    @Test
+    void record_ShouldCommitEventWithWorkflowContext_WhenOperationSucceeds() throws IOException {
+        // Given
+        UUID goalId = UUID.randomUUID();
+        UUID taskId = UUID.randomUUID();
+        
+        // When
+        String result = WorkflowContext.callWithGoal(goalId, () -> WorkflowContext.callWithTask(taskId,
+            () -> FlightEvents.record(new PersistenceCallEvent(), () -> "saved",
+                (event, saved) -> event.describe("tasks.save"))));
+        
+        // Then
+        assertThat(result).isEqualTo("saved");
+        RecordedEvent event = single("dev.alsalman.workflow.Persistence");
+        assertThat(event.getString("goalId")).isEqualTo(goalId.toString());
+        assertThat(event.getString("taskId")).isEqualTo(taskId.toString());
+        assertThat(event.getString("operation")).isEqualTo("tasks.save");
+        assertThat(event.getString("outcome")).isEqualTo("success");
+        assertThat(event.getBoolean("virtualThread")).isFalse();
+    }
+    
+    @Test
+    void record_ShouldCommitErrorOutcome_WhenOperationThrows() throws IOException {
+        // When
+        assertThatThrownBy(() -> FlightEvents.record(new LlmCallEvent(),
+            () -> { throw new IllegalStateException("boom"); },
+            (event, response) -> event.describe("task execution", 2, "prompt", null)))
+            .isInstanceOf(IllegalStateException.class);
+        
+        // Then
+        RecordedEvent event = single("dev.alsalman.workflow.LlmCall");
+        assertThat(event.getString("outcome")).isEqualTo("error");
+        assertThat(event.getString("operation")).isEqualTo("task execution");
+        assertThat(event.getInt("attempt")).isEqualTo(2);
+        assertThat(event.getLong("promptBytes")).isEqualTo(6);
+        assertThat(event.getLong("responseBytes")).isZero();
+        assertThat(event.getString("goalId")).isNull();
+    }
+    
+    @Test
+    void record_ShouldFlagVirtualThread_WhenCalledFromVirtualThread() throws Exception {
+        // When
+        Thread thread = Thread.ofVirtual().start(() -> FlightEvents.record(new PersistenceCallEvent(),
+            () -> 1, (event, rows) -> event.describe("tasks.updateTimings")));
+        thread.join();
+        
+        // Then
+        assertThat(single("dev.alsalman.workflow.Persistence").getBoolean("virtualThread")).isTrue();
+    }
+    
+    @Test
+    void recordAsync_ShouldKeepCallersContext_WhenFutureCompletesOnAnotherThread() throws Exception {
+        // Given
+        UUID goalId = UUID.randomUUID();
+        CompletableFuture<String> response = new CompletableFuture<>();
+        
+        // When
+        CompletableFuture<String> result = WorkflowContext.callWithGoal(goalId,
+            () -> FlightEvents.recordAsync(new LlmCallEvent(), () -> response,
+                (event, content) -> event.describe("task execution", 1, "prompt", content)));
+        Thread.ofVirtual().start(() -> response.complete("answer")).join();
+        
+        // Then
+        assertThat(result.get()).isEqualTo("answer");
+        RecordedEvent event = single("dev.alsalman.workflow.LlmCall");
+        assertThat(event.getString("goalId")).isEqualTo(goalId.toString());
+        assertThat(event.getString("outcome")).isEqualTo("success");
+        assertThat(event.getLong("responseBytes")).isEqualTo(6);
+    }
+    
+    private RecordedEvent single(String name) throws IOException {
+        recording.stop();
+        Path file = directory.resolve("test.jfr");
+        recording.dump(file);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals(name))
+            .toList();
+        assertThat(events).hasSize(1);
+        return events.getFirst();
+    }
+}
@@ -0,0 +1,116 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.FlightRecordingEndpoint;
+import dev.alsalman.agenticworkflowengine.infrastructure.FlightRecordingProperties;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecordingEndpointTest {
+    
+    @TempDir
+    Path directory;
+    
+    private FlightRecordingEndpoint endpoint;
+    
+    @BeforeEach
+    void setUp() {
+        endpoint = new FlightRecordingEndpoint(new FlightRecordingProperties(
+            directory, "default", Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofMillis(5)));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        FlightRecorder.getFlightRecorder().getRecordings().forEach(Recording::close);
+    }
+    
+    @Test
+    void start_ShouldCapDurationAndWriteToDirectory() {
+        // When
+        FlightRecordingEndpoint.RecordingView view = endpoint.start(3600L);
+        
+        // Then
+        assertThat(view.state()).isEqualTo("RUNNING");
+        assertThat(view.durationSeconds()).isEqualTo(120L);
+        assertThat(view.startedHere()).isTrue();
+        assertThat(Path.of(view.destination()).getParent()).isEqualTo(directory);
+        assertThat(endpoint.recordings()).extracting(FlightRecordingEndpoint.RecordingView::id)
+            .contains(view.id());
+    }
+    
+    @Test
+    void start_ShouldReturnRunningRecording_WhenOneIsAlreadyRunning() {
+        // Given
+        FlightRecordingEndpoint.RecordingView first = endpoint.start(null);
+        
+        // When
+        FlightRecordingEndpoint.RecordingView second = endpoint.start(10L);
+        
+        // Then
+        assertThat(second.id()).isEqualTo(first.id());
+        assertThat(first.durationSeconds()).isEqualTo(30L);
+    }
+    
+    @Test
+    void dump_ShouldStreamSnapshotAndDeleteIt_WhenRecordingIsRunning() throws IOException {
+        // Given
+        FlightRecordingEndpoint.RecordingView view = endpoint.start(60L);
+        
+        // When
+        Resource dump = endpoint.dump(view.id());
+        byte[] content;
+        try (InputStream stream = dump.getInputStream()) {
+            content = stream.readAllBytes();
+        }
+        
+        // Then
+        assertThat(content).isNotEmpty();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).containsExactly(Path.of(view.destination()));
+        }
+        assertThat(endpoint.recordings()).filteredOn(recording -> recording.id() == view.id())
+            .extracting(FlightRecordingEndpoint.RecordingView::state)
+            .containsExactly("RUNNING");
+    }
+    
+    @Test
+    void stop_ShouldWriteDestination_WhenStartedHere() {
+        // Given
+        FlightRecordingEndpoint.RecordingView view = endpoint.start(60L);
+        
+        // When
+        FlightRecordingEndpoint.RecordingView stopped = endpoint.stop(view.id());
+        
+        // Then
+        assertThat(stopped.state()).isEqualTo("CLOSED");
+        assertThat(Path.of(stopped.destination())).exists();
+        assertThat(endpoint.recordings()).extracting(FlightRecordingEndpoint.RecordingView::id)
+            .doesNotContain(view.id());
+        assertThat(endpoint.dump(view.id()).getFilename()).isEqualTo(Path.of(view.destination()).getFileName().toString());
+    }
+    
+    @Test
+    void stop_ShouldReturnNull_WhenRecordingWasNotStartedHere() {
+        // Given
+        try (Recording other = new Recording()) {
+            other.start();
+            
+            // When / Then
+            assertThat(endpoint.stop(other.getId())).isNull();
+            assertThat(endpoint.dump(-1)).isNull();
+        }
+    }
+}
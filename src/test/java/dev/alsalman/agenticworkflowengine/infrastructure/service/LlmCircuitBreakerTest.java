@@ -0,0 +1,118 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmCircuitBreaker;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmResilienceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmCircuitBreakerTest {
+    
+    private final AtomicLong now = new AtomicLong();
+    private LlmCircuitBreaker breaker;
+    
+    @BeforeEach
+    void setUp() {
+        breaker = new LlmCircuitBreaker(
+            new LlmResilienceProperties.CircuitBreaker(true, 4, 4, 0.5, Duration.ofSeconds(10), 2), now::get);
+    }
+    
+    @Test
+    void tryAcquire_ShouldStayClosed_UntilMinimumCallsAreRecorded() {
+        // When
+        fail(3);
+        
+        // Then
+        assertThat(breaker.state()).isEqualTo(LlmCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+    
+    @Test
+    void tryAcquire_ShouldFailFast_WhenFailureRateReachesThreshold() {
+        // Given
+        succeed(2);
+        
+        // When
+        fail(2);
+        
+        // Then
+        assertThat(breaker.state()).isEqualTo(LlmCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+    
+    @Test
+    void tryAcquire_ShouldOnlyCountRecentCalls() {
+        // Given
+        fail(1);
+        succeed(4); // The failure has left the window
+        
+        // When
+        fail(1);
+        
+        // Then
+        assertThat(breaker.state()).isEqualTo(LlmCircuitBreaker.State.CLOSED);
+    }
+    
+    @Test
+    void tryAcquire_ShouldLetTrialCallsThrough_AfterOpenDuration() {
+        // Given
+        fail(4);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        
+        // When / Then
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse(); // Only two trial calls
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(LlmCircuitBreaker.State.CLOSED);
+    }
+    
+    @Test
+    void onFailure_ShouldReopen_WhenTrialCallFails() {
+        // Given
+        fail(4);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(breaker.tryAcquire()).isTrue();
+        
+        // When
+        breaker.onFailure();
+        
+        // Then
+        assertThat(breaker.state()).isEqualTo(LlmCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+    
+    @Test
+    void onIgnored_ShouldReturnTrialPermit() {
+        // Given
+        fail(4);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+        
+        // When
+        breaker.onIgnored();
+        
+        // Then
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+    
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.tryAcquire();
+            breaker.onFailure();
+        }
+    }
+    
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.tryAcquire();
+            breaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmErrorClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmErrorClassTest {
+    
+    @Test
+    void classify_ShouldUseHttpStatus_WhenAvailable() {
+        assertThat(LlmErrorClass.classify(response(HttpStatus.TOO_MANY_REQUESTS, HttpHeaders.EMPTY)))
+            .isEqualTo(LlmErrorClass.RATE_LIMITED);
+        assertThat(LlmErrorClass.classify(response(HttpStatus.BAD_GATEWAY, HttpHeaders.EMPTY)))
+            .isEqualTo(LlmErrorClass.SERVER_ERROR);
+        assertThat(LlmErrorClass.classify(response(HttpStatus.REQUEST_TIMEOUT, HttpHeaders.EMPTY)))
+            .isEqualTo(LlmErrorClass.TIMEOUT);
+        assertThat(LlmErrorClass.classify(new HttpClientErrorException(HttpStatus.UNAUTHORIZED)))
+            .isEqualTo(LlmErrorClass.UNAUTHORIZED);
+        assertThat(LlmErrorClass.classify(new HttpClientErrorException(HttpStatus.BAD_REQUEST)))
+            .isEqualTo(LlmErrorClass.CLIENT_ERROR);
+        assertThat(LlmErrorClass.classify(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR)))
+            .isEqualTo(LlmErrorClass.SERVER_ERROR);
+    }
+    
+    @Test
+    void classify_ShouldLookThroughWrappers() {
+        // Given
+        RuntimeException wrapped = new CompletionException(new RuntimeException("stream failed",
+            response(HttpStatus.SERVICE_UNAVAILABLE, HttpHeaders.EMPTY)));
+        
+        // When / Then
+        assertThat(LlmErrorClass.classify(wrapped)).isEqualTo(LlmErrorClass.SERVER_ERROR);
+    }
+    
+    @Test
+    void classify_ShouldSeparateTimeoutsFromConnectionErrors() {
+        // Given
+        WebClientRequestException timedOut = new WebClientRequestException(new HttpTimeoutException("request timed out"),
+            HttpMethod.POST, URI.create("https://api.openai.com/v1/chat/completions"), HttpHeaders.EMPTY);
+        WebClientRequestException refused = new WebClientRequestException(new ConnectException("Connection refused"),
+            HttpMethod.POST, URI.create("https://api.openai.com/v1/chat/completions"), HttpHeaders.EMPTY);
+        
+        // When / Then
+        assertThat(LlmErrorClass.classify(timedOut)).isEqualTo(LlmErrorClass.TIMEOUT);
+        assertThat(LlmErrorClass.classify(refused)).isEqualTo(LlmErrorClass.CONNECTION);
+    }
+    
+    @Test
+    void classify_ShouldFallBackToMessagesAndSpringAiExceptions() {
+        assertThat(LlmErrorClass.classify(new NonTransientAiException("429 - Rate limit reached for gpt-4o")))
+            .isEqualTo(LlmErrorClass.RATE_LIMITED);
+        assertThat(LlmErrorClass.classify(new NonTransientAiException("400 - Invalid request")))
+            .isEqualTo(LlmErrorClass.CLIENT_ERROR);
+        assertThat(LlmErrorClass.classify(new TransientAiException("500 - Internal error")))
+            .isEqualTo(LlmErrorClass.SERVER_ERROR);
+        assertThat(LlmErrorClass.classify(new IllegalStateException("Invalid API key")))
+            .isEqualTo(LlmErrorClass.UNKNOWN);
+    }
+    
+    @Test
+    void providerFailure_ShouldOnlyCountErrorsThatPointAtTheProvider() {
+        assertThat(LlmErrorClass.SERVER_ERROR.providerFailure()).isTrue();
+        assertThat(LlmErrorClass.TIMEOUT.providerFailure()).isTrue();
+        assertThat(LlmErrorClass.RATE_LIMITED.providerFailure()).isFalse();
+        assertThat(LlmErrorClass.CLIENT_ERROR.providerFailure()).isFalse();
+    }
+    
+    @Test
+    void endpointFailure_ShouldExcludeErrorsInTheRequestItself() {
+        assertThat(LlmErrorClass.RATE_LIMITED.endpointFailure()).isTrue();
+        assertThat(LlmErrorClass.UNAUTHORIZED.endpointFailure()).isTrue();
+        assertThat(LlmErrorClass.CLIENT_ERROR.endpointFailure()).isFalse();
+        assertThat(LlmErrorClass.UNKNOWN.endpointFailure()).isFalse();
+    }
+    
+    @Test
+    void retryAfter_ShouldReadSecondsMillisecondsAndDates() {
+        // Given
+        HttpHeaders seconds = new HttpHeaders();
+        seconds.set(HttpHeaders.RETRY_AFTER, "7");
+        HttpHeaders milliseconds = new HttpHeaders();
+        milliseconds.set("retry-after-ms", "1500");
+        milliseconds.set(HttpHeaders.RETRY_AFTER, "2");
+        HttpHeaders date = new HttpHeaders();
+        date.set(HttpHeaders.RETRY_AFTER, DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30)));
+        
+        // When / Then
+        assertThat(LlmErrorClass.retryAfter(response(HttpStatus.TOO_MANY_REQUESTS, seconds)))
+            .isEqualTo(Duration.ofSeconds(7));
+        assertThat(LlmErrorClass.retryAfter(response(HttpStatus.TOO_MANY_REQUESTS, milliseconds)))
+            .isEqualTo(Duration.ofMillis(1500));
+        assertThat(LlmErrorClass.retryAfter(response(HttpStatus.SERVICE_UNAVAILABLE, date)))
+            .isBetween(Duration.ofSeconds(25), Duration.ofSeconds(30));
+    }
+    
+    @Test
+    void retryAfter_ShouldReturnNull_WhenMissingOrInvalid() {
+        // Given
+        HttpHeaders invalid = new HttpHeaders();
+        invalid.set(HttpHeaders.RETRY_AFTER, "soon");
+        
+        // When / Then
+        assertThat(LlmErrorClass.retryAfter(response(HttpStatus.TOO_MANY_REQUESTS, HttpHeaders.EMPTY))).isNull();
+        assertThat(LlmErrorClass.retryAfter(response(HttpStatus.TOO_MANY_REQUESTS, invalid))).isNull();
+        assertThat(LlmErrorClass.retryAfter(new IllegalStateException("no response"))).isNull();
+    }
+    
+    private static WebClientResponseException response(HttpStatus status, HttpHeaders headers) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), headers, new byte[0],
+            StandardCharsets.UTF_8);
+    }
+}
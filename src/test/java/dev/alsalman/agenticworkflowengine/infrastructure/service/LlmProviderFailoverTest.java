@@ -0,0 +1,211 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmEndpoint;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmProviderConfiguration;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmProviderPool;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmProviderProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRateLimitProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRateLimiter;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmResilienceProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRouter;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRoutingProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmUsageService;
+import dev.alsalman.agenticworkflowengine.infrastructure.ResilientChatClient;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Two stub OpenAI endpoints behind the real OpenAI client and transport
+ */
+@ExtendWith(MockitoExtension.class)
+class LlmProviderFailoverTest {
+    
+    private static final String SSE = """
+        data: {"id":"1","object":"chat.completion.chunk","created":1,"model":"gpt-4o","choices":[{"index":0,"delta":{"role":"assistant","content":"Hello"},"finish_reason":null}]}
+        
+        data: {"id":"1","object":"chat.completion.chunk","created":1,"model":"gpt-4o","choices":[{"index":0,"delta":{},"finish_reason":"stop"}]}
+        
+        data: [DONE]
+        
+        """;
+    
+    private static final LlmResilienceProperties RESILIENCE = new LlmResilienceProperties(null,
+        new LlmResilienceProperties.CircuitBreaker(true, 20, 10, 0.5, Duration.ofSeconds(30), 3),
+        new LlmResilienceProperties.Hedging(false, Set.of(), 0.95, Duration.ofSeconds(2), 100),
+        new LlmResilienceProperties.Budget(0.2, 20));
+    
+    @Mock
+    private LlmUsageService usageService;
+    
+    @Mock
+    private WorkflowProfiler profiler;
+    
+    private final StubEndpoint primary = new StubEndpoint();
+    private final StubEndpoint secondary = new StubEndpoint();
+    private LlmProviderPool pool;
+    private ResilientChatClient client;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        primary.start();
+        secondary.start();
+        LlmProviderProperties providers = new LlmProviderProperties(
+            List.of(primary.settings("primary"), secondary.settings("secondary")), Duration.ofSeconds(2), 0.2);
+        OpenAiChatOptions options = OpenAiChatOptions.builder().model("gpt-4o").streamUsage(true).build();
+        pool = new LlmProviderPool(providers.endpoints().stream()
+            .map(endpoint -> LlmProviderConfiguration.openAiEndpoint(endpoint, providers, RESILIENCE, options,
+                WebClient.builder().clientConnector(new JdkClientHttpConnector()), RestClient.builder()))
+            .toList());
+        WorkflowMetrics metrics = new WorkflowMetrics(new SimpleMeterRegistry());
+        LlmRateLimitProperties rateLimit =
+            new LlmRateLimitProperties(false, 10, Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofSeconds(30));
+        client = new ResilientChatClient(pool, metrics, usageService, profiler, RESILIENCE,
+            new LlmRouter(new LlmRoutingProperties(null, null)), new LlmRateLimiter(null, rateLimit, metrics));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        primary.server.stop(0);
+        secondary.server.stop(0);
+    }
+    
+    @Test
+    void call_ShouldFailOverToAnotherEndpoint_WhenOneReturnsServerError() {
+        // Given
+        primary.status = 500;
+        
+        // When
+        String content = client.call("task execution", "prompt");
+        
+        // Then
+        assertThat(content).isEqualTo("Hello");
+        assertThat(primary.requests).hasValue(1);
+        assertThat(secondary.requests).hasValue(1);
+    }
+    
+    @Test
+    void call_ShouldKeepCallsOffRateLimitedEndpoint_UntilRetryAfter() {
+        // Given
+        primary.status = 429;
+        
+        // When
+        client.call("task execution", "first");
+        primary.status = 200;
+        client.call("task execution", "second");
+        
+        // Then
+        assertThat(primary.requests).hasValue(1);
+        assertThat(secondary.requests).hasValue(2);
+        assertThat(endpoint("primary").isCoolingDown()).isTrue();
+    }
+    
+    @Test
+    void callAsync_ShouldSpreadConcurrentCalls_OverBothEndpoints() {
+        // Given
+        primary.delay = Duration.ofMillis(200);
+        secondary.delay = Duration.ofMillis(200);
+        
+        // When
+        List<CompletableFuture<String>> calls = IntStream.range(0, 10)
+            .mapToObj(i -> client.callAsync("task execution", "prompt " + i))
+            .toList();
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+        
+        // Then
+        assertThat(primary.requests.get()).isBetween(3, 7);
+        assertThat(primary.requests.get() + secondary.requests.get()).isEqualTo(10);
+    }
+    
+    @Test
+    void call_ShouldReadRateLimitHeaders_FromResponses() {
+        // Given
+        primary.remaining = "25";
+        
+        // When
+        client.call("task execution", "prompt");
+        
+        // Then
+        assertThat(endpoint("primary").remainingQuota()).isCloseTo(0.25, within(0.001));
+    }
+    
+    private LlmEndpoint endpoint(String name) {
+        return pool.endpoints().stream().filter(endpoint -> endpoint.name().equals(name)).findFirst().orElseThrow();
+    }
+    
+    /**
+     * Serves streamed chat completions, or an error status with Retry-After
+     */
+    private static final class StubEndpoint {
+        
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile int status = 200;
+        private volatile Duration delay = Duration.ZERO;
+        private volatile String remaining = "100";
+        private HttpServer server;
+        
+        void start() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/v1/chat/completions", this::handle);
+            server.start();
+        }
+        
+        LlmProviderProperties.Endpoint settings(String name) {
+            return new LlmProviderProperties.Endpoint(name, "http://localhost:" + server.getAddress().getPort(),
+                "test-key", "/v1/chat/completions", null);
+        }
+        
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("x-ratelimit-limit-requests", "100");
+            exchange.getResponseHeaders().add("x-ratelimit-remaining-requests", remaining);
+            exchange.getResponseHeaders().add("x-ratelimit-reset-requests", "1m0s");
+            if (status != 200) {
+                exchange.getResponseHeaders().add("Retry-After", "60");
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = SSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
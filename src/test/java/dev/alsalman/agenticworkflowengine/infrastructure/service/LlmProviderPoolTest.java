@@ -0,0 +1,163 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmCircuitBreaker;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmEndpoint;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmProviderHealthIndicator;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmProviderPool;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmResilienceProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LlmProviderPoolTest {
+    
+    private static final LlmResilienceProperties.CircuitBreaker BREAKER =
+        new LlmResilienceProperties.CircuitBreaker(true, 2, 2, 0.5, Duration.ofMinutes(1), 1);
+    
+    private final AtomicLong now = new AtomicLong();
+    
+    @Test
+    void acquire_ShouldPickLowestLatency_WhenEndpointsAreIdle() {
+        // Given
+        LlmEndpoint slow = endpoint("slow");
+        LlmEndpoint fast = endpoint("fast");
+        slow.recordLatency(Duration.ofSeconds(10));
+        fast.recordLatency(Duration.ofMillis(100));
+        LlmProviderPool pool = new LlmProviderPool(List.of(slow, fast));
+        
+        // When / Then
+        assertThat(pool.acquire(Set.of())).isSameAs(fast);
+    }
+    
+    @Test
+    void acquire_ShouldSpreadCalls_ByRequestsInFlight() {
+        // Given
+        LlmEndpoint first = endpoint("first");
+        LlmEndpoint second = endpoint("second");
+        LlmProviderPool pool = new LlmProviderPool(List.of(first, second));
+        
+        // When
+        first.started();
+        
+        // Then
+        assertThat(pool.acquire(Set.of())).isSameAs(second);
+    }
+    
+    @Test
+    void acquire_ShouldAvoidEndpoint_CloseToItsRateLimit() {
+        // Given
+        LlmEndpoint first = endpoint("first");
+        LlmEndpoint second = endpoint("second");
+        LlmProviderPool pool = new LlmProviderPool(List.of(first, second));
+        
+        // When
+        first.observe(rateLimit("100", "5", "30s"));
+        
+        // Then
+        assertThat(first.remainingQuota()).isCloseTo(0.05, within(0.001));
+        assertThat(pool.acquire(Set.of())).isSameAs(second);
+    }
+    
+    @Test
+    void remainingQuota_ShouldRecover_OnceTheLimitResets() {
+        // Given
+        LlmEndpoint endpoint = endpoint("openai");
+        endpoint.observe(rateLimit("100", "0", "20s"));
+        
+        // When
+        now.addAndGet(Duration.ofSeconds(21).toNanos());
+        
+        // Then
+        assertThat(endpoint.remainingQuota()).isEqualTo(1.0);
+    }
+    
+    @Test
+    void acquire_ShouldUseCoolingDownEndpoint_OnlyAsLastResort() {
+        // Given
+        LlmEndpoint first = endpoint("first");
+        LlmEndpoint second = endpoint("second");
+        second.recordLatency(Duration.ofSeconds(30));
+        LlmProviderPool pool = new LlmProviderPool(List.of(first, second));
+        
+        // When
+        first.coolDown(Duration.ofSeconds(5));
+        
+        // Then
+        assertThat(pool.acquire(Set.of())).isSameAs(second);
+        assertThat(pool.acquire(Set.of(second))).isSameAs(first);
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertThat(first.isCoolingDown()).isFalse();
+    }
+    
+    @Test
+    void acquire_ShouldSkipOpenCircuits_AndReturnNull_WhenAllAreOpen() {
+        // Given
+        LlmEndpoint first = endpoint("first");
+        LlmEndpoint second = endpoint("second");
+        LlmProviderPool pool = new LlmProviderPool(List.of(first, second));
+        
+        // When
+        open(first);
+        
+        // Then
+        assertThat(pool.acquire(Set.of())).isSameAs(second);
+        assertThat(pool.hasAlternative(Set.of(second))).isFalse();
+        open(second);
+        assertThat(pool.acquire(Set.of())).isNull();
+    }
+    
+    @Test
+    void parseReset_ShouldReadOpenAiDurations() {
+        assertThat(LlmEndpoint.parseReset("6m0s")).isEqualTo(Duration.ofMinutes(6));
+        assertThat(LlmEndpoint.parseReset("1.5s")).isEqualTo(Duration.ofMillis(1500));
+        assertThat(LlmEndpoint.parseReset("20ms")).isEqualTo(Duration.ofMillis(20));
+        assertThat(LlmEndpoint.parseReset(null)).isEqualTo(Duration.ofMinutes(1));
+    }
+    
+    @Test
+    void health_ShouldBeDegraded_WhenAnEndpointIsUnavailable() {
+        // Given
+        LlmEndpoint first = endpoint("first");
+        LlmEndpoint second = endpoint("second");
+        LlmProviderHealthIndicator indicator = new LlmProviderHealthIndicator(new LlmProviderPool(List.of(first, second)));
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+        
+        // When
+        open(first);
+        Health health = indicator.health();
+        
+        // Then
+        assertThat(health.getStatus().getCode()).isEqualTo("DEGRADED");
+        assertThat(health.getDetails()).containsEntry("available", 1L);
+        assertThat(health.getDetails().get("first")).extracting("circuit").isEqualTo(LlmCircuitBreaker.State.OPEN);
+    }
+    
+    private LlmEndpoint endpoint(String name) {
+        return new LlmEndpoint(name, null, new LlmCircuitBreaker(BREAKER, now::get), Duration.ofSeconds(2), 0.5,
+            now::get);
+    }
+    
+    private static void open(LlmEndpoint endpoint) {
+        for (int i = 0; i < 2; i++) {
+            endpoint.circuitBreaker().tryAcquire();
+            endpoint.circuitBreaker().onFailure();
+        }
+    }
+    
+    private static HttpHeaders rateLimit(String limit, String remaining, String reset) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("x-ratelimit-limit-requests", limit);
+        headers.add("x-ratelimit-remaining-requests", remaining);
+        headers.add("x-ratelimit-reset-requests", reset);
+        return headers;
+    }
+}
@@ -0,0 +1,104 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmEndpoint;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRateLimitProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRateLimiter;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmResilienceProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two limiters standing in for two instances of the application, sharing one database
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each lease commits, as in production
+// Note: Requires Docker PostgreSQL to be running (docker-compose up -d postgres)
+class LlmRateLimiterIntegrationTest {
+    
+    private static final LlmResilienceProperties.CircuitBreaker BREAKER =
+        new LlmResilienceProperties.CircuitBreaker(true, 20, 10, 0.5, Duration.ofSeconds(30), 3);
+    private static final LlmRateLimitProperties PROPERTIES =
+        new LlmRateLimitProperties(true, 10, Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofMillis(1500));
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void acquire_ShouldKeepInstancesTogetherWithinTheReportedLimit() throws InterruptedException {
+        // Given
+        String name = "test-" + UUID.randomUUID();
+        LlmEndpoint first = endpoint(name);
+        LlmEndpoint second = endpoint(name);
+        LlmRateLimiter firstInstance = new LlmRateLimiter(jdbcTemplate, PROPERTIES, new WorkflowMetrics(new SimpleMeterRegistry()));
+        LlmRateLimiter secondInstance = new LlmRateLimiter(jdbcTemplate, PROPERTIES, new WorkflowMetrics(new SimpleMeterRegistry()));
+        
+        try {
+            // When
+            List<CompletableFuture<Void>> permits = Stream.concat(
+                IntStream.range(0, 40).mapToObj(i -> firstInstance.acquire(first)),
+                IntStream.range(0, 40).mapToObj(i -> secondInstance.acquire(second))
+            ).toList();
+            Thread.sleep(1000);
+            
+            // Then: 30 requests per minute refill one every 2 seconds
+            long sent = permits.stream().filter(CompletableFuture::isDone).count();
+            assertThat(sent).isBetween(30L, 31L);
+            CompletableFuture.allOf(permits.toArray(CompletableFuture[]::new)).join(); // The rest give up waiting
+        } finally {
+            jdbcTemplate.update("DELETE FROM llm_rate_limits WHERE endpoint = ?", name);
+        }
+    }
+    
+    @Test
+    void acquire_ShouldGrantBatches_WhileNoLimitHasBeenReported() {
+        // Given
+        String name = "test-" + UUID.randomUUID();
+        LlmEndpoint endpoint = endpoint(name, null);
+        LlmRateLimiter limiter = new LlmRateLimiter(jdbcTemplate, PROPERTIES, new WorkflowMetrics(new SimpleMeterRegistry()));
+        
+        // When
+        List<CompletableFuture<Void>> permits = IntStream.range(0, 50).mapToObj(i -> limiter.acquire(endpoint)).toList();
+        
+        // Then
+        CompletableFuture.allOf(permits.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.SECONDS).join();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM llm_rate_limits WHERE endpoint = ?",
+            Integer.class, name)).isZero();
+    }
+    
+    private static LlmEndpoint endpoint(String name) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("x-ratelimit-limit-requests", "30");
+        headers.add("x-ratelimit-remaining-requests", "30");
+        headers.add("x-ratelimit-reset-requests", "0s");
+        return endpoint(name, headers);
+    }
+    
+    private static LlmEndpoint endpoint(String name, HttpHeaders headers) {
+        LlmEndpoint endpoint = new LlmEndpoint(name, null, BREAKER, Duration.ofSeconds(2), 0.2);
+        if (headers != null) {
+            endpoint.observe(headers);
+        }
+        return endpoint;
+    }
+}
@@ -0,0 +1,128 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmEndpoint;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRateLimitProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRateLimiter;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmResilienceProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LlmRateLimiterTest {
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LlmEndpoint endpoint;
+    
+    @BeforeEach
+    void setUp() {
+        endpoint = new LlmEndpoint("openai", null,
+            new LlmResilienceProperties.CircuitBreaker(true, 20, 10, 0.5, Duration.ofSeconds(30), 3),
+            Duration.ofSeconds(2), 0.2);
+    }
+    
+    @Test
+    void acquire_ShouldGoToDatabaseOncePerBatch() {
+        // Given
+        when(lease()).thenReturn(5);
+        LlmRateLimiter limiter = limiter(true);
+        
+        // When
+        List<CompletableFuture<Void>> permits = IntStream.range(0, 5).mapToObj(i -> limiter.acquire(endpoint)).toList();
+        
+        // Then
+        CompletableFuture.allOf(permits.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.SECONDS).join();
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Integer.class), any(), any(), any(), any(), any());
+    }
+    
+    @Test
+    void acquire_ShouldPassReportedLimit_ToTheSharedBucket() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("x-ratelimit-limit-requests", "600");
+        headers.add("x-ratelimit-remaining-requests", "300");
+        headers.add("x-ratelimit-reset-requests", "30s");
+        endpoint.observe(headers);
+        when(lease()).thenReturn(5);
+        
+        // When
+        limiter(true).acquire(endpoint).orTimeout(1, TimeUnit.SECONDS).join();
+        
+        // Then
+        verify(jdbcTemplate).queryForObject(anyString(), eq(Integer.class), eq("openai"), eq(600.0), eq(10.0), any(), eq(5));
+    }
+    
+    @Test
+    void acquire_ShouldWait_UntilTheSharedLimitRefills() {
+        // Given
+        when(lease()).thenReturn(0, 0, 3);
+        LlmRateLimiter limiter = limiter(true);
+        
+        // When
+        CompletableFuture<Void> permit = limiter.acquire(endpoint);
+        
+        // Then
+        permit.orTimeout(2, TimeUnit.SECONDS).join();
+        verify(jdbcTemplate, times(3)).queryForObject(anyString(), eq(Integer.class), any(), any(), any(), any(), any());
+        assertThat(registry.get("llm.rate_limit.leases").tag("outcome", "empty").counter().count()).isEqualTo(2);
+        assertThat(registry.get("llm.rate_limit.wait").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void acquire_ShouldFailOpen_WhenDatabaseIsUnavailable() {
+        // Given
+        when(lease()).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        
+        // When
+        CompletableFuture<Void> permit = limiter(true).acquire(endpoint);
+        
+        // Then
+        permit.orTimeout(1, TimeUnit.SECONDS).join();
+        assertThat(registry.get("llm.rate_limit.leases").tag("outcome", "error").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void acquire_ShouldNotTouchDatabase_WhenDisabled() {
+        // When
+        CompletableFuture<Void> permit = limiter(false).acquire(endpoint);
+        
+        // Then
+        assertThat(permit).isDone();
+        verifyNoInteractions(jdbcTemplate);
+    }
+    
+    private Integer lease() {
+        return jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any(), any(), any(), any());
+    }
+    
+    private LlmRateLimiter limiter(boolean enabled) {
+        return new LlmRateLimiter(jdbcTemplate,
+            new LlmRateLimitProperties(enabled, 5, Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofSeconds(30)),
+            new WorkflowMetrics(registry));
+    }
+}
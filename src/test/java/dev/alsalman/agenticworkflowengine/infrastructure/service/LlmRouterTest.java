@@ -0,0 +1,98 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRoute;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRouter;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRoutingProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmRouterTest {
+    
+    private final UUID templateId = UUID.randomUUID();
+    private LlmRouter router;
+    
+    @BeforeEach
+    void setUp() {
+        Map<String, String> taskClasses = new LinkedHashMap<>();
+        taskClasses.put("research", "(?i)research|investigate");
+        taskClasses.put("writing", "(?i)write|draft");
+        router = new LlmRouter(new LlmRoutingProperties(taskClasses, List.of(
+            new LlmRoutingProperties.Route("plan review", null, null, "gpt-4o-mini", List.of("gpt-4o"), 500, 0.2, null),
+            new LlmRoutingProperties.Route(null, null, "writing", "gpt-4o-mini", null, 800, null, List.of("END")),
+            new LlmRoutingProperties.Route("task execution", templateId, null, "gpt-4o", null, 2000, null, null),
+            new LlmRoutingProperties.Route("task execution", null, null, null, List.of("gpt-4o-mini"), null, null, null)
+        )));
+    }
+    
+    @Test
+    void route_ShouldReturnDefaults_WhenNoRouteMatches() {
+        // When
+        LlmRoute route = router.route("task planning", null);
+        
+        // Then
+        assertThat(route).isEqualTo(LlmRoute.DEFAULT);
+        assertThat(route.chainLength()).isEqualTo(1);
+        assertThat(route.model(0)).isNull();
+    }
+    
+    @Test
+    void route_ShouldChooseModelAndFallbacks_ByOperation() {
+        // When
+        LlmRoute route = router.route("plan review", null);
+        
+        // Then
+        assertThat(route.models()).containsExactly("gpt-4o-mini", "gpt-4o");
+        assertThat(route.maxTokens()).isEqualTo(500);
+        assertThat(route.temperature()).isEqualTo(0.2);
+        assertThat(route.options(1).getModel()).isEqualTo("gpt-4o");
+    }
+    
+    @Test
+    void route_ShouldLetTaskClassOverrideOperation() {
+        // When
+        LlmRoute route = router.route("task execution", "Draft the launch announcement");
+        
+        // Then
+        assertThat(route.models()).containsExactly("gpt-4o-mini");
+        assertThat(route.maxTokens()).isEqualTo(800);
+        assertThat(route.stop()).containsExactly("END");
+    }
+    
+    @Test
+    void route_ShouldKeepDefaultModelFirst_WhenRouteOnlyAddsFallbacks() {
+        // When
+        LlmRoute route = router.route("task execution", "Research competitors");
+        
+        // Then
+        assertThat(route.chainLength()).isEqualTo(2);
+        assertThat(route.model(0)).isNull();
+        assertThat(route.model(1)).isEqualTo("gpt-4o-mini");
+    }
+    
+    @Test
+    void route_ShouldPreferTemplateRoute_OverTaskClass() {
+        // When
+        LlmRoute route = WorkflowContext.callWithTemplate(templateId,
+            () -> router.route("task execution", "Write the summary"));
+        
+        // Then
+        assertThat(route.model(0)).isEqualTo("gpt-4o");
+        assertThat(route.maxTokens()).isEqualTo(2000);
+        assertThat(route.stop()).containsExactly("END"); // Not overridden by the template route
+    }
+    
+    @Test
+    void classify_ShouldReturnFirstMatchingClass() {
+        assertThat(router.classify("Research and write a report")).isEqualTo("research");
+        assertThat(router.classify("Book the venue")).isNull();
+        assertThat(router.classify(null)).isNull();
+    }
+}
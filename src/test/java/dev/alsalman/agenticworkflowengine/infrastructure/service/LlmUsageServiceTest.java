@@ -0,0 +1,131 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmPricingProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmUsageService;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.workflow.domain.LlmUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LlmUsageServiceTest {
+    
+    @Mock
+    private WorkflowPersistenceService persistenceService;
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LlmPricingProperties pricing = new LlmPricingProperties(Map.of(
+        "gpt-4o", new LlmPricingProperties.ModelPrice(new BigDecimal("2.50"), new BigDecimal("10.00")),
+        "gpt-4o-mini", new LlmPricingProperties.ModelPrice(new BigDecimal("0.15"), new BigDecimal("0.60"))
+    ));
+    
+    private LlmUsageService usageService;
+    
+    @BeforeEach
+    void setUp() {
+        usageService = new LlmUsageService(persistenceService, pricing, new WorkflowMetrics(registry));
+    }
+    
+    @Test
+    void record_ShouldAttributeUsageToBoundGoalAndTask() {
+        // Given
+        UUID goalId = UUID.randomUUID();
+        UUID taskId = UUID.randomUUID();
+        when(persistenceService.saveLlmUsage(any(LlmUsage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        WorkflowContext.callWithGoal(goalId, () -> WorkflowContext.callWithTask(taskId,
+            () -> usageService.record("task execution", response("gpt-4o-2024-08-06", 1000, 500))));
+        
+        // Then
+        ArgumentCaptor<LlmUsage> saved = ArgumentCaptor.forClass(LlmUsage.class);
+        verify(persistenceService).saveLlmUsage(saved.capture());
+        LlmUsage usage = saved.getValue();
+        assertThat(usage.goalId()).isEqualTo(goalId);
+        assertThat(usage.taskId()).isEqualTo(taskId);
+        assertThat(usage.templateId()).isNull();
+        assertThat(usage.operation()).isEqualTo("task execution");
+        assertThat(usage.model()).isEqualTo("gpt-4o-2024-08-06");
+        assertThat(usage.costUsd()).isEqualByComparingTo("0.0075"); // 1000 * 2.50/M + 500 * 10.00/M
+        
+        assertThat(registry.get("llm.cost").tag("model", "gpt-4o-2024-08-06").counter().count())
+            .isEqualTo(0.0075);
+        assertThat(registry.get("llm.tokens").tag("type", "completion").counter().count()).isEqualTo(500);
+    }
+    
+    @Test
+    void record_ShouldKeepUsage_WhenStorageFails() {
+        // Given
+        when(persistenceService.saveLlmUsage(any(LlmUsage.class))).thenThrow(new RuntimeException("Database error"));
+        
+        // When
+        LlmUsage usage = usageService.record("plan review", response("gpt-4o-mini", 2000, 100));
+        
+        // Then
+        assertThat(usage).isNotNull();
+        assertThat(usage.goalId()).isNull();
+        assertThat(usage.costUsd()).isEqualByComparingTo("0.00036");
+    }
+    
+    @Test
+    void record_ShouldSkip_WhenProviderReportsNoUsage() {
+        // When
+        LlmUsage usage = usageService.record("task planning",
+            new ChatResponse(List.of(new Generation(new AssistantMessage("plan")))));
+        
+        // Then
+        assertThat(usage).isNull();
+        verify(persistenceService, never()).saveLlmUsage(any());
+    }
+    
+    @Test
+    void record_ShouldSkip_WhenProviderReportsZeroTokens() {
+        // When
+        LlmUsage usage = usageService.record("task planning", response("gpt-4o", 0, 0));
+        
+        // Then
+        assertThat(usage).isNull();
+        verify(persistenceService, never()).saveLlmUsage(any());
+    }
+    
+    @Test
+    void cost_ShouldMatchLongestPrefixAndBeZeroForUnpricedModels() {
+        // When / Then
+        assertThat(pricing.priceOf("gpt-4o-mini-2024-07-18")).isEqualTo(pricing.models().get("gpt-4o-mini"));
+        assertThat(pricing.priceOf("gpt-4o-2024-08-06")).isEqualTo(pricing.models().get("gpt-4o"));
+        assertThat(pricing.cost("some-other-model", 1000, 1000)).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+    
+    private static ChatResponse response(String model, int promptTokens, int completionTokens) {
+        return ChatResponse.builder()
+            .generations(List.of(new Generation(new AssistantMessage("result"))))
+            .metadata(ChatResponseMetadata.builder()
+                .model(model)
+                .usage(new DefaultUsage(promptTokens, completionTokens))
+                .build())
+            .build();
+    }
+}
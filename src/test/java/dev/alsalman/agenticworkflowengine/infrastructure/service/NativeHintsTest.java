@@ -0,0 +1,44 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.NativeHints;
+import dev.alsalman.agenticworkflowengine.infrastructure.jfr.LlmCallEvent;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRowResult;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskEntity;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeHintsTest {
+    
+    private final RuntimeHints hints = new RuntimeHints();
+    
+    @BeforeEach
+    void setUp() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+    
+    @Test
+    void registerHints_ShouldAllowConstructingEntities() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(TaskEntity.class)
+            .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(WorkflowEvent.class)
+            .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+    }
+    
+    @Test
+    void registerHints_ShouldRegisterJsonBindingForBatchResults() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(BatchRowResult.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BatchRowResult.Status.class)).accepts(hints);
+    }
+    
+    @Test
+    void registerHints_ShouldRegisterJfrEvents() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(LlmCallEvent.class)
+            .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+    }
+}
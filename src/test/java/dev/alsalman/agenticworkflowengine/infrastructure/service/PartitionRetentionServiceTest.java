@@ -0,0 +1,130 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.PartitionRetentionService;
+import dev.alsalman.agenticworkflowengine.infrastructure.RetentionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionRetentionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @TempDir
+    Path archiveDirectory;
+
+    private PartitionRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PartitionRetentionService(
+            jdbcTemplate,
+            transactionTemplate,
+            new RetentionProperties(true, 3, 2, archiveDirectory, 500)
+        );
+
+        // Run transactional callbacks inline
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> callback = invocation.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        lenient().when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any(), any()))
+            .thenReturn(0);
+        lenient().when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyString()))
+            .thenReturn(List.of());
+    }
+
+    @Test
+    void partitionMonth_ShouldParseMonthlyPartitionNames() {
+        assertThat(PartitionRetentionService.partitionMonth("goals", "goals_p202401"))
+            .isEqualTo(YearMonth.of(2024, 1));
+        assertThat(PartitionRetentionService.partitionMonth("task_dependencies", "task_dependencies_p202512"))
+            .isEqualTo(YearMonth.of(2025, 12));
+    }
+
+    @Test
+    void partitionMonth_ShouldIgnoreDefaultAndForeignPartitions() {
+        assertThat(PartitionRetentionService.partitionMonth("goals", "goals_default")).isNull();
+        assertThat(PartitionRetentionService.partitionMonth("tasks", "goals_p202401")).isNull();
+        assertThat(PartitionRetentionService.partitionMonth("goals", "goals_p2024xx")).isNull();
+    }
+
+    @Test
+    void applyRetention_ShouldArchiveAndDropOnlyExpiredPartitions() throws Exception {
+        // Given - keep 3 months: 2024-04, 2024-05, 2024-06
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("goals")))
+            .thenReturn(List.of("goals_default", "goals_p202402", "goals_p202403", "goals_p202404", "goals_p202406"));
+        when(resultSet.getString(1)).thenReturn("{\"id\": \"goal\"}");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // When
+        List<String> archived = service.applyRetention(YearMonth.of(2024, 6));
+
+        // Then
+        assertThat(archived).containsExactly("goals_p202402", "goals_p202403");
+        assertThat(Files.exists(archiveDirectory.resolve("goals_p202402.ndjson.gz"))).isTrue();
+        assertThat(Files.exists(archiveDirectory.resolve("goals_p202403.ndjson.gz"))).isTrue();
+        assertThat(Files.exists(archiveDirectory.resolve("goals_p202404.ndjson.gz"))).isFalse();
+
+        verify(jdbcTemplate).execute("ALTER TABLE \"goals\" DETACH PARTITION \"goals_p202402\"");
+        verify(jdbcTemplate).execute("DROP TABLE \"goals_p202403\"");
+        verify(jdbcTemplate, never()).execute("DROP TABLE \"goals_p202404\"");
+        verify(jdbcTemplate, never()).execute("DROP TABLE \"goals_default\"");
+    }
+
+    @Test
+    void applyRetention_ShouldPrecreateUpcomingPartitionsForEveryTable() {
+        // When
+        service.applyRetention(YearMonth.of(2024, 6));
+
+        // Then
+        for (String table : List.of("goals", "tasks", "task_dependencies", "llm_usage", "workflow_events")) {
+            verify(jdbcTemplate).queryForObject(
+                "SELECT ensure_monthly_partitions(?, ?, ?)",
+                Integer.class,
+                table,
+                YearMonth.of(2024, 6).atDay(1),
+                YearMonth.of(2024, 8).atDay(1)
+            );
+        }
+    }
+}
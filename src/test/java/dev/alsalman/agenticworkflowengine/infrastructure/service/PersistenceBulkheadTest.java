@@ -0,0 +1,126 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.BulkheadDataSource;
+import dev.alsalman.agenticworkflowengine.infrastructure.PersistenceBulkhead;
+import dev.alsalman.agenticworkflowengine.infrastructure.PersistenceBulkheadPostProcessor;
+import dev.alsalman.agenticworkflowengine.infrastructure.PersistenceBulkheadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class PersistenceBulkheadTest {
+    
+    @Mock
+    private DataSource pool;
+    
+    @Mock
+    private Connection connection;
+    
+    private PersistenceBulkhead bulkhead;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        bulkhead = new PersistenceBulkhead(new PersistenceBulkheadProperties(true, 2, 1, Duration.ofMillis(100)));
+        lenient().when(pool.getConnection()).thenReturn(connection);
+        lenient().when(connection.getAutoCommit()).thenReturn(true);
+    }
+    
+    @Test
+    void wrap_ShouldTakeReadPermit_ForReadOnlyConnections() throws SQLException {
+        // Given
+        DataSource dataSource = bulkhead.wrap(pool);
+        
+        // When
+        Connection readOnly = dataSource.getConnection();
+        readOnly.setReadOnly(true);
+        readOnly.createStatement();
+        
+        // Then
+        assertThat(inUse(PersistenceBulkhead.READ)).isEqualTo(1);
+        assertThat(inUse(PersistenceBulkhead.WRITE)).isZero();
+        readOnly.close();
+        assertThat(inUse(PersistenceBulkhead.READ)).isZero();
+    }
+    
+    @Test
+    void wrap_ShouldTakeWritePermit_ForOtherConnections() throws SQLException {
+        // Given
+        DataSource dataSource = bulkhead.wrap(pool);
+        
+        // When
+        Connection readWrite = dataSource.getConnection();
+        readWrite.createStatement();
+        
+        // Then
+        assertThat(inUse(PersistenceBulkhead.WRITE)).isEqualTo(1);
+        assertThat(inUse(PersistenceBulkhead.READ)).isZero();
+        readWrite.close();
+    }
+    
+    @Test
+    void wrap_ShouldNotBorrowConnection_UntilFirstStatement() throws SQLException {
+        // Given
+        DataSource dataSource = bulkhead.wrap(pool);
+        dataSource.getConnection().close(); // Reads the pool's default connection settings
+        
+        // When
+        Connection unused = dataSource.getConnection();
+        
+        // Then
+        assertThat(bulkhead.bulkheads()).allSatisfy(b -> assertThat(b.inUse()).isZero());
+        unused.close();
+    }
+    
+    @Test
+    void bindTo_ShouldRegisterMeters_WhenDataSourceIsWrappedLater() throws SQLException {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        bulkhead.bindTo(registry);
+        
+        // When
+        Connection readWrite = bulkhead.wrap(pool).getConnection();
+        readWrite.createStatement();
+        
+        // Then
+        assertThat(registry.get("workflow.db.bulkhead.in_use").tag("bulkhead", "write").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("workflow.db.bulkhead.permits").tag("bulkhead", "read").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("workflow.db.bulkhead.wait").tag("bulkhead", "write").functionTimer().count()).isPositive();
+        readWrite.close();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void postProcessor_ShouldWrapOnlyTheApplicationDataSource() {
+        // Given
+        ObjectProvider<PersistenceBulkhead> provider = mock(ObjectProvider.class);
+        lenient().when(provider.getObject()).thenReturn(bulkhead);
+        PersistenceBulkheadPostProcessor postProcessor = new PersistenceBulkheadPostProcessor(provider);
+        
+        // When / Then
+        assertThat(postProcessor.postProcessAfterInitialization(pool, "dataSource"))
+            .isInstanceOf(LazyConnectionDataSourceProxy.class);
+        assertThat(postProcessor.postProcessAfterInitialization(pool, "otherDataSource")).isSameAs(pool);
+    }
+    
+    private int inUse(String name) {
+        return bulkhead.bulkheads().stream()
+            .filter(b -> b.name().equals(name))
+            .mapToInt(BulkheadDataSource::inUse)
+            .findFirst().orElseThrow();
+    }
+}
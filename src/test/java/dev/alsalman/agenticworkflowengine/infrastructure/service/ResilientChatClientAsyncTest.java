@@ -0,0 +1,353 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmEndpoint;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmErrorClass;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmProviderPool;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRateLimitProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRateLimiter;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmResilienceProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRouter;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmRoutingProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.LlmUsageService;
+import dev.alsalman.agenticworkflowengine.infrastructure.ResilientChatClient;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientChatClientAsyncTest {
+    
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ChatClient chatClient;
+    
+    @Mock
+    private LlmUsageService usageService;
+    
+    @Mock
+    private WorkflowProfiler profiler;
+    
+    private static final LlmResilienceProperties.CircuitBreaker BREAKER =
+        new LlmResilienceProperties.CircuitBreaker(true, 20, 10, 0.5, Duration.ofSeconds(30), 3);
+    private static final LlmResilienceProperties.Hedging NO_HEDGING =
+        new LlmResilienceProperties.Hedging(false, Set.of(), 0.95, Duration.ofSeconds(2), 100);
+    private static final LlmResilienceProperties.Budget BUDGET = new LlmResilienceProperties.Budget(0.2, 20);
+    private static final LlmRateLimitProperties RATE_LIMIT_OFF =
+        new LlmRateLimitProperties(false, 10, Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofSeconds(30));
+    
+    private final AtomicInteger requests = new AtomicInteger();
+    private LlmRouter router = new LlmRouter(new LlmRoutingProperties(null, null));
+    private SimpleMeterRegistry registry;
+    private ResilientChatClient client;
+    
+    @BeforeEach
+    void setUp() {
+        client = client(new LlmResilienceProperties(null, BREAKER, NO_HEDGING, BUDGET));
+    }
+    
+    @Test
+    void callAsync_ShouldAggregateStreamedChunks() throws Exception {
+        // Given
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(Flux.just(chunk("Hello, "), chunk("world")));
+        
+        // When
+        String content = client.callAsync("task execution", "prompt").get();
+        
+        // Then
+        assertThat(content).isEqualTo("Hello, world");
+        verify(usageService, timeout(1000)).record(eq("task execution"), any(ChatResponse.class));
+        assertThat(registry.get("llm.call").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void callAsync_ShouldRecordUsageWithCallersWorkflowContext() throws Exception {
+        // Given
+        UUID goalId = UUID.randomUUID();
+        UUID taskId = UUID.randomUUID();
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse()).thenReturn(Flux.just(chunk("done")));
+        AtomicReference<UUID> usageGoal = new AtomicReference<>();
+        AtomicReference<UUID> usageTask = new AtomicReference<>();
+        doAnswer(invocation -> {
+            usageGoal.set(WorkflowContext.goalId());
+            usageTask.set(WorkflowContext.taskId());
+            return null;
+        }).when(usageService).record(anyString(), any());
+        
+        // When
+        CompletableFuture<String> result = WorkflowContext.callWithGoal(goalId,
+            () -> WorkflowContext.callWithTask(taskId, () -> client.callAsync("task execution", "prompt")));
+        result.get();
+        
+        // Then
+        verify(usageService, timeout(1000)).record(anyString(), any());
+        assertThat(usageGoal.get()).isEqualTo(goalId);
+        assertThat(usageTask.get()).isEqualTo(taskId);
+    }
+    
+    @Test
+    void callAsync_ShouldRetryRateLimitedAttemptFromTimer() throws Exception {
+        // Given
+        WebClientResponseException tooManyRequests = status(HttpStatus.TOO_MANY_REQUESTS, HttpHeaders.EMPTY);
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(Flux.error(tooManyRequests))
+            .thenReturn(Flux.just(chunk("after retry")));
+        
+        // When
+        String content = client.callAsync("plan review", "prompt").get();
+        
+        // Then
+        assertThat(content).isEqualTo("after retry");
+        assertThat(registry.get("llm.retries").counter().count()).isEqualTo(1);
+        assertThat(registry.get("llm.call").tag("outcome", "rate_limited").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void call_ShouldThrowWithoutRetry_WhenErrorIsNotRateLimit() {
+        // Given
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(Flux.error(new IllegalStateException("Invalid API key")));
+        
+        // When / Then
+        assertThatThrownBy(() -> client.call("goal summarization", "prompt"))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Failed to execute goal summarization")
+            .hasRootCauseMessage("Invalid API key");
+        verify(usageService, never()).record(anyString(), any());
+        assertThat(registry.find("llm.retries").counter()).isNull();
+    }
+    
+    @Test
+    void callAsync_ShouldFailFuture_WhenRequestCannotBeBuilt() {
+        // Given
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse()).thenThrow(new IllegalArgumentException("bad prompt"));
+        
+        // When
+        CompletableFuture<String> result = client.callAsync("task planning", "prompt");
+        
+        // Then
+        assertThatThrownBy(result::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasRootCauseMessage("bad prompt");
+    }
+    
+    @Test
+    void callAsync_ShouldRetryServerError_UsingItsOwnPolicy() throws Exception {
+        // Given
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(Flux.error(status(HttpStatus.BAD_GATEWAY, HttpHeaders.EMPTY)))
+            .thenReturn(Flux.just(chunk("recovered")));
+        
+        // When
+        String content = client.callAsync("task execution", "prompt").get();
+        
+        // Then
+        assertThat(content).isEqualTo("recovered");
+        assertThat(registry.get("llm.call").tag("outcome", "server_error").timer().count()).isEqualTo(1);
+        assertThat(registry.find("llm.rate_limited").counter()).isNull();
+    }
+    
+    @Test
+    void callAsync_ShouldNotRetryClientError() {
+        // Given
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(Flux.error(status(HttpStatus.BAD_REQUEST, HttpHeaders.EMPTY)));
+        
+        // When
+        CompletableFuture<String> result = client.callAsync("task execution", "prompt");
+        
+        // Then
+        assertThatThrownBy(result::get).hasRootCauseInstanceOf(WebClientResponseException.class);
+        assertThat(registry.get("llm.call").tag("outcome", "client_error").timer().count()).isEqualTo(1);
+        assertThat(registry.find("llm.retries").counter()).isNull();
+    }
+    
+    @Test
+    void callAsync_ShouldFailFastWithoutRequest_WhenCircuitIsOpen() {
+        // Given
+        LlmResilienceProperties.CircuitBreaker breaker =
+            new LlmResilienceProperties.CircuitBreaker(true, 2, 2, 0.5, Duration.ofMinutes(1), 1);
+        LlmResilienceProperties.RetryPolicy noRetry = new LlmResilienceProperties.RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+        client = client(new LlmResilienceProperties(Map.of(LlmErrorClass.SERVER_ERROR, noRetry), breaker, NO_HEDGING, BUDGET));
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(counted(Flux.error(status(HttpStatus.SERVICE_UNAVAILABLE, HttpHeaders.EMPTY))));
+        assertThatThrownBy(() -> client.call("task execution", "first")).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> client.call("task execution", "second")).isInstanceOf(RuntimeException.class);
+        
+        // When / Then
+        assertThatThrownBy(() -> client.call("task execution", "third"))
+            .hasMessageContaining("circuit breaker open");
+        assertThat(requests).hasValue(2);
+        assertThat(registry.get("llm.circuit.rejected").counter().count()).isEqualTo(1);
+        assertThat(registry.get("llm.circuit.state").tag("provider", "openai").gauge().value()).isEqualTo(2);
+    }
+    
+    @Test
+    void callAsync_ShouldNotRetry_WhenBudgetIsSpent() {
+        // Given
+        client = client(new LlmResilienceProperties(null, BREAKER, NO_HEDGING, new LlmResilienceProperties.Budget(0, 0)));
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(Flux.error(status(HttpStatus.TOO_MANY_REQUESTS, HttpHeaders.EMPTY)));
+        
+        // When / Then
+        assertThatThrownBy(() -> client.call("plan review", "prompt")).hasMessageContaining("after 1 attempts");
+        assertThat(registry.get("llm.retry_budget.exhausted").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void callAsync_ShouldHonorRetryAfter_CappedByPolicy() throws Exception {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "120");
+        LlmResilienceProperties.RetryPolicy capped =
+            new LlmResilienceProperties.RetryPolicy(2, Duration.ofSeconds(5), Duration.ofMillis(50));
+        client = client(new LlmResilienceProperties(Map.of(LlmErrorClass.RATE_LIMITED, capped), BREAKER, NO_HEDGING, BUDGET));
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(Flux.error(status(HttpStatus.TOO_MANY_REQUESTS, headers)))
+            .thenReturn(Flux.just(chunk("done")));
+        
+        // When
+        long start = System.nanoTime();
+        String content = client.callAsync("plan review", "prompt").get(5, TimeUnit.SECONDS);
+        
+        // Then
+        assertThat(content).isEqualTo("done");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+    
+    @Test
+    void callAsync_ShouldReturnHedgedResponse_WhenFirstRequestIsSlow() throws Exception {
+        // Given
+        LlmResilienceProperties.Hedging hedging =
+            new LlmResilienceProperties.Hedging(true, Set.of("plan review"), 0.95, Duration.ofMillis(20), 1);
+        client = client(new LlmResilienceProperties(null, BREAKER, hedging, BUDGET));
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(Flux.just(chunk("warm-up")))
+            .thenReturn(Flux.never())
+            .thenReturn(Flux.just(chunk("hedged")));
+        client.callAsync("plan review", "prompt").get();
+        
+        // When
+        String content = client.callAsync("plan review", "prompt").get(5, TimeUnit.SECONDS);
+        
+        // Then
+        assertThat(content).isEqualTo("hedged");
+        assertThat(registry.get("llm.hedges").tag("outcome", "won").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void callAsync_ShouldNotHedge_OperationsNotListed() throws Exception {
+        // Given
+        LlmResilienceProperties.Hedging hedging =
+            new LlmResilienceProperties.Hedging(true, Set.of("plan review"), 0.95, Duration.ofMillis(1), 1);
+        client = client(new LlmResilienceProperties(null, BREAKER, hedging, BUDGET));
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(counted(Flux.just(chunk("first"))))
+            .thenReturn(counted(Flux.just(chunk("second")).delayElements(Duration.ofMillis(50))));
+        client.callAsync("task execution", "prompt").get();
+        
+        // When
+        client.callAsync("task execution", "prompt").get();
+        
+        // Then
+        assertThat(requests).hasValue(2);
+        assertThat(registry.find("llm.hedges").counter()).isNull();
+    }
+    
+    @Test
+    void callAsync_ShouldFallBackToNextModel_WhenModelKeepsFailing() throws Exception {
+        // Given
+        LlmResilienceProperties.RetryPolicy noRetry = new LlmResilienceProperties.RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+        router = new LlmRouter(new LlmRoutingProperties(null, List.of(new LlmRoutingProperties.Route(
+            "plan review", null, null, "gpt-4o-mini", List.of("gpt-4o"), 400, 0.2, null))));
+        client = client(new LlmResilienceProperties(Map.of(LlmErrorClass.SERVER_ERROR, noRetry), BREAKER, NO_HEDGING, BUDGET));
+        ArgumentCaptor<ChatOptions> options = ArgumentCaptor.forClass(ChatOptions.class);
+        when(chatClient.prompt().user(anyString()).options(options.capture()).stream().chatResponse())
+            .thenReturn(Flux.error(status(HttpStatus.INTERNAL_SERVER_ERROR, HttpHeaders.EMPTY)))
+            .thenReturn(Flux.just(chunk("from fallback")));
+        
+        // When
+        String content = client.callAsync("plan review", "prompt").get(5, TimeUnit.SECONDS);
+        
+        // Then
+        assertThat(content).isEqualTo("from fallback");
+        assertThat(options.getAllValues()).extracting(ChatOptions::getModel).containsSubsequence("gpt-4o-mini", "gpt-4o");
+        assertThat(options.getAllValues().getLast().getMaxTokens()).isEqualTo(400);
+        assertThat(registry.get("llm.fallbacks").tag("model", "gpt-4o-mini").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void callAsync_ShouldNotFallBack_WhenRequestIsInvalid() {
+        // Given
+        router = new LlmRouter(new LlmRoutingProperties(null, List.of(new LlmRoutingProperties.Route(
+            "plan review", null, null, "gpt-4o-mini", List.of("gpt-4o"), null, null, null))));
+        client = client(new LlmResilienceProperties(null, BREAKER, NO_HEDGING, BUDGET));
+        when(chatClient.prompt().user(anyString()).options(any()).stream().chatResponse())
+            .thenReturn(counted(Flux.error(status(HttpStatus.BAD_REQUEST, HttpHeaders.EMPTY))));
+        
+        // When / Then
+        assertThatThrownBy(() -> client.call("plan review", "prompt")).hasMessageContaining("after 1 attempts");
+        assertThat(requests).hasValue(1);
+    }
+    
+    private ResilientChatClient client(LlmResilienceProperties properties) {
+        registry = new SimpleMeterRegistry(); // The circuit breaker gauge binds to the first client registered
+        LlmProviderPool pool = new LlmProviderPool(List.of(
+            new LlmEndpoint("openai", chatClient, properties.circuitBreaker(), Duration.ofSeconds(2), 0.2)));
+        WorkflowMetrics metrics = new WorkflowMetrics(registry);
+        return new ResilientChatClient(pool, metrics, usageService, profiler, properties, router,
+            new LlmRateLimiter(null, RATE_LIMIT_OFF, metrics));
+    }
+    
+    private Flux<ChatResponse> counted(Flux<ChatResponse> response) {
+        return response.doOnSubscribe(subscription -> requests.incrementAndGet());
+    }
+    
+    private static WebClientResponseException status(HttpStatus status, HttpHeaders headers) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), headers, new byte[0],
+            StandardCharsets.UTF_8);
+    }
+    
+    private static ChatResponse chunk(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -0,0 +1,71 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.RecentSpanExporter;
+import dev.alsalman.agenticworkflowengine.infrastructure.TracesEndpoint;
+import dev.alsalman.agenticworkflowengine.infrastructure.TracingProperties;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracesEndpointTest {
+    
+    private final RecentSpanExporter exporter = new RecentSpanExporter(new TracingProperties(3));
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+        .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+        .build();
+    private final Tracer tracer = tracerProvider.get("test");
+    private final TracesEndpoint endpoint = new TracesEndpoint(exporter);
+    
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+    
+    @Test
+    void traces_ShouldSummarizeTracesWithGoalId() {
+        // Given
+        Span workflow = tracer.spanBuilder("workflow.execute").startSpan();
+        workflow.setAttribute("workflow.goal_id", "goal-1");
+        try (Scope scope = workflow.makeCurrent()) {
+            tracer.spanBuilder("workflow.createTaskPlan").startSpan().end();
+        } finally {
+            workflow.end();
+        }
+        
+        // When
+        List<TracesEndpoint.TraceSummary> traces = endpoint.traces();
+        
+        // Then
+        assertThat(traces).hasSize(1);
+        TracesEndpoint.TraceSummary summary = traces.getFirst();
+        assertThat(summary.rootSpan()).isEqualTo("workflow.execute");
+        assertThat(summary.goalId()).isEqualTo("goal-1");
+        assertThat(summary.spanCount()).isEqualTo(2);
+        
+        List<TracesEndpoint.SpanView> spans = endpoint.trace(summary.traceId());
+        assertThat(spans).extracting(TracesEndpoint.SpanView::name)
+            .containsExactly("workflow.execute", "workflow.createTaskPlan");
+        assertThat(spans.get(1).parentSpanId()).isEqualTo(spans.get(0).spanId());
+        assertThat(spans.get(0).parentSpanId()).isNull();
+    }
+    
+    @Test
+    void export_ShouldKeepOnlyTheMostRecentSpans() {
+        // When
+        for (int i = 0; i < 5; i++) {
+            tracer.spanBuilder("span-" + i).startSpan().end();
+        }
+        
+        // Then
+        assertThat(exporter.spans()).extracting(span -> span.getName())
+            .containsExactly("span-2", "span-3", "span-4");
+    }
+}
@@ -0,0 +1,103 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowExecutionProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowExecutor;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkflowExecutorTest {
+    
+    private final WorkflowExecutor executor = new WorkflowExecutor(
+        new WorkflowExecutionProperties(Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(5)));
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+    }
+    
+    @Test
+    void submit_ShouldTrackWorkflowUntilItCompletes() throws Exception {
+        // Given
+        UUID goalId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        Goal goal = Goal.create("Test query");
+        
+        // When
+        CompletableFuture<WorkflowResult> future = executor.submit(goalId, () -> {
+            awaitQuietly(release);
+            return WorkflowResult.success(goal, Instant.now());
+        });
+        
+        // Then
+        assertThat(executor.find(goalId)).isPresent();
+        assertThat(executor.runningCount()).isEqualTo(1);
+        
+        release.countDown();
+        assertThat(future.get(5, TimeUnit.SECONDS).success()).isTrue();
+        assertThat(executor.find(goalId)).isEmpty();
+    }
+    
+    @Test
+    void submit_ShouldStopTrackingFailedWorkflow() {
+        // Given
+        UUID goalId = UUID.randomUUID();
+        
+        // When
+        CompletableFuture<WorkflowResult> future = executor.submit(goalId, () -> {
+            throw new IllegalStateException("Boom");
+        });
+        
+        // Then
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(executor.find(goalId)).isEmpty();
+    }
+    
+    @Test
+    void shutdown_ShouldWaitForRunningWorkflowsAndRejectNewOnes() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<WorkflowResult> future = executor.submit(UUID.randomUUID(), () -> {
+            started.countDown();
+            sleepQuietly(200);
+            return WorkflowResult.success(Goal.create("Test query"), Instant.now());
+        });
+        started.await(5, TimeUnit.SECONDS);
+        
+        // When
+        executor.shutdown();
+        
+        // Then
+        assertThat(future).isCompleted();
+        assertThatThrownBy(() -> executor.submit(UUID.randomUUID(), () -> null))
+            .isInstanceOf(RejectedExecutionException.class);
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkflowMetricsTest {
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final WorkflowMetrics metrics = new WorkflowMetrics(registry);
+    
+    @Test
+    void stage_ShouldTagTimerWithTemplate_WhenTemplateIsBound() {
+        // Given
+        UUID templateId = UUID.randomUUID();
+        
+        // When
+        String result = WorkflowContext.callWithTemplate(templateId,
+            () -> metrics.stage(WorkflowMetrics.STAGE_PLANNING, () -> "plan"));
+        
+        // Then
+        assertThat(result).isEqualTo("plan");
+        assertThat(registry.get("workflow.stage")
+            .tag("stage", "planning")
+            .tag("template", templateId.toString())
+            .timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void stage_ShouldUseNoTemplateTag_WhenNoTemplateIsBound() {
+        // When
+        metrics.stage(WorkflowMetrics.STAGE_SUMMARY, () -> "summary");
+        
+        // Then
+        assertThat(registry.get("workflow.stage").tag("template", WorkflowContext.NO_TEMPLATE).timer().count())
+            .isEqualTo(1);
+    }
+    
+    @Test
+    void llmCall_ShouldRecordLatencyTokensAndSizes() {
+        // When
+        metrics.llmCall("task execution", "success", Duration.ofMillis(250));
+        metrics.llmTokens("task execution", 120, 80);
+        metrics.llmTokens("task execution", null, null); // Provider reported no usage
+        metrics.llmPromptSize("task execution", 400);
+        metrics.llmResponseSize("task execution", 320);
+        
+        // Then
+        assertThat(registry.get("llm.call").tag("operation", "task execution").tag("outcome", "success")
+            .timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(250);
+        assertThat(registry.get("llm.tokens").tag("type", "prompt").counter().count()).isEqualTo(120);
+        assertThat(registry.get("llm.tokens").tag("type", "completion").counter().count()).isEqualTo(80);
+        assertThat(registry.get("llm.prompt.size").summary().totalAmount()).isEqualTo(400);
+        assertThat(registry.get("llm.response.size").summary().totalAmount()).isEqualTo(320);
+    }
+    
+    @Test
+    void llmRetry_ShouldCountRetriesAndRateLimitsPerOperation() {
+        // When
+        metrics.llmRateLimited("plan review");
+        metrics.llmRetry("plan review");
+        metrics.llmRateLimited("plan review");
+        
+        // Then
+        assertThat(registry.get("llm.rate_limited").tag("operation", "plan review").counter().count()).isEqualTo(2);
+        assertThat(registry.get("llm.retries").tag("operation", "plan review").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void gauges_ShouldTrackActiveGoalsAndWaves() {
+        // When
+        metrics.goalStarted();
+        metrics.tasksQueued(5);
+        metrics.waveStarted(3);
+        
+        // Then
+        assertThat(registry.get("workflow.goals.active").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("workflow.tasks.queued").gauge().value()).isEqualTo(5);
+        assertThat(registry.get("workflow.tasks.running").gauge().value()).isEqualTo(3);
+        
+        // When
+        metrics.waveFinished(3);
+        metrics.tasksQueued(-5);
+        metrics.goalFinished(false);
+        
+        // Then
+        assertThat(registry.get("workflow.goals.active").gauge().value()).isZero();
+        assertThat(registry.get("workflow.tasks.running").gauge().value()).isZero();
+        assertThat(registry.get("workflow.goals").tag("outcome", "failed").counter().count()).isEqualTo(1);
+    }
+}
@@ -3,8 +3,10 @@ package dev.alsalman.agenticworkflowengine.infrastructure.service;
 import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
 import dev.alsalman.agenticworkflowengine.workflow.domain.GoalStatus;
+import dev.alsalman.agenticworkflowengine.workflow.domain.LlmUsage;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
 import dev.alsalman.agenticworkflowengine.workflow.domain.TaskStatus;
+import dev.alsalman.agenticworkflowengine.workflow.domain.UsageSummary;
 import dev.alsalman.agenticworkflowengine.workflow.repository.GoalRepository;
 import dev.alsalman.agenticworkflowengine.workflow.repository.TaskDependencyRepository;
 import dev.alsalman.agenticworkflowengine.workflow.repository.TaskRepository;
@@ -15,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -134,6 +137,24 @@ class WorkflowPersistenceServiceTest {
         assertThat(foundGoal.summary()).isEqualTo("Goal completed");
     }
 
+    @Test
+    void findSubGoals_ShouldReturnGoalsSavedWithTheParent() {
+        // Given
+        Goal parent = persistenceService.saveGoal(testGoal);
+        Goal subGoal = persistenceService.saveGoal(Goal.createSubGoal("Research the market", parent.id()));
+        persistenceService.saveGoal(Goal.createSubGoal("Unrelated sub-goal", UUID.randomUUID()));
+        
+        // When - completing the sub-goal keeps its parent
+        persistenceService.saveGoal(subGoal.withSummary("Market summary"));
+        List<Goal> subGoals = persistenceService.findSubGoals(parent.id());
+        
+        // Then
+        assertThat(subGoals).extracting(Goal::id).containsExactly(subGoal.id());
+        assertThat(subGoals.getFirst().parentGoalId()).isEqualTo(parent.id());
+        assertThat(subGoals.getFirst().summary()).isEqualTo("Market summary");
+        assertThat(persistenceService.findGoalById(parent.id()).parentGoalId()).isNull();
+    }
+
     @Test
     void saveTask_ShouldPersistNewTask() {
         // Given - save goal first
@@ -176,6 +197,28 @@ class WorkflowPersistenceServiceTest {
         assertThat(tasks.get(0).result()).isEqualTo("Task completed");
     }
 
+    @Test
+    void findUsageByGoalId_ShouldSumTokensAndCostPerOperation() {
+        // Given
+        UUID goalId = UUID.randomUUID();
+        persistenceService.saveLlmUsage(LlmUsage.of(goalId, null, null, "task planning", "gpt-4o",
+            500, 200, new BigDecimal("0.003250")));
+        persistenceService.saveLlmUsage(LlmUsage.of(goalId, UUID.randomUUID(), null, "task execution", "gpt-4o",
+            300, 100, new BigDecimal("0.001750")));
+        persistenceService.saveLlmUsage(LlmUsage.of(UUID.randomUUID(), null, null, "task planning", "gpt-4o",
+            900, 900, new BigDecimal("0.011250")));
+        
+        // When
+        UsageSummary usage = persistenceService.findUsageByGoalId(goalId);
+        
+        // Then
+        assertThat(usage.calls()).isEqualTo(2);
+        assertThat(usage.promptTokens()).isEqualTo(800);
+        assertThat(usage.completionTokens()).isEqualTo(300);
+        assertThat(usage.costUsd()).isEqualByComparingTo("0.005");
+        assertThat(usage.costByOperation().get("task planning")).isEqualByComparingTo("0.00325");
+    }
+
     // TaskDependency persistence is complex due to Spring Data JDBC entity management.
     // The factory methods (TaskDependency.blocking/informational) generate UUIDs which
     // Spring Data interprets as existing entities, causing UPDATE instead of INSERT.
@@ -0,0 +1,79 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class WorkflowProfilerTest {
+    
+    @Mock
+    private WorkflowPersistenceService persistenceService;
+    
+    @Test
+    void finish_ShouldStoreEventsAndTaskTimings() {
+        // Given
+        WorkflowProfiler profiler = new WorkflowProfiler(persistenceService);
+        UUID goalId = UUID.randomUUID();
+        UUID taskId = UUID.randomUUID();
+        Instant readyAt = Instant.parse("2025-01-01T10:00:00Z");
+        Instant dispatchedAt = readyAt.plusMillis(50);
+        
+        WorkflowContext.callWithGoal(goalId, () -> {
+            profiler.record(taskId, WorkflowProfiler.QUEUED, readyAt, dispatchedAt);
+            return WorkflowContext.callWithTask(taskId, () -> profiler.time(WorkflowProfiler.EXECUTION, () -> "done"));
+        });
+        assertThat(profiler.runningEvents(goalId)).hasSize(2);
+        
+        // When
+        profiler.finish(goalId);
+        
+        // Then
+        verify(persistenceService).saveWorkflowEvents(anyList());
+        verify(persistenceService).updateTaskTimings(eq(taskId), eq(readyAt), any(Instant.class));
+        assertThat(profiler.runningEvents(goalId)).isNull();
+    }
+    
+    @Test
+    void time_ShouldRecordNothing_OutsideAGoal() {
+        // Given
+        WorkflowProfiler profiler = new WorkflowProfiler(persistenceService);
+        
+        // When
+        String result = profiler.time(WorkflowProfiler.LLM_CALL, () -> "plan");
+        
+        // Then
+        assertThat(result).isEqualTo("plan");
+        verify(persistenceService, never()).saveWorkflowEvents(anyList());
+    }
+    
+    @Test
+    void finish_ShouldNotThrow_WhenStorageFails() {
+        // Given
+        WorkflowProfiler profiler = new WorkflowProfiler(persistenceService);
+        UUID goalId = UUID.randomUUID();
+        doThrow(new RuntimeException("Database error")).when(persistenceService).saveWorkflowEvents(anyList());
+        WorkflowContext.callWithGoal(goalId, () -> profiler.time(WorkflowProfiler.EXECUTION, () -> "done"));
+        
+        // When
+        profiler.finish(goalId);
+        
+        // Then
+        assertThat(profiler.runningEvents(goalId)).isNull();
+    }
+}
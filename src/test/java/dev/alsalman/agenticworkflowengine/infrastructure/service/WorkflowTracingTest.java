@@ -0,0 +1,93 @@
+package dev.alsalman.agenticworkflowengine.infrastructure.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowTracing;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkflowTracingTest {
+    
+    private final SimpleTracer tracer = new SimpleTracer();
+    private final WorkflowTracing tracing = new WorkflowTracing(tracer);
+    
+    @Test
+    void traceWorkflow_ShouldStartNewTraceLinkedToCaller() {
+        // Given
+        UUID goalId = UUID.randomUUID();
+        Span request = tracer.nextSpan().name("http post /api/workflow/execute").start();
+        
+        // When
+        try (Tracer.SpanInScope scope = tracer.withSpan(request)) {
+            tracing.traceWorkflow("workflow.execute", () -> {
+                tracing.tagGoal(goalId);
+                return tracing.span("workflow.createTaskPlan", () -> "plan");
+            });
+        } finally {
+            request.end();
+        }
+        
+        // Then
+        SimpleSpan workflow = span("workflow.execute");
+        SimpleSpan planning = span("workflow.createTaskPlan");
+        assertThat(workflow.getTraceId()).isNotEqualTo(request.context().traceId());
+        assertThat(workflow.getTags()).containsEntry("workflow.goal_id", goalId.toString());
+        assertThat(workflow.getLinks()).hasSize(1);
+        assertThat(planning.getParentId()).isEqualTo(workflow.getSpanId());
+        assertThat(planning.getTraceId()).isEqualTo(workflow.getTraceId());
+    }
+    
+    @Test
+    void traceTask_ShouldLinkToSpansOfDependencies() {
+        // Given
+        Task research = Task.create("Research venues");
+        Task booking = Task.create("Book the venue", List.of(research.id()), List.of());
+        
+        // When
+        tracing.traceWorkflow("workflow.execute", () -> {
+            tracing.traceTask(research, tracing.currentContext(), () -> research.withResult("Three venues"));
+            return tracing.traceTask(booking, tracing.currentContext(), () -> booking.withResult("Booked"));
+        });
+        
+        // Then
+        List<SimpleSpan> tasks = tracer.getSpans().stream()
+            .filter(span -> span.getName().equals("workflow.task"))
+            .toList();
+        assertThat(tasks).hasSize(2);
+        SimpleSpan bookingSpan = tasks.stream()
+            .filter(span -> booking.description().equals(span.getTags().get("workflow.task")))
+            .findFirst().orElseThrow();
+        SimpleSpan researchSpan = tasks.stream()
+            .filter(span -> research.description().equals(span.getTags().get("workflow.task")))
+            .findFirst().orElseThrow();
+        assertThat(bookingSpan.getLinks()).hasSize(1);
+        assertThat(researchSpan.getLinks()).isEmpty();
+        assertThat(bookingSpan.getParentId()).isEqualTo(span("workflow.execute").getSpanId());
+    }
+    
+    @Test
+    void span_ShouldRecordErrorAndRethrow_WhenOperationFails() {
+        // Given
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        
+        // When / Then
+        assertThatThrownBy(() -> tracing.span("db.tasks.save", () -> {
+            throw failure;
+        })).isSameAs(failure);
+        assertThat(span("db.tasks.save").getError()).isSameAs(failure);
+    }
+    
+    private SimpleSpan span(String name) {
+        return tracer.getSpans().stream()
+            .filter(span -> span.getName().equals(name))
+            .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,47 @@
+package dev.alsalman.agenticworkflowengine.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --key=value} command line options
+ */
+final class Arguments {
+    
+    private final Map<String, String> values = new HashMap<>();
+    
+    Arguments(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Options must look like --key=value, got: " + arg);
+            }
+            String[] parts = arg.substring(2).split("=", 2);
+            values.put(parts[0], parts.length > 1 ? parts[1] : "true");
+        }
+    }
+    
+    String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+    
+    String get(String key) {
+        return values.get(key);
+    }
+    
+    int getInt(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+    
+    double getDouble(String key, double defaultValue) {
+        return values.containsKey(key) ? Double.parseDouble(values.get(key)) : defaultValue;
+    }
+    
+    Duration getDuration(String key, Duration defaultValue) {
+        return values.containsKey(key) ? LatencyDistribution.parseDuration(values.get(key)) : defaultValue;
+    }
+    
+    boolean has(String key) {
+        return values.containsKey(key);
+    }
+}
@@ -0,0 +1,422 @@
+package dev.alsalman.agenticworkflowengine.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stub of the OpenAI chat-completions API for load tests. It answers
+ * {@code POST /v1/chat/completions} with canned planner, executor, review and summary
+ * responses, chosen by recognising the engine's prompts, after a simulated latency.
+ * It can answer with SSE chunks when the request sets {@code stream}, and it rejects a
+ * configurable share of requests with 429 and {@code Retry-After}. With a request limit per
+ * minute it also rejects requests beyond the limit, like OpenAI, and reports the limit in
+ * {@code x-ratelimit-*-requests} headers on every completion response.
+ * {@code GET /stats} returns call counters and {@code POST /stats/reset} clears them.
+ *
+ * <p>Point the application at it with {@code SPRING_AI_OPENAI_BASE_URL=http://localhost:<port>}.
+ */
+public class FakeOpenAiServer implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(FakeOpenAiServer.class);
+    
+    /**
+     * Kind of engine call, recognised from the prompt
+     */
+    public enum Kind {
+        PLANNER,
+        EXECUTOR,
+        REVIEW,
+        SUMMARY,
+        OTHER
+    }
+    
+    /**
+     * @param port Port to listen on, 0 for any free port
+     * @param defaultLatency Latency for kinds without their own distribution
+     * @param latencyByKind Per-kind latency overrides
+     * @param rateLimitRate Share of requests rejected with 429, between 0 and 1
+     * @param retryAfterSeconds Value of the Retry-After header on randomly rejected requests
+     * @param requestsPerMinute Completions admitted per sliding minute, 0 for no limit
+     * @param plannerTasks Number of tasks in the canned plan
+     * @param streamChunkChars Characters per SSE chunk when streaming
+     */
+    public record Settings(
+        int port,
+        LatencyDistribution defaultLatency,
+        Map<Kind, LatencyDistribution> latencyByKind,
+        double rateLimitRate,
+        int retryAfterSeconds,
+        int requestsPerMinute,
+        int plannerTasks,
+        int streamChunkChars
+    ) {
+        
+        public static Settings defaults() {
+            return new Settings(0, LatencyDistribution.fixed(Duration.ZERO), Map.of(), 0.0, 1, 0, 5, 16);
+        }
+        
+        public static Settings fromArguments(String[] args) {
+            Arguments arguments = new Arguments(args);
+            Map<Kind, LatencyDistribution> byKind = new EnumMap<>(Kind.class);
+            for (Kind kind : Kind.values()) {
+                String spec = arguments.get(kind.name().toLowerCase() + "-latency");
+                if (spec != null) {
+                    byKind.put(kind, LatencyDistribution.parse(spec));
+                }
+            }
+            return new Settings(
+                arguments.getInt("fake-openai-port", arguments.getInt("port", 8089)),
+                LatencyDistribution.parse(arguments.get("latency", "lognormal:1200ms,0.5")),
+                byKind,
+                arguments.getDouble("rate-limit-rate", 0.0),
+                arguments.getInt("retry-after", 1),
+                arguments.getInt("requests-per-minute", 0),
+                arguments.getInt("planner-tasks", 5),
+                arguments.getInt("stream-chunk-chars", 16)
+            );
+        }
+        
+        public LatencyDistribution latency(Kind kind) {
+            return latencyByKind.getOrDefault(kind, defaultLatency);
+        }
+    }
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Kind, AtomicLong> calls = new ConcurrentHashMap<>();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+    // Admission times of the last minute's completions, for the request limit
+    private final Deque<Long> window = new ArrayDeque<>();
+    
+    /**
+     * Outcome of the request limit for one request
+     *
+     * @param reset Time until the oldest admission leaves the window
+     */
+    private record Admission(boolean admitted, int remaining, Duration reset) {
+    }
+    
+    public FakeOpenAiServer(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress(settings.port()), 0);
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::handleCompletion);
+        server.createContext("/stats", this::handleStats);
+        for (Kind kind : Kind.values()) {
+            calls.put(kind, new AtomicLong());
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        try (FakeOpenAiServer server = new FakeOpenAiServer(Settings.fromArguments(args)).start()) {
+            log.info("Fake OpenAI server listening on {}", server.baseUrl());
+            new CountDownLatch(1).await(); // Until the process is stopped
+        }
+    }
+    
+    public FakeOpenAiServer start() {
+        server.start();
+        return this;
+    }
+    
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    /**
+     * Answered completions by kind, excluding rate-limited requests
+     */
+    public Map<Kind, Long> calls() {
+        Map<Kind, Long> snapshot = new EnumMap<>(Kind.class);
+        calls.forEach((kind, count) -> snapshot.put(kind, count.get()));
+        return snapshot;
+    }
+    
+    public long totalCalls() {
+        return calls.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+    
+    public long rateLimited() {
+        return rateLimited.get();
+    }
+    
+    public void resetStats() {
+        calls.values().forEach(count -> count.set(0));
+        rateLimited.set(0);
+        promptTokens.set(0);
+        completionTokens.set(0);
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    static Kind classify(String prompt) {
+        if (prompt.contains("Break down the following goal")) {
+            return Kind.PLANNER;
+        }
+        if (prompt.contains("determine if the remaining plan needs to be updated")) {
+            return Kind.REVIEW;
+        }
+        if (prompt.contains("Provide concise summary")) {
+            return Kind.SUMMARY;
+        }
+        if (prompt.stripLeading().startsWith("Execute:")) {
+            return Kind.EXECUTOR;
+        }
+        return Kind.OTHER;
+    }
+    
+    String cannedResponse(Kind kind) {
+        return switch (kind) {
+            case PLANNER -> plan(settings.plannerTasks());
+            case EXECUTOR -> "Completed the task. Key findings: demand is steady, three suppliers shortlisted, "
+                + "estimated cost 4,200 EUR, next step is to confirm availability.";
+            case REVIEW -> "NO_CHANGES";
+            case SUMMARY -> "All tasks completed. The goal was achieved with no blocking issues; "
+                + "results are consistent and ready for follow-up.";
+            case OTHER -> "OK";
+        };
+    }
+    
+    /**
+     * A plan in the planner's JSON format: task i blocks on task i/2 (a binary tree),
+     * with one informational edge per odd task
+     */
+    static String plan(int tasks) {
+        StringBuilder plan = new StringBuilder("{\"tasks\": [");
+        for (int i = 1; i <= tasks; i++) {
+            plan.append(i > 1 ? ", " : "").append("{\"id\": ").append(i)
+                .append(", \"description\": \"Synthetic task ").append(i).append(" for the load test\"}");
+        }
+        plan.append("], \"dependencies\": [");
+        for (int i = 2; i <= tasks; i++) {
+            plan.append(i > 2 ? ", " : "").append("{\"task\": ").append(i).append(", \"dependsOn\": ").append(i / 2)
+                .append(", \"type\": \"blocking\", \"reason\": \"needs the parent result\"}");
+            if (i % 2 == 1 && i > 2) {
+                plan.append(", {\"task\": ").append(i).append(", \"dependsOn\": ").append(i - 1)
+                    .append(", \"type\": \"informational\", \"reason\": \"sibling context\"}");
+            }
+        }
+        return plan.append("]}").toString();
+    }
+    
+    private void handleCompletion(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String prompt = lastUserMessage(request);
+            Kind kind = classify(prompt);
+            Random random = ThreadLocalRandom.current();
+            
+            if (settings.rateLimitRate() > 0 && random.nextDouble() < settings.rateLimitRate()) {
+                rejectRateLimited(exchange, settings.retryAfterSeconds());
+                return;
+            }
+            if (settings.requestsPerMinute() > 0) {
+                Admission admission = admit();
+                exchange.getResponseHeaders().set("x-ratelimit-limit-requests", String.valueOf(settings.requestsPerMinute()));
+                exchange.getResponseHeaders().set("x-ratelimit-remaining-requests", String.valueOf(admission.remaining()));
+                exchange.getResponseHeaders().set("x-ratelimit-reset-requests",
+                    "%.3fs".formatted(admission.reset().toMillis() / 1000.0));
+                if (!admission.admitted()) {
+                    rejectRateLimited(exchange, (int) Math.max(1, (admission.reset().toMillis() + 999) / 1000));
+                    return;
+                }
+            }
+            
+            Duration latency = settings.latency(kind).sample(random);
+            String model = request.path("model").asText("gpt-4o");
+            String content = cannedResponse(kind);
+            calls.get(kind).incrementAndGet();
+            promptTokens.addAndGet(prompt.length() / 4);
+            completionTokens.addAndGet(content.length() / 4);
+            
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, model, content, latency);
+            } else {
+                sleep(latency);
+                sendJson(exchange, 200, completion(model, prompt, content));
+            }
+        } catch (Exception e) {
+            log.warn("Fake OpenAI request failed: {}", e.getMessage());
+        }
+    }
+    
+    private void rejectRateLimited(HttpExchange exchange, int retryAfterSeconds) throws IOException {
+        rateLimited.incrementAndGet();
+        exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+        sendJson(exchange, 429, objectMapper.createObjectNode().set("error", objectMapper.createObjectNode()
+            .put("message", "Rate limit reached for requests")
+            .put("type", "requests")
+            .put("code", "rate_limit_exceeded")));
+    }
+    
+    /**
+     * Sliding one-minute window over admitted completions
+     */
+    private Admission admit() {
+        long now = System.nanoTime();
+        long minute = Duration.ofMinutes(1).toNanos();
+        synchronized (window) {
+            while (!window.isEmpty() && now - window.peekFirst() >= minute) {
+                window.pollFirst();
+            }
+            boolean admitted = window.size() < settings.requestsPerMinute();
+            if (admitted) {
+                window.addLast(now);
+            }
+            Duration reset = Duration.ofNanos(minute - (now - window.peekFirst()));
+            return new Admission(admitted, settings.requestsPerMinute() - window.size(), reset);
+        }
+    }
+    
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if ("POST".equals(exchange.getRequestMethod()) && exchange.getRequestURI().getPath().endsWith("/reset")) {
+                resetStats();
+            }
+            ObjectNode stats = objectMapper.createObjectNode();
+            ObjectNode byKind = stats.putObject("calls");
+            calls().forEach((kind, count) -> byKind.put(kind.name().toLowerCase(), count));
+            stats.put("totalCalls", totalCalls());
+            stats.put("rateLimited", rateLimited.get());
+            stats.put("promptTokens", promptTokens.get());
+            stats.put("completionTokens", completionTokens.get());
+            sendJson(exchange, 200, stats);
+        }
+    }
+    
+    private String lastUserMessage(JsonNode request) {
+        String prompt = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                JsonNode content = message.path("content");
+                prompt = content.isTextual() ? content.asText() : content.toString();
+            }
+        }
+        return prompt;
+    }
+    
+    private ObjectNode completion(String model, String prompt, String content) {
+        ObjectNode response = objectMapper.createObjectNode()
+            .put("id", "chatcmpl-" + UUID.randomUUID())
+            .put("object", "chat.completion")
+            .put("created", System.currentTimeMillis() / 1000)
+            .put("model", model);
+        ObjectNode choice = response.putArray("choices").addObject().put("index", 0).put("finish_reason", "stop");
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        response.putObject("usage")
+            .put("prompt_tokens", prompt.length() / 4)
+            .put("completion_tokens", content.length() / 4)
+            .put("total_tokens", (prompt.length() + content.length()) / 4);
+        return response;
+    }
+    
+    /**
+     * Server-sent events: the first chunk after about a third of the latency (time to first
+     * token), the rest spread evenly over the remainder, then {@code [DONE]}
+     */
+    private void stream(HttpExchange exchange, String model, String content, Duration latency) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        
+        String id = "chatcmpl-" + UUID.randomUUID();
+        long created = System.currentTimeMillis() / 1000;
+        int chunkChars = Math.max(1, settings.streamChunkChars());
+        int chunks = Math.max(1, (content.length() + chunkChars - 1) / chunkChars);
+        long firstTokenMs = latency.toMillis() / 3;
+        long interChunkMs = (latency.toMillis() - firstTokenMs) / chunks;
+        
+        OutputStream out = exchange.getResponseBody();
+        sleep(Duration.ofMillis(firstTokenMs));
+        for (int i = 0; i < chunks; i++) {
+            String piece = content.substring(i * chunkChars, Math.min(content.length(), (i + 1) * chunkChars));
+            ObjectNode delta = objectMapper.createObjectNode();
+            if (i == 0) {
+                delta.put("role", "assistant");
+            }
+            delta.put("content", piece);
+            writeEvent(out, chunk(id, created, model, delta, null));
+            if (i < chunks - 1) {
+                sleep(Duration.ofMillis(interChunkMs));
+            }
+        }
+        writeEvent(out, chunk(id, created, model, objectMapper.createObjectNode(), "stop"));
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+    
+    private ObjectNode chunk(String id, long created, String model, ObjectNode delta, String finishReason) {
+        ObjectNode chunk = objectMapper.createObjectNode()
+            .put("id", id)
+            .put("object", "chat.completion.chunk")
+            .put("created", created)
+            .put("model", model);
+        ArrayNode choices = chunk.putArray("choices");
+        ObjectNode choice = choices.addObject().put("index", 0);
+        choice.set("delta", delta);
+        if (finishReason != null) {
+            choice.put("finish_reason", finishReason);
+        } else {
+            choice.putNull("finish_reason");
+        }
+        return chunk;
+    }
+    
+    private void writeEvent(OutputStream out, JsonNode data) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(data) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+    
+    private void sendJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+    
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
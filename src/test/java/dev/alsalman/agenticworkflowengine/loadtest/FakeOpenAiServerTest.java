@@ -0,0 +1,155 @@
+package dev.alsalman.agenticworkflowengine.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FakeOpenAiServerTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newHttpClient();
+    private FakeOpenAiServer server;
+    
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+    
+    @Test
+    void completion_ShouldAnswerPlannerPromptWithParseablePlan() throws Exception {
+        // Given
+        server = new FakeOpenAiServer(FakeOpenAiServer.Settings.defaults()).start();
+        
+        // When
+        HttpResponse<String> response = complete("Break down the following goal into 3-6 specific, actionable tasks.\nRespond with JSON only", false);
+        
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode body = objectMapper.readTree(response.body());
+        String content = body.path("choices").get(0).path("message").path("content").asText();
+        JsonNode plan = objectMapper.readTree(content);
+        assertThat(plan.path("tasks").get(0).path("description").asText()).isEqualTo("Synthetic task 1 for the load test");
+        assertThat(plan.path("dependencies").get(4).path("task").asInt()).isEqualTo(5);
+        assertThat(plan.path("dependencies").get(4).path("dependsOn").asInt()).isEqualTo(2);
+        assertThat(body.path("usage").path("total_tokens").asInt()).isPositive();
+        assertThat(server.calls()).containsEntry(FakeOpenAiServer.Kind.PLANNER, 1L);
+    }
+    
+    @Test
+    void completion_ShouldStreamChunksEndingWithDone() throws Exception {
+        // Given
+        server = new FakeOpenAiServer(FakeOpenAiServer.Settings.defaults()).start();
+        
+        // When
+        HttpResponse<String> response = complete("Execute: Research venues\n\nGoal: Offsite", true);
+        
+        // Then
+        assertThat(response.headers().firstValue("Content-Type")).contains("text/event-stream");
+        List<String> events = response.body().lines().filter(line -> line.startsWith("data: ")).toList();
+        assertThat(events.getLast()).isEqualTo("data: [DONE]");
+        
+        StringBuilder content = new StringBuilder();
+        for (String event : events.subList(0, events.size() - 1)) {
+            content.append(objectMapper.readTree(event.substring(6)).path("choices").get(0).path("delta").path("content").asText(""));
+        }
+        assertThat(content.toString()).isEqualTo(server.cannedResponse(FakeOpenAiServer.Kind.EXECUTOR));
+    }
+    
+    @Test
+    void completion_ShouldRejectWithRetryAfter_WhenRateLimited() throws Exception {
+        // Given
+        server = new FakeOpenAiServer(new FakeOpenAiServer.Settings(
+            0, LatencyDistribution.fixed(Duration.ZERO), Map.of(), 1.0, 7, 0, 5, 16)).start();
+        
+        // When
+        HttpResponse<String> response = complete("Execute: anything", false);
+        
+        // Then
+        assertThat(response.statusCode()).isEqualTo(429);
+        assertThat(response.headers().firstValue("Retry-After")).contains("7");
+        assertThat(objectMapper.readTree(response.body()).path("error").path("code").asText()).isEqualTo("rate_limit_exceeded");
+        assertThat(server.rateLimited()).isEqualTo(1);
+        assertThat(server.totalCalls()).isZero();
+    }
+    
+    @Test
+    void completion_ShouldRejectRequestsBeyondLimitPerMinute() throws Exception {
+        // Given
+        server = new FakeOpenAiServer(new FakeOpenAiServer.Settings(
+            0, LatencyDistribution.fixed(Duration.ZERO), Map.of(), 0.0, 1, 2, 5, 16)).start();
+        
+        // When
+        HttpResponse<String> first = complete("Execute: anything", false);
+        HttpResponse<String> second = complete("Execute: anything", true);
+        HttpResponse<String> third = complete("Execute: anything", false);
+        
+        // Then
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.headers().firstValue("x-ratelimit-limit-requests")).contains("2");
+        assertThat(first.headers().firstValue("x-ratelimit-remaining-requests")).contains("1");
+        assertThat(second.statusCode()).isEqualTo(200);
+        assertThat(second.headers().firstValue("x-ratelimit-remaining-requests")).contains("0");
+        assertThat(third.statusCode()).isEqualTo(429);
+        assertThat(third.headers().firstValue("x-ratelimit-reset-requests")).hasValueSatisfying(
+            reset -> assertThat(reset).endsWith("s"));
+        assertThat(Integer.parseInt(third.headers().firstValue("Retry-After").orElseThrow())).isBetween(1, 60);
+        assertThat(server.totalCalls()).isEqualTo(2);
+        assertThat(server.rateLimited()).isEqualTo(1);
+    }
+    
+    @Test
+    void classify_ShouldRecogniseEnginePrompts() {
+        assertThat(FakeOpenAiServer.classify("Execute: Book flights\n\nGoal: Trip")).isEqualTo(FakeOpenAiServer.Kind.EXECUTOR);
+        assertThat(FakeOpenAiServer.classify("A task has been completed. Review the results and determine if the remaining plan needs to be updated."))
+            .isEqualTo(FakeOpenAiServer.Kind.REVIEW);
+        assertThat(FakeOpenAiServer.classify("Goal: x\n\nProvide concise summary: goal achievement"))
+            .isEqualTo(FakeOpenAiServer.Kind.SUMMARY);
+    }
+    
+    @Test
+    void latencyDistribution_ShouldParseSpecs() {
+        Random random = new Random(1);
+        
+        assertThat(LatencyDistribution.parse("fixed:250ms").sample(random)).isEqualTo(Duration.ofMillis(250));
+        assertThat(LatencyDistribution.parse("uniform:1s-2s").sample(random))
+            .isBetween(Duration.ofSeconds(1), Duration.ofSeconds(2));
+        assertThat(LatencyDistribution.parse("lognormal:PT1S,0").sample(random)).isEqualTo(Duration.ofSeconds(1));
+    }
+    
+    @Test
+    void percentile_ShouldUseNearestRank() {
+        List<Long> sorted = List.of(10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L);
+        
+        assertThat(LoadGenerator.percentile(sorted, 50)).isEqualTo(50L);
+        assertThat(LoadGenerator.percentile(sorted, 95)).isEqualTo(100L);
+        assertThat(LoadGenerator.percentile(List.of(), 99)).isZero();
+    }
+    
+    private HttpResponse<String> complete(String prompt, boolean stream) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of(
+            "model", "gpt-4o",
+            "stream", stream,
+            "messages", List.of(Map.of("role", "user", "content", prompt))
+        ));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl() + "/v1/chat/completions"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,71 @@
+package dev.alsalman.agenticworkflowengine.loadtest;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Simulated model latency. Parsed from specs such as {@code fixed:800ms},
+ * {@code uniform:200ms-2s} or {@code lognormal:1500ms,0.6} (median and sigma).
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+    
+    Duration sample(Random random);
+    
+    static LatencyDistribution fixed(Duration latency) {
+        return random -> latency;
+    }
+    
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minMs = min.toMillis();
+        long spanMs = Math.max(0, max.toMillis() - minMs);
+        return random -> Duration.ofMillis(minMs + (spanMs == 0 ? 0 : random.nextLong(spanMs + 1)));
+    }
+    
+    /**
+     * Long-tailed latency typical of LLM providers
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double mu = Math.log(Math.max(1, median.toMillis()));
+        return random -> Duration.ofMillis(Math.round(Math.exp(mu + sigma * random.nextGaussian())));
+    }
+    
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Latency spec must look like kind:value, got: " + spec);
+        }
+        return switch (parts[0].toLowerCase()) {
+            case "fixed" -> fixed(parseDuration(parts[1]));
+            case "uniform" -> {
+                String[] bounds = parts[1].split("-", 2);
+                if (bounds.length != 2) {
+                    throw new IllegalArgumentException("Uniform latency needs min-max, got: " + spec);
+                }
+                yield uniform(parseDuration(bounds[0]), parseDuration(bounds[1]));
+            }
+            case "lognormal" -> {
+                String[] values = parts[1].split(",", 2);
+                yield logNormal(parseDuration(values[0]), values.length > 1 ? Double.parseDouble(values[1].trim()) : 0.5);
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + parts[0]);
+        };
+    }
+    
+    /**
+     * Accepts {@code 250ms}, {@code 2s} or ISO-8601 such as {@code PT1.5S}
+     */
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.startsWith("pt")) {
+            return Duration.parse(text.toUpperCase());
+        }
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2).trim()));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofMillis(Math.round(Double.parseDouble(text.substring(0, text.length() - 1).trim()) * 1000));
+        }
+        return Duration.ofMillis(Long.parseLong(text));
+    }
+}
@@ -0,0 +1,263 @@
+package dev.alsalman.agenticworkflowengine.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open-loop load generator for a running engine. Starts goals through
+ * {@code /api/workflow/execute} or {@code /api/templates/{id}/execute} at a fixed rate,
+ * waits for each with the await long-poll, and reports completed goals per minute,
+ * end-to-end latency percentiles, LLM calls per goal (from the fake OpenAI server) and
+ * DB round-trips per goal (Hikari connection acquisitions from actuator metrics).
+ *
+ * <p>Options: {@code --base-url}, {@code --rps}, {@code --duration}, {@code --mode=workflow|template},
+ * {@code --template-id}, {@code --parameters} (JSON), {@code --query}, {@code --report} (JSON file),
+ * {@code --fake-openai-url} to read counters from a separately started fake server, or
+ * {@code --fake-openai-port} plus {@link FakeOpenAiServer} options to start one in-process.
+ */
+public class LoadGenerator {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+    
+    private static final String DB_METRIC = "/actuator/metrics/hikaricp.connections.usage";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+    
+    private final String baseUrl;
+    private final double rps;
+    private final Duration duration;
+    private final Duration drainTimeout;
+    private final String mode;
+    private final String templateId;
+    private final String parametersJson;
+    private final String query;
+    
+    private final List<Long> latenciesMs = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    
+    LoadGenerator(Arguments arguments) {
+        this.baseUrl = arguments.get("base-url", "http://localhost:8080");
+        this.rps = arguments.getDouble("rps", 1.0);
+        this.duration = arguments.getDuration("duration", Duration.ofMinutes(1));
+        this.drainTimeout = arguments.getDuration("drain-timeout", Duration.ofMinutes(10));
+        this.mode = arguments.get("mode", "workflow");
+        this.templateId = arguments.get("template-id");
+        this.parametersJson = arguments.get("parameters", "{}");
+        this.query = arguments.get("query", "Plan a three-day team offsite in Lisbon");
+        if ("template".equals(mode) && templateId == null) {
+            throw new IllegalArgumentException("--template-id is required in template mode");
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Arguments arguments = new Arguments(args);
+        FakeOpenAiServer fakeServer = arguments.has("fake-openai-port")
+            ? new FakeOpenAiServer(FakeOpenAiServer.Settings.fromArguments(args)).start()
+            : null;
+        String fakeUrl = fakeServer != null ? fakeServer.baseUrl() : arguments.get("fake-openai-url");
+        if (fakeServer != null) {
+            log.info("Started fake OpenAI server on {}; the engine must use it as spring.ai.openai.base-url", fakeUrl);
+        }
+        
+        try {
+            LoadGenerator generator = new LoadGenerator(arguments);
+            ObjectNode report = generator.run(fakeUrl);
+            String json = generator.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+            System.out.println(json);
+            if (arguments.has("report")) {
+                Files.writeString(Path.of(arguments.get("report")), json);
+            }
+        } finally {
+            if (fakeServer != null) {
+                fakeServer.close();
+            }
+        }
+    }
+    
+    ObjectNode run(String fakeOpenAiUrl) throws Exception {
+        if (fakeOpenAiUrl != null) {
+            post(fakeOpenAiUrl + "/stats/reset", "");
+        }
+        double dbBefore = dbRoundTrips();
+        
+        long intervalNanos = (long) (1_000_000_000L / rps);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        log.info("Driving {} mode at {} goals/s for {}", mode, rps, duration);
+        
+        try (ExecutorService goals = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Open loop: arrivals follow the schedule regardless of how long goals take
+            for (long next = startNanos; next < endNanos; next += intervalNanos) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                goals.submit(this::runGoal);
+            }
+            goals.shutdown();
+            if (!goals.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Goals still running after the drain timeout; reporting what has finished");
+                goals.shutdownNow();
+            }
+        }
+        double elapsedMinutes = (System.nanoTime() - startNanos) / 60e9;
+        
+        JsonNode llmStats = fakeOpenAiUrl != null ? getJson(fakeOpenAiUrl + "/stats") : null;
+        double dbAfter = dbRoundTrips();
+        return report(elapsedMinutes, llmStats, dbBefore, dbAfter);
+    }
+    
+    private void runGoal() {
+        long start = System.nanoTime();
+        started.incrementAndGet();
+        try {
+            String goalId = startGoal();
+            if (goalId == null) {
+                rejected.incrementAndGet();
+                return;
+            }
+            
+            String status = awaitGoal(goalId);
+            latenciesMs.add((System.nanoTime() - start) / 1_000_000);
+            if ("COMPLETED".equals(status)) {
+                completed.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+        } catch (Exception e) {
+            log.warn("Goal failed: {}", e.getMessage());
+            failed.incrementAndGet();
+        }
+    }
+    
+    private String startGoal() throws IOException, InterruptedException {
+        HttpResponse<String> response = "template".equals(mode)
+            ? post(baseUrl + "/api/templates/" + templateId + "/execute", parametersJson)
+            : post(baseUrl + "/api/workflow/execute", objectMapper.writeValueAsString(Map.of("query", query)));
+        if (response.statusCode() / 100 != 2) {
+            log.warn("Start rejected with {}: {}", response.statusCode(), response.body());
+            return null;
+        }
+        return objectMapper.readTree(response.body()).path("goalId").asText(null);
+    }
+    
+    /**
+     * @return Final goal status
+     */
+    private String awaitGoal(String goalId) throws IOException, InterruptedException {
+        while (true) {
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create(baseUrl + "/api/workflow/goal/" + goalId + "/await?timeoutSeconds=60"))
+                .timeout(Duration.ofSeconds(90))
+                .GET()
+                .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                return objectMapper.readTree(response.body()).path("status").asText();
+            }
+            if (response.statusCode() != 202) {
+                throw new IOException("Await returned " + response.statusCode());
+            }
+        }
+    }
+    
+    private ObjectNode report(double elapsedMinutes, JsonNode llmStats, double dbBefore, double dbAfter) {
+        List<Long> sorted;
+        synchronized (latenciesMs) {
+            sorted = new ArrayList<>(latenciesMs);
+        }
+        Collections.sort(sorted);
+        int finished = completed.get() + failed.get();
+        
+        ObjectNode report = objectMapper.createObjectNode()
+            .put("mode", mode)
+            .put("targetRps", rps)
+            .put("durationSeconds", duration.toSeconds())
+            .put("goalsStarted", started.get())
+            .put("goalsRejected", rejected.get())
+            .put("goalsCompleted", completed.get())
+            .put("goalsFailed", failed.get())
+            .put("goalsPerMinute", elapsedMinutes > 0 ? completed.get() / elapsedMinutes : 0);
+        report.putObject("latencyMs")
+            .put("p50", percentile(sorted, 50))
+            .put("p95", percentile(sorted, 95))
+            .put("p99", percentile(sorted, 99))
+            .put("max", sorted.isEmpty() ? 0 : sorted.getLast());
+        
+        if (llmStats != null && finished > 0) {
+            report.put("llmCallsPerGoal", llmStats.path("totalCalls").asDouble() / finished);
+            report.put("llmRateLimited", llmStats.path("rateLimited").asLong());
+            report.set("llmCalls", llmStats.path("calls"));
+        }
+        if (!Double.isNaN(dbBefore) && !Double.isNaN(dbAfter) && finished > 0) {
+            // Every pool checkout is at least one round-trip; batched statements share one
+            report.put("dbRoundTripsPerGoal", (dbAfter - dbBefore) / finished);
+        }
+        return report;
+    }
+    
+    static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+    
+    /**
+     * @return Cumulative connection acquisitions, or NaN if the metric is not exposed
+     */
+    private double dbRoundTrips() {
+        try {
+            for (JsonNode measurement : getJson(baseUrl + DB_METRIC).path("measurements")) {
+                if ("COUNT".equals(measurement.path("statistic").asText())) {
+                    return measurement.path("value").asDouble();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not read {}: {}", DB_METRIC, e.getMessage());
+        }
+        return Double.NaN;
+    }
+    
+    private HttpResponse<String> post(String url, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private JsonNode getJson(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(10)).GET().build();
+        return objectMapper.readTree(http.send(request, HttpResponse.BodyHandlers.ofString()).body());
+    }
+}
@@ -5,9 +5,16 @@ import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;import dev
 import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;import org.junit.jupiter.api.BeforeEach;
 import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;import org.junit.jupiter.api.Test;
 import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;
+import dev.alsalman.agenticworkflowengine.planning.PlanningProperties;
+import dev.alsalman.agenticworkflowengine.planning.domain.PlanShape;
+import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
+import dev.alsalman.agenticworkflowengine.workflow.domain.DependencyType;
+import dev.alsalman.agenticworkflowengine.workflow.domain.TaskDependency;
 import java.time.Instant;
+import java.util.ArrayList;
 import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;import java.util.List;
 import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;import java.util.UUID;
+import java.util.regex.Pattern;
 import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;
 import static org.assertj.core.api.Assertions.assertThat;
 import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;
@@ -179,4 +186,116 @@ class DependencyResolverTest {
         // Then
         assertThat(hasCircular).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    void hasCircularDependencies_ShouldHandleDenseLayeredGraphWithoutRevisitingTasks() {
+        // Given - 40 layers of 3 tasks, each blocking on every task of the previous layer (3^40 paths)
+        List<Task> tasks = new ArrayList<>();
+        List<UUID> previousLayer = List.of();
+        for (int layer = 0; layer < 40; layer++) {
+            List<UUID> currentLayer = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Task task = new Task(UUID.randomUUID(), "Task " + layer + "." + i, null, TaskStatus.PENDING,
+                    previousLayer, List.of(), Instant.now(), null);
+                tasks.add(task);
+                currentLayer.add(task.id());
+            }
+            previousLayer = currentLayer;
+        }
+
+        // When
+        boolean hasCircular = dependencyResolver.hasCircularDependencies(tasks);
+
+        // Then
+        assertThat(hasCircular).isFalse();
+    }
+
+    @Test
+    void hasCircularDependencies_ShouldHandleLongChainWithoutRecursion() {
+        // Given - 20,000 tasks, each blocking on the previous one
+        List<Task> tasks = new ArrayList<>();
+        UUID previous = null;
+        for (int i = 0; i < 20_000; i++) {
+            Task task = new Task(UUID.randomUUID(), "Task " + i, null, TaskStatus.PENDING,
+                previous != null ? List.of(previous) : List.of(), List.of(), Instant.now(), null);
+            tasks.add(task);
+            previous = task.id();
+        }
+
+        // When
+        boolean hasCircular = dependencyResolver.hasCircularDependencies(tasks);
+
+        // Then
+        assertThat(hasCircular).isFalse();
+    }
+
+    @Test
+    void shape_ShouldReportWidthDepthAndCriticalPath() {
+        // Given - task3 only informs, so it runs alongside task1
+        List<Task> tasks = List.of(task1, task2, task3, task4);
+
+        // When
+        PlanShape shape = dependencyResolver.shape(tasks);
+
+        // Then
+        assertThat(shape.width()).isEqualTo(2);
+        assertThat(shape.depth()).isEqualTo(3);
+        assertThat(shape.criticalPath()).containsExactly(task1Id, task2Id, task4Id);
+    }
+
+    @Test
+    void reduceTransitiveDependencies_ShouldMakeImpliedBlockingDependenciesInformational() {
+        // Given - task4 waits for task2, which already waits for task1
+        Task shortcut = new Task(task4Id, "Task 4", null, TaskStatus.PENDING, List.of(task2Id, task1Id), List.of(),
+            Instant.now(), null);
+        TaskPlan plan = TaskPlan.of(List.of(task1, task2, shortcut), List.of(
+            TaskDependency.blocking(task2Id, task1Id, "needs task 1"),
+            TaskDependency.blocking(task4Id, task2Id, "needs task 2"),
+            TaskDependency.blocking(task4Id, task1Id, "needs task 1 as well")));
+
+        // When
+        TaskPlan reduced = dependencyResolver.reduceTransitiveDependencies(plan);
+
+        // Then
+        Task reducedTask4 = reduced.tasks().get(2);
+        assertThat(reducedTask4.blockingDependencies()).containsExactly(task2Id);
+        assertThat(reducedTask4.informationalDependencies()).containsExactly(task1Id);
+        assertThat(reduced.dependencies()).extracting(TaskDependency::type)
+            .containsExactly(DependencyType.BLOCKING, DependencyType.BLOCKING, DependencyType.INFORMATIONAL);
+        assertThat(dependencyResolver.shape(reduced.tasks()).depth()).isEqualTo(3);
+    }
+
+    @Test
+    void relaxDependencies_ShouldOnlyRelaxContextReasonsOnTheLongestChain() {
+        // Given
+        Pattern informationalReasons = Pattern.compile(PlanningProperties.DEFAULT_INFORMATIONAL_REASONS);
+        TaskPlan plan = TaskPlan.of(List.of(task1, task2, task3, task4), List.of(
+            TaskDependency.blocking(task2Id, task1Id, "background that helps with the outline"),
+            TaskDependency.informational(task3Id, task1Id, "context"),
+            TaskDependency.blocking(task4Id, task2Id, "needs the outline for context"),
+            TaskDependency.blocking(task4Id, task3Id, "needs the figures")));
+
+        // When
+        TaskPlan relaxed = dependencyResolver.relaxDependencies(plan, 2, informationalReasons);
+
+        // Then
+        assertThat(relaxed.tasks().get(1).blockingDependencies()).isEmpty();
+        assertThat(relaxed.tasks().get(1).informationalDependencies()).containsExactly(task1Id);
+        assertThat(relaxed.tasks().get(3).blockingDependencies()).containsExactly(task2Id, task3Id);
+        assertThat(dependencyResolver.shape(relaxed.tasks()).depth()).isEqualTo(2);
+    }
+
+    @Test
+    void relaxDependencies_ShouldKeepPlan_WhenItIsShallowEnough() {
+        // Given
+        TaskPlan plan = TaskPlan.of(List.of(task1, task2, task3, task4), List.of(
+            TaskDependency.blocking(task2Id, task1Id, "helps with context")));
+
+        // When
+        TaskPlan relaxed = dependencyResolver.relaxDependencies(plan, 3,
+            Pattern.compile(PlanningProperties.DEFAULT_INFORMATIONAL_REASONS));
+
+        // Then
+        assertThat(relaxed).isSameAs(plan);
+    }
+}
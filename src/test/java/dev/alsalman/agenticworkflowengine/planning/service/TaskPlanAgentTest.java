@@ -1,6 +1,8 @@
 package dev.alsalman.agenticworkflowengine.planning.service;
 
 import dev.alsalman.agenticworkflowengine.infrastructure.ResilientChatClient;
+import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;
+import dev.alsalman.agenticworkflowengine.planning.PlanningProperties;
 import dev.alsalman.agenticworkflowengine.planning.TaskPlanAgent;
 import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
 import dev.alsalman.agenticworkflowengine.workflow.domain.DependencyType;
@@ -11,53 +13,59 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TaskPlanAgentTest {
-
+    
     @Mock
     private ResilientChatClient resilientChatClient;
-
-    @InjectMocks
+    
     private TaskPlanAgent taskPlanAgent;
-
+    
     @BeforeEach
     void setUp() {
-        // Setup is minimal as most tests configure their own mocks
+        taskPlanAgent = new TaskPlanAgent(resilientChatClient, new DependencyResolver(),
+            new PlanningProperties(3, 3, null, true, 2));
     }
-
+    
     @Test
     void createTaskPlanWithDependencies_WithNoDependencies_ShouldReturnTasksWithoutDependencies() {
         // Given
         String userGoal = "Create a simple presentation";
         String aiResponse = """
-            TASKS:
-            1. Research topic
-            2. Create outline
-            3. Design slides
-            
-            DEPENDENCIES:
+            {
+              "tasks": [
+                {"id": 1, "description": "Research topic"},
+                {"id": 2, "description": "Create outline"},
+                {"id": 3, "description": "Design slides"}
+              ],
+              "dependencies": []
+            }
             """;
         
-        when(resilientChatClient.call(eq("task planning"), any(String.class)))
-            .thenReturn(aiResponse);
-
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(aiResponse));
+        
         // When
         TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies(userGoal);
-
+        
         // Then
         assertThat(result.tasks()).hasSize(3);
         assertThat(result.dependencies()).isEmpty();
@@ -72,28 +80,31 @@ class TaskPlanAgentTest {
             assertThat(task.informationalDependencies()).isEmpty();
         });
     }
-
+    
     @Test
     void createTaskPlanWithDependencies_WithBlockingDependencies_ShouldParseCorrectly() {
         // Given
         String userGoal = "Launch a new product";
         String aiResponse = """
-            TASKS:
-            1. Research market demand
-            2. Develop product
-            3. Create marketing strategy
-            
-            DEPENDENCIES:
-            Task 2 depends on Task 1 (blocking) - needs market data to guide development
-            Task 3 depends on Task 2 (blocking) - needs product features to create strategy
+            {
+              "tasks": [
+                {"id": 1, "description": "Research market demand"},
+                {"id": 2, "description": "Develop product"},
+                {"id": 3, "description": "Create marketing strategy"}
+              ],
+              "dependencies": [
+                {"task": 2, "dependsOn": 1, "type": "blocking", "reason": "needs market data to guide development"},
+                {"task": 3, "dependsOn": 2, "type": "blocking", "reason": "needs product features to create strategy"}
+              ]
+            }
             """;
         
-        when(resilientChatClient.call(eq("task planning"), any(String.class)))
-            .thenReturn(aiResponse);
-
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(aiResponse));
+        
         // When
         TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies(userGoal);
-
+        
         // Then
         assertThat(result.tasks()).hasSize(3);
         assertThat(result.dependencies()).hasSize(2);
@@ -120,28 +131,31 @@ class TaskPlanAgentTest {
         assertThat(task2.blockingDependencies()).containsExactly(result.tasks().get(0).id());
         assertThat(task3.blockingDependencies()).containsExactly(result.tasks().get(1).id());
     }
-
+    
     @Test
     void createTaskPlanWithDependencies_WithInformationalDependencies_ShouldParseCorrectly() {
         // Given
         String userGoal = "Write a research paper";
         String aiResponse = """
-            TASKS:
-            1. Gather primary sources
-            2. Review existing literature
-            3. Write first draft
-            
-            DEPENDENCIES:
-            Task 3 depends on Task 1 (blocking) - needs primary sources to write
-            Task 3 depends on Task 2 (informational) - literature review provides context
+            {
+              "tasks": [
+                {"id": 1, "description": "Gather primary sources"},
+                {"id": 2, "description": "Review existing literature"},
+                {"id": 3, "description": "Write first draft"}
+              ],
+              "dependencies": [
+                {"task": 3, "dependsOn": 1, "type": "blocking", "reason": "needs primary sources to write"},
+                {"task": 3, "dependsOn": 2, "type": "informational", "reason": "literature review provides context"}
+              ]
+            }
             """;
         
-        when(resilientChatClient.call(eq("task planning"), any(String.class)))
-            .thenReturn(aiResponse);
-
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(aiResponse));
+        
         // When
         TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies(userGoal);
-
+        
         // Then
         assertThat(result.tasks()).hasSize(3);
         assertThat(result.dependencies()).hasSize(2);
@@ -165,35 +179,103 @@ class TaskPlanAgentTest {
         assertThat(blockingDeps.get(0).reason()).isEqualTo("needs primary sources to write");
         assertThat(infoDeps.get(0).reason()).isEqualTo("literature review provides context");
     }
-
+    
     @Test
-    void createTaskPlanWithDependencies_WithMalformedDependencies_ShouldSkipInvalidOnes() {
+    void createTaskPlanWithDependencies_WithUnknownTaskInDependency_ShouldAskForRepair() {
         // Given
         String userGoal = "Complete project";
-        String aiResponse = """
-            TASKS:
-            1. Start project
-            2. Complete project
-            
-            DEPENDENCIES:
-            Task 2 depends on Task 1 (blocking) - valid dependency
-            Invalid dependency line without proper format
-            Task 99 depends on Task 1 (blocking) - invalid task number
+        String invalidResponse = """
+            {
+              "tasks": [
+                {"id": 1, "description": "Start project"},
+                {"id": 2, "description": "Complete project"}
+              ],
+              "dependencies": [
+                {"task": 2, "dependsOn": 1, "type": "blocking", "reason": "valid dependency"},
+                {"task": 99, "dependsOn": 1, "type": "blocking", "reason": "invalid task number"}
+              ]
+            }
+            """;
+        String repairedResponse = """
+            {
+              "tasks": [
+                {"id": 1, "description": "Start project"},
+                {"id": 2, "description": "Complete project"}
+              ],
+              "dependencies": [
+                {"task": 2, "dependsOn": 1, "type": "blocking", "reason": "valid dependency"}
+              ]
+            }
             """;
         
-        when(resilientChatClient.call(eq("task planning"), any(String.class)))
-            .thenReturn(aiResponse);
-
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(invalidResponse));
+        when(resilientChatClient.callAsync(eq("plan repair"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(repairedResponse));
+        
         // When
         TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies(userGoal);
-
+        
         // Then
         assertThat(result.tasks()).hasSize(2);
-        assertThat(result.dependencies()).hasSize(1); // Only the valid dependency should be parsed
-        
+        assertThat(result.dependencies()).hasSize(1);
         assertThat(result.dependencies().get(0).reason()).isEqualTo("valid dependency");
+        
+        ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
+        verify(resilientChatClient).callAsync(eq("plan repair"), promptCaptor.capture(), isNull(), any(String.class));
+        assertThat(promptCaptor.getValue())
+            .contains(invalidResponse)
+            .contains("Dependency of task 99 on task 1 refers to a task that is not in the plan");
     }
-
+    
+    @Test
+    void createTaskPlanWithDependencies_WithInvalidJsonAfterRepair_ShouldFail() {
+        // Given
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("{\"tasks\": [{\"id\": 1, \"description\": \"Start project\"}"));
+        when(resilientChatClient.callAsync(eq("plan repair"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Sorry, I cannot help with that"));
+        
+        // When / Then
+        assertThatThrownBy(() -> taskPlanAgent.createTaskPlanWithDependencies("Complete project"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("no JSON object");
+        verify(resilientChatClient, times(1)).callAsync(eq("plan repair"), any(String.class), isNull(), any(String.class));
+    }
+    
+    @Test
+    void createTaskPlanWithDependencies_WithCycle_ShouldAskForRepair() {
+        // Given
+        String cyclicResponse = """
+            {
+              "tasks": [
+                {"id": 1, "description": "Write code"},
+                {"id": 2, "description": "Write tests"}
+              ],
+              "dependencies": [
+                {"task": 1, "dependsOn": 2, "type": "blocking", "reason": "tests first"},
+                {"task": 2, "dependsOn": 1, "type": "blocking", "reason": "code first"}
+              ]
+            }
+            """;
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(cyclicResponse));
+        when(resilientChatClient.callAsync(eq("plan repair"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("""
+                {"tasks": [{"id": 1, "description": "Write code"}, {"id": 2, "description": "Write tests"}],
+                 "dependencies": [{"task": 2, "dependsOn": 1, "type": "blocking", "reason": "code first"}]}
+                """));
+        
+        // When
+        TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies("Ship a feature");
+        
+        // Then
+        assertThat(result.dependencies()).hasSize(1);
+        ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
+        verify(resilientChatClient).callAsync(eq("plan repair"), promptCaptor.capture(), isNull(), any(String.class));
+        assertThat(promptCaptor.getValue()).contains("Blocking dependencies form a cycle: tasks 1, 2");
+    }
+    
     @Test
     void reviewAndUpdatePlan_WithNoChangesNeeded_ShouldReturnOriginalTasks() {
         // Given
@@ -204,17 +286,17 @@ class TaskPlanAgentTest {
         
         List<Task> currentTasks = List.of(task1, task2);
         
-        when(resilientChatClient.call(eq("plan review"), any(String.class)))
-            .thenReturn("NO_CHANGES");
-
+        when(resilientChatClient.callAsync(eq("plan review"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("NO_CHANGES"));
+        
         // When
         List<Task> result = taskPlanAgent.reviewAndUpdatePlan(currentTasks, task1);
-
+        
         // Then
         assertThat(result).isEqualTo(currentTasks);
         assertThat(result).hasSize(2);
     }
-
+    
     @Test
     void reviewAndUpdatePlan_WithChangesRequested_ShouldPreserveOriginalPlan() {
         // Given
@@ -225,17 +307,17 @@ class TaskPlanAgentTest {
         
         List<Task> currentTasks = List.of(completedTask, pendingTask);
         
-        when(resilientChatClient.call(eq("plan review"), any(String.class)))
-            .thenReturn("Based on the research results, we should add a new validation task");
-
+        when(resilientChatClient.callAsync(eq("plan review"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("Based on the research results, we should add a new validation task"));
+        
         // When
         List<Task> result = taskPlanAgent.reviewAndUpdatePlan(currentTasks, completedTask);
-
+        
         // Then - Should preserve original plan for stability
         assertThat(result).isEqualTo(currentTasks);
         assertThat(result).hasSize(2);
     }
-
+    
     @Test
     void reviewAndUpdatePlan_ShouldIncludeCompletedTaskInfoInPrompt() {
         // Given
@@ -246,15 +328,15 @@ class TaskPlanAgentTest {
         
         List<Task> currentTasks = List.of(completedTask, pendingTask);
         
-        when(resilientChatClient.call(eq("plan review"), any(String.class)))
-            .thenReturn("NO_CHANGES");
-
+        when(resilientChatClient.callAsync(eq("plan review"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("NO_CHANGES"));
+        
         // When
         taskPlanAgent.reviewAndUpdatePlan(currentTasks, completedTask);
-
+        
         // Then
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("plan review"), promptCaptor.capture());
+        verify(resilientChatClient).callAsync(eq("plan review"), promptCaptor.capture());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Market research");
@@ -262,60 +344,308 @@ class TaskPlanAgentTest {
         assertThat(capturedPrompt).contains("Product development");
         assertThat(capturedPrompt).contains("Number of Tasks Completed: 1");
     }
-
+    
     @Test
     void createTaskPlanWithDependencies_ShouldSendCorrectPromptToAI() {
         // Given
         String userGoal = "Build a mobile app";
-        when(resilientChatClient.call(eq("task planning"), any(String.class)))
-            .thenReturn("TASKS:\n1. Design UI\n\nDEPENDENCIES:\n");
-
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("{\"tasks\": [{\"id\": 1, \"description\": \"Design UI\"}], \"dependencies\": []}"));
+        
         // When
         taskPlanAgent.createTaskPlanWithDependencies(userGoal);
-
+        
         // Then
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(resilientChatClient).call(eq("task planning"), promptCaptor.capture());
+        ArgumentCaptor<String> schemaCaptor = ArgumentCaptor.forClass(String.class);
+        verify(resilientChatClient).callAsync(eq("task planning"), promptCaptor.capture(), isNull(), schemaCaptor.capture());
         
         String capturedPrompt = promptCaptor.getValue();
         assertThat(capturedPrompt).contains("Build a mobile app");
         assertThat(capturedPrompt).contains("Break down the following goal into 3-6 specific, actionable tasks");
         assertThat(capturedPrompt).contains("Key principles:");
-        assertThat(capturedPrompt).contains("TASKS:");
-        assertThat(capturedPrompt).contains("DEPENDENCIES:");
+        assertThat(capturedPrompt).contains("\"dependsOn\"");
         assertThat(capturedPrompt).contains("(blocking)");
         assertThat(capturedPrompt).contains("(informational)");
+        assertThat(capturedPrompt).contains("Let at least 3 tasks run at the same time")
+            .contains("at most 3 tasks");
+        assertThat(schemaCaptor.getValue()).contains("\"required\": [\"tasks\", \"dependencies\"]");
     }
-
+    
     @Test
-    void createTaskPlanWithDependencies_WithTaskNumberingVariations_ShouldParseCorrectly() {
+    void createTaskPlanWithDependencies_WithFencedJsonAndForwardReferences_ShouldParseCorrectly() {
         // Given
         String userGoal = "Create documentation";
         String aiResponse = """
-            TASKS:
-            1. Research requirements
-            2.   Write outline  
-            3.Draft content
-            
-            DEPENDENCIES:
-            Task 2 depends on Task 1 (blocking) - needs requirements for outline
+            ```json
+            {
+              "dependencies": [
+                {"task": 2, "dependsOn": 1, "type": "blocking", "reason": "needs requirements for outline"}
+              ],
+              "tasks": [
+                {"id": 1, "description": "Research requirements"},
+                {"id": 2, "description": "  Write outline  "},
+                {"id": 3, "description": "Draft content", "estimate": {"hours": 2}}
+              ]
+            }
+            ```
             """;
         
-        when(resilientChatClient.call(eq("task planning"), any(String.class)))
-            .thenReturn(aiResponse);
-
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(aiResponse));
+        
         // When
         TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies(userGoal);
-
+        
         // Then
         assertThat(result.tasks()).hasSize(3);
         assertThat(result.tasks().get(0).description()).isEqualTo("Research requirements");
         assertThat(result.tasks().get(1).description()).isEqualTo("Write outline");
         assertThat(result.tasks().get(2).description()).isEqualTo("Draft content");
         
-        // Check dependency was parsed correctly despite spacing variations
+        // Check dependency was resolved although it came before the tasks
         assertThat(result.dependencies()).hasSize(1);
         assertThat(result.tasks().get(1).blockingDependencies())
             .containsExactly(result.tasks().get(0).id());
     }
+    
+    @Test
+    void createTaskPlanWithDependencies_WithRedundantBlockingDependency_ShouldMakeItInformational() {
+        // Given
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("""
+                {
+                  "tasks": [
+                    {"id": 1, "description": "Research market"},
+                    {"id": 2, "description": "Write business plan"},
+                    {"id": 3, "description": "Pitch investors"}
+                  ],
+                  "dependencies": [
+                    {"task": 2, "dependsOn": 1, "type": "blocking", "reason": "needs the research"},
+                    {"task": 3, "dependsOn": 2, "type": "blocking", "reason": "needs the plan"},
+                    {"task": 3, "dependsOn": 1, "type": "blocking", "reason": "needs the research"}
+                  ]
+                }
+                """));
+        
+        // When
+        TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies("Start a company");
+        
+        // Then
+        Task pitch = result.tasks().get(2);
+        assertThat(pitch.blockingDependencies()).containsExactly(result.tasks().get(1).id());
+        assertThat(pitch.informationalDependencies()).containsExactly(result.tasks().get(0).id());
+        assertThat(result.dependencies()).filteredOn(dep -> dep.type() == DependencyType.INFORMATIONAL).hasSize(1);
+    }
+    
+    @Test
+    void createTaskPlanWithDependencies_WithContextOnlyDependencyOnLongChain_ShouldRelaxItWithoutReplanning() {
+        // Given
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(chainOfFour("market insights help with branding")));
+        
+        // When
+        TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies("Open a coffee shop");
+        
+        // Then
+        assertThat(result.tasks().get(1).blockingDependencies()).isEmpty();
+        assertThat(result.tasks().get(1).informationalDependencies()).containsExactly(result.tasks().get(0).id());
+        verify(resilientChatClient, never()).callAsync(eq("task replanning"), any(String.class), isNull(), any(String.class));
+    }
+    
+    @Test
+    void createTaskPlanWithDependencies_WithTooDeepPlan_ShouldReplanAndKeepShallowerPlan() {
+        // Given
+        String deepPlan = chainOfFour("needs the research");
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(deepPlan));
+        when(resilientChatClient.callAsync(eq("task replanning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("""
+                {
+                  "tasks": [
+                    {"id": 1, "description": "Research market"},
+                    {"id": 2, "description": "Design brand"},
+                    {"id": 3, "description": "Find location"},
+                    {"id": 4, "description": "Launch"}
+                  ],
+                  "dependencies": [
+                    {"task": 4, "dependsOn": 1, "type": "blocking", "reason": "needs the research"},
+                    {"task": 4, "dependsOn": 2, "type": "blocking", "reason": "needs the brand"},
+                    {"task": 4, "dependsOn": 3, "type": "blocking", "reason": "needs the location"}
+                  ]
+                }
+                """));
+        
+        // When
+        TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies("Open a coffee shop");
+        
+        // Then
+        assertThat(result.tasks()).extracting(Task::description).contains("Design brand");
+        assertThat(result.tasks().get(3).blockingDependencies()).hasSize(3);
+        ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
+        verify(resilientChatClient).callAsync(eq("task replanning"), promptCaptor.capture(), isNull(), any(String.class));
+        assertThat(promptCaptor.getValue())
+            .contains(deepPlan)
+            .contains("has 4 tasks, more than the 3 allowed")
+            .contains("\"Research market\" -> \"Write business plan\" -> \"Find location\" -> \"Launch\"");
+    }
+    
+    @Test
+    void createTaskPlanWithDependencies_WhenReplanningIsNotShallower_ShouldKeepFirstPlan() {
+        // Given
+        String deepPlan = chainOfFour("needs the research");
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(deepPlan));
+        when(resilientChatClient.callAsync(eq("task replanning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("not a plan"));
+        
+        // When
+        TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies("Open a coffee shop");
+        
+        // Then
+        assertThat(result.tasks()).extracting(Task::description).contains("Write business plan");
+        verify(resilientChatClient, never()).callAsync(eq("plan repair"), any(String.class), isNull(), any(String.class));
+    }
+    
+    private static String chainOfFour(String firstReason) {
+        return """
+            {
+              "tasks": [
+                {"id": 1, "description": "Research market"},
+                {"id": 2, "description": "Write business plan"},
+                {"id": 3, "description": "Find location"},
+                {"id": 4, "description": "Launch"}
+              ],
+              "dependencies": [
+                {"task": 2, "dependsOn": 1, "type": "blocking", "reason": "%s"},
+                {"task": 3, "dependsOn": 2, "type": "blocking", "reason": "needs the budget"},
+                {"task": 4, "dependsOn": 3, "type": "blocking", "reason": "needs the premises"}
+              ]
+            }
+            """.formatted(firstReason);
+    }
+    
+    @Test
+    void createTaskPlanWithDependenciesAsync_ShouldParseResponse() {
+        // Given
+        String aiResponse = """
+            {
+              "tasks": [
+                {"id": 1, "description": "Research topic"},
+                {"id": 2, "description": "Create outline"}
+              ],
+              "dependencies": [
+                {"task": 2, "dependsOn": 1, "type": "blocking", "reason": "needs the research"}
+              ]
+            }
+            """;
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(aiResponse));
+        
+        // When
+        TaskPlan result = taskPlanAgent.createTaskPlanWithDependenciesAsync("Create a simple presentation").join();
+        
+        // Then
+        assertThat(result.tasks()).hasSize(2);
+        assertThat(result.tasks().get(1).blockingDependencies()).containsExactly(result.tasks().get(0).id());
+    }
+    
+    @Test
+    void createTaskPlanWithDependencies_WithSubGoals_ShouldMarkThemAndAllowThemInPrompt() {
+        // Given
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("""
+                {
+                  "tasks": [
+                    {"id": 1, "description": "Research the market", "subGoal": true},
+                    {"id": 2, "description": "Register the company", "subGoal": false}
+                  ],
+                  "dependencies": []
+                }
+                """));
+        
+        // When
+        TaskPlan result = taskPlanAgent.createTaskPlanWithDependencies("Launch a product line");
+        
+        // Then
+        assertThat(result.tasks()).extracting(Task::subGoal).containsExactly(true, false);
+        assertThat(result.tasks().get(0).description()).isEqualTo("Research the market");
+        assertThat(result.tasks().get(0).subGoalQuery()).isEqualTo("Research the market");
+        ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> schemaCaptor = ArgumentCaptor.forClass(String.class);
+        verify(resilientChatClient).callAsync(eq("task planning"), promptCaptor.capture(), isNull(), schemaCaptor.capture());
+        assertThat(promptCaptor.getValue()).contains("make each large part a sub-goal");
+        assertThat(schemaCaptor.getValue()).contains("\"required\": [\"id\", \"description\", \"subGoal\"]");
+    }
+    
+    @Test
+    void createSubGoalPlan_ShouldPlanOnlyThePartWithTheLargerGoalAsContext() {
+        // Given
+        when(resilientChatClient.callAsync(eq("sub-goal planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("{\"tasks\": [{\"id\": 1, \"description\": \"Survey customers\", \"subGoal\": false}], \"dependencies\": []}"));
+        
+        // When
+        TaskPlan result = taskPlanAgent.createSubGoalPlan("Research the market", "Launch a product line", 1);
+        
+        // Then
+        assertThat(result.tasks()).extracting(Task::description).containsExactly("Survey customers");
+        ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
+        verify(resilientChatClient).callAsync(eq("sub-goal planning"), promptCaptor.capture(), isNull(), any(String.class));
+        assertThat(promptCaptor.getValue())
+            .contains("Goal: Research the market")
+            .contains("one part of a larger goal: Launch a product line")
+            .contains("make each large part a sub-goal");
+    }
+    
+    @Test
+    void createSubGoalPlan_AtDeepestLevel_ShouldAskForPlainTasks() {
+        // Given
+        when(resilientChatClient.callAsync(eq("sub-goal planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("{\"tasks\": [{\"id\": 1, \"description\": \"Survey customers\", \"subGoal\": false}], \"dependencies\": []}"));
+        
+        // When
+        taskPlanAgent.createSubGoalPlan("Research the market", "Launch a product line", 2);
+        
+        // Then
+        ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
+        verify(resilientChatClient).callAsync(eq("sub-goal planning"), promptCaptor.capture(), isNull(), any(String.class));
+        assertThat(promptCaptor.getValue())
+            .contains("Set \"subGoal\" to false for every task")
+            .doesNotContain("make each large part a sub-goal");
+    }
+    
+    @Test
+    void createTaskPlanWithDependenciesAsync_WithInvalidJson_ShouldRepairWithoutBlocking() {
+        // Given
+        when(resilientChatClient.callAsync(eq("task planning"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("{\"tasks\": [{\"id\": 1, \"description\": }]}"));
+        when(resilientChatClient.callAsync(eq("plan repair"), any(String.class), isNull(), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture(
+                "{\"tasks\": [{\"id\": 1, \"description\": \"Research topic\"}], \"dependencies\": []}"));
+        
+        // When
+        TaskPlan result = taskPlanAgent.createTaskPlanWithDependenciesAsync("Create a simple presentation").join();
+        
+        // Then
+        assertThat(result.tasks()).extracting(Task::description).containsExactly("Research topic");
+        ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
+        verify(resilientChatClient).callAsync(eq("plan repair"), promptCaptor.capture(), isNull(), any(String.class));
+        assertThat(promptCaptor.getValue()).contains("Invalid JSON at line 1");
+    }
+    
+    @Test
+    void reviewAndUpdatePlanAsync_WithNoChangesNeeded_ShouldReturnOriginalTasks() {
+        // Given
+        Task task1 = new Task(UUID.randomUUID(), "Task 1", "Result 1", TaskStatus.COMPLETED,
+            List.of(), List.of(), Instant.now(), Instant.now());
+        List<Task> currentTasks = List.of(task1);
+        when(resilientChatClient.callAsync(eq("plan review"), any(String.class)))
+            .thenReturn(CompletableFuture.completedFuture("NO_CHANGES"));
+        
+        // When
+        List<Task> result = taskPlanAgent.reviewAndUpdatePlanAsync(currentTasks, task1).join();
+        
+        // Then
+        assertThat(result).isEqualTo(currentTasks);
+    }
 }
\ No newline at end of file
@@ -2,14 +2,15 @@ package dev.alsalman.agenticworkflowengine.template.controller;
 
 import dev.alsalman.agenticworkflowengine.template.TemplateController;
 import dev.alsalman.agenticworkflowengine.template.TemplateService;
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledTemplate;
 import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
 import dev.alsalman.agenticworkflowengine.template.domain.ParameterType;
 import dev.alsalman.agenticworkflowengine.template.domain.WorkflowTemplate;
-import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
-import dev.alsalman.agenticworkflowengine.workflow.domain.GoalStatus;
-import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRow;
 import dev.alsalman.agenticworkflowengine.template.dto.ParameterDiscoveryResponseDto;
 import dev.alsalman.agenticworkflowengine.template.dto.ParameterResponseDto;
+import dev.alsalman.agenticworkflowengine.template.service.BatchExecutionService;
+import dev.alsalman.agenticworkflowengine.template.service.BatchInputParser;
 import dev.alsalman.agenticworkflowengine.template.service.ParameterPersistenceService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,8 +20,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.Instant;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -28,6 +32,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +43,12 @@ class TemplateControllerTest {
     
     @Mock
     private ParameterPersistenceService parameterPersistenceService;
+    
+    @Mock
+    private BatchInputParser batchInputParser;
+    
+    @Mock
+    private BatchExecutionService batchExecutionService;
 
     @InjectMocks
     private TemplateController controller;
@@ -143,54 +154,31 @@ class TemplateControllerTest {
     }
 
     @Test
-    void executeTemplate_WithValidParameters_ShouldReturnSuccess() {
+    void executeTemplate_WithValidParameters_ShouldReturnAcceptedWithStatusUrl() {
         // Given
-        Goal goal = new Goal(UUID.randomUUID(), "Test goal", List.of(), "Test summary", 
-            GoalStatus.COMPLETED, Instant.now(), Instant.now());
-        WorkflowResult result = WorkflowResult.success(goal, Instant.now());
-        
+        UUID goalId = UUID.randomUUID();
         Map<String, Object> requestParams = Map.of("param1", "value1", "param2", "20");
-        when(templateService.executeTemplate(eq(templateId), any())).thenReturn(result);
+        when(templateService.startTemplate(eq(templateId), any())).thenReturn(goalId);
 
         // When
         ResponseEntity<TemplateController.ExecuteResponse> response = 
             controller.executeTemplate(templateId, requestParams);
 
         // Then
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getHeaders().getLocation()).hasToString("/api/workflow/goal/" + goalId);
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().success()).isTrue();
-        assertThat(response.getBody().goalId()).isEqualTo(goal.id());
-        assertThat(response.getBody().message()).isEqualTo("Template executed successfully");
-    }
-
-    @Test
-    void executeTemplate_WithFailedExecution_ShouldReturnFailure() {
-        // Given
-        Goal failedGoal = new Goal(UUID.randomUUID(), "Failed goal", List.of(), "Execution failed", 
-            GoalStatus.FAILED, Instant.now(), Instant.now());
-        WorkflowResult result = WorkflowResult.failure(failedGoal, Instant.now());
-        
-        Map<String, Object> requestParams = Map.of("param1", "value1");
-        when(templateService.executeTemplate(eq(templateId), any())).thenReturn(result);
-
-        // When
-        ResponseEntity<TemplateController.ExecuteResponse> response = 
-            controller.executeTemplate(templateId, requestParams);
-
-        // Then
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().success()).isFalse();
-        assertThat(response.getBody().goalId()).isNull();
-        assertThat(response.getBody().message()).isEqualTo("Template execution failed");
+        assertThat(response.getBody().goalId()).isEqualTo(goalId);
+        assertThat(response.getBody().message()).isEqualTo("Template execution started");
+        assertThat(response.getBody().statusUrl()).isEqualTo("/api/workflow/goal/" + goalId);
     }
 
     @Test
     void executeTemplate_WithValidationError_ShouldReturnBadRequest() {
         // Given
         Map<String, Object> requestParams = Map.of("param1", "invalid");
-        when(templateService.executeTemplate(eq(templateId), any()))
+        when(templateService.startTemplate(eq(templateId), any()))
             .thenThrow(new IllegalArgumentException("Parameter validation failed: Invalid value"));
 
         // When
@@ -209,7 +197,7 @@ class TemplateControllerTest {
     void executeTemplate_WithUnexpectedError_ShouldReturnInternalServerError() {
         // Given
         Map<String, Object> requestParams = Map.of("param1", "value1");
-        when(templateService.executeTemplate(eq(templateId), any()))
+        when(templateService.startTemplate(eq(templateId), any()))
             .thenThrow(new RuntimeException("Unexpected error"));
 
         // When
@@ -223,4 +211,56 @@ class TemplateControllerTest {
         assertThat(response.getBody().goalId()).isNull();
         assertThat(response.getBody().message()).isEqualTo("Internal server error");
     }
-}
\ No newline at end of file
+
+    @Test
+    void executeTemplateBatch_WhenTemplateNotFound_ShouldReturnNotFound() {
+        // Given
+        when(templateService.getCompiledTemplate(templateId))
+            .thenThrow(new IllegalArgumentException("Template not found: " + templateId));
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = controller.executeTemplateBatch(
+            templateId, BatchInputParser.NDJSON, new ByteArrayInputStream(new byte[0]));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void executeTemplateBatch_WithUnreadableBody_ShouldReturnBadRequest() throws Exception {
+        // Given
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        when(templateService.getCompiledTemplate(templateId))
+            .thenReturn(CompiledTemplate.compile(template, parameters));
+        when(batchInputParser.parse(body, BatchInputParser.CSV))
+            .thenThrow(new IllegalArgumentException("CSV batch requires a header row with parameter names"));
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = controller.executeTemplateBatch(
+            templateId, BatchInputParser.CSV, body);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void executeTemplateBatch_ShouldStreamResultsOfParsedRows() throws Exception {
+        // Given
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        CompiledTemplate compiled = CompiledTemplate.compile(template, parameters);
+        List<BatchRow> rows = List.of(BatchRow.of(0, Map.of("param1", "value1")));
+        when(templateService.getCompiledTemplate(templateId)).thenReturn(compiled);
+        when(batchInputParser.parse(body, BatchInputParser.NDJSON)).thenReturn(rows);
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = controller.executeTemplateBatch(
+            templateId, BatchInputParser.NDJSON, body);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().toString()).isEqualTo(BatchInputParser.NDJSON);
+        verify(batchExecutionService).executeBatch(compiled, rows, out);
+    }
+}
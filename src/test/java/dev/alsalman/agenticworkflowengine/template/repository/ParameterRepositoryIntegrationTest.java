@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
@@ -18,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJdbcTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @ActiveProfiles("test")
+@Import(ParameterBatchRepository.class)
 // Note: Requires Docker PostgreSQL to be running (docker-compose up -d postgres)
 class ParameterRepositoryIntegrationTest {
     
@@ -33,6 +35,9 @@ class ParameterRepositoryIntegrationTest {
     @Autowired
     private ParameterValidationRuleRepository validationRuleRepository;
     
+    @Autowired
+    private ParameterBatchRepository batchRepository;
+    
     private WorkflowTemplate testTemplate;
     
     @BeforeEach
@@ -386,4 +391,47 @@ class ParameterRepositoryIntegrationTest {
         assertEquals(3, options.size());
         assertTrue((Boolean) propsMap.get("multiple"));
     }
-}
\ No newline at end of file
+    
+    @Test
+    void shouldBatchInsertAndLoadParameterDetailsInOneQuery() {
+        // Given
+        TemplateParameter destination = TemplateParameter.create(
+            testTemplate.id(), "destination", "Travel destination", ParameterType.LOCATION, true, null, 0
+        ).withId(UUID.randomUUID());
+        TemplateParameter budget = TemplateParameter.create(
+            testTemplate.id(), "budget", "Travel budget", ParameterType.CURRENCY, false, "1000 USD", 1
+        ).withId(UUID.randomUUID());
+        TemplateParameter notes = TemplateParameter.create(
+            testTemplate.id(), "notes", "Notes", ParameterType.TEXT, false, null, 2
+        ).withId(UUID.randomUUID());
+        
+        List<ParameterMetadata> metadata = List.of(
+            ParameterMetadata.create(destination.id(), "Paris, France", "Enter a city", "Location", null, null),
+            ParameterMetadata.create(budget.id(), "1000 USD", "Amount", "Budget", null, Map.of("step", 50))
+        );
+        List<ParameterValidationRule> rules = List.of(
+            ParameterValidationRule.create(destination.id(), "PATTERN", Map.of("pattern", "^[A-Za-z ,]+$"), "Invalid"),
+            ParameterValidationRule.create(destination.id(), "ALLOWED_VALUES", Map.of("values", List.of("Paris, France")), null),
+            ParameterValidationRule.create(budget.id(), "PATTERN", Map.of("pattern", "^\\d+ [A-Z]{3}$"), null)
+        );
+        
+        // When
+        batchRepository.insertAll(List.of(destination, budget, notes), metadata, rules);
+        List<ParameterDetails> loaded = batchRepository.findDetailsByTemplateId(testTemplate.id());
+        
+        // Then
+        assertEquals(3, loaded.size());
+        assertEquals("destination", loaded.get(0).parameter().name());
+        assertEquals("budget", loaded.get(1).parameter().name());
+        assertEquals("notes", loaded.get(2).parameter().name());
+        
+        assertEquals(2, loaded.get(0).validationRules().size());
+        assertEquals("Location", loaded.get(0).metadata().displayGroup());
+        assertEquals(1, loaded.get(1).validationRules().size());
+        assertEquals(50, loaded.get(1).metadata().getAdditionalPropertiesAsMap().get("step"));
+        assertNull(loaded.get(2).metadata());
+        assertTrue(loaded.get(2).validationRules().isEmpty());
+        
+        assertEquals(2, loaded.get(0).toDomainParameter().validationRules().size());
+    }
+}
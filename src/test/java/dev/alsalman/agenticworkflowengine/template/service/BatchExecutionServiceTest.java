@@ -0,0 +1,240 @@
+package dev.alsalman.agenticworkflowengine.template.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.planning.TaskPlanService;
+import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
+import dev.alsalman.agenticworkflowengine.template.TemplateService;
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledTemplate;
+import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterType;
+import dev.alsalman.agenticworkflowengine.template.domain.PreparedExecution;
+import dev.alsalman.agenticworkflowengine.template.domain.WorkflowTemplate;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRow;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRowResult;
+import dev.alsalman.agenticworkflowengine.workflow.WorkflowOrchestrator;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
+import dev.alsalman.agenticworkflowengine.workflow.domain.GoalStatus;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchExecutionServiceTest {
+    
+    @Mock
+    private TemplateService templateService;
+    
+    @Mock
+    private WorkflowOrchestrator orchestrator;
+    
+    @Mock
+    private TaskPlanService taskPlanService;
+    
+    @Mock
+    private WorkflowPersistenceService persistenceService;
+    
+    private BatchExecutionService batchExecutionService;
+    private CompiledTemplate compiled;
+    
+    @BeforeEach
+    void setUp() {
+        batchExecutionService = new BatchExecutionService(templateService, orchestrator, taskPlanService,
+            persistenceService, new BatchExecutionProperties(2, 100, true), new ObjectMapper());
+        when(persistenceService.saveGoal(any(Goal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        WorkflowTemplate template = WorkflowTemplate.create(
+            "Trip Planner", "Plans trips", "Travel", "Plan a trip to {{destination}}", "Test author");
+        compiled = CompiledTemplate.compile(template,
+            List.of(Parameter.required("destination", "Destination", ParameterType.LOCATION)));
+    }
+    
+    @Test
+    void executeBatch_ShouldReportInvalidRowsWithoutRunningThem() {
+        // Given
+        List<BatchRow> rows = List.of(
+            BatchRow.of(0, new HashMap<>(Map.of("destination", "Lisbon"))),
+            BatchRow.of(1, new HashMap<>()),
+            BatchRow.unreadable(2, "Invalid JSON: Unexpected end-of-input")
+        );
+        when(templateService.prepareExecution(eq(compiled), any())).thenAnswer(invocation -> {
+            Map<String, Object> parameters = invocation.getArgument(1);
+            return parameters.containsKey("destination")
+                ? PreparedExecution.valid("Plan a trip to " + parameters.get("destination"))
+                : PreparedExecution.invalid(List.of("Value is required"));
+        });
+        when(orchestrator.executeWorkflow(eq("Plan a trip to Lisbon"), any(UUID.class), isNull()))
+            .thenReturn(WorkflowResult.success(goal(), Instant.now()));
+        
+        // When
+        List<BatchRowResult> results = collect(rows);
+        
+        // Then
+        assertThat(results).extracting(BatchRowResult::row, BatchRowResult::status).containsExactlyInAnyOrder(
+            tuple(0, BatchRowResult.Status.COMPLETED),
+            tuple(1, BatchRowResult.Status.INVALID),
+            tuple(2, BatchRowResult.Status.INVALID)
+        );
+        ArgumentCaptor<Goal> saved = ArgumentCaptor.forClass(Goal.class);
+        verify(persistenceService).saveGoal(saved.capture());
+        verify(orchestrator).executeWorkflow("Plan a trip to Lisbon", saved.getValue().id(), null);
+        assertThat(results).filteredOn(result -> result.row() == 0)
+            .extracting(BatchRowResult::goalId)
+            .containsExactly(saved.getValue().id());
+        verify(taskPlanService, never()).createParameterizedTaskPlan(anyString(), any());
+    }
+    
+    @Test
+    void executeBatch_ShouldPlanOnceAndInstantiateThePlanPerRow() {
+        // Given
+        List<BatchRow> rows = List.of(
+            BatchRow.of(0, new HashMap<>(Map.of("destination", "Lisbon"))),
+            BatchRow.of(1, new HashMap<>(Map.of("destination", "Oslo")))
+        );
+        when(templateService.prepareExecution(eq(compiled), any())).thenAnswer(invocation -> {
+            Map<String, Object> parameters = invocation.getArgument(1);
+            return PreparedExecution.valid("Plan a trip to " + parameters.get("destination"));
+        });
+        when(taskPlanService.createParameterizedTaskPlan("Plan a trip to {{destination}}", List.of("destination")))
+            .thenReturn(TaskPlan.of(List.of(Task.create("Book flights to {{destination}}")), List.of()));
+        when(orchestrator.executeWorkflow(anyString(), any(UUID.class), any(TaskPlan.class)))
+            .thenReturn(WorkflowResult.success(goal(), Instant.now()));
+        
+        // When
+        List<BatchRowResult> results = collect(rows);
+        
+        // Then
+        assertThat(results).allMatch(result -> result.status() == BatchRowResult.Status.COMPLETED);
+        verify(taskPlanService, times(1)).createParameterizedTaskPlan(anyString(), any());
+        
+        ArgumentCaptor<TaskPlan> plans = ArgumentCaptor.forClass(TaskPlan.class);
+        verify(orchestrator, times(2)).executeWorkflow(anyString(), any(UUID.class), plans.capture());
+        assertThat(plans.getAllValues())
+            .extracting(plan -> plan.tasks().getFirst().description())
+            .containsExactlyInAnyOrder("Book flights to Lisbon", "Book flights to Oslo");
+    }
+    
+    @Test
+    void executeBatch_ShouldPlanRowsIndividually_WhenSharedPlanLosesPlaceholders() {
+        // Given
+        List<BatchRow> rows = List.of(
+            BatchRow.of(0, new HashMap<>(Map.of("destination", "Lisbon"))),
+            BatchRow.of(1, new HashMap<>(Map.of("destination", "Oslo")))
+        );
+        when(templateService.prepareExecution(eq(compiled), any())).thenAnswer(invocation -> {
+            Map<String, Object> parameters = invocation.getArgument(1);
+            return PreparedExecution.valid("Plan a trip to " + parameters.get("destination"));
+        });
+        when(taskPlanService.createParameterizedTaskPlan(anyString(), any()))
+            .thenReturn(TaskPlan.of(List.of(Task.create("Book flights")), List.of()));
+        when(orchestrator.executeWorkflow(anyString(), any(UUID.class), isNull()))
+            .thenReturn(WorkflowResult.success(goal(), Instant.now()));
+        
+        // When
+        List<BatchRowResult> results = collect(rows);
+        
+        // Then
+        assertThat(results).hasSize(2);
+        verify(orchestrator, times(2)).executeWorkflow(anyString(), any(UUID.class), isNull());
+    }
+    
+    @Test
+    void executeBatch_ShouldReportFailedWorkflowAndWriteNdjson() {
+        // Given
+        List<BatchRow> rows = List.of(BatchRow.of(0, new HashMap<>(Map.of("destination", "Lisbon"))));
+        when(templateService.prepareExecution(eq(compiled), any()))
+            .thenReturn(PreparedExecution.valid("Plan a trip to Lisbon"));
+        when(orchestrator.executeWorkflow(anyString(), any(UUID.class), isNull()))
+            .thenThrow(new RuntimeException("Rate limited"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When
+        batchExecutionService.executeBatch(compiled, rows, out);
+        
+        // Then
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n").doesNotContain("\n{");
+        ArgumentCaptor<Goal> saved = ArgumentCaptor.forClass(Goal.class);
+        verify(persistenceService).saveGoal(saved.capture());
+        assertThat(body).contains("\"row\":0", "\"status\":\"FAILED\"", "\"errors\":[\"Rate limited\"]",
+            "\"goalId\":\"" + saved.getValue().id() + "\"");
+    }
+    
+    @Test
+    void executeBatch_ShouldCancelRunningRowsAndRethrow_WhenStreamFails() {
+        // Given
+        List<BatchRow> rows = List.of(
+            BatchRow.of(0, new HashMap<>(Map.of("destination", "Lisbon"))),
+            BatchRow.of(1, new HashMap<>(Map.of("destination", "Oslo")))
+        );
+        when(templateService.prepareExecution(eq(compiled), any())).thenAnswer(invocation -> {
+            Map<String, Object> parameters = invocation.getArgument(1);
+            return PreparedExecution.valid("Plan a trip to " + parameters.get("destination"));
+        });
+        when(orchestrator.executeWorkflow(anyString(), any(UUID.class), isNull())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0).equals("Plan a trip to Oslo")) {
+                Thread.sleep(Duration.ofSeconds(30));
+            }
+            return WorkflowResult.success(goal(), Instant.now());
+        });
+        AtomicInteger writes = new AtomicInteger();
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                writes.incrementAndGet();
+                throw new IOException("Broken pipe");
+            }
+        };
+        long start = System.nanoTime();
+        
+        // When / Then
+        assertThatThrownBy(() -> batchExecutionService.executeBatch(compiled, rows, disconnected))
+            .isInstanceOf(UncheckedIOException.class)
+            .hasRootCauseMessage("Broken pipe");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+        assertThat(writes).hasValue(1);
+    }
+    
+    private List<BatchRowResult> collect(List<BatchRow> rows) {
+        List<BatchRowResult> results = Collections.synchronizedList(new ArrayList<>());
+        batchExecutionService.executeBatch(compiled, rows, results::add);
+        return results;
+    }
+    
+    private static Goal goal() {
+        return new Goal(UUID.randomUUID(), "Plan a trip", List.of(), "Done",
+            GoalStatus.COMPLETED, Instant.now(), Instant.now());
+    }
+}
@@ -0,0 +1,102 @@
+package dev.alsalman.agenticworkflowengine.template.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.alsalman.agenticworkflowengine.template.dto.BatchRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchInputParserTest {
+    
+    private final BatchInputParser parser = new BatchInputParser(
+        new ObjectMapper(), new BatchExecutionProperties(8, 3, true));
+    
+    @Test
+    void parse_ShouldReadNdjsonRowsAndReportBadLines() throws IOException {
+        // Given
+        String body = """
+            {"destination": "Lisbon", "duration": 3}
+            
+            {"destination": "Oslo"
+            {"destination": "Rome"}
+            """;
+        
+        // When
+        List<BatchRow> rows = parser.parse(stream(body), "application/x-ndjson; charset=UTF-8");
+        
+        // Then
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).parameters()).containsEntry("destination", "Lisbon").containsEntry("duration", 3);
+        assertThat(rows.get(1).parseError()).startsWith("Invalid JSON");
+        assertThat(rows.get(2)).isEqualTo(BatchRow.of(2, Map.of("destination", "Rome")));
+    }
+    
+    @Test
+    void parse_ShouldReadQuotedCsvFieldsAndTreatEmptyCellsAsAbsent() throws IOException {
+        // Given
+        String body = "destination,notes,budget\r\n"
+            + "\"Paris, France\",\"Say \"\"bonjour\"\"\nand relax\",\r\n"
+            + "Rome,,2000 EUR\r\n";
+        
+        // When
+        List<BatchRow> rows = parser.parse(stream(body), BatchInputParser.CSV);
+        
+        // Then
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).parameters()).isEqualTo(Map.of(
+            "destination", "Paris, France",
+            "notes", "Say \"bonjour\"\nand relax"
+        ));
+        assertThat(rows.get(1).parameters()).containsOnlyKeys("destination", "budget");
+    }
+    
+    @Test
+    void parse_ShouldReportCsvRowsWithWrongColumnCount() throws IOException {
+        // Given
+        String body = "destination,duration\nLisbon\n\"Oslo,4";
+        
+        // When
+        List<BatchRow> rows = parser.parse(stream(body), BatchInputParser.CSV);
+        
+        // Then
+        assertThat(rows).extracting(BatchRow::parseError).containsExactly(
+            "Expected 2 columns but found 1",
+            "Unterminated quoted field at end of input"
+        );
+    }
+    
+    @Test
+    void parse_ShouldRejectCsvWithoutHeader() {
+        assertThatThrownBy(() -> parser.parse(stream(""), BatchInputParser.CSV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("header row");
+    }
+    
+    @Test
+    void parse_ShouldRejectBatchesOverTheRowLimit() {
+        String body = "{}\n{}\n{}\n{}\n";
+        
+        assertThatThrownBy(() -> parser.parse(stream(body), BatchInputParser.NDJSON))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Batch exceeds the limit of 3 rows");
+    }
+    
+    @Test
+    void parse_ShouldRejectUnsupportedContentType() {
+        assertThatThrownBy(() -> parser.parse(stream("{}"), "application/json"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unsupported batch content type");
+    }
+    
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
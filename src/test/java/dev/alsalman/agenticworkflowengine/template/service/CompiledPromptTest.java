@@ -0,0 +1,83 @@
+package dev.alsalman.agenticworkflowengine.template.service;
+
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledPrompt;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledPromptTest {
+    
+    @Test
+    void render_ShouldSubstituteEveryOccurrenceInOnePass() {
+        // Given
+        CompiledPrompt prompt = CompiledPrompt.compile(
+            "Plan a {{duration}}-day trip to {{destination}}. Enjoy {{destination}}!",
+            Set.of("duration", "destination")
+        );
+        
+        // When
+        String rendered = prompt.render(Map.of("duration", 5, "destination", "Rome"));
+        
+        // Then
+        assertThat(rendered).isEqualTo("Plan a 5-day trip to Rome. Enjoy Rome!");
+        assertThat(prompt.placeholders()).containsExactly("duration", "destination");
+        assertThat(prompt.unknownPlaceholders()).isEmpty();
+    }
+    
+    @Test
+    void compile_ShouldKeepUnknownPlaceholdersAsTextAndReportThem() {
+        // Given
+        CompiledPrompt prompt = CompiledPrompt.compile(
+            "Visit {{destination}} with {{companion}}",
+            Set.of("destination")
+        );
+        
+        // When
+        String rendered = prompt.render(Map.of("destination", "Oslo", "companion", "ignored"));
+        
+        // Then
+        assertThat(rendered).isEqualTo("Visit Oslo with {{companion}}");
+        assertThat(prompt.unknownPlaceholders()).containsExactly("companion");
+    }
+    
+    @Test
+    void render_ShouldRenderAbsentOrNullValuesAsEmpty() {
+        // Given
+        CompiledPrompt prompt = CompiledPrompt.compile("[{{a}}][{{b}}]", Set.of("a", "b"));
+        Map<String, Object> values = new HashMap<>();
+        values.put("a", null);
+        
+        // When / Then
+        assertThat(prompt.render(values)).isEqualTo("[][]");
+    }
+    
+    @Test
+    void compile_ShouldMatchOnlyWellFormedPlaceholders() {
+        // Given - mirrors the pattern \{\{([^{}]+)}}
+        CompiledPrompt prompt = CompiledPrompt.compile(
+            "{{{name}}} {{}} {{ name }} {{name} {{name}}",
+            Set.of("name")
+        );
+        
+        // When
+        String rendered = prompt.render(Map.of("name", "X"));
+        
+        // Then
+        assertThat(rendered).isEqualTo("{X} {{}} {{ name }} {{name} X");
+        assertThat(prompt.unknownPlaceholders()).containsExactly(" name ");
+    }
+    
+    @Test
+    void render_ShouldReturnSourceWhenThereAreNoPlaceholders() {
+        // Given
+        CompiledPrompt prompt = CompiledPrompt.compile("Plain prompt", Set.of("unused"));
+        
+        // When / Then
+        assertThat(prompt.render(Map.of())).isEqualTo("Plain prompt");
+        assertThat(prompt.placeholders()).isEmpty();
+    }
+}
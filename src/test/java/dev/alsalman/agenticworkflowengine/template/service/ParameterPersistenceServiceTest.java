@@ -6,16 +6,16 @@ import dev.alsalman.agenticworkflowengine.template.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,10 +25,22 @@ class ParameterPersistenceServiceTest {
     private TemplateParameterRepository parameterRepository;
     
     @Mock
-    private ParameterMetadataRepository metadataRepository;
+    private ParameterBatchRepository batchRepository;
     
     @Mock
-    private ParameterValidationRuleRepository validationRuleRepository;
+    private TemplateRepository templateRepository;
+    
+    @Mock
+    private TemplateCache templateCache;
+    
+    @Captor
+    private ArgumentCaptor<List<TemplateParameter>> parametersCaptor;
+    
+    @Captor
+    private ArgumentCaptor<List<ParameterMetadata>> metadataCaptor;
+    
+    @Captor
+    private ArgumentCaptor<List<ParameterValidationRule>> rulesCaptor;
     
     private ParameterPersistenceService service;
     
@@ -36,8 +48,9 @@ class ParameterPersistenceServiceTest {
     void setUp() {
         service = new ParameterPersistenceService(
             parameterRepository,
-            metadataRepository,
-            validationRuleRepository
+            batchRepository,
+            templateRepository,
+            templateCache
         );
     }
     
@@ -60,30 +73,33 @@ class ParameterPersistenceServiceTest {
             )
         );
         
-        when(parameterRepository.save(any(TemplateParameter.class)))
-            .thenAnswer(invocation -> {
-                TemplateParameter param = invocation.getArgument(0);
-                return new TemplateParameter(
-                    UUID.randomUUID(),
-                    param.templateId(),
-                    param.name(),
-                    param.description(),
-                    param.type(),
-                    param.required(),
-                    param.defaultValue(),
-                    param.displayOrder(),
-                    param.createdAt()
-                );
-            });
-        
         // When
         service.saveTemplateParameters(templateId, parameters);
         
         // Then
         verify(parameterRepository).deleteByTemplateId(templateId);
-        verify(parameterRepository, times(2)).save(any(TemplateParameter.class));
-        verify(metadataRepository, times(2)).save(any(ParameterMetadata.class));
-        verify(validationRuleRepository, times(1)).save(any(ParameterValidationRule.class));
+        verify(batchRepository, times(1)).insertAll(parametersCaptor.capture(), metadataCaptor.capture(), rulesCaptor.capture());
+        verify(templateRepository).incrementVersion(templateId);
+        verify(templateCache).invalidate(templateId);
+        
+        List<TemplateParameter> savedParams = parametersCaptor.getValue();
+        assertEquals(2, savedParams.size());
+        assertEquals("destination", savedParams.get(0).name());
+        assertEquals(0, savedParams.get(0).displayOrder());
+        assertEquals(1, savedParams.get(1).displayOrder());
+        assertNotNull(savedParams.get(0).id());
+        assertNotEquals(savedParams.get(0).id(), savedParams.get(1).id());
+        
+        List<ParameterMetadata> savedMetadata = metadataCaptor.getValue();
+        assertEquals(2, savedMetadata.size());
+        assertEquals(savedParams.get(0).id(), savedMetadata.get(0).parameterId());
+        assertEquals("Location", savedMetadata.get(0).displayGroup());
+        assertEquals("Budget", savedMetadata.get(1).displayGroup());
+        
+        List<ParameterValidationRule> savedRules = rulesCaptor.getValue();
+        assertEquals(1, savedRules.size());
+        assertEquals(savedParams.get(0).id(), savedRules.get(0).parameterId());
+        assertEquals("PATTERN", savedRules.get(0).validationType());
     }
     
     @Test
@@ -113,10 +129,8 @@ class ParameterPersistenceServiceTest {
             Instant.now()
         );
         
-        when(parameterRepository.findByTemplateIdOrderByDisplayOrder(templateId))
-            .thenReturn(List.of(templateParam));
-        when(validationRuleRepository.findByParameterId(paramId))
-            .thenReturn(List.of(validationRule));
+        when(batchRepository.findDetailsByTemplateId(templateId))
+            .thenReturn(List.of(new ParameterDetails(templateParam, null, List.of(validationRule))));
         
         // When
         List<Parameter> result = service.loadTemplateParameters(templateId);
@@ -173,12 +187,8 @@ class ParameterPersistenceServiceTest {
             Instant.now()
         );
         
-        when(parameterRepository.findByTemplateIdOrderByDisplayOrder(templateId))
-            .thenReturn(List.of(templateParam));
-        when(metadataRepository.findByParameterId(paramId))
-            .thenReturn(Optional.of(metadata));
-        when(validationRuleRepository.findByParameterId(paramId))
-            .thenReturn(List.of(validationRule));
+        when(batchRepository.findDetailsByTemplateId(templateId))
+            .thenReturn(List.of(new ParameterDetails(templateParam, metadata, List.of(validationRule))));
         
         // When
         List<ParameterResponseDto> result = service.loadParametersWithMetadata(templateId);
@@ -200,6 +210,9 @@ class ParameterPersistenceServiceTest {
         var validationDto = dto.validation().get(0);
         assertEquals("PATTERN", validationDto.type());
         assertEquals("^[A-Za-z\\s,.-]+$", validationDto.pattern());
+        
+        // Single round-trip regardless of parameter count
+        verify(batchRepository, times(1)).findDetailsByTemplateId(templateId);
     }
     
     @Test
@@ -210,29 +223,14 @@ class ParameterPersistenceServiceTest {
             Parameter.optional("notes", "Additional notes", ParameterType.TEXT, null)
         );
         
-        when(parameterRepository.save(any(TemplateParameter.class)))
-            .thenAnswer(invocation -> {
-                TemplateParameter param = invocation.getArgument(0);
-                return new TemplateParameter(
-                    UUID.randomUUID(),
-                    param.templateId(),
-                    param.name(),
-                    param.description(),
-                    param.type(),
-                    param.required(),
-                    param.defaultValue(),
-                    param.displayOrder(),
-                    param.createdAt()
-                );
-            });
-        
         // When
         service.saveTemplateParameters(templateId, parameters);
         
         // Then
-        verify(parameterRepository).save(any(TemplateParameter.class));
-        verify(metadataRepository).save(any(ParameterMetadata.class));
-        verify(validationRuleRepository, never()).save(any(ParameterValidationRule.class));
+        verify(batchRepository).insertAll(parametersCaptor.capture(), metadataCaptor.capture(), rulesCaptor.capture());
+        assertEquals(1, parametersCaptor.getValue().size());
+        assertEquals(1, metadataCaptor.getValue().size());
+        assertTrue(rulesCaptor.getValue().isEmpty());
     }
     
     @Test
@@ -253,12 +251,8 @@ class ParameterPersistenceServiceTest {
             Instant.now()
         );
         
-        when(parameterRepository.findByTemplateIdOrderByDisplayOrder(templateId))
-            .thenReturn(List.of(templateParam));
-        when(metadataRepository.findByParameterId(paramId))
-            .thenReturn(Optional.empty());
-        when(validationRuleRepository.findByParameterId(paramId))
-            .thenReturn(List.of());
+        when(batchRepository.findDetailsByTemplateId(templateId))
+            .thenReturn(List.of(new ParameterDetails(templateParam, null, List.of())));
         
         // When
         List<ParameterResponseDto> result = service.loadParametersWithMetadata(templateId);
@@ -268,4 +262,4 @@ class ParameterPersistenceServiceTest {
         ParameterResponseDto dto = result.get(0);
         assertNull(dto.metadata());
     }
-}
\ No newline at end of file
+}
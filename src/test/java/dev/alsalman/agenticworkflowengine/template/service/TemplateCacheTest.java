@@ -0,0 +1,138 @@
+package dev.alsalman.agenticworkflowengine.template.service;
+
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledTemplate;
+import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterType;
+import dev.alsalman.agenticworkflowengine.template.domain.ValidationRule;
+import dev.alsalman.agenticworkflowengine.template.domain.WorkflowTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TemplateCacheTest {
+    
+    private TemplateCache cache;
+    private WorkflowTemplate template;
+    private List<Parameter> parameters;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new TemplateCache();
+        template = new WorkflowTemplate(
+            UUID.randomUUID(),
+            "Trip",
+            "Test description",
+            "Travel",
+            "Visit {{destination}} for {{duration}} days, then {{destination}} again",
+            "Test Author",
+            true,
+            1,
+            Instant.parse("2024-01-01T00:00:00Z"),
+            Instant.parse("2024-01-01T00:00:00Z")
+        );
+        parameters = List.of(
+            Parameter.requiredWithValidation("destination", "Destination", ParameterType.LOCATION,
+                List.of(ValidationRule.pattern("^[A-Za-z ]+$", null), ValidationRule.pattern("([", null))),
+            Parameter.required("duration", "Days", ParameterType.NUMBER)
+        );
+    }
+    
+    @Test
+    void get_ShouldCompileOnlyOnMiss() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        
+        // When
+        CompiledTemplate first = cache.get(template.id(), id -> {
+            loads.incrementAndGet();
+            return CompiledTemplate.compile(template, parameters);
+        });
+        CompiledTemplate second = cache.get(template.id(), id -> {
+            loads.incrementAndGet();
+            return CompiledTemplate.compile(template, parameters);
+        });
+        
+        // Then
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+    }
+    
+    @Test
+    void get_ShouldNotCacheFailedLoad() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        
+        // When
+        assertThatThrownBy(() -> cache.get(template.id(), id -> {
+            loads.incrementAndGet();
+            throw new IllegalArgumentException("Template not found: " + id);
+        })).isInstanceOf(IllegalArgumentException.class);
+        CompiledTemplate compiled = cache.get(template.id(), id -> {
+            loads.incrementAndGet();
+            return CompiledTemplate.compile(template, parameters);
+        });
+        
+        // Then
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(compiled.template()).isEqualTo(template);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void compile_ShouldParsePlaceholdersAndCompileValidators() {
+        // When
+        CompiledTemplate compiled = CompiledTemplate.compile(template, parameters);
+        
+        // Then
+        assertThat(compiled.placeholders()).containsExactly("destination", "duration");
+        assertThat(compiled.parameters()).hasSize(2);
+        
+        var destination = compiled.parameters().get(0);
+        assertThat(destination.name()).isEqualTo("destination");
+        assertThat(destination.validator().validate("Paris"))
+            .containsExactly("Invalid validation pattern configured");
+        assertThat(compiled.parameters().get(1).validator().validate("7")).isEmpty();
+    }
+    
+    @Test
+    void invalidate_ShouldRemoveEntry() {
+        // Given
+        cache.get(template.id(), id -> CompiledTemplate.compile(template, parameters));
+        
+        // When
+        cache.invalidate(template.id());
+        
+        // Then
+        assertThat(cache.size()).isZero();
+    }
+    
+    @Test
+    void evictStale_ShouldEvictChangedAndDeletedTemplates() {
+        // Given
+        WorkflowTemplate other = new WorkflowTemplate(UUID.randomUUID(), "Other", null, null,
+            "Prompt", null, true, 1, Instant.now(), Instant.now());
+        WorkflowTemplate unchanged = new WorkflowTemplate(UUID.randomUUID(), "Unchanged", null, null,
+            "Prompt", null, true, 3, Instant.now(), Instant.now());
+        cache.get(template.id(), id -> CompiledTemplate.compile(template, parameters));
+        cache.get(other.id(), id -> CompiledTemplate.compile(other, List.of()));
+        cache.get(unchanged.id(), id -> CompiledTemplate.compile(unchanged, List.of()));
+        
+        WorkflowTemplate newerVersion = new WorkflowTemplate(template.id(), template.name(), template.description(),
+            template.category(), template.promptTemplate(), template.author(), true, 2,
+            template.createdAt(), Instant.now());
+        
+        // When - 'other' was deleted, 'template' moved to version 2
+        int evicted = cache.evictStale(List.of(newerVersion, unchanged));
+        
+        // Then
+        assertThat(evicted).isEqualTo(2);
+        assertThat(cache.templateIds()).containsExactly(unchanged.id());
+    }
+}
@@ -1,9 +1,12 @@
 package dev.alsalman.agenticworkflowengine.template.service;
 
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowExecutor;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
 import dev.alsalman.agenticworkflowengine.workflow.WorkflowOrchestrator;
 import dev.alsalman.agenticworkflowengine.template.TemplateService;
 import dev.alsalman.agenticworkflowengine.workflow.domain.GoalStatus;
+import dev.alsalman.agenticworkflowengine.template.domain.CompiledParameter;
 import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
 import dev.alsalman.agenticworkflowengine.template.domain.ParameterType;
 import dev.alsalman.agenticworkflowengine.template.domain.WorkflowTemplate;
@@ -14,8 +17,10 @@ import dev.alsalman.agenticworkflowengine.template.service.ParameterPersistenceS
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
@@ -29,7 +34,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +57,15 @@ class TemplateServiceTest {
     @Mock
     private ParameterPersistenceService parameterPersistenceService;
     
+    @Spy
+    private TemplateCache templateCache = new TemplateCache();
+    
+    @Mock
+    private WorkflowPersistenceService persistenceService;
+    
+    @Mock
+    private WorkflowExecutor workflowExecutor;
+    
     @InjectMocks
     private TemplateService templateService;
     
@@ -65,7 +84,7 @@ class TemplateServiceTest {
         );
         
         // Mock advanced validator to return no errors by default (lenient for flexible use)
-        lenient().when(advancedValidator.validateParameter(any(), anyString())).thenReturn(List.of());
+        lenient().when(advancedValidator.validateParameter(any(CompiledParameter.class), anyString())).thenReturn(List.of());
         
         // Mock parameter persistence service to return basic parameters
         List<Parameter> mockParameters = List.of(
@@ -107,7 +126,7 @@ class TemplateServiceTest {
     void testExecuteTemplate_WithInvalidDate() {
         // Given
         when(repository.findById(templateId)).thenReturn(Optional.of(template));
-        when(advancedValidator.validateParameter(any(), any())).thenReturn(List.of("Invalid date format"));
+        when(advancedValidator.validateParameter(any(CompiledParameter.class), any())).thenReturn(List.of("Invalid date format"));
         
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("destination", "Paris");
@@ -124,7 +143,7 @@ class TemplateServiceTest {
     void testExecuteTemplate_WithInvalidCurrency() {
         // Given
         when(repository.findById(templateId)).thenReturn(Optional.of(template));
-        when(advancedValidator.validateParameter(any(), any())).thenReturn(List.of("Invalid currency format"));
+        when(advancedValidator.validateParameter(any(CompiledParameter.class), any())).thenReturn(List.of("Invalid currency format"));
         
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("destination", "Tokyo");
@@ -142,7 +161,7 @@ class TemplateServiceTest {
     void testExecuteTemplate_WithInvalidLocation() {
         // Given
         when(repository.findById(templateId)).thenReturn(Optional.of(template));
-        when(advancedValidator.validateParameter(any(), any())).thenReturn(List.of("Invalid location"));
+        when(advancedValidator.validateParameter(any(CompiledParameter.class), any())).thenReturn(List.of("Invalid location"));
         
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("destination", "123!@#");
@@ -202,4 +221,89 @@ class TemplateServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.success()).isTrue();
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testExecuteTemplate_ShouldCompileTemplateOnlyOnce() {
+        // Given
+        when(repository.findById(templateId)).thenReturn(Optional.of(template));
+        Goal goal = new Goal(UUID.randomUUID(), "Test prompt", List.of(), "Test summary", 
+            GoalStatus.COMPLETED, Instant.now(), Instant.now());
+        when(orchestrator.executeWorkflow(any(), any())).thenReturn(
+            WorkflowResult.success(goal, Instant.now())
+        );
+        
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("destination", "Paris, France");
+        parameters.put("startDate", "2024-06-15");
+        parameters.put("duration", "7");
+        
+        // When
+        templateService.executeTemplate(templateId, new HashMap<>(parameters));
+        templateService.executeTemplate(templateId, new HashMap<>(parameters));
+        
+        // Then
+        verify(repository, times(1)).findById(templateId);
+        verify(parameterPersistenceService, times(1)).loadTemplateParameters(templateId);
+        assertThat(templateCache.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void testExecuteTemplate_ShouldRenderPromptWithDefaults() {
+        // Given
+        when(repository.findById(templateId)).thenReturn(Optional.of(template));
+        Goal goal = new Goal(UUID.randomUUID(), "Test prompt", List.of(), "Test summary", 
+            GoalStatus.COMPLETED, Instant.now(), Instant.now());
+        when(orchestrator.executeWorkflow(any(), any())).thenReturn(
+            WorkflowResult.success(goal, Instant.now())
+        );
+        
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("destination", "Lisbon");
+        parameters.put("startDate", "2024-05-01");
+        parameters.put("duration", "3");
+        
+        // When
+        templateService.executeTemplate(templateId, parameters);
+        
+        // Then
+        verify(orchestrator).executeWorkflow(
+            eq("Test prompt with Lisbon 2024-05-01 3 1000 USD Mid-range"), isNull());
+    }
+    
+    @Test
+    void startTemplate_ShouldCreateGoalAndSubmitWorkflowWithoutRunningIt() {
+        // Given
+        when(repository.findById(templateId)).thenReturn(Optional.of(template));
+        when(persistenceService.saveGoal(any(Goal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("destination", "Lisbon");
+        parameters.put("startDate", "2024-05-01");
+        parameters.put("duration", "3");
+        
+        // When
+        UUID goalId = templateService.startTemplate(templateId, parameters);
+        
+        // Then
+        ArgumentCaptor<Goal> goal = ArgumentCaptor.forClass(Goal.class);
+        verify(persistenceService).saveGoal(goal.capture());
+        assertThat(goal.getValue().id()).isEqualTo(goalId);
+        assertThat(goal.getValue().query()).isEqualTo("Test prompt with Lisbon 2024-05-01 3 1000 USD Mid-range");
+        verify(workflowExecutor).submit(eq(goalId), any());
+        verify(orchestrator, never()).executeWorkflow(any(), any());
+    }
+    
+    @Test
+    void startTemplate_WithInvalidParameters_ShouldThrowBeforeCreatingGoal() {
+        // Given
+        when(repository.findById(templateId)).thenReturn(Optional.of(template));
+        when(advancedValidator.validateParameter(any(CompiledParameter.class), any())).thenReturn(List.of("Invalid date format"));
+        
+        // When / Then
+        assertThatThrownBy(() -> templateService.startTemplate(templateId, new HashMap<>()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Parameter validation failed");
+        verify(persistenceService, never()).saveGoal(any());
+        verify(workflowExecutor, never()).submit(any(), any());
+    }
+}
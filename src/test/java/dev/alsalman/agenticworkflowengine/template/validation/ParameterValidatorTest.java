@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.time.LocalDate;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class ParameterValidatorTest {
@@ -148,4 +150,59 @@ class ParameterValidatorTest {
         assertThat(ParameterValidator.validate(param, "Business").isValid()).isTrue();
         assertThat(ParameterValidator.validate(param, "").isValid()).isFalse();
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testParseDate_ShouldMatchSupportedFormats() {
+        assertThat(ParameterValidator.parseDate("2024-02-29")).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(ParameterValidator.parseDate("01/15/2024")).isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(ParameterValidator.parseDate("15/01/2024")).isEqualTo(LocalDate.of(2024, 1, 15));
+        // Slash formats clamp the day to the end of the month
+        assertThat(ParameterValidator.parseDate("02/30/2023")).isEqualTo(LocalDate.of(2023, 2, 28));
+        
+        assertThat(ParameterValidator.parseDate("2023-02-29")).isNull();
+        assertThat(ParameterValidator.parseDate("2024-1-15")).isNull();
+        assertThat(ParameterValidator.parseDate("13/13/2024")).isNull();
+        assertThat(ParameterValidator.parseDate("")).isNull();
+    }
+    
+    // Time validation tests
+    @ParameterizedTest
+    @ValueSource(strings = {"00:00", "14:30", "23:59:59", "09:15:30.5", "09:15:30.123456789"})
+    void testTimeValidation_ValidFormats(String time) {
+        Parameter param = Parameter.required("start", "Start time", ParameterType.TIME);
+        
+        assertThat(ParameterValidator.validate(param, time).isValid()).isTrue();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"24:00", "12:60", "9:30", "12:30:", "12:30:45.", "12:30:45.1234567890", "noon"})
+    void testTimeValidation_InvalidFormats(String time) {
+        Parameter param = Parameter.required("start", "Start time", ParameterType.TIME);
+        
+        assertThat(ParameterValidator.validate(param, time).isValid()).isFalse();
+    }
+    
+    // Phone, email and duration validation tests
+    @Test
+    void testPhoneValidation() {
+        Parameter param = Parameter.required("phone", "Phone", ParameterType.PHONE);
+        
+        assertThat(ParameterValidator.validate(param, "+1 (234) 567-8900").isValid()).isTrue();
+        assertThat(ParameterValidator.validate(param, "1234567").isValid()).isTrue();
+        assertThat(ParameterValidator.validate(param, "123-456").isValid()).isFalse();
+        assertThat(ParameterValidator.validate(param, "+").isValid()).isFalse();
+        assertThat(ParameterValidator.validate(param, "555-CALL-NOW").isValid()).isFalse();
+    }
+    
+    @Test
+    void testEmailAndDurationValidation() {
+        Parameter email = Parameter.required("email", "Email", ParameterType.EMAIL);
+        Parameter duration = Parameter.required("length", "Length", ParameterType.DURATION);
+        
+        assertThat(ParameterValidator.validate(email, "user@example.com").isValid()).isTrue();
+        assertThat(ParameterValidator.validate(email, "user@example").isValid()).isFalse();
+        assertThat(ParameterValidator.validate(duration, "1.5 Hours").isValid()).isTrue();
+        assertThat(ParameterValidator.validate(duration, "90min").isValid()).isTrue();
+        assertThat(ParameterValidator.validate(duration, "two hours").isValid()).isFalse();
+    }
+}
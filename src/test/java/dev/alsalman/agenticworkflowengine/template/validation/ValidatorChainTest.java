@@ -0,0 +1,106 @@
+package dev.alsalman.agenticworkflowengine.template.validation;
+
+import dev.alsalman.agenticworkflowengine.template.domain.Parameter;
+import dev.alsalman.agenticworkflowengine.template.domain.ParameterType;
+import dev.alsalman.agenticworkflowengine.template.domain.ValidationRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValidatorChainTest {
+    
+    @Test
+    void validate_ShouldApplyRulesInOrderAndCollectErrors() {
+        // Given
+        ValidatorChain chain = ValidatorChain.compile(Parameter.requiredWithValidation(
+            "code", "Code", ParameterType.TEXT,
+            List.of(
+                ValidationRule.pattern("^[A-Z]+$", null),
+                ValidationRule.allowedValues(List.of("ABC", "XYZ"), null)
+            )
+        ));
+        
+        // When
+        List<String> errors = chain.validate("abc");
+        
+        // Then
+        assertThat(errors).containsExactly(
+            "Value must match pattern: ^[A-Z]+$",
+            "Value must be one of: ABC, XYZ"
+        );
+        assertThat(chain.validate("XYZ")).isEmpty();
+    }
+    
+    @Test
+    void validate_ShouldStopAtTypeCheck() {
+        // Given
+        ValidatorChain chain = ValidatorChain.compile(Parameter.requiredWithValidation(
+            "days", "Days", ParameterType.NUMBER,
+            List.of(ValidationRule.range(BigDecimal.ONE, BigDecimal.TEN, "Out of range"))
+        ));
+        
+        // When / Then
+        assertThat(chain.validate("many")).containsExactly("Parameter 'days' must be a valid number");
+        assertThat(chain.validate("11")).containsExactly("Out of range");
+        assertThat(chain.validate("NaN")).containsExactly("Invalid number format");
+        assertThat(chain.validate(null)).containsExactly("Required parameter 'days' is missing");
+    }
+    
+    @Test
+    void validate_ShouldSkipRulesThatDoNotApplyToTheType() {
+        // Given - range and date range on a TEXT parameter are ignored
+        ValidatorChain chain = ValidatorChain.compile(Parameter.requiredWithValidation(
+            "label", "Label", ParameterType.TEXT,
+            List.of(
+                ValidationRule.range(BigDecimal.ONE, BigDecimal.TEN, null),
+                ValidationRule.dateRange(LocalDate.of(2024, 1, 1), null, null)
+            )
+        ));
+        
+        // When / Then
+        assertThat(chain.validate("anything")).isEmpty();
+    }
+    
+    @Test
+    void validate_ShouldCheckDateRangeAcrossFormats() {
+        // Given
+        ValidatorChain chain = ValidatorChain.compile(Parameter.requiredWithValidation(
+            "start", "Start", ParameterType.DATE,
+            List.of(ValidationRule.dateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), null))
+        ));
+        
+        // When / Then
+        assertThat(chain.validate("06/15/2024")).isEmpty();
+        assertThat(chain.validate("2023-12-31")).containsExactly("Date must be on or after 2024-01-01");
+        assertThat(chain.validate("01/01/2025")).containsExactly("Date must be on or before 2024-12-31");
+    }
+    
+    @Test
+    void validate_ShouldSkipRulesForOptionalBlankValues() {
+        // Given
+        ValidatorChain chain = ValidatorChain.compile(Parameter.optionalWithValidation(
+            "notes", "Notes", ParameterType.TEXT, null,
+            List.of(ValidationRule.pattern("^[a-z]+$", "Lowercase only"))
+        ));
+        
+        // When / Then
+        assertThat(chain.validate("")).isEmpty();
+        assertThat(chain.validate(null)).isEmpty();
+        assertThat(chain.validate("UPPER")).containsExactly("Lowercase only");
+    }
+    
+    @Test
+    void compile_ShouldToleratePatternsThatFailToCompile() {
+        // Given
+        ValidatorChain chain = ValidatorChain.compile(Parameter.requiredWithValidation(
+            "field", "Field", ParameterType.TEXT, List.of(ValidationRule.pattern("(", null))
+        ));
+        
+        // When / Then
+        assertThat(chain.validate("value")).containsExactly("Invalid validation pattern configured");
+    }
+}
@@ -3,23 +3,37 @@ package dev.alsalman.agenticworkflowengine.workflow.controller;
 import dev.alsalman.agenticworkflowengine.template.domain.ExecutionResponse;
 import dev.alsalman.agenticworkflowengine.workflow.WorkflowController;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
+import dev.alsalman.agenticworkflowengine.workflow.domain.GoalProfile;
 import dev.alsalman.agenticworkflowengine.workflow.domain.GoalStatus;
 import dev.alsalman.agenticworkflowengine.workflow.domain.GoalSummary;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
 import dev.alsalman.agenticworkflowengine.workflow.domain.TaskStatus;
+import dev.alsalman.agenticworkflowengine.workflow.domain.UsageSummary;
 import dev.alsalman.agenticworkflowengine.workflow.WorkflowOrchestrator;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowExecutionProperties;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowExecutor;
 import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
+import dev.alsalman.agenticworkflowengine.workflow.service.GoalProfileService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +48,16 @@ class WorkflowControllerTest {
 
     @Mock
     private WorkflowPersistenceService persistenceService;
+    
+    @Mock
+    private WorkflowExecutor workflowExecutor;
+    
+    @Mock
+    private GoalProfileService profileService;
+    
+    @Spy
+    private WorkflowExecutionProperties executionProperties = new WorkflowExecutionProperties(
+        Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30));
 
     @InjectMocks
     private WorkflowController workflowController;
@@ -82,15 +106,9 @@ class WorkflowControllerTest {
         assertThat(response.getBody().goalId()).isEqualTo(testGoalId);
         assertThat(response.getBody().message()).isEqualTo("Workflow execution started");
         
-        // Verify goal was saved
+        // Verify goal was saved and its workflow handed to the executor
         verify(persistenceService).saveGoal(any(Goal.class));
-        
-        // Give some time for async execution to potentially start
-        try {
-            Thread.sleep(100);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        verify(workflowExecutor).submit(eq(testGoalId), any());
     }
 
     @Test
@@ -120,6 +138,22 @@ class WorkflowControllerTest {
         verify(persistenceService).findGoalById(testGoalId);
     }
 
+    @Test
+    void getGoal_ShouldIncludeLlmUsage() {
+        // Given
+        UsageSummary usage = new UsageSummary(3, 1200, 400, new BigDecimal("0.007000"),
+            Map.of("task execution", new BigDecimal("0.007000")));
+        when(persistenceService.findGoalById(testGoalId)).thenReturn(testGoal);
+        when(persistenceService.findUsageByGoalId(testGoalId)).thenReturn(usage);
+
+        // When
+        ResponseEntity<GoalSummary> response = workflowController.getGoal(testGoalId);
+
+        // Then
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().usage()).isEqualTo(usage);
+    }
+
     @Test
     void getGoal_ShouldReturnNotFound_WhenGoalDoesNotExist() {
         // Given
@@ -146,6 +180,33 @@ class WorkflowControllerTest {
         verify(persistenceService).findGoalById(testGoalId);
     }
 
+    @Test
+    void getGoalProfile_ShouldReturnProfile_WhenGoalExists() {
+        // Given
+        GoalProfile profile = new GoalProfile(testGoalId, GoalStatus.COMPLETED, false, Instant.now(), Instant.now(),
+            3000, 490, List.of(testTask.id()), 1800, Map.of("planning", 400L), List.of());
+        when(profileService.profile(testGoalId)).thenReturn(profile);
+
+        // When
+        ResponseEntity<GoalProfile> response = workflowController.getGoalProfile(testGoalId);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(profile);
+    }
+
+    @Test
+    void getGoalProfile_ShouldReturnNotFound_WhenGoalDoesNotExist() {
+        // Given
+        when(profileService.profile(testGoalId)).thenReturn(null);
+
+        // When
+        ResponseEntity<GoalProfile> response = workflowController.getGoalProfile(testGoalId);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
     @Test
     void getGoalTasks_ShouldReturnTasks() {
         // Given
@@ -161,6 +222,22 @@ class WorkflowControllerTest {
         verify(persistenceService).findTasksByGoalId(testGoalId);
     }
 
+    @Test
+    void getSubGoals_ShouldReturnChildGoalsWithTheirParent() {
+        // Given
+        Goal subGoal = new Goal(UUID.randomUUID(), "Research the market", List.of(), "Market summary",
+            GoalStatus.COMPLETED, Instant.now(), Instant.now(), testGoalId);
+        when(persistenceService.findSubGoals(testGoalId)).thenReturn(List.of(subGoal));
+
+        // When
+        ResponseEntity<List<GoalSummary>> response = workflowController.getSubGoals(testGoalId);
+
+        // Then
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody()).containsExactly(GoalSummary.from(subGoal));
+        assertThat(response.getBody().getFirst().parentGoalId()).isEqualTo(testGoalId);
+    }
+
     @Test
     void getGoalTasks_ShouldHandleException() {
         // Given
@@ -173,4 +250,57 @@ class WorkflowControllerTest {
         assertThat(response.getStatusCode().is5xxServerError()).isTrue();
         verify(persistenceService).findTasksByGoalId(testGoalId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void awaitGoal_ShouldReturnGoalImmediately_WhenWorkflowIsNotRunning() {
+        // Given
+        when(workflowExecutor.find(testGoalId)).thenReturn(Optional.empty());
+        when(persistenceService.findGoalById(testGoalId)).thenReturn(testGoal);
+
+        // When
+        DeferredResult<ResponseEntity<GoalSummary>> deferred = workflowController.awaitGoal(testGoalId, null);
+
+        // Then
+        assertThat(deferred.hasResult()).isTrue();
+        @SuppressWarnings("unchecked")
+        ResponseEntity<GoalSummary> response = (ResponseEntity<GoalSummary>) deferred.getResult();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(GoalSummary.from(testGoal));
+    }
+
+    @Test
+    void awaitGoal_ShouldCompleteWhenRunningWorkflowFinishes() {
+        // Given
+        CompletableFuture<WorkflowResult> completion = new CompletableFuture<>();
+        when(workflowExecutor.find(testGoalId)).thenReturn(Optional.of(completion));
+        when(persistenceService.findGoalById(testGoalId)).thenReturn(testGoal);
+
+        // When
+        DeferredResult<ResponseEntity<GoalSummary>> deferred = workflowController.awaitGoal(testGoalId, 60L);
+        boolean resultBeforeCompletion = deferred.hasResult();
+        completion.complete(WorkflowResult.success(testGoal, Instant.now()));
+
+        // Then
+        assertThat(resultBeforeCompletion).isFalse();
+        assertThat(deferred.hasResult()).isTrue();
+        @SuppressWarnings("unchecked")
+        ResponseEntity<GoalSummary> response = (ResponseEntity<GoalSummary>) deferred.getResult();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().status()).isEqualTo(GoalStatus.COMPLETED);
+    }
+
+    @Test
+    void awaitGoal_ShouldReturnNotFound_WhenGoalDoesNotExist() {
+        // Given
+        when(workflowExecutor.find(testGoalId)).thenReturn(Optional.empty());
+        when(persistenceService.findGoalById(testGoalId)).thenReturn(null);
+
+        // When
+        DeferredResult<ResponseEntity<GoalSummary>> deferred = workflowController.awaitGoal(testGoalId, null);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ResponseEntity<GoalSummary> response = (ResponseEntity<GoalSummary>) deferred.getResult();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,142 @@
+package dev.alsalman.agenticworkflowengine.workflow.service;
+
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
+import dev.alsalman.agenticworkflowengine.workflow.domain.GoalProfile;
+import dev.alsalman.agenticworkflowengine.workflow.domain.GoalStatus;
+import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GoalProfileServiceTest {
+    
+    private static final Instant T0 = Instant.parse("2025-01-01T10:00:00Z");
+    
+    @Mock
+    private WorkflowPersistenceService persistenceService;
+    
+    @Mock
+    private WorkflowProfiler profiler;
+    
+    @InjectMocks
+    private GoalProfileService profileService;
+    
+    private UUID goalId;
+    private Task research, venues, booking;
+    
+    @BeforeEach
+    void setUp() {
+        goalId = UUID.randomUUID();
+        research = Task.create("Research the city");
+        venues = Task.create("Shortlist venues");
+        booking = Task.create("Book the venue", List.of(research.id(), venues.id()), List.of());
+        
+        Goal goal = new Goal(goalId, "Plan an offsite", List.of(), "Done", GoalStatus.COMPLETED, T0, at(3000));
+        lenient().when(persistenceService.findGoalById(goalId)).thenReturn(goal);
+        lenient().when(persistenceService.findTasksByGoalId(goalId)).thenReturn(List.of(research, venues, booking));
+    }
+    
+    @Test
+    void profile_ShouldBreakDownTaskTimesAndCriticalPath() {
+        // Given - two roots in one wave, the slower one gating the booking task
+        when(profiler.runningEvents(goalId)).thenReturn(null); // Finished
+        when(persistenceService.findWorkflowEvents(goalId)).thenReturn(List.of(
+            event(null, WorkflowMetrics.STAGE_PLANNING, 0, 400),
+            event(research.id(), WorkflowProfiler.QUEUED, 500, 510),
+            event(venues.id(), WorkflowProfiler.QUEUED, 500, 510),
+            event(research.id(), WorkflowProfiler.EXECUTION, 520, 1020),
+            event(research.id(), WorkflowProfiler.LLM_CALL, 540, 1000),
+            event(venues.id(), WorkflowProfiler.EXECUTION, 520, 1520),
+            event(venues.id(), WorkflowProfiler.LLM_CALL, 530, 1500),
+            event(research.id(), WorkflowMetrics.STAGE_PERSISTENCE, 1530, 1550),
+            event(research.id(), WorkflowMetrics.STAGE_REVIEW, 1550, 1750),
+            event(research.id(), WorkflowProfiler.LLM_CALL, 1560, 1740), // Plan review call
+            event(venues.id(), WorkflowMetrics.STAGE_PERSISTENCE, 1750, 1770),
+            event(venues.id(), WorkflowMetrics.STAGE_REVIEW, 1770, 1970),
+            event(booking.id(), WorkflowProfiler.QUEUED, 1520, 1980),
+            event(booking.id(), WorkflowProfiler.EXECUTION, 1990, 2790),
+            event(booking.id(), WorkflowProfiler.LLM_CALL, 2000, 2780),
+            event(null, WorkflowMetrics.STAGE_SUMMARY, 2800, 3000)
+        ));
+        
+        // When
+        GoalProfile profile = profileService.profile(goalId);
+        
+        // Then
+        assertThat(profile.running()).isFalse();
+        assertThat(profile.wallClockMs()).isEqualTo(3000);
+        assertThat(profile.criticalPath()).containsExactly(venues.id(), booking.id());
+        assertThat(profile.criticalPathMs()).isEqualTo(1800);
+        // 500-520 before the wave, 1520-1990 between the waves
+        assertThat(profile.schedulerIdleMs()).isEqualTo(490);
+        assertThat(profile.totalMsByType()).containsEntry(WorkflowMetrics.STAGE_PLANNING, 400L);
+        
+        GoalProfile.TaskTimeline researchTimeline = profile.tasks().get(0);
+        assertThat(researchTimeline.llmMs()).isEqualTo(460);
+        assertThat(researchTimeline.llmCalls()).isEqualTo(1);
+        assertThat(researchTimeline.llmWaitMs()).isEqualTo(50); // 510 dispatched, 1020 done, 460 in the call
+        assertThat(researchTimeline.reviewMs()).isEqualTo(200);
+        assertThat(researchTimeline.persistenceMs()).isEqualTo(20);
+        assertThat(researchTimeline.onCriticalPath()).isFalse();
+        
+        GoalProfile.TaskTimeline bookingTimeline = profile.tasks().get(2);
+        assertThat(bookingTimeline.readyAt()).isEqualTo(at(1520));
+        assertThat(bookingTimeline.dispatchedAt()).isEqualTo(at(1980));
+        assertThat(bookingTimeline.queuedMs()).isEqualTo(460);
+        assertThat(bookingTimeline.onCriticalPath()).isTrue();
+    }
+    
+    @Test
+    void profile_ShouldUseInMemoryEvents_WhenGoalIsRunning() {
+        // Given
+        when(profiler.runningEvents(goalId)).thenReturn(List.of(
+            event(null, WorkflowMetrics.STAGE_PLANNING, 0, 400),
+            event(research.id(), WorkflowProfiler.QUEUED, 500, 510)
+        ));
+        
+        // When
+        GoalProfile profile = profileService.profile(goalId);
+        
+        // Then
+        assertThat(profile.running()).isTrue();
+        assertThat(profile.criticalPath()).isEmpty();
+        assertThat(profile.tasks().get(0).readyAt()).isEqualTo(at(500));
+        verify(persistenceService, never()).findWorkflowEvents(goalId);
+    }
+    
+    @Test
+    void profile_ShouldReturnNull_WhenGoalDoesNotExist() {
+        // Given
+        UUID unknown = UUID.randomUUID();
+        when(persistenceService.findGoalById(unknown)).thenReturn(null);
+        
+        // When / Then
+        assertThat(profileService.profile(unknown)).isNull();
+    }
+    
+    private WorkflowEvent event(UUID taskId, String type, long startMs, long endMs) {
+        return WorkflowEvent.of(goalId, taskId, type, at(startMs), at(endMs));
+    }
+    
+    private static Instant at(long ms) {
+        return T0.plusMillis(ms);
+    }
+}
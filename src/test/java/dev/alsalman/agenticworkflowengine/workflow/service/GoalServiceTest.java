@@ -6,6 +6,7 @@ import dev.alsalman.agenticworkflowengine.workflow.domain.GoalStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -94,6 +95,44 @@ class GoalServiceTest {
         verify(persistenceService).saveGoal(any(Goal.class));
     }
 
+    @Test
+    void createSubGoal_ShouldSaveGoalLinkedToItsParent() {
+        // Given
+        UUID subGoalId = UUID.randomUUID();
+        when(persistenceService.saveGoal(any(Goal.class))).thenAnswer(invocation -> {
+            Goal goal = invocation.getArgument(0);
+            return new Goal(subGoalId, goal.query(), goal.tasks(), goal.summary(), goal.status(),
+                goal.createdAt(), goal.completedAt(), goal.parentGoalId());
+        });
+
+        // When
+        Goal result = goalService.createSubGoal("Research the market", testGoalId);
+
+        // Then
+        assertThat(result.id()).isEqualTo(subGoalId);
+        ArgumentCaptor<Goal> saved = ArgumentCaptor.forClass(Goal.class);
+        verify(persistenceService).saveGoal(saved.capture());
+        assertThat(saved.getValue().id()).isNull();
+        assertThat(saved.getValue().query()).isEqualTo("Research the market");
+        assertThat(saved.getValue().parentGoalId()).isEqualTo(testGoalId);
+        assertThat(saved.getValue().status()).isEqualTo(GoalStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void markGoalAsFailed_ShouldKeepParentGoal() {
+        // Given
+        Goal subGoal = new Goal(UUID.randomUUID(), "Research the market", List.of(), null, GoalStatus.IN_PROGRESS,
+            Instant.now(), null, testGoalId);
+        when(persistenceService.saveGoal(any(Goal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Goal result = goalService.markGoalAsFailed(subGoal, "Test error");
+
+        // Then
+        assertThat(result.status()).isEqualTo(GoalStatus.FAILED);
+        assertThat(result.parentGoalId()).isEqualTo(testGoalId);
+    }
+
     @Test
     void markGoalAsFailed_ShouldUpdateGoalStatusAndSave() {
         // Given
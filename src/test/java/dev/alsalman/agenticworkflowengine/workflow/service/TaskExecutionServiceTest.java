@@ -23,7 +23,26 @@ import dev.alsalman.agenticworkflowengine.workflow.service.TaskExecutionService;
 import dev.alsalman.agenticworkflowengine.workflow.service.TaskExecutionService;import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;import static org.mockito.Mockito.verify;
 import dev.alsalman.agenticworkflowengine.workflow.service.TaskExecutionService;import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;import static org.mockito.Mockito.when;
 import dev.alsalman.agenticworkflowengine.workflow.service.TaskExecutionService;import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;
-import dev.alsalman.agenticworkflowengine.workflow.service.TaskExecutionService;@ExtendWith(MockitoExtension.class)
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowTracing;
+import dev.alsalman.agenticworkflowengine.planning.PlanningProperties;
+import dev.alsalman.agenticworkflowengine.workflow.WorkflowOrchestrator;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.mockito.Spy;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
 class TaskExecutionServiceTest {
 
     @Mock
@@ -31,6 +50,23 @@ class TaskExecutionServiceTest {
     
     @Mock
     private DependencyResolver dependencyResolver;
+    
+    private final SimpleTracer tracer = new SimpleTracer();
+    
+    @Spy
+    private WorkflowTracing tracing = new WorkflowTracing(tracer);
+    
+    @Spy
+    private WorkflowProfiler profiler = new WorkflowProfiler(mock(WorkflowPersistenceService.class));
+    
+    @Spy
+    private PlanningProperties planningProperties = new PlanningProperties(3, 3, null, true, 2);
+    
+    @Mock
+    private ObjectProvider<WorkflowOrchestrator> orchestratorProvider;
+    
+    @Mock
+    private WorkflowOrchestrator orchestrator;
 
     @InjectMocks
     private TaskExecutionService taskExecutionService;
@@ -141,6 +177,34 @@ class TaskExecutionServiceTest {
         verify(taskAgent, times(1)).executeTask(eq(testTask3), eq(userQuery), eq(completedTasks));
     }
 
+    @Test
+    void executeTasksInParallel_ShouldTraceEachForkUnderTheWaveSpan() {
+        // Given
+        List<Task> executableTasks = List.of(testTask1, testTask2);
+        List<Task> completedTasks = List.of();
+        when(taskAgent.executeTask(any(Task.class), eq(userQuery), eq(completedTasks)))
+            .thenAnswer(invocation -> invocation.<Task>getArgument(0).withResult("done"));
+        Span wave = tracer.nextSpan().name("workflow.wave").start();
+        
+        // When
+        try (Tracer.SpanInScope scope = tracer.withSpan(wave)) {
+            taskExecutionService.executeTasksInParallel(executableTasks, userQuery, completedTasks);
+        } finally {
+            wave.end();
+        }
+        
+        // Then
+        List<SimpleSpan> taskSpans = tracer.getSpans().stream()
+            .filter(span -> span.getName().equals("workflow.task"))
+            .toList();
+        assertThat(taskSpans).hasSize(2);
+        assertThat(taskSpans).allSatisfy(span -> {
+            assertThat(span.getParentId()).isEqualTo(wave.context().spanId());
+            assertThat(span.getTraceId()).isEqualTo(wave.context().traceId());
+            assertThat(span.getTags()).containsEntry("workflow.task_status", "COMPLETED");
+        });
+    }
+
     @Test
     void executeTasksInParallel_WithEmptyTaskList_ShouldReturnEmptyList() {
         // Given
@@ -258,4 +322,60 @@ class TaskExecutionServiceTest {
         assertThat(result.get(0).status()).isEqualTo(TaskStatus.FAILED);
         assertThat(result.get(0).result()).isNull();
     }
+
+    @Test
+    void executeTasksInParallel_ShouldBindGoalAndTaskIdsForEachFork() {
+        // Given
+        UUID goalId = UUID.randomUUID();
+        List<Task> executableTasks = List.of(testTask1, testTask2);
+        Map<UUID, UUID> goalByTask = new ConcurrentHashMap<>();
+        when(taskAgent.executeTask(any(Task.class), eq(userQuery), any())).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            assertThat(WorkflowContext.taskId()).isEqualTo(task.id());
+            goalByTask.put(WorkflowContext.taskId(), WorkflowContext.goalId());
+            return task.withResult("done");
+        });
+
+        // When
+        WorkflowContext.callWithGoal(goalId,
+            () -> taskExecutionService.executeTasksInParallel(executableTasks, userQuery, List.of()));
+
+        // Then
+        assertThat(goalByTask).containsOnlyKeys(testTask1.id(), testTask2.id());
+        assertThat(goalByTask.values()).containsOnly(goalId);
+        assertThat(profiler.runningEvents(goalId))
+            .filteredOn(event -> event.type().equals(WorkflowProfiler.EXECUTION))
+            .extracting(event -> event.taskId())
+            .containsExactlyInAnyOrder(testTask1.id(), testTask2.id());
+    }
+
+    @Test
+    void executeTasksInParallel_WithSubGoalTask_ShouldRunItAsGoal() {
+        // Given
+        Task subGoal = Task.createSubGoal("Research the market");
+        when(orchestratorProvider.getObject()).thenReturn(orchestrator);
+        when(orchestrator.executeSubGoal(subGoal, userQuery, List.of())).thenReturn(subGoal.withResult("Market summary"));
+
+        // When
+        List<Task> result = taskExecutionService.executeTasksInParallel(List.of(subGoal), userQuery, List.of());
+
+        // Then
+        assertThat(result).extracting(Task::result).containsExactly("Market summary");
+        verifyNoInteractions(taskAgent);
+    }
+
+    @Test
+    void executeTasksInParallel_WithSubGoalTaskAtDeepestLevel_ShouldExecuteItAsTask() {
+        // Given
+        Task subGoal = Task.createSubGoal("Research the market");
+        when(taskAgent.executeTask(eq(subGoal), eq(userQuery), eq(List.of()))).thenReturn(subGoal.withResult("done"));
+
+        // When
+        List<Task> result = WorkflowContext.callWithSubGoal(UUID.randomUUID(), () -> WorkflowContext.callWithSubGoal(
+            UUID.randomUUID(), () -> taskExecutionService.executeTasksInParallel(List.of(subGoal), userQuery, List.of())));
+
+        // Then
+        assertThat(result).extracting(Task::result).containsExactly("done");
+        verifyNoInteractions(orchestratorProvider);
+    }
 }
\ No newline at end of file
@@ -1,10 +1,17 @@
 package dev.alsalman.agenticworkflowengine.workflow.service;
 
 import dev.alsalman.agenticworkflowengine.execution.GoalAgent;
+import dev.alsalman.agenticworkflowengine.execution.TaskAgent;
 import dev.alsalman.agenticworkflowengine.execution.TaskDependencyResolver;
 import dev.alsalman.agenticworkflowengine.execution.TaskPersistenceService;
 import dev.alsalman.agenticworkflowengine.execution.TaskPreparationService;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowContext;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowMetrics;
 import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowPersistenceService;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowProfiler;
+import dev.alsalman.agenticworkflowengine.infrastructure.WorkflowTracing;
+import dev.alsalman.agenticworkflowengine.planning.DependencyResolver;
+import dev.alsalman.agenticworkflowengine.planning.PlanningProperties;
 import dev.alsalman.agenticworkflowengine.planning.domain.TaskPlan;
 import dev.alsalman.agenticworkflowengine.planning.PlanReviewService;
 import dev.alsalman.agenticworkflowengine.planning.TaskPlanService;
@@ -13,25 +20,34 @@ import dev.alsalman.agenticworkflowengine.workflow.domain.Goal;
 import dev.alsalman.agenticworkflowengine.workflow.domain.GoalStatus;
 import dev.alsalman.agenticworkflowengine.workflow.domain.Task;
 import dev.alsalman.agenticworkflowengine.workflow.domain.TaskStatus;
+import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowEvent;
 import dev.alsalman.agenticworkflowengine.workflow.domain.WorkflowResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -67,6 +83,19 @@ class WorkflowOrchestratorTest {
     
     @Mock
     private WorkflowSummaryService summaryService;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Spy
+    private WorkflowMetrics metrics = new WorkflowMetrics(meterRegistry);
+    
+    @Spy
+    private WorkflowTracing tracing = new WorkflowTracing(Tracer.NOOP);
+    
+    private final WorkflowPersistenceService profilePersistence = mock(WorkflowPersistenceService.class);
+    
+    @Spy
+    private WorkflowProfiler profiler = new WorkflowProfiler(profilePersistence);
 
     @InjectMocks
     private WorkflowOrchestrator workflowOrchestrator;
@@ -170,6 +199,29 @@ class WorkflowOrchestratorTest {
         verify(planReviewService, atLeast(2)).updateTaskInList(anyList(), any(Task.class), eq(testGoalId));
         verify(planReviewService, atLeast(2)).handlePlanReview(anyList(), any(Task.class), eq(testGoalId));
         verify(summaryService).summarizeWorkflow(any(Goal.class), anyList());
+        
+        assertThat(meterRegistry.get("workflow.goals").tag("outcome", "completed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("workflow.stage").tag("stage", "wave").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("workflow.wave.width").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("workflow.goals.active").gauge().value()).isZero();
+        assertThat(meterRegistry.get("workflow.tasks.queued").gauge().value()).isZero();
+        assertThat(meterRegistry.get("workflow.tasks.running").gauge().value()).isZero();
+        
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkflowEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(profilePersistence).saveWorkflowEvents(events.capture());
+        assertThat(events.getValue()).allMatch(event -> event.goalId().equals(testGoalId));
+        assertThat(events.getValue())
+            .filteredOn(event -> event.type().equals(WorkflowProfiler.QUEUED))
+            .extracting(WorkflowEvent::taskId)
+            .containsExactlyInAnyOrder(testTask1.id(), testTask2.id());
+        assertThat(events.getValue())
+            .filteredOn(event -> event.type().equals(WorkflowMetrics.STAGE_REVIEW))
+            .extracting(WorkflowEvent::taskId)
+            .containsExactlyInAnyOrder(testTask1.id(), testTask2.id());
+        assertThat(events.getValue()).extracting(WorkflowEvent::type)
+            .contains(WorkflowMetrics.STAGE_PLANNING, WorkflowMetrics.STAGE_WAVE, WorkflowMetrics.STAGE_SUMMARY);
+        assertThat(profiler.runningEvents(testGoalId)).isNull();
     }
 
     @Test
@@ -342,4 +394,138 @@ class WorkflowOrchestratorTest {
         assertThat(result.success()).isFalse();
         verify(goalService, atLeast(1)).initializeGoal(userQuery, testGoalId);
     }
+
+    @Test
+    void executeWorkflow_WithPlannedTasks_ShouldSkipPlanning() {
+        // Given
+        String userQuery = "Test query";
+        TaskPlan plannedTasks = TaskPlan.of(List.of(testTask1, testTask2), List.of());
+        
+        when(goalService.initializeGoal(userQuery, testGoalId)).thenReturn(testGoal);
+        when(taskPersistenceService.persistTaskPlan(plannedTasks, testGoalId))
+            .thenThrow(new RuntimeException("Database error"));
+        when(goalService.markGoalAsFailed(any(Goal.class), anyString())).thenAnswer(invocation -> {
+            Goal goal = invocation.getArgument(0);
+            return new Goal(goal.id(), goal.query(), goal.tasks(), "Workflow failed: Database error", GoalStatus.FAILED, goal.createdAt(), Instant.now());
+        });
+
+        // When
+        WorkflowResult result = workflowOrchestrator.executeWorkflow(userQuery, testGoalId, plannedTasks);
+
+        // Then
+        assertThat(result.success()).isFalse();
+        verify(taskPersistenceService).persistTaskPlan(plannedTasks, testGoalId);
+        verify(taskPlanService, never()).createTaskPlan(anyString());
+    }
+
+    @Test
+    void executeSubGoal_ShouldPlanAndRunItAsChildGoal_WithParentResultsAsContext() {
+        // Given
+        Task subGoalTask = Task.createSubGoal("Research the market");
+        Task parentResult = testTask1.withResult("Company registered");
+        UUID subGoalId = UUID.randomUUID();
+        Goal subGoal = new Goal(subGoalId, "Research the market", List.of(), null, GoalStatus.IN_PROGRESS,
+            Instant.now(), null, testGoalId);
+        
+        when(goalService.createSubGoal("Research the market", testGoalId)).thenReturn(subGoal);
+        when(taskPlanService.createSubGoalPlan("Research the market", "Launch a product line", 1))
+            .thenReturn(TaskPlan.of(List.of(testTask2)));
+        when(taskPersistenceService.persistTaskPlan(any(TaskPlan.class), eq(subGoalId))).thenReturn(List.of(testTask2));
+        when(taskPreparationService.prepareTasks(anyList())).thenReturn(List.of(testTask2));
+        when(taskExecutionService.getExecutableTasks(anyList())).thenReturn(List.of(testTask2));
+        when(taskExecutionService.executeTasksInParallel(List.of(testTask2), "Research the market", List.of(parentResult)))
+            .thenAnswer(invocation -> {
+                assertThat(WorkflowContext.goalId()).isEqualTo(subGoalId);
+                assertThat(WorkflowContext.subGoalDepth()).isEqualTo(1);
+                return List.of(testTask2.withResult("Survey done"));
+            });
+        when(planReviewService.updateTaskInList(anyList(), any(Task.class), eq(subGoalId))).thenReturn(List.of());
+        when(planReviewService.handlePlanReview(anyList(), any(Task.class), eq(subGoalId))).thenReturn(List.of());
+        when(summaryService.summarizeWorkflow(eq(subGoal), anyList())).thenReturn(subGoal.withSummary("Market summary"));
+
+        // When
+        Task result = WorkflowContext.callWithGoal(testGoalId,
+            () -> workflowOrchestrator.executeSubGoal(subGoalTask, "Launch a product line", List.of(parentResult)));
+
+        // Then
+        assertThat(result.id()).isEqualTo(subGoalTask.id());
+        assertThat(result.status()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(result.result()).isEqualTo("Market summary");
+        ArgumentCaptor<List<Task>> summarized = ArgumentCaptor.forClass(List.class);
+        verify(summaryService).summarizeWorkflow(eq(subGoal), summarized.capture());
+        assertThat(summarized.getValue()).extracting(Task::result).containsExactly("Survey done");
+    }
+
+    @Test
+    void executeSubGoal_WhenPlanningFails_ShouldMarkSubGoalAndTaskFailed() {
+        // Given
+        Task subGoalTask = Task.createSubGoal("Research the market");
+        Goal subGoal = new Goal(UUID.randomUUID(), "Research the market", List.of(), null, GoalStatus.IN_PROGRESS,
+            Instant.now(), null, testGoalId);
+        when(goalService.createSubGoal("Research the market", testGoalId)).thenReturn(subGoal);
+        when(taskPlanService.createSubGoalPlan(anyString(), anyString(), eq(1)))
+            .thenThrow(new IllegalArgumentException("The plan has no tasks"));
+
+        // When
+        Task result = WorkflowContext.callWithGoal(testGoalId,
+            () -> workflowOrchestrator.executeSubGoal(subGoalTask, "Launch a product line", List.of()));
+        
+        // Then
+        assertThat(result.id()).isEqualTo(subGoalTask.id());
+        assertThat(result.status()).isEqualTo(TaskStatus.FAILED);
+        assertThat(result.result()).isEqualTo("Sub-goal failed: The plan has no tasks");
+        verify(goalService).markGoalAsFailed(subGoal, "The plan has no tasks");
+        verify(taskExecutionService, never()).executeTasksInParallel(anyList(), anyString(), anyList());
+    }
+
+    @Test
+    void executeWorkflow_WhenSubGoalFails_ShouldKeepRunningSiblingsAndParentGoal() {
+        // Given - the wave runs on a real scheduler, which hands the sub-goal back to the orchestrator
+        String userQuery = "Launch a product line";
+        Task subGoalTask = Task.createSubGoal("Research the market");
+        Goal subGoal = new Goal(UUID.randomUUID(), "Research the market", List.of(), null, GoalStatus.IN_PROGRESS,
+            Instant.now(), null, testGoalId);
+        TaskAgent taskAgent = mock(TaskAgent.class);
+        ObjectProvider<WorkflowOrchestrator> orchestratorProvider = mock(ObjectProvider.class);
+        TaskExecutionService scheduler = new TaskExecutionService(taskAgent, new DependencyResolver(), tracing,
+            profiler, new PlanningProperties(3, 3, null, true, 2), orchestratorProvider);
+        WorkflowOrchestrator orchestrator = new WorkflowOrchestrator(goalService, taskPlanService,
+            taskPersistenceService, taskPreparationService, scheduler, planReviewService, summaryService,
+            metrics, tracing, profiler);
+        when(orchestratorProvider.getObject()).thenReturn(orchestrator);
+        
+        TaskPlan plan = TaskPlan.of(List.of(subGoalTask, testTask1), List.of());
+        when(goalService.initializeGoal(userQuery, testGoalId)).thenReturn(testGoal);
+        when(taskPersistenceService.persistTaskPlan(plan, testGoalId)).thenReturn(List.of(subGoalTask, testTask1));
+        when(taskPreparationService.prepareTasks(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskAgent.executeTask(eq(testTask1), eq(userQuery), anyList()))
+            .thenReturn(testTask1.withResult("Company registered"));
+        when(goalService.createSubGoal("Research the market", testGoalId)).thenReturn(subGoal);
+        when(taskPlanService.createSubGoalPlan("Research the market", userQuery, 1))
+            .thenThrow(new IllegalArgumentException("The plan has no tasks"));
+        when(planReviewService.updateTaskInList(anyList(), any(Task.class), eq(testGoalId)))
+            .thenAnswer(invocation -> {
+                List<Task> tasks = invocation.getArgument(0);
+                Task executedTask = invocation.getArgument(1);
+                return tasks.stream().filter(task -> !task.id().equals(executedTask.id())).toList();
+            });
+        when(planReviewService.handlePlanReview(anyList(), any(Task.class), eq(testGoalId)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(summaryService.summarizeWorkflow(eq(testGoal), anyList())).thenReturn(testGoal.withSummary("Done"));
+
+        // When
+        WorkflowResult result = orchestrator.executeWorkflow(userQuery, testGoalId, plan);
+
+        // Then
+        assertThat(result.success()).isTrue();
+        verify(goalService).markGoalAsFailed(subGoal, "The plan has no tasks");
+        verify(goalService, never()).markGoalAsFailed(eq(testGoal), anyString());
+        ArgumentCaptor<List<Task>> summarized = ArgumentCaptor.forClass(List.class);
+        verify(summaryService).summarizeWorkflow(eq(testGoal), summarized.capture());
+        assertThat(summarized.getValue())
+            .extracting(Task::id, Task::status, Task::result)
+            .containsExactlyInAnyOrder(
+                tuple(subGoalTask.id(), TaskStatus.FAILED, "Sub-goal failed: The plan has no tasks"),
+                tuple(testTask1.id(), TaskStatus.COMPLETED, "Company registered"));
+    }
 }
\ No newline at end of file